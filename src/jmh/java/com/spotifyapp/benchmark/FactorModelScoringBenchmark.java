@@ -0,0 +1,84 @@
+package com.spotifyapp.benchmark;
+
+import com.spotifyapp.util.FactorModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-N scoring latency of a mapped factor model over a synthetic catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FactorModelScoringBenchmark {
+
+    private static final int USERS = 1_000;
+
+    @Param({"100000", "1000000"})
+    private int items;
+
+    @Param({"32", "64"})
+    private int factors;
+
+    private Path file;
+    private FactorModel model;
+    private int nextUser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(7);
+        long[] userIds = new long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = i + 1;
+        }
+        long[] itemIds = new long[items];
+        for (int i = 0; i < items; i++) {
+            itemIds[i] = i + 1;
+        }
+        float[] userFactors = randomFactors(random, USERS * factors);
+        float[] itemFactors = randomFactors(random, items * factors);
+
+        file = Files.createTempFile("factor-model-benchmark", ".bin");
+        FactorModel.write(file, userIds, itemIds, factors, userFactors, itemFactors);
+        model = FactorModel.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long[] recommendTop20() {
+        nextUser = nextUser % USERS + 1;
+        return model.recommend(nextUser, 20);
+    }
+
+    private static float[] randomFactors(Random random, int length) {
+        float[] values = new float[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (float) (random.nextGaussian() * 0.1);
+        }
+        return values;
+    }
+}
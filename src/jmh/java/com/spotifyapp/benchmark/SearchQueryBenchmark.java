@@ -0,0 +1,194 @@
+package com.spotifyapp.benchmark;
+
+import com.spotifyapp.config.PostgresSearchConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First-page latency of the LIKE scan behind {@code MusicRepository.searchMusic} against the
+ * ranked full-text and trigram query of {@code search.mode: database}, on a generated catalog
+ * in its own schema. Needs a PostgreSQL with pg_trgm available, given by BENCH_JDBC_URL,
+ * BENCH_JDBC_USER and BENCH_JDBC_PASSWORD:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.includes=SearchQuery}.
+ * The catalog is kept between runs and only regenerated when its size changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchQueryBenchmark {
+
+    private static final String SCHEMA = "search_bench";
+    private static final int PAGE_SIZE = 20;
+
+    // Spring Data runs the page query and then a count query
+    private static final String LIKE_PAGE = "SELECT m.id FROM music m JOIN users u ON u.id = m.artist_id " +
+            "WHERE m.is_deleted = false AND (lower(m.title) LIKE lower('%' || ? || '%') " +
+            "OR lower(u.username) LIKE lower('%' || ? || '%')) LIMIT " + PAGE_SIZE;
+    private static final String LIKE_COUNT = "SELECT count(m.id) FROM music m JOIN users u ON u.id = m.artist_id " +
+            "WHERE m.is_deleted = false AND (lower(m.title) LIKE lower('%' || ? || '%') " +
+            "OR lower(u.username) LIKE lower('%' || ? || '%'))";
+
+    // Same statement as MusicRepository.searchMusicRanked
+    private static final String RANKED = "SELECT m.id, count(*) OVER () FROM music m " +
+            "LEFT JOIN music_popularity p ON p.music_id = m.id " +
+            "WHERE m.is_deleted = false AND (m.search_vector @@ websearch_to_tsquery('simple', ?) " +
+            "OR lower(m.title) LIKE ? OR m.search_artist LIKE ?) " +
+            "ORDER BY ts_rank_cd(m.search_vector, websearch_to_tsquery('simple', ?)) " +
+            "+ similarity(lower(m.title), lower(?)) " +
+            "+ 0.1 * ln(1 + coalesce(p.plays, 0)) DESC, m.id " +
+            "LIMIT " + PAGE_SIZE;
+
+    @Param({"2000000", "5000000"})
+    private int tracks;
+
+    // A rare word, a common word, an artist name fragment and a two-word query
+    @Param({"zephyr", "love", "artist_12", "midnight river"})
+    private String query;
+
+    private Connection connection;
+    private PreparedStatement likePage;
+    private PreparedStatement likeCount;
+    private PreparedStatement ranked;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("BENCH_JDBC_URL", "jdbc:postgresql://localhost:5432/spotify_clone"),
+                env("BENCH_JDBC_USER", "postgres"),
+                env("BENCH_JDBC_PASSWORD", "postgres"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA + ", public");
+        }
+        if (catalogSize() != tracks) {
+            generateCatalog();
+        }
+
+        likePage = connection.prepareStatement(LIKE_PAGE);
+        likeCount = connection.prepareStatement(LIKE_COUNT);
+        ranked = connection.prepareStatement(RANKED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long likeScan() throws SQLException {
+        likePage.setString(1, query);
+        likePage.setString(2, query);
+        long sum = drain(likePage);
+        likeCount.setString(1, query);
+        likeCount.setString(2, query);
+        return sum + drain(likeCount);
+    }
+
+    @Benchmark
+    public long rankedSearch() throws SQLException {
+        String pattern = "%" + query.toLowerCase(Locale.ROOT).replace("_", "\\_") + "%";
+        ranked.setString(1, query);
+        ranked.setString(2, pattern);
+        ranked.setString(3, pattern);
+        ranked.setString(4, query);
+        ranked.setString(5, query);
+        return drain(ranked);
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+
+    private long drain(PreparedStatement statement) throws SQLException {
+        long sum = 0;
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                sum += rows.getLong(1);
+            }
+        }
+        return sum;
+    }
+
+    private long catalogSize() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT count(*) FROM information_schema.tables " +
+                     "WHERE table_schema = '" + SCHEMA + "' AND table_name = 'music'")) {
+            rows.next();
+            if (rows.getLong(1) == 0) {
+                return -1;
+            }
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT count(*) FROM music")) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private void generateCatalog() throws SQLException {
+        int artists = Math.max(tracks / 50, 1);
+        int albums = Math.max(tracks / 10, 1);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS listening_history, music, albums, users CASCADE");
+            statement.execute("DROP MATERIALIZED VIEW IF EXISTS music_popularity");
+            // Only the columns the search statements touch
+            statement.execute("CREATE TABLE users (id bigint PRIMARY KEY, username varchar(50) NOT NULL)");
+            statement.execute("CREATE TABLE albums (id bigint PRIMARY KEY, title varchar(200) NOT NULL)");
+            statement.execute("CREATE TABLE music (id bigint PRIMARY KEY, title varchar(200) NOT NULL, " +
+                    "artist_id bigint NOT NULL, album_id bigint, is_deleted boolean DEFAULT false)");
+            statement.execute("CREATE TABLE listening_history (id bigserial PRIMARY KEY, " +
+                    "music_id bigint NOT NULL, listened_at timestamp NOT NULL)");
+
+            String words = "ARRAY['love','night','midnight','river','heart','fire','dream','summer','blue','moon'," +
+                    "'rain','gold','city','wild','song','light','shadow','ocean','road','home','zephyr']";
+            // A skewed word pick: zephyr (the last word) is rare, love (the first) is common
+            String word = words + "[1 + floor(power(random(), 2) * 21)::int]";
+            statement.execute("INSERT INTO users SELECT g, 'artist_' || g FROM generate_series(1, " + artists + ") g");
+            statement.execute("INSERT INTO albums SELECT g, " + word + " || ' ' || " + word +
+                    " FROM generate_series(1, " + albums + ") g");
+            statement.execute("INSERT INTO music (id, title, artist_id, album_id) SELECT g, " +
+                    word + " || ' ' || " + word + " || ' ' || " + word + ", " +
+                    "1 + (g % " + artists + "), 1 + (g % " + albums + ") FROM generate_series(1, " + tracks + ") g");
+            statement.execute("INSERT INTO listening_history (music_id, listened_at) " +
+                    "SELECT 1 + floor(power(random(), 3) * " + tracks + ")::bigint, now() - random() * interval '60 days' " +
+                    "FROM generate_series(1, " + tracks + ")");
+        }
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+                new ClassPathResource(PostgresSearchConfig.SCHEMA_SCRIPT));
+        populator.setSeparator(PostgresSearchConfig.SCRIPT_SEPARATOR);
+        populator.populate(connection);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE users");
+            statement.execute("ANALYZE albums");
+            statement.execute("ANALYZE music");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.spotifyapp.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Search columns, triggers and indexes for {@code search.mode: database}. The schema is
+ * otherwise managed by Hibernate, which runs first so that the tables exist.
+ */
+@Configuration
+@ConditionalOnProperty(name = "search.mode", havingValue = "database")
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresSearchConfig {
+
+    public static final String SCHEMA_SCRIPT = "db/search-postgres.sql";
+    public static final String SCRIPT_SEPARATOR = ";;";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void installSearchSchema() {
+        long start = System.currentTimeMillis();
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource(SCHEMA_SCRIPT));
+        populator.setSeparator(SCRIPT_SEPARATOR);
+        populator.execute(dataSource);
+        log.info("Search schema installed in {} ms", System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedRateString = "${search.database.popularity-refresh-interval-ms:600000}",
+            initialDelayString = "${search.database.popularity-refresh-interval-ms:600000}")
+    public void refreshPopularity() {
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY music_popularity");
+    }
+}
@@ -1,12 +1,18 @@
 package com.spotifyapp.controller;
 
 import com.spotifyapp.dto.ApiResponse;
+import com.spotifyapp.dto.SliceResponse;
+import com.spotifyapp.dto.music.SearchCacheStats;
+import com.spotifyapp.dto.recommendation.ModelReport;
 import com.spotifyapp.dto.user.UpdateUserRequest;
 import com.spotifyapp.dto.user.UserResponse;
 import com.spotifyapp.model.enums.UserRole;
 import com.spotifyapp.model.enums.UserStatus;
 import com.spotifyapp.service.AlbumService;
+import com.spotifyapp.service.CatalogExportService;
+import com.spotifyapp.service.MatrixFactorizationService;
 import com.spotifyapp.service.MusicService;
+import com.spotifyapp.service.SearchResultCache;
 import com.spotifyapp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,9 +27,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -36,6 +48,9 @@ public class AdminController {
     private final UserService userService;
     private final MusicService musicService;
     private final AlbumService albumService;
+    private final MatrixFactorizationService matrixFactorizationService;
+    private final SearchResultCache searchResultCache;
+    private final CatalogExportService catalogExportService;
 
     // User Management
     @Operation(
@@ -53,6 +68,25 @@ public class AdminController {
         return ResponseEntity.ok(users);
     }
 
+    @Operation(
+            summary = "Scroll users",
+            description = "Cursor-paginated list of users, optionally filtered by status and role (ADMIN only)"
+    )
+    @GetMapping("/users/scroll")
+    public ResponseEntity<SliceResponse<UserResponse>> scrollUsers(
+            @Parameter(description = "User status", example = "ACTIVE")
+            @RequestParam(required = false) UserStatus status,
+            @Parameter(description = "User role", example = "ARTIST")
+            @RequestParam(required = false) UserRole role,
+            @Parameter(description = "nextCursor of the previous slice; omit for the first slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sort order: newest or username", example = "newest")
+            @RequestParam(defaultValue = "newest") String sort,
+            @Parameter(description = "Slice size (max 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userService.scrollUsers(status, role, cursor, sort, Math.min(Math.max(size, 1), 100)));
+    }
+
     @Operation(
             summary = "Get users by status",
             description = "Get paginated list of users filtered by status (ADMIN only)"
@@ -188,6 +222,19 @@ public class AdminController {
         return ResponseEntity.ok(new ApiResponse("Music deleted successfully"));
     }
 
+    @Operation(
+            summary = "Export catalog",
+            description = "Stream every track with its artist and album as NDJSON, oldest change first. " +
+                    "Pass updatedSince for an incremental sync, which also lists deleted tracks (ADMIN only)"
+    )
+    @GetMapping(value = "/music/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMusic(
+            @Parameter(description = "Only tracks updated at or after this time", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+        StreamingResponseBody body = out -> catalogExportService.exportMusic(updatedSince, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     // Album Management
     @Operation(
             summary = "Delete album (admin)",
@@ -199,4 +246,38 @@ public class AdminController {
         albumService.deleteAlbumByAdmin(id);
         return ResponseEntity.ok(new ApiResponse("Album deleted successfully"));
     }
-}
\ No newline at end of file
+
+    // Recommendation Model
+    @Operation(
+            summary = "Train recommendation model",
+            description = "Retrain the collaborative-filtering model now instead of waiting for the nightly run. " +
+                    "Returns 409 while another training run is in progress (ADMIN only)"
+    )
+    @PostMapping("/recommendations/model/train")
+    public ResponseEntity<ApiResponse> trainRecommendationModel() {
+        if (!matrixFactorizationService.trainModel()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse("Recommendation model training is already running"));
+        }
+        return ResponseEntity.ok(new ApiResponse("Recommendation model trained successfully"));
+    }
+
+    @Operation(
+            summary = "Evaluate recommendation model",
+            description = "Offline hit rate and scoring latency report on held-out listens (ADMIN only)"
+    )
+    @PostMapping("/recommendations/model/evaluate")
+    public ResponseEntity<ModelReport> evaluateRecommendationModel() {
+        return ResponseEntity.ok(matrixFactorizationService.evaluateModel());
+    }
+
+    // Search
+    @Operation(
+            summary = "Search cache statistics",
+            description = "Hit rate, size and catalog generation of the search result cache since startup (ADMIN only)"
+    )
+    @GetMapping("/search/cache-stats")
+    public ResponseEntity<SearchCacheStats> getSearchCacheStats() {
+        return ResponseEntity.ok(searchResultCache.getStats());
+    }
+}
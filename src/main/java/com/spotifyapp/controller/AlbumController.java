@@ -1,6 +1,7 @@
 package com.spotifyapp.controller;
 
 import com.spotifyapp.dto.ApiResponse;
+import com.spotifyapp.dto.SliceResponse;
 import com.spotifyapp.dto.album.AlbumRequest;
 import com.spotifyapp.dto.album.AlbumResponse;
 import com.spotifyapp.security.UserDetailsImpl;
@@ -122,6 +123,21 @@ public class AlbumController {
         return ResponseEntity.ok(albums);
     }
 
+    @Operation(
+            summary = "Scroll albums",
+            description = "Cursor-paginated list of albums. Pass the nextCursor of a slice to get the next one."
+    )
+    @GetMapping("/scroll")
+    public ResponseEntity<SliceResponse<AlbumResponse>> scrollAlbums(
+            @Parameter(description = "nextCursor of the previous slice; omit for the first slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sort order: newest or title", example = "newest")
+            @RequestParam(defaultValue = "newest") String sort,
+            @Parameter(description = "Slice size (max 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(albumService.scrollAlbums(cursor, sort, Math.min(Math.max(size, 1), 100)));
+    }
+
     @Operation(
             summary = "Get albums by artist",
             description = "Get all albums by specific artist"
@@ -1,10 +1,15 @@
 package com.spotifyapp.controller;
 
 import com.spotifyapp.dto.ApiResponse;
+import com.spotifyapp.dto.SliceResponse;
+import com.spotifyapp.dto.music.FacetedSearchResponse;
 import com.spotifyapp.dto.music.MusicRequest;
 import com.spotifyapp.dto.music.MusicResponse;
+import com.spotifyapp.dto.music.SuggestionResponse;
+import com.spotifyapp.model.enums.Genre;
 import com.spotifyapp.security.UserDetailsImpl;
 import com.spotifyapp.service.MusicService;
+import com.spotifyapp.service.TypeaheadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -23,6 +28,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/music")
 @RequiredArgsConstructor
@@ -31,6 +38,7 @@ import org.springframework.web.bind.annotation.*;
 public class MusicController {
 
     private final MusicService musicService;
+    private final TypeaheadService typeaheadService;
 
     @Operation(
             summary = "Upload new music",
@@ -95,9 +103,35 @@ public class MusicController {
         return ResponseEntity.ok(music);
     }
 
+    @Operation(
+            summary = "Get similar music",
+            description = "Tracks that tend to be listened to by the same people, most similar first. " +
+                    "Empty until the recommendation model has seen the track."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Similar tracks"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Music not found"
+            )
+    })
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<MusicResponse>> getSimilarMusic(
+            @Parameter(description = "Music ID", example = "1") @PathVariable Long id,
+            @Parameter(description = "Number of tracks", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        List<MusicResponse> similar = musicService.getSimilarMusic(id, Math.min(Math.max(limit, 1), 50));
+        return ResponseEntity.ok(similar);
+    }
+
     @Operation(
             summary = "Search music",
-            description = "Search music by title or artist name. Supports partial matching."
+            description = "Search music by title or artist name. Supports partial matching. " +
+                    "Results are ranked: exact title, title prefix, title word, anywhere in the title, then artist name. " +
+                    "Tracks matching a spelling-corrected query (e.g. \"metalica\") follow the exact matches."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -119,6 +153,66 @@ public class MusicController {
         return ResponseEntity.ok(results);
     }
 
+    @Operation(
+            summary = "Faceted search",
+            description = "Search ranked like /search, optionally filtered by genre, duration range (minutes: " +
+                    "0-2, 2-3, 3-4, 4-5, 5-7, 7+) and album release year. Repeated values of a filter are alternatives. " +
+                    "Comes with match counts per genre, duration range and release year over all pages."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Search results with facet counts",
+                    content = @Content(schema = @Schema(implementation = FacetedSearchResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Query shorter than 3 characters, unknown duration range, or database search mode"
+            )
+    })
+    @GetMapping("/search/faceted")
+    public ResponseEntity<FacetedSearchResponse> searchMusicFaceted(
+            @Parameter(description = "Search query", example = "love")
+            @RequestParam String query,
+            @Parameter(description = "Genres", example = "ROCK")
+            @RequestParam(required = false) List<Genre> genre,
+            @Parameter(description = "Duration ranges in minutes", example = "3-4")
+            @RequestParam(required = false) List<String> duration,
+            @Parameter(description = "Album release years", example = "2024")
+            @RequestParam(required = false) List<Integer> year,
+            @Parameter(description = "Page number (0-indexed)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        FacetedSearchResponse results = musicService.searchMusicFaceted(query,
+                genre != null ? genre : List.of(),
+                duration != null ? duration : List.of(),
+                year != null ? year : List.of(),
+                pageable);
+        return ResponseEntity.ok(results);
+    }
+
+    @Operation(
+            summary = "Autocomplete",
+            description = "Track, artist and album names with a word starting with the typed text, " +
+                    "most played first. Meant to be called on every keystroke; refreshed every few minutes."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Suggestions"
+            )
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @Parameter(description = "Text typed so far", example = "moon ri")
+            @RequestParam String q,
+            @Parameter(description = "Number of suggestions", example = "8")
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(typeaheadService.suggest(q, Math.min(Math.max(limit, 1), 20)));
+    }
+
     @Operation(
             summary = "Get all music",
             description = "Get paginated list of all music tracks"
@@ -134,6 +228,44 @@ public class MusicController {
         return ResponseEntity.ok(music);
     }
 
+    @Operation(
+            summary = "Scroll music",
+            description = "Cursor-paginated list of music tracks. Pass the nextCursor of a slice to get the next one; " +
+                    "unlike page numbers, deep positions are as fast as the first slice."
+    )
+    @GetMapping("/scroll")
+    public ResponseEntity<SliceResponse<MusicResponse>> scrollMusic(
+            @Parameter(description = "nextCursor of the previous slice; omit for the first slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sort order: newest or title", example = "newest")
+            @RequestParam(defaultValue = "newest") String sort,
+            @Parameter(description = "Slice size (max 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(musicService.scrollMusic(cursor, sort, Math.min(Math.max(size, 1), 100)));
+    }
+
+    @Operation(
+            summary = "Get music by ids",
+            description = "Up to 300 tracks in one request, returned in the order of the ids. Unknown or deleted ids " +
+                    "are left out. Unlike getting a single track, this does not record a listen."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Tracks found"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "More than 300 distinct ids"
+            )
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<List<MusicResponse>> getMusicByIds(
+            @Parameter(description = "Comma-separated music IDs", example = "1,2,3")
+            @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(musicService.getMusicByIds(ids));
+    }
+
     @Operation(
             summary = "Update music",
             description = "Update music details. Only the artist who uploaded can update."
@@ -1,8 +1,10 @@
 package com.spotifyapp.controller;
 
 import com.spotifyapp.dto.ApiResponse;
+import com.spotifyapp.dto.music.MusicSummary;
 import com.spotifyapp.dto.playlist.PlaylistRequest;
 import com.spotifyapp.dto.playlist.PlaylistResponse;
+import com.spotifyapp.dto.playlist.PlaylistSongsBatchRequest;
 import com.spotifyapp.security.UserDetailsImpl;
 import com.spotifyapp.service.PlaylistService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,6 +25,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/playlists")
 @RequiredArgsConstructor
@@ -174,6 +178,84 @@ public class PlaylistController {
         return ResponseEntity.ok(new ApiResponse("Song added to playlist successfully"));
     }
 
+    @Operation(
+            summary = "Add, remove and move songs",
+            description = "Applies up to 500 operations in order, in one transaction: all of them or none. " +
+                    "ADD inserts at position (1-based, default the end), REMOVE is ignored for songs not in the " +
+                    "playlist, MOVE puts a song at position. Cannot modify system-generated playlists."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Playlist songs updated successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Song already in playlist / Song not in playlist / Position is required to move a song"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "You can only modify your own playlists / Cannot modify system-generated playlists"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Playlist not found / Music not found"
+            )
+    })
+    @PostMapping("/{playlistId}/songs/batch")
+    public ResponseEntity<ApiResponse> updateSongs(
+            @Parameter(description = "Playlist ID", example = "1") @PathVariable Long playlistId,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Operations, applied in order",
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = PlaylistSongsBatchRequest.class),
+                            examples = @ExampleObject(value = """
+                                {
+                                  "operations": [
+                                    {"type": "ADD", "musicId": 5},
+                                    {"type": "ADD", "musicId": 8, "position": 1},
+                                    {"type": "MOVE", "musicId": 3, "position": 2},
+                                    {"type": "REMOVE", "musicId": 7}
+                                  ]
+                                }
+                                """)
+                    )
+            )
+            @Valid @RequestBody PlaylistSongsBatchRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        playlistService.updateSongs(playlistId, request, userDetails.getUser().getId());
+        return ResponseEntity.ok(new ApiResponse("Playlist songs updated successfully"));
+    }
+
+    @Operation(
+            summary = "Get songs to add",
+            description = "Suggests tracks that often appear next to the playlist's tracks in other playlists " +
+                    "and listening sessions. Tracks already in the playlist are left out."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Suggested tracks, best first",
+                    content = @Content(schema = @Schema(implementation = MusicSummary.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "You can only get suggestions for your own playlists"
+            )
+    })
+    @GetMapping("/{playlistId}/suggestions")
+    public ResponseEntity<List<MusicSummary>> getSuggestions(
+            @Parameter(description = "Playlist ID", example = "1") @PathVariable Long playlistId,
+            @Parameter(description = "Number of tracks", example = "10")
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        List<MusicSummary> suggestions = playlistService.getSuggestions(
+                playlistId, userDetails.getUser().getId(), Math.min(Math.max(limit, 1), 50)
+        );
+        return ResponseEntity.ok(suggestions);
+    }
+
     @Operation(
             summary = "Remove song from playlist",
             description = "Remove a song from playlist. Cannot modify system-generated playlists."
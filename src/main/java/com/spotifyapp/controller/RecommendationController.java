@@ -1,8 +1,13 @@
 package com.spotifyapp.controller;
 
 import com.spotifyapp.dto.artist.ArtistProfileResponse;
+import com.spotifyapp.dto.artist.ArtistSummary;
+import com.spotifyapp.dto.music.MusicSummary;
 import com.spotifyapp.dto.playlist.PlaylistResponse;
+import com.spotifyapp.dto.recommendation.RadioPageResponse;
+import com.spotifyapp.dto.recommendation.ShelfResponse;
 import com.spotifyapp.security.UserDetailsImpl;
+import com.spotifyapp.service.RadioService;
 import com.spotifyapp.service.RecommendationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -26,6 +31,7 @@ import java.util.List;
 public class RecommendationController {
 
     private final RecommendationService recommendationService;
+    private final RadioService radioService;
 
     @Operation(
             summary = "Get artist profile",
@@ -49,6 +55,33 @@ public class RecommendationController {
         return ResponseEntity.ok(profile);
     }
 
+    @Operation(
+            summary = "Search artists",
+            description = "Search artists by username (partial matching). Results are ordered by popularity " +
+                    "in the co-listen graph."
+    )
+    @GetMapping("/artists/search")
+    public ResponseEntity<List<ArtistSummary>> searchArtists(
+            @Parameter(description = "Search query", example = "que")
+            @RequestParam String query,
+            @Parameter(description = "Maximum number of artists", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        List<ArtistSummary> artists = recommendationService.searchArtists(query, Math.min(Math.max(limit, 1), 50));
+        return ResponseEntity.ok(artists);
+    }
+
+    @Operation(
+            summary = "Get top artists",
+            description = "Most central artists in the co-listen graph (PageRank), for discovery shelves"
+    )
+    @GetMapping("/artists/top")
+    public ResponseEntity<List<ArtistSummary>> getTopArtists(
+            @Parameter(description = "Maximum number of artists", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        List<ArtistSummary> artists = recommendationService.getTopArtists(Math.min(Math.max(limit, 1), 100));
+        return ResponseEntity.ok(artists);
+    }
+
     @Operation(
             summary = "Generate recommended playlists",
             description = "Generate personalized playlists based on user's listening history (top 3 genres). " +
@@ -69,4 +102,78 @@ public class RecommendationController {
         );
         return ResponseEntity.ok(playlists);
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Get Made for You mix",
+            description = "Personalized tracks scored by the collaborative-filtering model. " +
+                    "Tracks the user has already heard are left out. Empty until the model has been trained."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Recommended tracks, best first",
+                    content = @Content(schema = @Schema(implementation = MusicSummary.class))
+            )
+    })
+    @GetMapping("/made-for-you")
+    public ResponseEntity<List<MusicSummary>> getMadeForYou(
+            @Parameter(description = "Number of tracks", example = "20")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        List<MusicSummary> tracks = recommendationService.getMadeForYou(
+                userDetails.getUser().getId(), Math.min(Math.max(limit, 1), 100)
+        );
+        return ResponseEntity.ok(tracks);
+    }
+
+    @Operation(
+            summary = "Get home shelves",
+            description = "Popular tracks overall and in the user's top genres. New users are served the most " +
+                    "popular genres, or the genres they picked at registration."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Shelves retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ShelfResponse.class))
+            )
+    })
+    @GetMapping("/shelves")
+    public ResponseEntity<List<ShelfResponse>> getShelves(
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        List<ShelfResponse> shelves = recommendationService.getShelves(userDetails.getUser().getId());
+        return ResponseEntity.ok(shelves);
+    }
+
+    @Operation(
+            summary = "Get radio batch",
+            description = "Endless station built from a seed track. Start with seedMusicId, then pass the returned " +
+                    "cursor to get the next batch. Tracks already played in the session are not repeated."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Next batch of tracks and the cursor for the one after",
+                    content = @Content(schema = @Schema(implementation = RadioPageResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Missing seed or invalid cursor"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Seed track not found"
+            )
+    })
+    @GetMapping("/radio")
+    public ResponseEntity<RadioPageResponse> getRadio(
+            @Parameter(description = "Seed track ID (first batch only)", example = "1")
+            @RequestParam(required = false) Long seedMusicId,
+            @Parameter(description = "Cursor returned by the previous batch")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Batch size", example = "10")
+            @RequestParam(defaultValue = "10") int size) {
+        RadioPageResponse page = radioService.getRadioPage(seedMusicId, cursor, Math.min(Math.max(size, 1), 50));
+        return ResponseEntity.ok(page);
+    }
+}
@@ -0,0 +1,50 @@
+package com.spotifyapp.controller;
+
+import com.spotifyapp.dto.search.SearchResponse;
+import com.spotifyapp.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Search across tracks, albums, artists and playlists")
+@SecurityRequirement(name = "bearerAuth")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @Operation(
+            summary = "Search everything",
+            description = "Tracks, albums, artists and playlists matching the query, queried in parallel. " +
+                    "A section that does not answer within the time budget comes back empty with complete=false, " +
+                    "and the response is marked partial."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Search results by section",
+                    content = @Content(schema = @Schema(implementation = SearchResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Blank query"
+            )
+    })
+    @GetMapping
+    public ResponseEntity<SearchResponse> search(
+            @Parameter(description = "Search query", example = "love")
+            @RequestParam String query,
+            @Parameter(description = "Maximum results per section", example = "5")
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(searchService.search(query, Math.min(Math.max(limit, 1), 20)));
+    }
+}
@@ -0,0 +1,20 @@
+package com.spotifyapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceResponse<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    // Pass back as ?cursor= for the next slice; null on the last one
+    private String nextCursor;
+}
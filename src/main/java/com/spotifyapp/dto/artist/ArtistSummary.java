@@ -0,0 +1,18 @@
+package com.spotifyapp.dto.artist;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistSummary {
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private Double rankScore;
+}
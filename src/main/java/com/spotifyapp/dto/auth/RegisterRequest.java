@@ -1,11 +1,14 @@
 package com.spotifyapp.dto.auth;
 
+import com.spotifyapp.model.enums.Genre;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class RegisterRequest {
     @NotBlank(message = "Username is required")
@@ -29,4 +32,8 @@ public class RegisterRequest {
     @NotBlank(message = "Role is required")
     @Pattern(regexp = "LISTENER|ARTIST", message = "Role must be either LISTENER or ARTIST")
     private String role;
+
+    // Optional; seeds recommendations until the user has listening history
+    @Size(max = 5, message = "At most 5 preferred genres can be selected")
+    private List<Genre> preferredGenres;
 }
@@ -0,0 +1,24 @@
+package com.spotifyapp.dto.music;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSearchResponse {
+    private List<MusicResponse> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    // Match counts over all pages; values without matches are left out
+    private Map<String, Integer> genres;
+    private Map<String, Integer> durations;
+    private Map<Integer, Integer> releaseYears;
+}
@@ -0,0 +1,21 @@
+package com.spotifyapp.dto.music;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchCacheStats {
+    private long requests;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private double averageLoadMillis;
+    private long size;
+    private long generation;
+}
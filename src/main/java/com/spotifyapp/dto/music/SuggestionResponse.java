@@ -0,0 +1,17 @@
+package com.spotifyapp.dto.music;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+    private String type;
+    private Long id;
+    private String text;
+    private String detail;
+}
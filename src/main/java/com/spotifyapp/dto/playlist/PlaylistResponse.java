@@ -19,5 +19,6 @@ public class PlaylistResponse {
     private String ownerUsername;
     private Boolean isSystemGenerated;
     private Integer songCount;
+    private Integer totalDurationSeconds;
     private List<PlaylistSongResponse> songs;
 }
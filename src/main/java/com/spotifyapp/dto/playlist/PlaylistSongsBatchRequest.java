@@ -0,0 +1,32 @@
+package com.spotifyapp.dto.playlist;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PlaylistSongsBatchRequest {
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 500, message = "At most 500 operations per request")
+    private List<@Valid Operation> operations;
+
+    @Data
+    public static class Operation {
+        @NotNull(message = "Operation type is required")
+        private OperationType type;
+
+        @NotNull(message = "Music ID is required")
+        private Long musicId;
+
+        // 1-based; where ADD inserts (default: the end) and where MOVE puts the song
+        private Integer position;
+    }
+
+    public enum OperationType {
+        ADD, REMOVE, MOVE
+    }
+}
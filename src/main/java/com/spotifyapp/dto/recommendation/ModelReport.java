@@ -0,0 +1,24 @@
+package com.spotifyapp.dto.recommendation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelReport {
+    private Integer users;
+    private Integer items;
+    private Integer interactions;
+    private Integer factors;
+    private Integer iterations;
+    private Long trainingMillis;
+    private Integer evaluatedUsers;
+    private Integer topN;
+    private Double hitRate;
+    private Long scoringP50Micros;
+    private Long scoringP99Micros;
+}
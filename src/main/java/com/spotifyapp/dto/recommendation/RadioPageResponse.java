@@ -0,0 +1,20 @@
+package com.spotifyapp.dto.recommendation;
+
+import com.spotifyapp.dto.music.MusicSummary;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RadioPageResponse {
+    private Long seedMusicId;
+    private List<MusicSummary> tracks;
+    // Pass back to get the next batch
+    private String cursor;
+}
@@ -0,0 +1,20 @@
+package com.spotifyapp.dto.recommendation;
+
+import com.spotifyapp.dto.music.MusicSummary;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShelfResponse {
+    private String title;
+    // Null for the overall popularity shelf
+    private String genre;
+    private List<MusicSummary> tracks;
+}
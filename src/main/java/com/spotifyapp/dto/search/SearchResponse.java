@@ -0,0 +1,23 @@
+package com.spotifyapp.dto.search;
+
+import com.spotifyapp.dto.album.AlbumResponse;
+import com.spotifyapp.dto.artist.ArtistSummary;
+import com.spotifyapp.dto.music.MusicResponse;
+import com.spotifyapp.dto.playlist.PlaylistResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResponse {
+    private SearchSection<MusicResponse> tracks;
+    private SearchSection<AlbumResponse> albums;
+    private SearchSection<ArtistSummary> artists;
+    private SearchSection<PlaylistResponse> playlists;
+    // True when any section is incomplete
+    private boolean partial;
+}
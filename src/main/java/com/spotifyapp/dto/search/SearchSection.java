@@ -0,0 +1,18 @@
+package com.spotifyapp.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchSection<T> {
+    private List<T> items;
+    // False when the section missed its time budget or failed; items are then empty
+    private boolean complete;
+}
@@ -0,0 +1,11 @@
+package com.spotifyapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AlbumChangedEvent {
+    private final Long albumId;
+    private final Long artistId;
+}
@@ -0,0 +1,10 @@
+package com.spotifyapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FactorModelUpdatedEvent {
+    private final int itemCount;
+}
@@ -0,0 +1,19 @@
+package com.spotifyapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MusicChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Long musicId;
+    private final Long artistId;
+    private final ChangeType changeType;
+}
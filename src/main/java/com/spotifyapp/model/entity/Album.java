@@ -11,7 +11,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "albums", indexes = {
         @Index(name = "idx_artist_id", columnList = "artist_id"),
-        @Index(name = "idx_title", columnList = "title")
+        @Index(name = "idx_title", columnList = "title"),
+        // Keyset pagination seeks on (sort key, id)
+        @Index(name = "idx_album_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_album_title_id", columnList = "title, id")
 })
 @Getter
 @Setter
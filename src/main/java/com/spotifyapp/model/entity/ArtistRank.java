@@ -0,0 +1,42 @@
+package com.spotifyapp.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "artist_ranks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArtistRank implements Persistable<Long> {
+
+    @Id
+    @Column(name = "artist_id")
+    private Long artistId;
+
+    // PageRank over the co-listen graph; scores of all artists sum to 1
+    @Column(nullable = false)
+    private Double score;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Override
+    public Long getId() {
+        return artistId;
+    }
+
+    // Rows are only written into a freshly cleared table, so saveAll can insert in
+    // batches instead of merging each assigned id with a SELECT first
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package com.spotifyapp.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_heard_filters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HeardTracksFilter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Serialized BloomFilter of music ids
+    @Column(nullable = false)
+    private byte[] bits;
+
+    // Distinct tracks the filter was sized for
+    @Column(nullable = false)
+    private Integer capacity;
+
+    @Column(nullable = false)
+    private Integer insertions;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -13,7 +13,12 @@ import java.time.LocalDateTime;
         @Index(name = "idx_music_artist", columnList = "artist_id"),
         @Index(name = "idx_music_album", columnList = "album_id"),
         @Index(name = "idx_music_genre", columnList = "genre"),
-        @Index(name = "idx_music_title", columnList = "title")
+        @Index(name = "idx_music_title", columnList = "title"),
+        // Keyset pagination seeks on (sort key, id)
+        @Index(name = "idx_music_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_music_title_id", columnList = "title, id"),
+        // Incremental catalog export reads in (updated_at, id) order
+        @Index(name = "idx_music_updated_id", columnList = "updated_at, id")
 })
 @Getter
 @Setter
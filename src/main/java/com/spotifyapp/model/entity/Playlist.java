@@ -1,16 +1,24 @@
 package com.spotifyapp.model.entity;
 
+import com.spotifyapp.model.enums.Genre;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "playlists", indexes = {
-        @Index(name = "idx_playlist_owner", columnList = "owner_id")
-})
+@Table(name = "playlists",
+        indexes = {
+                @Index(name = "idx_playlist_owner", columnList = "owner_id")
+        },
+        uniqueConstraints = {
+                // One system mix slot per (owner, genre); user playlists leave the genre null
+                @UniqueConstraint(columnNames = {"owner_id", "generated_genre"})
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -36,6 +44,22 @@ public class Playlist {
     @Builder.Default
     private Boolean isSystemGenerated = false;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "generated_genre", length = 50)
+    private Genre generatedGenre;
+
+    // Denormalized from playlist_music. Only PlaylistRepository's update queries write them,
+    // so a flush of a stale entity can never overwrite a concurrent change.
+    @Column(name = "song_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer songCount = 0;
+
+    @Column(name = "total_duration_seconds", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer totalDurationSeconds = 0;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
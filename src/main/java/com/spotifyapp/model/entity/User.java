@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
 @Table(name = "users", indexes = {
         @Index(name = "idx_email", columnList = "email"),
         @Index(name = "idx_username", columnList = "username"),
-        @Index(name = "idx_status", columnList = "status")
+        @Index(name = "idx_status", columnList = "status"),
+        // Keyset pagination seeks on (sort key, id)
+        @Index(name = "idx_user_created_id", columnList = "created_at, id")
 })
 @Getter
 @Setter
@@ -0,0 +1,37 @@
+package com.spotifyapp.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_taste_profiles")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserTasteProfile {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // One float per Genre ordinal
+    @Column(name = "genre_weights", nullable = false)
+    private byte[] genreWeights;
+
+    // (artist id, weight) pairs
+    @Column(name = "top_artists", nullable = false)
+    private byte[] topArtists;
+
+    // Instant the stored weights were last decayed to
+    @Column(name = "decayed_at", nullable = false)
+    private LocalDateTime decayedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -2,9 +2,17 @@ package com.spotifyapp.repository;
 
 import com.spotifyapp.model.entity.Album;
 import com.spotifyapp.model.entity.User;
+import com.spotifyapp.repository.projection.AlbumListRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,9 +20,28 @@ import java.util.Optional;
 
 @Repository
 public interface AlbumRepository extends JpaRepository<Album, Long> {
+
+    String LIST_ROW = "SELECT a.id AS id, a.title AS title, u.id AS artistId, u.username AS artistName, " +
+            "a.coverImageUrl AS coverImageUrl, a.releaseDate AS releaseDate FROM Album a JOIN a.artist u ";
+
     Optional<Album> findByIdAndIsDeletedFalse(Long id);
-    Page<Album> findByIsDeletedFalse(Pageable pageable);
+
+    @Query(value = LIST_ROW + "WHERE a.isDeleted = false",
+            countQuery = "SELECT COUNT(a) FROM Album a WHERE a.isDeleted = false")
+    Page<AlbumListRow> findListRows(Pageable pageable);
+
+    @Query(value = LIST_ROW + "WHERE a.artist.id = :artistId AND a.isDeleted = false",
+            countQuery = "SELECT COUNT(a) FROM Album a WHERE a.artist.id = :artistId AND a.isDeleted = false")
+    Page<AlbumListRow> findListRowsByArtistId(@Param("artistId") Long artistId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "artist")
+    Window<Album> findByIsDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
+
     List<Album> findByArtistAndIsDeletedFalse(User artist);
-    Page<Album> findByArtistAndIsDeletedFalse(User artist, Pageable pageable);
     long countByArtistAndIsDeletedFalse(User artist);
+
+    // Shorter titles are closer matches
+    @Query("SELECT a FROM Album a JOIN FETCH a.artist WHERE a.isDeleted = false AND " +
+            "LOWER(a.title) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY LENGTH(a.title), a.title")
+    List<Album> searchByTitle(@Param("query") String query, Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package com.spotifyapp.repository;
+
+import com.spotifyapp.model.entity.ArtistRank;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArtistRankRepository extends JpaRepository<ArtistRank, Long> {
+}
@@ -0,0 +1,31 @@
+package com.spotifyapp.repository;
+
+import com.spotifyapp.model.entity.HeardTracksFilter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface HeardTracksFilterRepository extends JpaRepository<HeardTracksFilter, Long> {
+
+    // Listens update the filter blob in place; the row lock keeps concurrent ones from overwriting each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM HeardTracksFilter f WHERE f.userId = :userId")
+    Optional<HeardTracksFilter> findByIdForUpdate(@Param("userId") Long userId);
+
+    // Two mixes for a user with no filter yet both build one; the second keeps the first's row
+    @Modifying
+    @Query(value = "INSERT INTO user_heard_filters (user_id, bits, capacity, insertions, updated_at) " +
+            "VALUES (:userId, :bits, :capacity, :insertions, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("bits") byte[] bits,
+                       @Param("capacity") int capacity,
+                       @Param("insertions") int insertions);
+}
@@ -3,13 +3,16 @@ package com.spotifyapp.repository;
 import com.spotifyapp.model.entity.ListeningHistory;
 import com.spotifyapp.model.entity.Music;
 import com.spotifyapp.model.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ListeningHistoryRepository extends JpaRepository<ListeningHistory, Long> {
@@ -20,6 +23,34 @@ public interface ListeningHistoryRepository extends JpaRepository<ListeningHisto
             "GROUP BY m.genre ORDER BY cnt DESC")
     List<Object[]> findTopGenresByUser(@Param("user") User user, @Param("after") LocalDateTime after);
 
+    @Query("SELECT m.genre, m.artist.id, lh.listenedAt FROM ListeningHistory lh " +
+            "JOIN lh.music m WHERE lh.user = :user AND lh.listenedAt > :after")
+    List<Object[]> findListenSignalsByUser(@Param("user") User user, @Param("after") LocalDateTime after);
+
+    @Query("SELECT DISTINCT lh.music.id FROM ListeningHistory lh WHERE lh.user = :user")
+    List<Long> findDistinctMusicIdsByUser(@Param("user") User user);
+
+    @Query("SELECT m.genre, m.id, COUNT(lh) as cnt, m.artist.id FROM ListeningHistory lh " +
+            "JOIN lh.music m WHERE m.isDeleted = false AND lh.listenedAt > :after " +
+            "GROUP BY m.genre, m.id, m.artist.id ORDER BY cnt DESC")
+    List<Object[]> findListenCountsByMusicSince(@Param("after") LocalDateTime after);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "10000"))
+    @Query("SELECT lh.user.id, lh.music.id, COUNT(lh) FROM ListeningHistory lh " +
+            "WHERE lh.music.isDeleted = false GROUP BY lh.user.id, lh.music.id")
+    Stream<Object[]> streamPlayCounts();
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "10000"))
+    @Query("SELECT DISTINCT lh.user.id, m.artist.id FROM ListeningHistory lh JOIN lh.music m " +
+            "WHERE m.isDeleted = false AND m.artist.isDeleted = false AND lh.listenedAt > :after " +
+            "ORDER BY lh.user.id")
+    Stream<Object[]> streamListenerArtistPairs(@Param("after") LocalDateTime after);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "10000"))
+    @Query("SELECT lh.user.id, lh.music.id FROM ListeningHistory lh " +
+            "WHERE lh.music.isDeleted = false AND lh.listenedAt > :after ORDER BY lh.user.id, lh.listenedAt")
+    Stream<Object[]> streamListenSequences(@Param("after") LocalDateTime after);
+
     @Query("SELECT COUNT(DISTINCT lh.user) FROM ListeningHistory lh " +
             "WHERE lh.music = :music AND lh.listenedAt BETWEEN :start AND :end")
     Long countUniqueListenersByMusicAndPeriod(
@@ -4,32 +4,137 @@ import com.spotifyapp.model.entity.Album;
 import com.spotifyapp.model.entity.Music;
 import com.spotifyapp.model.entity.User;
 import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.model.enums.UserRole;
+import com.spotifyapp.repository.projection.MusicExportRow;
+import com.spotifyapp.repository.projection.MusicListRow;
+import com.spotifyapp.repository.projection.MusicSearchRow;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MusicRepository extends JpaRepository<Music, Long> {
+
+    String SEARCH_ROW = "SELECT m.id AS id, m.artist.id AS artistId, m.title AS title, " +
+            "m.artist.username AS artistName, m.genre AS genre, m.durationSeconds AS durationSeconds, " +
+            "a.releaseDate AS releaseDate FROM Music m LEFT JOIN m.album a ON a.isDeleted = false ";
+
+    // Everything a MusicResponse needs in one statement, instead of lazy artist and album loads per row
+    String LIST_ROW = "SELECT m.id AS id, m.title AS title, u.id AS artistId, u.username AS artistName, " +
+            "m.genre AS genre, a.title AS albumTitle, m.durationSeconds AS durationSeconds, " +
+            "m.fileUrl AS fileUrl FROM Music m JOIN m.artist u LEFT JOIN m.album a ";
+
+    // An exported track changes with its artist and album too; the second album join also
+    // sees deleted albums, so a track whose album went away is sent again without it
+    String EXPORT_CHANGED_AT = "greatest(m.updatedAt, u.updatedAt, coalesce(ac.updatedAt, m.updatedAt))";
+    String EXPORT_ROW = "SELECT m.id AS id, m.isDeleted AS deleted, m.title AS title, m.genre AS genre, " +
+            "m.durationSeconds AS durationSeconds, m.fileUrl AS fileUrl, m.createdAt AS createdAt, " +
+            EXPORT_CHANGED_AT + " AS updatedAt, u.id AS artistId, u.username AS artistName, a.id AS albumId, " +
+            "a.title AS albumTitle, a.releaseDate AS releaseDate FROM Music m JOIN m.artist u " +
+            "LEFT JOIN m.album a ON a.isDeleted = false LEFT JOIN m.album ac ";
+
     Optional<Music> findByIdAndIsDeletedFalse(Long id);
     Page<Music> findByIsDeletedFalse(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"artist", "album"})
+    Window<Music> findByIsDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
+
     List<Music> findByArtistAndIsDeletedFalse(User artist);
     List<Music> findByAlbumAndIsDeletedFalse(Album album);
     Page<Music> findByArtistAndIsDeletedFalse(User artist, Pageable pageable);
 
-    @Query("SELECT m FROM Music m WHERE m.isDeleted = false AND " +
+    @Query(value = LIST_ROW + "WHERE m.isDeleted = false",
+            countQuery = "SELECT COUNT(m) FROM Music m WHERE m.isDeleted = false")
+    Page<MusicListRow> findListRows(Pageable pageable);
+
+    @Query(value = LIST_ROW + "WHERE m.isDeleted = false AND " +
             "(LOWER(m.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "LOWER(m.artist.username) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<Music> searchMusic(@Param("query") String query, Pageable pageable);
+            "LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%')))",
+            countQuery = "SELECT COUNT(m) FROM Music m WHERE m.isDeleted = false AND " +
+                    "(LOWER(m.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+                    "LOWER(m.artist.username) LIKE LOWER(CONCAT('%', :query, '%')))")
+    Page<MusicListRow> searchMusic(@Param("query") String query, Pageable pageable);
+
+    @Query("SELECT m FROM Music m JOIN FETCH m.artist LEFT JOIN FETCH m.album WHERE m.id IN :ids")
+    List<Music> findAllWithArtistByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "10000"))
+    @Query(SEARCH_ROW + "WHERE m.isDeleted = false")
+    Stream<MusicSearchRow> streamSearchRows();
+
+    @Query(SEARCH_ROW + "WHERE m.id = :id AND m.isDeleted = false")
+    Optional<MusicSearchRow> findSearchRowById(@Param("id") Long id);
+
+    @Query(SEARCH_ROW + "WHERE m.artist.id = :artistId AND m.isDeleted = false")
+    List<MusicSearchRow> findSearchRowsByArtistId(@Param("artistId") Long artistId);
+
+    @Query(SEARCH_ROW + "WHERE m.album.id = :albumId AND m.isDeleted = false")
+    List<MusicSearchRow> findSearchRowsByAlbumId(@Param("albumId") Long albumId);
+
+    // Oldest change first, so that an interrupted sync can resume from the last updatedAt it saw
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query(EXPORT_ROW + "WHERE m.isDeleted = false ORDER BY " + EXPORT_CHANGED_AT + ", m.id")
+    Stream<MusicExportRow> streamExportRows();
+
+    // Includes tracks deleted since, so that the consumer can drop them
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query(EXPORT_ROW + "WHERE (m.updatedAt >= :since OR u.updatedAt >= :since OR ac.updatedAt >= :since) " +
+            "ORDER BY " + EXPORT_CHANGED_AT + ", m.id")
+    Stream<MusicExportRow> streamExportRowsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // Rows are [id, title, artist id, artist name, album id, album title]
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "10000"))
+    @Query("SELECT m.id, m.title, m.artist.id, m.artist.username, a.id, a.title FROM Music m " +
+            "LEFT JOIN m.album a ON a.isDeleted = false WHERE m.isDeleted = false")
+    Stream<Object[]> streamCompletionRows();
+
+    // Needs db/search-postgres.sql; rows are [id, total matches]
+    @Query(value = "SELECT m.id, count(*) OVER () FROM music m " +
+            "LEFT JOIN music_popularity p ON p.music_id = m.id " +
+            "WHERE m.is_deleted = false AND (m.search_vector @@ websearch_to_tsquery('simple', :query) " +
+            "OR lower(m.title) LIKE :pattern OR m.search_artist LIKE :pattern) " +
+            "ORDER BY ts_rank_cd(m.search_vector, websearch_to_tsquery('simple', :query)) " +
+            "+ similarity(lower(m.title), lower(:query)) " +
+            "+ :popularityWeight * ln(1 + coalesce(p.plays, 0)) DESC, m.id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Object[]> searchMusicRanked(@Param("query") String query,
+                                     @Param("pattern") String pattern,
+                                     @Param("popularityWeight") double popularityWeight,
+                                     @Param("offset") int offset,
+                                     @Param("limit") int limit);
+
+    @Query(value = "SELECT count(*) FROM music m " +
+            "WHERE m.is_deleted = false AND (m.search_vector @@ websearch_to_tsquery('simple', :query) " +
+            "OR lower(m.title) LIKE :pattern OR m.search_artist LIKE :pattern)", nativeQuery = true)
+    long countSearchMusicRanked(@Param("query") String query, @Param("pattern") String pattern);
 
     List<Music> findByGenreAndIsDeletedFalse(Genre genre, Pageable pageable);
     long countByArtistAndIsDeletedFalse(User artist);
 
+    @Query("SELECT m.id FROM Music m WHERE m.artist.id = :artistId AND m.isDeleted = false")
+    List<Long> findIdsByArtistId(@Param("artistId") Long artistId);
+
     @Query("SELECT DISTINCT m.genre FROM Music m WHERE m.artist = :artist AND m.isDeleted = false")
     List<Genre> findDistinctGenresByArtist(@Param("artist") User artist);
+
+    // Rows are [artist id, genre] for every live artist with the given role
+    @Query("SELECT DISTINCT m.artist.id, m.genre FROM Music m WHERE m.isDeleted = false " +
+            "AND m.artist.role = :role AND m.artist.isDeleted = false")
+    List<Object[]> findDistinctArtistGenres(@Param("role") UserRole role);
 }
\ No newline at end of file
@@ -3,17 +3,26 @@ package com.spotifyapp.repository;
 import com.spotifyapp.model.entity.Music;
 import com.spotifyapp.model.entity.Playlist;
 import com.spotifyapp.model.entity.PlaylistMusic;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PlaylistMusicRepository extends JpaRepository<PlaylistMusic, Long> {
     List<PlaylistMusic> findByPlaylistOrderByPositionAsc(Playlist playlist);
+
+    @Query("SELECT pm FROM PlaylistMusic pm JOIN FETCH pm.music m JOIN FETCH m.artist " +
+            "WHERE pm.playlist = :playlist ORDER BY pm.position")
+    List<PlaylistMusic> findWithMusicByPlaylist(@Param("playlist") Playlist playlist);
+
     Optional<PlaylistMusic> findByPlaylistAndMusic(Playlist playlist, Music music);
     boolean existsByPlaylistAndMusic(Playlist playlist, Music music);
     long countByPlaylist(Playlist playlist);
@@ -21,5 +30,18 @@ public interface PlaylistMusicRepository extends JpaRepository<PlaylistMusic, Lo
     @Query("SELECT MAX(pm.position) FROM PlaylistMusic pm WHERE pm.playlist = :playlist")
     Optional<Integer> findMaxPositionByPlaylist(@Param("playlist") Playlist playlist);
 
-    void deleteByPlaylistAndMusic(Playlist playlist, Music music);
+    // One DELETE that reports the rows removed, so the caller knows whether to adjust the totals
+    @Modifying
+    @Query("DELETE FROM PlaylistMusic pm WHERE pm.playlist = :playlist AND pm.music = :music")
+    int deleteByPlaylistAndMusic(@Param("playlist") Playlist playlist, @Param("music") Music music);
+
+    @Query("SELECT pm.music.id FROM PlaylistMusic pm WHERE pm.playlist = :playlist ORDER BY pm.position")
+    List<Long> findMusicIdsByPlaylist(@Param("playlist") Playlist playlist);
+
+    // User-built playlists only; generated mixes would just echo the popularity rankings
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "10000"))
+    @Query("SELECT pm.playlist.id, pm.music.id FROM PlaylistMusic pm " +
+            "WHERE pm.playlist.isDeleted = false AND pm.playlist.isSystemGenerated = false " +
+            "AND pm.music.isDeleted = false ORDER BY pm.playlist.id, pm.position")
+    Stream<Object[]> streamPlaylistTracks();
 }
\ No newline at end of file
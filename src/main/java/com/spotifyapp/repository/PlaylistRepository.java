@@ -2,9 +2,15 @@ package com.spotifyapp.repository;
 
 import com.spotifyapp.model.entity.Playlist;
 import com.spotifyapp.model.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,8 +18,55 @@ import java.util.Optional;
 
 @Repository
 public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
+    String SONG_COUNT = "(SELECT COUNT(*) FROM playlist_music pm WHERE pm.playlist_id = playlists.id)";
+    String TOTAL_DURATION = "(SELECT COALESCE(SUM(m.duration_seconds), 0) FROM playlist_music pm " +
+            "JOIN music m ON m.id = pm.music_id WHERE pm.playlist_id = playlists.id)";
+
     Optional<Playlist> findByIdAndIsDeletedFalse(Long id);
+
+    // Serializes writers that rebuild a playlist's rows from what they read
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Playlist p WHERE p.id = :id AND p.isDeleted = false")
+    Optional<Playlist> findByIdForUpdate(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = "owner")
+    Optional<Playlist> findWithOwnerByIdAndIsDeletedFalse(Long id);
+
     Page<Playlist> findByOwnerAndIsDeletedFalse(User owner, Pageable pageable);
     List<Playlist> findByOwnerAndIsDeletedFalse(User owner);
     List<Playlist> findByOwnerAndIsSystemGeneratedTrueAndIsDeletedFalse(User owner);
-}
\ No newline at end of file
+    List<Playlist> findByOwnerAndIsSystemGeneratedTrue(User owner);
+
+    // System mixes are per listener, so only user playlists are searchable
+    @Query("SELECT p FROM Playlist p JOIN FETCH p.owner WHERE p.isDeleted = false AND p.isSystemGenerated = false " +
+            "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY LENGTH(p.name), p.name")
+    List<Playlist> searchByName(@Param("query") String query, Pageable pageable);
+
+    // The totals are not updatable through the entity, so they are written in SQL.
+    // Relative updates lock the row, so concurrent adds to one playlist all count.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE playlists SET song_count = song_count + :songs, " +
+            "total_duration_seconds = total_duration_seconds + :seconds WHERE id = :id", nativeQuery = true)
+    int adjustTotals(@Param("id") Long id, @Param("songs") int songs, @Param("seconds") int seconds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE playlists SET song_count = " + SONG_COUNT + ", total_duration_seconds = " + TOTAL_DURATION +
+            " WHERE id = :id", nativeQuery = true)
+    int recountTotals(@Param("id") Long id);
+
+    // A track's duration changed; every playlist holding it is recounted
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE playlists SET song_count = " + SONG_COUNT + ", total_duration_seconds = " + TOTAL_DURATION +
+            " WHERE id IN (SELECT pm.playlist_id FROM playlist_music pm WHERE pm.music_id = :musicId)", nativeQuery = true)
+    int recountTotalsForMusic(@Param("musicId") Long musicId);
+
+    // The totals are written in SQL, so a loaded entity can hold an older value
+    @Query("SELECT p.totalDurationSeconds FROM Playlist p WHERE p.id = :id")
+    Integer findTotalDurationSecondsById(@Param("id") Long id);
+
+    // Only playlists that drifted are written
+    @Modifying
+    @Query(value = "UPDATE playlists SET song_count = " + SONG_COUNT + ", total_duration_seconds = " + TOTAL_DURATION +
+            " WHERE song_count <> " + SONG_COUNT + " OR total_duration_seconds <> " + TOTAL_DURATION, nativeQuery = true)
+    int repairTotals();
+}
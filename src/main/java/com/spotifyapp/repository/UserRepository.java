@@ -3,9 +3,15 @@ package com.spotifyapp.repository;
 import com.spotifyapp.model.entity.User;
 import com.spotifyapp.model.enums.UserRole;
 import com.spotifyapp.model.enums.UserStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -25,5 +31,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> findByRoleAndStatusAndIsDeletedFalse(UserRole role, UserStatus status, Pageable pageable);
     List<User> findByStatusAndVerificationCodeExpiryBefore(UserStatus status, LocalDateTime expiry);
     List<User> findByRoleAndIsDeletedFalse(UserRole role);
+
+    // Best persisted rank first, so the page holds the artists a full ranking would keep
+    @Query("SELECT u FROM User u LEFT JOIN ArtistRank r ON r.artistId = u.id " +
+            "WHERE u.role = :role AND u.isDeleted = false AND LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "ORDER BY COALESCE(r.score, 0) DESC, u.username")
+    List<User> searchByUsername(@Param("role") UserRole role, @Param("query") String query, Pageable pageable);
+
+    // Keyset scrolling for the admin lists
+    Window<User> findByIsDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
+    Window<User> findByStatusAndIsDeletedFalse(UserStatus status, ScrollPosition position, Sort sort, Limit limit);
+    Window<User> findByRoleAndIsDeletedFalse(UserRole role, ScrollPosition position, Sort sort, Limit limit);
+    Window<User> findByRoleAndStatusAndIsDeletedFalse(UserRole role, UserStatus status,
+                                                      ScrollPosition position, Sort sort, Limit limit);
 }
 
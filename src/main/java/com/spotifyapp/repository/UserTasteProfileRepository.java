@@ -0,0 +1,33 @@
+package com.spotifyapp.repository;
+
+import com.spotifyapp.model.entity.UserTasteProfile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface UserTasteProfileRepository extends JpaRepository<UserTasteProfile, Long> {
+
+    // Listens rewrite the profile blobs; the row lock makes concurrent ones apply in turn
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM UserTasteProfile p WHERE p.userId = :userId")
+    Optional<UserTasteProfile> findByIdForUpdate(@Param("userId") Long userId);
+
+    // Two first listens can race to create the profile; the loser waits for the winner's
+    // row instead of failing on the primary key
+    @Modifying
+    @Query(value = "INSERT INTO user_taste_profiles (user_id, genre_weights, top_artists, decayed_at, updated_at) " +
+            "VALUES (:userId, :genreWeights, :topArtists, :decayedAt, :decayedAt) " +
+            "ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("genreWeights") byte[] genreWeights,
+                       @Param("topArtists") byte[] topArtists,
+                       @Param("decayedAt") LocalDateTime decayedAt);
+}
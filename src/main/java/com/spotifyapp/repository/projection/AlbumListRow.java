@@ -0,0 +1,15 @@
+package com.spotifyapp.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * The columns of an album listing, with the artist name joined in.
+ */
+public interface AlbumListRow {
+    Long getId();
+    String getTitle();
+    Long getArtistId();
+    String getArtistName();
+    String getCoverImageUrl();
+    LocalDate getReleaseDate();
+}
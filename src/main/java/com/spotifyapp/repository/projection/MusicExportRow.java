@@ -0,0 +1,26 @@
+package com.spotifyapp.repository.projection;
+
+import com.spotifyapp.model.enums.Genre;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A track with its artist and album, as written to the catalog export. {@link #getUpdatedAt()}
+ * is the latest change to any of the three.
+ */
+public interface MusicExportRow {
+    Long getId();
+    Boolean getDeleted();
+    String getTitle();
+    Genre getGenre();
+    Integer getDurationSeconds();
+    String getFileUrl();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Long getArtistId();
+    String getArtistName();
+    Long getAlbumId();
+    String getAlbumTitle();
+    LocalDate getReleaseDate();
+}
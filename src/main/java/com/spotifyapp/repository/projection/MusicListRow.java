@@ -0,0 +1,17 @@
+package com.spotifyapp.repository.projection;
+
+import com.spotifyapp.model.enums.Genre;
+
+/**
+ * The columns of a track listing, with artist and album names joined in.
+ */
+public interface MusicListRow {
+    Long getId();
+    String getTitle();
+    Long getArtistId();
+    String getArtistName();
+    Genre getGenre();
+    String getAlbumTitle();
+    Integer getDurationSeconds();
+    String getFileUrl();
+}
@@ -0,0 +1,18 @@
+package com.spotifyapp.repository.projection;
+
+import com.spotifyapp.model.enums.Genre;
+
+import java.time.LocalDate;
+
+/**
+ * The fields of a track that the search index needs.
+ */
+public interface MusicSearchRow {
+    Long getId();
+    Long getArtistId();
+    String getTitle();
+    String getArtistName();
+    Genre getGenre();
+    Integer getDurationSeconds();
+    LocalDate getReleaseDate();
+}
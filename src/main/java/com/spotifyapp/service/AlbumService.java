@@ -1,8 +1,10 @@
 package com.spotifyapp.service;
 
+import com.spotifyapp.dto.SliceResponse;
 import com.spotifyapp.dto.album.AlbumRequest;
 import com.spotifyapp.dto.album.AlbumResponse;
 import com.spotifyapp.dto.music.MusicSummary;
+import com.spotifyapp.event.AlbumChangedEvent;
 import com.spotifyapp.exception.ResourceNotFoundException;
 import com.spotifyapp.exception.UnauthorizedException;
 import com.spotifyapp.model.entity.Album;
@@ -12,22 +14,34 @@ import com.spotifyapp.model.enums.UserRole;
 import com.spotifyapp.repository.AlbumRepository;
 import com.spotifyapp.repository.MusicRepository;
 import com.spotifyapp.repository.UserRepository;
+import com.spotifyapp.repository.projection.AlbumListRow;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AlbumService {
 
+    private static final Map<String, Sort> SCROLL_SORTS = Map.of(
+            "newest", Sort.by(Sort.Direction.DESC, "createdAt", "id"),
+            "title", Sort.by("title", "id"));
+
     private final AlbumRepository albumRepository;
     private final MusicRepository musicRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public AlbumResponse createAlbum(AlbumRequest request, Long artistId) {
@@ -46,6 +60,7 @@ public class AlbumService {
                 .build();
 
         album = albumRepository.save(album);
+        publishChange(album);
         return mapToResponse(album);
     }
 
@@ -58,15 +73,30 @@ public class AlbumService {
 
     @Transactional(readOnly = true)
     public Page<AlbumResponse> getAllAlbums(Pageable pageable) {
-        return albumRepository.findByIsDeletedFalse(pageable)
+        return albumRepository.findListRows(pageable)
                 .map(this::mapToResponse);
     }
 
+    @Transactional(readOnly = true)
+    public SliceResponse<AlbumResponse> scrollAlbums(String cursor, String sort, int size) {
+        Sort order = KeysetPages.sort(sort, SCROLL_SORTS);
+        Window<Album> window = albumRepository.findByIsDeletedFalse(
+                KeysetPages.position(cursor, order), order, Limit.of(size));
+        return KeysetPages.slice(window, this::mapToResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AlbumResponse> searchAlbums(String query, int limit) {
+        return albumRepository.searchByTitle(query, PageRequest.of(0, limit)).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public Page<AlbumResponse> getAlbumsByArtist(Long artistId, Pageable pageable) {
         User artist = userRepository.findByIdAndIsDeletedFalse(artistId)
                 .orElseThrow(() -> new ResourceNotFoundException("Artist not found"));
-        return albumRepository.findByArtistAndIsDeletedFalse(artist, pageable)
+        return albumRepository.findListRowsByArtistId(artist.getId(), pageable)
                 .map(this::mapToResponse);
     }
 
@@ -84,6 +114,7 @@ public class AlbumService {
         album.setReleaseDate(request.getReleaseDate());
 
         album = albumRepository.save(album);
+        publishChange(album);
         return mapToResponse(album);
     }
 
@@ -98,6 +129,7 @@ public class AlbumService {
 
         album.setIsDeleted(true);
         albumRepository.save(album);
+        publishChange(album);
     }
 
     @Transactional
@@ -106,6 +138,11 @@ public class AlbumService {
                 .orElseThrow(() -> new ResourceNotFoundException("Album not found"));
         album.setIsDeleted(true);
         albumRepository.save(album);
+        publishChange(album);
+    }
+
+    private void publishChange(Album album) {
+        eventPublisher.publishEvent(new AlbumChangedEvent(album.getId(), album.getArtist().getId()));
     }
 
     private AlbumResponse mapToResponse(Album album) {
@@ -119,6 +156,17 @@ public class AlbumService {
                 .build();
     }
 
+    private AlbumResponse mapToResponse(AlbumListRow row) {
+        return AlbumResponse.builder()
+                .id(row.getId())
+                .title(row.getTitle())
+                .artistName(row.getArtistName())
+                .artistId(row.getArtistId())
+                .coverImageUrl(row.getCoverImageUrl())
+                .releaseDate(row.getReleaseDate())
+                .build();
+    }
+
     private AlbumResponse mapToResponseWithSongs(Album album) {
         List<Music> songs = musicRepository.findByAlbumAndIsDeletedFalse(album);
 
@@ -0,0 +1,107 @@
+package com.spotifyapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.spotifyapp.dto.artist.ArtistProfileResponse;
+import com.spotifyapp.dto.artist.SimilarArtistResponse;
+import com.spotifyapp.event.AlbumChangedEvent;
+import com.spotifyapp.event.ArtistChangedEvent;
+import com.spotifyapp.event.MusicChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+public class ArtistProfileCache {
+
+    // Caffeine's default eviction policy is W-TinyLFU
+    private final Cache<Long, ArtistProfileResponse> profiles;
+
+    // similar artist id -> cached profiles listing that artist; ids leave with their profile
+    private final Map<Long, Set<Long>> dependents = new ConcurrentHashMap<>();
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ArtistProfileCache(PlatformTransactionManager transactionManager,
+                              @Value("${recommendation.artist-profile-cache.max-size:10000}") long maxSize,
+                              @Value("${recommendation.artist-profile-cache.ttl-minutes:60}") long ttlMinutes) {
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                // Runs inside the entry's removal, so it cannot race a reload of the same artist
+                .evictionListener((Long id, ArtistProfileResponse profile, RemovalCause cause) -> forget(id, profile))
+                .recordStats()
+                .build();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Concurrent misses for the same artist wait on a single load
+    public ArtistProfileResponse get(Long artistId, Function<Long, ArtistProfileResponse> loader) {
+        return profiles.get(artistId, id -> {
+            ArtistProfileResponse profile = readOnlyTransaction.execute(status -> loader.apply(id));
+            if (profile != null && profile.getSimilarArtists() != null) {
+                for (SimilarArtistResponse similar : profile.getSimilarArtists()) {
+                    dependents.compute(similar.getId(), (key, listing) -> {
+                        Set<Long> updated = listing != null ? listing : ConcurrentHashMap.<Long>newKeySet();
+                        updated.add(id);
+                        return updated;
+                    });
+                }
+            }
+            return profile;
+        });
+    }
+
+    public void invalidateArtist(Long artistId) {
+        remove(artistId);
+        Set<Long> listing = dependents.remove(artistId);
+        if (listing != null) {
+            listing.forEach(this::remove);
+        }
+    }
+
+    // Explicit removals skip the eviction listener, so they clean up the same way themselves
+    private void remove(Long artistId) {
+        profiles.asMap().computeIfPresent(artistId, (id, profile) -> {
+            forget(id, profile);
+            return null;
+        });
+    }
+
+    private void forget(Long artistId, ArtistProfileResponse profile) {
+        if (profile == null || profile.getSimilarArtists() == null) {
+            return;
+        }
+        for (SimilarArtistResponse similar : profile.getSimilarArtists()) {
+            dependents.computeIfPresent(similar.getId(), (key, listing) -> {
+                listing.remove(artistId);
+                return listing.isEmpty() ? null : listing;
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMusicChanged(MusicChangedEvent event) {
+        invalidateArtist(event.getArtistId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlbumChanged(AlbumChangedEvent event) {
+        invalidateArtist(event.getArtistId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArtistChanged(ArtistChangedEvent event) {
+        invalidateArtist(event.getArtistId());
+    }
+}
@@ -0,0 +1,141 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.entity.ArtistRank;
+import com.spotifyapp.repository.ArtistRankRepository;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.util.ArtistGraph;
+import com.spotifyapp.util.PageRank;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class ArtistRankService {
+
+    private final ListeningHistoryRepository listeningHistoryRepository;
+    private final ArtistRankRepository artistRankRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    @Value("${recommendation.artist-rank.window-days:90}")
+    private int windowDays;
+
+    @Value("${recommendation.artist-rank.max-artists-per-listener:200}")
+    private int maxArtistsPerListener;
+
+    @Value("${recommendation.artist-rank.min-shared-listeners:1}")
+    private int minSharedListeners;
+
+    @Value("${recommendation.artist-rank.damping:0.85}")
+    private double damping;
+
+    @Value("${recommendation.artist-rank.max-iterations:50}")
+    private int maxIterations;
+
+    @Value("${recommendation.artist-rank.tolerance:0.000001}")
+    private double tolerance;
+
+    @Value("${recommendation.artist-rank.threads:0}")
+    private int threads;
+
+    private volatile Map<Long, Double> scores = Collections.emptyMap();
+    private volatile List<Long> ranked = Collections.emptyList();
+    private volatile ArtistGraph graph = ArtistGraph.empty();
+
+    public ArtistRankService(ListeningHistoryRepository listeningHistoryRepository,
+                             ArtistRankRepository artistRankRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.listeningHistoryRepository = listeningHistoryRepository;
+        this.artistRankRepository = artistRankRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Serve the last persisted scores until the first recomputation finishes
+    @PostConstruct
+    public void loadRanks() {
+        Map<Long, Double> loaded = new HashMap<>();
+        for (ArtistRank rank : artistRankRepository.findAll()) {
+            loaded.put(rank.getArtistId(), rank.getScore());
+        }
+        publish(loaded);
+        log.info("Loaded {} persisted artist ranks", loaded.size());
+    }
+
+    @Scheduled(fixedRateString = "${recommendation.artist-rank.refresh-interval-ms:3600000}",
+            initialDelayString = "${recommendation.artist-rank.initial-delay-ms:60000}")
+    public void refreshRanks() {
+        long start = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusDays(windowDays);
+        ArtistGraph built = readOnlyTransaction.execute(status -> {
+            ArtistGraph.Builder builder = ArtistGraph.builder(maxArtistsPerListener);
+            try (Stream<Object[]> pairs = listeningHistoryRepository.streamListenerArtistPairs(since)) {
+                pairs.forEach(row -> builder.add((Long) row[0], (Long) row[1]));
+            }
+            return builder.build(minSharedListeners);
+        });
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        double[] pageRank = PageRank.compute(built, damping, maxIterations, tolerance, poolSize);
+
+        Map<Long, Double> refreshed = new HashMap<>(built.size() * 2);
+        List<ArtistRank> rows = new ArrayList<>(built.size());
+        for (int i = 0; i < built.size(); i++) {
+            refreshed.put(built.artistId(i), pageRank[i]);
+            rows.add(ArtistRank.builder().artistId(built.artistId(i)).score(pageRank[i]).build());
+        }
+
+        graph = built;
+        publish(refreshed);
+
+        writeTransaction.executeWithoutResult(status -> {
+            artistRankRepository.deleteAllInBatch();
+            artistRankRepository.saveAll(rows);
+        });
+
+        log.info("Artist ranks refreshed in {} ms: {} artists, {} edges",
+                System.currentTimeMillis() - start, built.size(), built.edges() / 2);
+    }
+
+    public double getScore(Long artistId) {
+        return scores.getOrDefault(artistId, 0.0);
+    }
+
+    /**
+     * Artist ids ordered by descending score.
+     */
+    public List<Long> getTopArtistIds(int limit) {
+        List<Long> current = ranked;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    /**
+     * Artists sharing the most listeners with the given one, strongest first.
+     */
+    public long[] getNeighbors(Long artistId, int limit) {
+        return graph.neighbors(artistId, limit);
+    }
+
+    private void publish(Map<Long, Double> refreshed) {
+        List<Long> order = new ArrayList<>(refreshed.keySet());
+        order.sort(Comparator.comparingDouble((Long id) -> refreshed.get(id)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        scores = Collections.unmodifiableMap(refreshed);
+        ranked = Collections.unmodifiableList(order);
+    }
+}
@@ -30,6 +30,7 @@ public class AuthService {
     private final EmailService emailService;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final TasteProfileService tasteProfileService;
 
     @Transactional
     public void register(RegisterRequest request) {
@@ -60,6 +61,10 @@ public class AuthService {
 
         userRepository.save(user);
 
+        if (request.getPreferredGenres() != null) {
+            tasteProfileService.seedGenres(user.getId(), request.getPreferredGenres());
+        }
+
         // Send verification email
         emailService.sendVerificationEmail(
                 user.getEmail(),
@@ -0,0 +1,95 @@
+package com.spotifyapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.repository.projection.MusicExportRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the catalog as newline-delimited JSON, one track per line. Rows come from a
+ * database cursor and go straight to the output, so memory does not depend on catalog
+ * size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogExportService {
+
+    private final MusicRepository musicRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.catalog.flush-rows:500}")
+    private int flushRows;
+
+    /**
+     * @param since only tracks changed at or after this time, with a tombstone line for each
+     *              one deleted; null for the whole catalog
+     * @return the number of lines written
+     */
+    @Transactional(readOnly = true)
+    public long exportMusic(LocalDateTime since, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long count = 0;
+        // The generator must not close the response stream, and each line ends with its own newline
+        try (Stream<MusicExportRow> rows = since == null
+                ? musicRepository.streamExportRows()
+                : musicRepository.streamExportRowsUpdatedSince(since);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .setRootValueSeparator(null)) {
+            Iterator<MusicExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writeRow(generator, iterator.next());
+                if (++count % flushRows == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        log.info("Catalog export wrote {} tracks in {} ms", count, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    private static void writeRow(JsonGenerator generator, MusicExportRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.getId());
+        if (Boolean.TRUE.equals(row.getDeleted())) {
+            generator.writeBooleanField("deleted", true);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            return;
+        }
+        generator.writeStringField("title", row.getTitle());
+        generator.writeStringField("genre", row.getGenre() != null ? row.getGenre().name() : null);
+        writeNumber(generator, "durationSeconds", row.getDurationSeconds());
+        generator.writeStringField("fileUrl", row.getFileUrl());
+        generator.writeNumberField("artistId", row.getArtistId());
+        generator.writeStringField("artistName", row.getArtistName());
+        writeNumber(generator, "albumId", row.getAlbumId());
+        generator.writeStringField("albumTitle", row.getAlbumTitle());
+        generator.writeStringField("releaseDate", row.getReleaseDate() != null ? row.getReleaseDate().toString() : null);
+        generator.writeStringField("createdAt", row.getCreatedAt().toString());
+        generator.writeStringField("updatedAt", row.getUpdatedAt().toString());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Number value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value.longValue());
+        }
+    }
+}
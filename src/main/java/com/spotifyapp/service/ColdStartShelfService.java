@@ -0,0 +1,137 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.music.MusicSummary;
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.repository.MusicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Popularity shelves for listeners without any history. Built from the in-memory
+ * rankings every few minutes and served from an immutable snapshot, so reads never
+ * touch the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ColdStartShelfService {
+
+    private static final Genre[] GENRES = Genre.values();
+
+    private final GenreRankingService genreRankingService;
+    private final MusicRepository musicRepository;
+
+    @Value("${recommendation.cold-start.shelf-size:20}")
+    private int shelfSize;
+
+    private volatile Shelves shelves = Shelves.EMPTY;
+
+    @Scheduled(fixedRateString = "${recommendation.cold-start.refresh-interval-ms:300000}",
+            initialDelayString = "${recommendation.cold-start.initial-delay-ms:30000}")
+    @Transactional(readOnly = true)
+    public void refreshShelves() {
+        long[] popularIds = genreRankingService.getOverallRanking().top(shelfSize);
+        Map<Genre, long[]> genreIds = new EnumMap<>(Genre.class);
+        Set<Long> allIds = new HashSet<>();
+        for (long id : popularIds) {
+            allIds.add(id);
+        }
+        for (Genre genre : GENRES) {
+            long[] ids = genreRankingService.getRanking(genre).top(shelfSize);
+            genreIds.put(genre, ids);
+            for (long id : ids) {
+                allIds.add(id);
+            }
+        }
+
+        // One round trip for every ranked track on every shelf
+        Map<Long, Music> byId = musicRepository.findAllById(allIds).stream()
+                .filter(music -> !Boolean.TRUE.equals(music.getIsDeleted()))
+                .collect(Collectors.toMap(Music::getId, Function.identity()));
+
+        List<MusicSummary> popular = materialize(popularIds, byId);
+        if (popular.size() < shelfSize) {
+            fill(popular, musicRepository.findByIsDeletedFalse(PageRequest.of(0, shelfSize)).getContent());
+        }
+
+        Map<Genre, List<MusicSummary>> byGenre = new EnumMap<>(Genre.class);
+        for (Genre genre : GENRES) {
+            List<MusicSummary> shelf = materialize(genreIds.get(genre), byId);
+            // Genres with little recent listening fall back to the catalog
+            if (shelf.size() < shelfSize) {
+                fill(shelf, musicRepository.findByGenreAndIsDeletedFalse(genre, PageRequest.of(0, shelfSize)));
+            }
+            if (!shelf.isEmpty()) {
+                byGenre.put(genre, List.copyOf(shelf));
+            }
+        }
+
+        // Genres with the most recently played tracks come first
+        List<Genre> genres = byGenre.keySet().stream()
+                .sorted(Comparator.comparingInt((Genre genre) -> genreRankingService.getRanking(genre).size())
+                        .reversed())
+                .toList();
+
+        shelves = new Shelves(List.copyOf(popular), Collections.unmodifiableMap(byGenre), genres);
+        log.info("Cold-start shelves refreshed: {} popular tracks, {} genre shelves", popular.size(), byGenre.size());
+    }
+
+    public List<MusicSummary> getPopular() {
+        return shelves.popular();
+    }
+
+    public List<MusicSummary> getGenreShelf(Genre genre) {
+        return shelves.byGenre().getOrDefault(genre, List.of());
+    }
+
+    public List<Genre> getPopularGenres(int limit) {
+        List<Genre> genres = shelves.genres();
+        return genres.subList(0, Math.min(limit, genres.size()));
+    }
+
+    private List<MusicSummary> materialize(long[] ids, Map<Long, Music> byId) {
+        List<MusicSummary> shelf = new ArrayList<>(shelfSize);
+        for (long id : ids) {
+            Music music = byId.get(id);
+            if (music != null) {
+                shelf.add(toSummary(music));
+            }
+        }
+        return shelf;
+    }
+
+    private void fill(List<MusicSummary> shelf, List<Music> catalog) {
+        Set<Long> included = shelf.stream().map(MusicSummary::getId).collect(Collectors.toSet());
+        for (Music music : catalog) {
+            if (shelf.size() == shelfSize) {
+                break;
+            }
+            if (included.add(music.getId())) {
+                shelf.add(toSummary(music));
+            }
+        }
+    }
+
+    private MusicSummary toSummary(Music music) {
+        return MusicSummary.builder()
+                .id(music.getId())
+                .title(music.getTitle())
+                .genre(music.getGenre().name())
+                .durationSeconds(music.getDurationSeconds())
+                .build();
+    }
+
+    private record Shelves(List<MusicSummary> popular, Map<Genre, List<MusicSummary>> byGenre, List<Genre> genres) {
+        static final Shelves EMPTY = new Shelves(List.of(), Map.of(), List.of());
+    }
+}
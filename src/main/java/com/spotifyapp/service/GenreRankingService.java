@@ -0,0 +1,76 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.util.RankedTrackList;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GenreRankingService {
+
+    private final ListeningHistoryRepository listeningHistoryRepository;
+
+    @Value("${recommendation.genre-ranking.window-days:30}")
+    private int windowDays;
+
+    private volatile Map<Genre, RankedTrackList> rankings = Collections.emptyMap();
+    private volatile Map<Long, RankedTrackList> artistRankings = Collections.emptyMap();
+    private volatile RankedTrackList overallRanking = RankedTrackList.empty();
+
+    // Rebuilt periodically; readers always see a complete snapshot
+    @Scheduled(fixedRateString = "${recommendation.genre-ranking.refresh-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void refreshRankings() {
+        LocalDateTime since = LocalDateTime.now().minusDays(windowDays);
+        List<Object[]> listenCounts = listeningHistoryRepository.findListenCountsByMusicSince(since);
+
+        Map<Genre, RankedTrackList.Builder> builders = new EnumMap<>(Genre.class);
+        Map<Long, RankedTrackList.Builder> artistBuilders = new HashMap<>();
+        RankedTrackList.Builder overall = RankedTrackList.builder();
+        for (Object[] row : listenCounts) {
+            Genre genre = (Genre) row[0];
+            Long musicId = (Long) row[1];
+            Long count = (Long) row[2];
+            Long artistId = (Long) row[3];
+            builders.computeIfAbsent(genre, g -> RankedTrackList.builder()).add(musicId, count);
+            artistBuilders.computeIfAbsent(artistId, a -> RankedTrackList.builder()).add(musicId, count);
+            overall.add(musicId, count);
+        }
+
+        Map<Genre, RankedTrackList> refreshed = new EnumMap<>(Genre.class);
+        builders.forEach((genre, builder) -> refreshed.put(genre, builder.build()));
+        Map<Long, RankedTrackList> refreshedArtists = new HashMap<>(artistBuilders.size() * 2);
+        artistBuilders.forEach((artistId, builder) -> refreshedArtists.put(artistId, builder.build()));
+        rankings = Collections.unmodifiableMap(refreshed);
+        artistRankings = Collections.unmodifiableMap(refreshedArtists);
+        overallRanking = overall.build();
+
+        log.info("Genre rankings refreshed: {} tracks across {} genres", listenCounts.size(), refreshed.size());
+    }
+
+    public RankedTrackList getRanking(Genre genre) {
+        return rankings.getOrDefault(genre, RankedTrackList.empty());
+    }
+
+    public RankedTrackList getArtistRanking(Long artistId) {
+        return artistRankings.getOrDefault(artistId, RankedTrackList.empty());
+    }
+
+    public RankedTrackList getOverallRanking() {
+        return overallRanking;
+    }
+}
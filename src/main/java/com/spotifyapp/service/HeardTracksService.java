@@ -0,0 +1,72 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.User;
+import com.spotifyapp.repository.HeardTracksFilterRepository;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class HeardTracksService {
+
+    private final HeardTracksFilterRepository heardTracksFilterRepository;
+    private final ListeningHistoryRepository listeningHistoryRepository;
+
+    @Value("${recommendation.heard-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${recommendation.heard-filter.min-capacity:256}")
+    private int minCapacity;
+
+    @Transactional
+    public void recordListen(User user, Music music) {
+        // Filters are built on first use; until then there is nothing to keep current
+        heardTracksFilterRepository.findByIdForUpdate(user.getId()).ifPresent(stored -> {
+            BloomFilter filter = BloomFilter.fromBytes(stored.getBits());
+            if (!filter.put(music.getId())) {
+                return;
+            }
+
+            if (stored.getInsertions() + 1 > stored.getCapacity()) {
+                // Past capacity the false-positive rate degrades; resize on next use
+                heardTracksFilterRepository.delete(stored);
+                return;
+            }
+
+            stored.setBits(filter.toBytes());
+            stored.setInsertions(stored.getInsertions() + 1);
+            heardTracksFilterRepository.save(stored);
+        });
+    }
+
+    @Transactional
+    public BloomFilter getHeardTracks(User user) {
+        return heardTracksFilterRepository.findById(user.getId())
+                .map(stored -> BloomFilter.fromBytes(stored.getBits()))
+                .orElseGet(() -> build(user));
+    }
+
+    private BloomFilter build(User user) {
+        List<Long> heardIds = listeningHistoryRepository.findDistinctMusicIdsByUser(user);
+
+        // Leave headroom so the filter survives a while of new listens before resizing
+        int capacity = Math.max(minCapacity, heardIds.size() * 2);
+        BloomFilter filter = BloomFilter.create(capacity, falsePositiveRate);
+        for (Long musicId : heardIds) {
+            filter.put(musicId);
+        }
+
+        // A concurrent build may have stored its filter first; serve whichever row won
+        heardTracksFilterRepository.insertIfAbsent(user.getId(), filter.toBytes(), capacity, heardIds.size());
+        return heardTracksFilterRepository.findById(user.getId())
+                .map(stored -> BloomFilter.fromBytes(stored.getBits()))
+                .orElse(filter);
+    }
+}
@@ -0,0 +1,65 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.SliceResponse;
+import com.spotifyapp.exception.BadRequestException;
+import com.spotifyapp.util.CursorCodec;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Glue between opaque cursors and Spring Data keyset scrolling. Every sort ends with the
+ * id, so positions are unique and each slice is one index seek plus a LIMIT, with no
+ * OFFSET and no COUNT query.
+ */
+final class KeysetPages {
+
+    private KeysetPages() {
+    }
+
+    static Sort sort(String name, Map<String, Sort> options) {
+        Sort sort = options.get(name);
+        if (sort == null) {
+            throw new BadRequestException("Unknown sort '" + name + "', expected one of " + options.keySet());
+        }
+        return sort;
+    }
+
+    static ScrollPosition position(String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys;
+        try {
+            keys = CursorCodec.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        Set<String> properties = sort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet());
+        if (!properties.equals(new HashSet<>(keys.keySet()))) {
+            throw new BadRequestException("Cursor does not match the sort order");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    static <E, R> SliceResponse<R> slice(Window<E> window, Function<E, R> mapper) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = CursorCodec.encode(last.getKeys());
+        }
+        return SliceResponse.<R>builder()
+                .content(window.map(mapper).getContent())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
@@ -0,0 +1,316 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.recommendation.ModelReport;
+import com.spotifyapp.event.FactorModelUpdatedEvent;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.util.FactorModel;
+import com.spotifyapp.util.ImplicitAls;
+import com.spotifyapp.util.InteractionMatrix;
+import com.spotifyapp.util.SparseMatrix;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class MatrixFactorizationService {
+
+    private static final long EVALUATION_SEED = 42L;
+
+    private final ListeningHistoryRepository listeningHistoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${recommendation.mf.model-path:data/mf-model.bin}")
+    private String modelPath;
+
+    @Value("${recommendation.mf.factors:32}")
+    private int factors;
+
+    @Value("${recommendation.mf.iterations:10}")
+    private int iterations;
+
+    @Value("${recommendation.mf.regularization:0.1}")
+    private double regularization;
+
+    @Value("${recommendation.mf.alpha:40}")
+    private double alpha;
+
+    @Value("${recommendation.mf.threads:0}")
+    private int threads;
+
+    @Value("${recommendation.mf.evaluation-users:1000}")
+    private int evaluationUsers;
+
+    @Value("${recommendation.mf.evaluation-top-n:20}")
+    private int evaluationTopN;
+
+    private volatile FactorModel model;
+
+    // The nightly run and the admin endpoint would otherwise write the same model file
+    private final AtomicBoolean training = new AtomicBoolean();
+
+    public MatrixFactorizationService(ListeningHistoryRepository listeningHistoryRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      ApplicationEventPublisher eventPublisher) {
+        this.listeningHistoryRepository = listeningHistoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void loadModel() {
+        Path path = Path.of(modelPath);
+        if (!Files.exists(path)) {
+            log.info("No factor model at {}; personalized mixes are empty until the first training run", path);
+            return;
+        }
+        try {
+            model = FactorModel.open(path);
+            log.info("Loaded factor model: {} users, {} items", model.userCount(), model.itemCount());
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Could not load factor model from {}", path, e);
+        }
+    }
+
+    // Run every night at 03:30
+    @Scheduled(cron = "${recommendation.mf.training-cron:0 30 3 * * *}")
+    public void trainNightly() {
+        if (!trainModel()) {
+            log.info("Factor model training already running, skipping the nightly run");
+        }
+    }
+
+    /**
+     * Trains and publishes a new model. Returns false without training when another run
+     * is still in progress.
+     */
+    public boolean trainModel() {
+        if (!training.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            train();
+            return true;
+        } finally {
+            training.set(false);
+        }
+    }
+
+    private void train() {
+        InteractionMatrix data = loadInteractions();
+        if (data.userIds().length == 0) {
+            log.info("No listening history yet, skipping factor model training");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        ImplicitAls.Factors trained = als().train(data.matrix(), System.nanoTime());
+
+        try {
+            Path target = Path.of(modelPath).toAbsolutePath();
+            Files.createDirectories(target.getParent());
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            FactorModel.write(temp, data.userIds(), data.itemIds(), factors,
+                    trained.userFactors(), trained.itemFactors());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            FactorModel previous = model;
+            model = FactorModel.open(target);
+            if (previous != null) {
+                // Unmapped once the last request scoring against it is done
+                previous.release();
+            }
+        } catch (IOException e) {
+            log.error("Failed to publish factor model", e);
+            return;
+        }
+
+        log.info("Factor model trained in {} ms: {} users, {} items, {} interactions",
+                System.currentTimeMillis() - start, data.userIds().length, data.itemIds().length,
+                data.matrix().entries());
+        eventPublisher.publishEvent(new FactorModelUpdatedEvent(data.itemIds().length));
+    }
+
+    /**
+     * Offline quality and latency report: holds out one listened track for a sample of users,
+     * trains on the rest and checks whether the held-out track makes the user's top N.
+     * The published model is left untouched.
+     */
+    public ModelReport evaluateModel() {
+        InteractionMatrix data = loadInteractions();
+        SparseMatrix full = data.matrix();
+        Random random = new Random(EVALUATION_SEED);
+
+        int[] candidates = new int[full.rows()];
+        int candidateCount = 0;
+        for (int user = 0; user < full.rows(); user++) {
+            if (full.rowEnd(user) - full.rowStart(user) >= 2) {
+                candidates[candidateCount++] = user;
+            }
+        }
+        for (int i = candidateCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = candidates[i];
+            candidates[i] = candidates[j];
+            candidates[j] = swap;
+        }
+
+        int sampleSize = Math.min(evaluationUsers, candidateCount);
+        int[] sampledUsers = Arrays.copyOf(candidates, sampleSize);
+        int[] heldOutItems = new int[sampleSize];
+        boolean[] dropped = new boolean[full.entries()];
+        for (int i = 0; i < sampleSize; i++) {
+            int user = sampledUsers[i];
+            int entry = full.rowStart(user) + random.nextInt(full.rowEnd(user) - full.rowStart(user));
+            dropped[entry] = true;
+            heldOutItems[i] = full.columnAt(entry);
+        }
+        SparseMatrix training = full.without(dropped);
+
+        long start = System.currentTimeMillis();
+        ImplicitAls.Factors trained = als().train(training, EVALUATION_SEED);
+        long trainingMillis = System.currentTimeMillis() - start;
+
+        int hits = 0;
+        long[] latencies = new long[sampleSize];
+        Path temp = null;
+        FactorModel candidate = null;
+        try {
+            temp = Files.createTempFile("mf-evaluation", ".bin");
+            FactorModel.write(temp, data.userIds(), data.itemIds(), factors,
+                    trained.userFactors(), trained.itemFactors());
+            candidate = FactorModel.open(temp);
+
+            for (int i = 0; i < sampleSize; i++) {
+                int user = sampledUsers[i];
+                Set<Long> seen = new HashSet<>();
+                for (int p = training.rowStart(user); p < training.rowEnd(user); p++) {
+                    seen.add(data.itemIds()[training.columnAt(p)]);
+                }
+
+                long scoringStart = System.nanoTime();
+                long[] recommended = candidate.recommend(data.userIds()[user], evaluationTopN + seen.size());
+                latencies[i] = System.nanoTime() - scoringStart;
+
+                long heldOut = data.itemIds()[heldOutItems[i]];
+                int ranked = 0;
+                for (long itemId : recommended) {
+                    if (ranked == evaluationTopN) {
+                        break;
+                    }
+                    if (seen.contains(itemId)) {
+                        continue;
+                    }
+                    if (itemId == heldOut) {
+                        hits++;
+                        break;
+                    }
+                    ranked++;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write evaluation model", e);
+        } finally {
+            if (candidate != null) {
+                candidate.release();
+            }
+            deleteQuietly(temp);
+        }
+
+        Arrays.sort(latencies);
+        ModelReport report = ModelReport.builder()
+                .users(data.userIds().length)
+                .items(data.itemIds().length)
+                .interactions(full.entries())
+                .factors(factors)
+                .iterations(iterations)
+                .trainingMillis(trainingMillis)
+                .evaluatedUsers(sampleSize)
+                .topN(evaluationTopN)
+                .hitRate(sampleSize == 0 ? 0.0 : (double) hits / sampleSize)
+                .scoringP50Micros(percentileMicros(latencies, 0.50))
+                .scoringP99Micros(percentileMicros(latencies, 0.99))
+                .build();
+        log.info("Factor model evaluation: {}", report);
+        return report;
+    }
+
+    /**
+     * The model currently served, or null before the first training run. The caller holds
+     * a reference and must {@link FactorModel#release() release} it when done.
+     */
+    public FactorModel acquireModel() {
+        while (true) {
+            FactorModel current = model;
+            // A failed retain means the model was replaced meanwhile; pick up the new one
+            if (current == null || current.retain()) {
+                return current;
+            }
+        }
+    }
+
+    public long[] recommend(Long userId, int n) {
+        FactorModel current = acquireModel();
+        if (current == null) {
+            return new long[0];
+        }
+        try {
+            return current.recommend(userId, n);
+        } finally {
+            current.release();
+        }
+    }
+
+    private InteractionMatrix loadInteractions() {
+        return readOnlyTransaction.execute(status -> {
+            InteractionMatrix.Builder builder = InteractionMatrix.builder();
+            try (Stream<Object[]> rows = listeningHistoryRepository.streamPlayCounts()) {
+                // Log-scaled play counts keep a few obsessive repeats from dominating a user's row
+                rows.forEach(row -> builder.add((Long) row[0], (Long) row[1],
+                        (float) Math.log1p((Long) row[2])));
+            }
+            return builder.build();
+        });
+    }
+
+    private ImplicitAls als() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ImplicitAls(factors, regularization, alpha, iterations, poolSize);
+    }
+
+    private static Long percentileMicros(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0L;
+        }
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(index, 0)] / 1000;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Could not delete {}", path, e);
+        }
+    }
+}
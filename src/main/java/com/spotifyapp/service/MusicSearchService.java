@@ -0,0 +1,211 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.event.AlbumChangedEvent;
+import com.spotifyapp.event.ArtistChangedEvent;
+import com.spotifyapp.event.MusicChangedEvent;
+import com.spotifyapp.exception.BadRequestException;
+import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.repository.projection.MusicSearchRow;
+import com.spotifyapp.util.FacetColumns;
+import com.spotifyapp.util.TrigramIndex;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Title and artist search served from an in-process trigram index, kept current from
+ * music and artist change events. With {@code search.mode: database} the index is not
+ * built and queries run against the PostgreSQL full-text and trigram indexes instead, and
+ * facets are not available.
+ */
+@Service
+@Slf4j
+public class MusicSearchService {
+
+    private static final String DATABASE_MODE = "database";
+
+    private final MusicRepository musicRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${search.index.compaction-threshold:5000}")
+    private int compactionThreshold;
+
+    @Value("${search.index.max-spelling-terms:100000}")
+    private int maxSpellingTerms;
+
+    @Value("${search.mode:memory}")
+    private String mode;
+
+    @Value("${search.database.popularity-weight:0.1}")
+    private double popularityWeight;
+
+    private volatile TrigramIndex index;
+
+    public MusicSearchService(MusicRepository musicRepository, PlatformTransactionManager transactionManager) {
+        this.musicRepository = musicRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void buildIndex() {
+        if (usesDatabase()) {
+            log.info("Search served by PostgreSQL full-text and trigram indexes");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        TrigramIndex built = readOnlyTransaction.execute(status -> {
+            TrigramIndex.Builder builder = TrigramIndex.builder().maxSpellingTerms(maxSpellingTerms);
+            try (Stream<MusicSearchRow> rows = musicRepository.streamSearchRows()) {
+                rows.forEach(row -> builder.add(row.getId(), row.getArtistId(), row.getTitle(), row.getArtistName(),
+                        facetValues(row)));
+            }
+            return builder.build();
+        });
+        synchronized (this) {
+            index = built;
+        }
+        log.info("Search index built in {} ms: {} tracks", System.currentTimeMillis() - start, built.size());
+    }
+
+    /**
+     * One page of matching music ids, or empty when the index cannot answer the query
+     * (too short, or not built yet) and the caller should fall back to the database.
+     */
+    public Optional<TrigramIndex.Hits> search(String query, int offset, int limit) {
+        if (!TrigramIndex.isSearchable(query)) {
+            return Optional.empty();
+        }
+        if (usesDatabase()) {
+            return Optional.of(searchDatabase(query.trim(), offset, limit));
+        }
+        return searchIndex(query, FacetColumns.Filter.NONE, offset, limit);
+    }
+
+    /**
+     * Like {@link #search(String, int, int)}, restricted to tracks that pass the filter
+     * and with facet counts over all matches. Only the in-memory index has facets.
+     */
+    public Optional<TrigramIndex.Hits> search(String query, FacetColumns.Filter filter, int offset, int limit) {
+        if (usesDatabase()) {
+            throw new BadRequestException("Faceted search is not available in database search mode");
+        }
+        if (!TrigramIndex.isSearchable(query)) {
+            return Optional.empty();
+        }
+        return searchIndex(query, filter, offset, limit);
+    }
+
+    private Optional<TrigramIndex.Hits> searchIndex(String query, FacetColumns.Filter filter, int offset, int limit) {
+        TrigramIndex current = index;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.search(query, filter, offset, limit));
+    }
+
+    // Applied before SearchResultCache retires its pages for the same change
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMusicChanged(MusicChangedEvent event) {
+        if (event.getChangeType() == MusicChangedEvent.ChangeType.DELETED) {
+            remove(event.getMusicId());
+            return;
+        }
+        musicRepository.findSearchRowById(event.getMusicId())
+                .ifPresentOrElse(this::put, () -> remove(event.getMusicId()));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArtistChanged(ArtistChangedEvent event) {
+        // Artist names are indexed with every one of their tracks
+        musicRepository.findSearchRowsByArtistId(event.getArtistId()).forEach(this::put);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlbumChanged(AlbumChangedEvent event) {
+        // The release year facet comes from the album
+        musicRepository.findSearchRowsByAlbumId(event.getAlbumId()).forEach(this::put);
+    }
+
+    // Writers are serialized with compaction so that no change lands in a replaced index
+    @Scheduled(fixedDelayString = "${search.index.compaction-interval-ms:60000}")
+    public synchronized void compactIfNeeded() {
+        TrigramIndex current = index;
+        if (current == null || current.pendingChanges() == 0) {
+            return;
+        }
+        index = current.compact();
+        log.debug("Search index compacted: {} tracks", index.size());
+    }
+
+    private TrigramIndex.Hits searchDatabase(String query, int offset, int limit) {
+        String pattern = likePattern(query);
+        List<Object[]> rows = musicRepository.searchMusicRanked(query, pattern, popularityWeight, offset, limit);
+        long[] musicIds = new long[rows.size()];
+        for (int i = 0; i < musicIds.length; i++) {
+            musicIds[i] = ((Number) rows.get(i)[0]).longValue();
+        }
+        long total;
+        if (!rows.isEmpty()) {
+            total = ((Number) rows.get(0)[1]).longValue();
+        } else {
+            // A page past the end carries no window count
+            total = offset == 0 ? 0 : musicRepository.countSearchMusicRanked(query, pattern);
+        }
+        return new TrigramIndex.Hits((int) Math.min(total, Integer.MAX_VALUE), musicIds);
+    }
+
+    static String likePattern(String query) {
+        String escaped = query.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static FacetColumns.Values facetValues(MusicSearchRow row) {
+        return new FacetColumns.Values(
+                row.getGenre() != null ? row.getGenre().ordinal() : FacetColumns.UNKNOWN,
+                row.getDurationSeconds() != null ? row.getDurationSeconds() : FacetColumns.UNKNOWN,
+                row.getReleaseDate() != null ? row.getReleaseDate().getYear() : FacetColumns.UNKNOWN);
+    }
+
+    private boolean usesDatabase() {
+        return DATABASE_MODE.equalsIgnoreCase(mode);
+    }
+
+    private synchronized void put(MusicSearchRow row) {
+        if (index != null) {
+            index.put(row.getId(), row.getArtistId(), row.getTitle(), row.getArtistName(), facetValues(row));
+            compactIfOverThreshold();
+        }
+    }
+
+    private synchronized void remove(Long musicId) {
+        if (index != null) {
+            index.remove(musicId);
+            compactIfOverThreshold();
+        }
+    }
+
+    private void compactIfOverThreshold() {
+        if (index.pendingChanges() >= compactionThreshold) {
+            index = index.compact();
+        }
+    }
+}
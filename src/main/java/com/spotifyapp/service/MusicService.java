@@ -1,32 +1,69 @@
 package com.spotifyapp.service;
 
+import com.spotifyapp.dto.SliceResponse;
+import com.spotifyapp.dto.music.FacetedSearchResponse;
 import com.spotifyapp.dto.music.MusicRequest;
 import com.spotifyapp.dto.music.MusicResponse;
+import com.spotifyapp.event.MusicChangedEvent;
+import com.spotifyapp.exception.BadRequestException;
 import com.spotifyapp.exception.ResourceNotFoundException;
 import com.spotifyapp.exception.UnauthorizedException;
 import com.spotifyapp.model.entity.Album;
 import com.spotifyapp.model.entity.ListeningHistory;
 import com.spotifyapp.model.entity.Music;
 import com.spotifyapp.model.entity.User;
+import com.spotifyapp.model.enums.Genre;
 import com.spotifyapp.model.enums.UserRole;
 import com.spotifyapp.repository.AlbumRepository;
 import com.spotifyapp.repository.ListeningHistoryRepository;
 import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.repository.PlaylistRepository;
 import com.spotifyapp.repository.UserRepository;
+import com.spotifyapp.repository.projection.MusicListRow;
+import com.spotifyapp.util.FacetColumns;
+import com.spotifyapp.util.TrigramIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class MusicService {
 
+    private static final int MAX_BATCH_IDS = 300;
+    private static final Map<String, Sort> SCROLL_SORTS = Map.of(
+            "newest", Sort.by(Sort.Direction.DESC, "createdAt", "id"),
+            "title", Sort.by("title", "id"));
+
     private final MusicRepository musicRepository;
     private final UserRepository userRepository;
     private final AlbumRepository albumRepository;
     private final ListeningHistoryRepository listeningHistoryRepository;
+    private final PlaylistRepository playlistRepository;
+    private final TasteProfileService tasteProfileService;
+    private final HeardTracksService heardTracksService;
+    private final SimilarTrackService similarTrackService;
+    private final MusicSearchService musicSearchService;
+    private final SearchResultCache searchResultCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public MusicResponse createMusic(MusicRequest request, Long artistId) {
@@ -57,6 +94,7 @@ public class MusicService {
                 .build();
 
         music = musicRepository.save(music);
+        publishChange(music, MusicChangedEvent.ChangeType.CREATED);
         return mapToResponse(music);
     }
 
@@ -75,24 +113,137 @@ public class MusicService {
                     .music(music)
                     .build();
 
+            // Before the history row, so a profile backfilled on first listen doesn't count this one twice
+            tasteProfileService.recordListen(user, music);
             listeningHistoryRepository.save(history);
+            heardTracksService.recordListen(user, music);
         }
 
         return mapToResponse(music);
     }
 
+    /**
+     * Tracks for the given ids in request order, for clients rendering queues and lists.
+     * Unknown or deleted ids are left out. Unlike {@link #getMusicById} no listen is recorded.
+     * Repeated ids, as in a queue, are returned each time and count once towards the limit.
+     */
+    @Transactional(readOnly = true)
+    public List<MusicResponse> getMusicByIds(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " distinct ids per request");
+        }
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Music> byId = musicRepository.findAllWithArtistByIdIn(distinct).stream()
+                .filter(music -> !Boolean.TRUE.equals(music.getIsDeleted()))
+                .collect(Collectors.toMap(Music::getId, music -> music));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
+    public List<MusicResponse> getSimilarMusic(Long id, int limit) {
+        Music music = musicRepository.findByIdAndIsDeletedFalse(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Music not found"));
+
+        List<Long> similarIds = similarTrackService.findSimilarIds(music.getId(), limit);
+        Map<Long, Music> byId = musicRepository.findAllWithArtistByIdIn(similarIds).stream()
+                .filter(similar -> !Boolean.TRUE.equals(similar.getIsDeleted()))
+                .collect(Collectors.toMap(Music::getId, similar -> similar));
+        return similarIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     public Page<MusicResponse> searchMusic(String query, Pageable pageable) {
-        return musicRepository.searchMusic(query, pageable)
-                .map(this::mapToResponse);
+        return searchResultCache.get(query, pageable, this::findMusic);
+    }
+
+    private Page<MusicResponse> findMusic(String query, Pageable pageable) {
+        Optional<TrigramIndex.Hits> hits = musicSearchService.search(
+                query, (int) pageable.getOffset(), pageable.getPageSize());
+        if (hits.isEmpty()) {
+            // Queries shorter than a trigram scan the table
+            return musicRepository.searchMusic(query, pageable)
+                    .map(this::mapToResponse);
+        }
+
+        return new PageImpl<>(loadInOrder(hits.get().musicIds()), pageable, hits.get().total());
+    }
+
+    @Transactional(readOnly = true)
+    public FacetedSearchResponse searchMusicFaceted(String query, List<Genre> genres, List<String> durations,
+                                                    List<Integer> years, Pageable pageable) {
+        Set<Integer> durationBuckets = new HashSet<>();
+        for (String duration : durations) {
+            int bucket = FacetColumns.durationBucket(duration);
+            if (bucket == FacetColumns.UNKNOWN) {
+                throw new BadRequestException("Unknown duration range: " + duration);
+            }
+            durationBuckets.add(bucket);
+        }
+        FacetColumns.Filter filter = new FacetColumns.Filter(
+                genres.stream().map(Genre::ordinal).collect(Collectors.toSet()),
+                durationBuckets,
+                Set.copyOf(years));
+
+        TrigramIndex.Hits hits = musicSearchService.search(query, filter, (int) pageable.getOffset(), pageable.getPageSize())
+                .orElseThrow(() -> new BadRequestException(
+                        "Query must have at least " + TrigramIndex.GRAM + " characters"));
+
+        FacetColumns.Facets facets = hits.facets();
+        Map<String, Integer> genreCounts = new LinkedHashMap<>();
+        facets.genres().forEach((code, count) -> genreCounts.put(Genre.values()[code].name(), count));
+        Map<String, Integer> durationCounts = new LinkedHashMap<>();
+        facets.durationBuckets().forEach((bucket, count) -> durationCounts.put(FacetColumns.durationLabel(bucket), count));
+
+        return FacetedSearchResponse.builder()
+                .content(loadInOrder(hits.musicIds()))
+                .page(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .totalElements(hits.total())
+                .genres(genreCounts)
+                .durations(durationCounts)
+                .releaseYears(facets.years())
+                .build();
+    }
+
+    private List<MusicResponse> loadInOrder(long[] musicIds) {
+        List<Long> ids = Arrays.stream(musicIds).boxed().collect(Collectors.toList());
+        Map<Long, Music> byId = musicRepository.findAllWithArtistByIdIn(ids).stream()
+                .collect(Collectors.toMap(Music::getId, music -> music));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public Page<MusicResponse> getAllMusic(Pageable pageable) {
-        return musicRepository.findByIsDeletedFalse(pageable)
+        return musicRepository.findListRows(pageable)
                 .map(this::mapToResponse);
     }
 
+    /**
+     * One slice of the catalog after the cursor position; cost does not grow with depth.
+     */
+    @Transactional(readOnly = true)
+    public SliceResponse<MusicResponse> scrollMusic(String cursor, String sort, int size) {
+        Sort order = KeysetPages.sort(sort, SCROLL_SORTS);
+        Window<Music> window = musicRepository.findByIsDeletedFalse(
+                KeysetPages.position(cursor, order), order, Limit.of(size));
+        return KeysetPages.slice(window, this::mapToResponse);
+    }
+
     @Transactional
     public MusicResponse updateMusic(Long id, MusicRequest request, Long userId) {
         Music music = musicRepository.findByIdAndIsDeletedFalse(id)
@@ -112,12 +263,18 @@ public class MusicService {
             music.setAlbum(album);
         }
 
+        boolean durationChanged = !Objects.equals(music.getDurationSeconds(), request.getDurationSeconds());
         music.setTitle(request.getTitle());
         music.setGenre(request.getGenre());
         music.setDurationSeconds(request.getDurationSeconds());
         music.setFileUrl(request.getFileUrl());
 
         music = musicRepository.save(music);
+        if (durationChanged) {
+            // Playlist totals include this track's duration
+            playlistRepository.recountTotalsForMusic(music.getId());
+        }
+        publishChange(music, MusicChangedEvent.ChangeType.UPDATED);
         return mapToResponse(music);
     }
 
@@ -132,6 +289,7 @@ public class MusicService {
 
         music.setIsDeleted(true);
         musicRepository.save(music);
+        publishChange(music, MusicChangedEvent.ChangeType.DELETED);
     }
 
     @Transactional
@@ -140,6 +298,11 @@ public class MusicService {
                 .orElseThrow(() -> new ResourceNotFoundException("Music not found"));
         music.setIsDeleted(true);
         musicRepository.save(music);
+        publishChange(music, MusicChangedEvent.ChangeType.DELETED);
+    }
+
+    private void publishChange(Music music, MusicChangedEvent.ChangeType changeType) {
+        eventPublisher.publishEvent(new MusicChangedEvent(music.getId(), music.getArtist().getId(), changeType));
     }
 
     private MusicResponse mapToResponse(Music music) {
@@ -154,4 +317,17 @@ public class MusicService {
                 .fileUrl(music.getFileUrl())
                 .build();
     }
+
+    private MusicResponse mapToResponse(MusicListRow row) {
+        return MusicResponse.builder()
+                .id(row.getId())
+                .title(row.getTitle())
+                .artistName(row.getArtistName())
+                .artistId(row.getArtistId())
+                .genre(row.getGenre().name())
+                .albumTitle(row.getAlbumTitle())
+                .durationSeconds(row.getDurationSeconds())
+                .fileUrl(row.getFileUrl())
+                .build();
+    }
 }
@@ -1,8 +1,11 @@
 package com.spotifyapp.service;
 
+import com.spotifyapp.dto.music.MusicSummary;
 import com.spotifyapp.dto.playlist.PlaylistRequest;
 import com.spotifyapp.dto.playlist.PlaylistResponse;
 import com.spotifyapp.dto.playlist.PlaylistSongResponse;
+import com.spotifyapp.dto.playlist.PlaylistSongsBatchRequest;
+import com.spotifyapp.dto.playlist.PlaylistSongsBatchRequest.OperationType;
 import com.spotifyapp.exception.BadRequestException;
 import com.spotifyapp.exception.ResourceNotFoundException;
 import com.spotifyapp.exception.UnauthorizedException;
@@ -16,11 +19,18 @@ import com.spotifyapp.repository.PlaylistRepository;
 import com.spotifyapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,6 +41,8 @@ public class PlaylistService {
     private final PlaylistMusicRepository playlistMusicRepository;
     private final MusicRepository musicRepository;
     private final UserRepository userRepository;
+    private final PlaylistSuggestionService playlistSuggestionService;
+    private final PlaylistTrackWriter playlistTrackWriter;
 
     @Transactional
     public PlaylistResponse createPlaylist(PlaylistRequest request, Long userId) {
@@ -53,17 +65,23 @@ public class PlaylistService {
         User user = userRepository.findByIdAndIsDeletedFalse(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        return playlistRepository.findByOwnerAndIsDeletedFalse(user, pageable)
-                .map(this::mapToResponse);
+        return playlistRepository.findByOwnerAndIsDeletedFalse(user, pageable).map(this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public PlaylistResponse getPlaylistById(Long id) {
-        Playlist playlist = playlistRepository.findByIdAndIsDeletedFalse(id)
+        Playlist playlist = playlistRepository.findWithOwnerByIdAndIsDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Playlist not found"));
         return mapToResponseWithSongs(playlist);
     }
 
+    @Transactional(readOnly = true)
+    public List<PlaylistResponse> searchPlaylists(String query, int limit) {
+        return playlistRepository.searchByName(query, PageRequest.of(0, limit)).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public PlaylistResponse updatePlaylist(Long id, PlaylistRequest request, Long userId) {
         Playlist playlist = playlistRepository.findByIdAndIsDeletedFalse(id)
@@ -131,6 +149,7 @@ public class PlaylistService {
                 .build();
 
         playlistMusicRepository.save(playlistMusic);
+        playlistRepository.adjustTotals(playlist.getId(), 1, durationOf(music));
     }
 
     @Transactional
@@ -149,12 +168,115 @@ public class PlaylistService {
         Music music = musicRepository.findByIdAndIsDeletedFalse(musicId)
                 .orElseThrow(() -> new ResourceNotFoundException("Music not found"));
 
-        playlistMusicRepository.deleteByPlaylistAndMusic(playlist, music);
+        if (playlistMusicRepository.deleteByPlaylistAndMusic(playlist, music) > 0) {
+            playlistRepository.adjustTotals(playlist.getId(), -1, -durationOf(music));
+        }
     }
 
-    private PlaylistResponse mapToResponse(Playlist playlist) {
-        long songCount = playlistMusicRepository.countByPlaylist(playlist);
+    /**
+     * Applies add, remove and move operations in order, all or nothing. Costs the same
+     * handful of statements however many operations there are: one lookup for the added
+     * tracks, one for the current rows, then batched deletes, inserts and position updates.
+     */
+    @Transactional
+    public void updateSongs(Long playlistId, PlaylistSongsBatchRequest request, Long userId) {
+        // Locked before its rows are read: concurrent batches each diff against the current rows
+        Playlist playlist = playlistRepository.findByIdForUpdate(playlistId)
+                .orElseThrow(() -> new ResourceNotFoundException("Playlist not found"));
+
+        if (!playlist.getOwner().getId().equals(userId)) {
+            throw new UnauthorizedException("You can only modify your own playlists");
+        }
+
+        if (playlist.getIsSystemGenerated()) {
+            throw new UnauthorizedException("Cannot modify system-generated playlists");
+        }
+
+        Set<Long> addedIds = request.getOperations().stream()
+                .filter(operation -> operation.getType() == OperationType.ADD)
+                .map(PlaylistSongsBatchRequest.Operation::getMusicId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Music> tracks = new HashMap<>();
+        if (!addedIds.isEmpty()) {
+            for (Music music : musicRepository.findAllById(addedIds)) {
+                if (!Boolean.TRUE.equals(music.getIsDeleted())) {
+                    tracks.put(music.getId(), music);
+                }
+            }
+            if (tracks.size() < addedIds.size()) {
+                addedIds.removeAll(tracks.keySet());
+                throw new ResourceNotFoundException("Music not found: " + addedIds);
+            }
+        }
+
+        List<PlaylistMusic> current = playlistMusicRepository.findByPlaylistOrderByPositionAsc(playlist);
+        List<Long> order = new ArrayList<>(current.size() + addedIds.size());
+        for (PlaylistMusic entry : current) {
+            order.add(entry.getMusic().getId());
+            tracks.putIfAbsent(entry.getMusic().getId(), entry.getMusic());
+        }
 
+        for (PlaylistSongsBatchRequest.Operation operation : request.getOperations()) {
+            Long musicId = operation.getMusicId();
+            switch (operation.getType()) {
+                case ADD -> {
+                    if (order.contains(musicId)) {
+                        throw new BadRequestException("Song " + musicId + " already in playlist");
+                    }
+                    order.add(insertionIndex(operation.getPosition(), order.size()), musicId);
+                }
+                case REMOVE -> order.remove(musicId);
+                case MOVE -> {
+                    if (operation.getPosition() == null) {
+                        throw new BadRequestException("Position is required to move a song");
+                    }
+                    if (!order.remove(musicId)) {
+                        throw new BadRequestException("Song " + musicId + " not in playlist");
+                    }
+                    order.add(insertionIndex(operation.getPosition(), order.size()), musicId);
+                }
+            }
+        }
+
+        playlistTrackWriter.replaceTracks(playlist, current, order.stream().map(tracks::get).toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<MusicSummary> getSuggestions(Long playlistId, Long userId, int limit) {
+        Playlist playlist = playlistRepository.findByIdAndIsDeletedFalse(playlistId)
+                .orElseThrow(() -> new ResourceNotFoundException("Playlist not found"));
+
+        if (!playlist.getOwner().getId().equals(userId)) {
+            throw new UnauthorizedException("You can only get suggestions for your own playlists");
+        }
+
+        List<Long> trackIds = playlistMusicRepository.findMusicIdsByPlaylist(playlist);
+        List<Long> suggestedIds = playlistSuggestionService.suggest(trackIds, limit);
+        Map<Long, Music> byId = musicRepository.findAllById(suggestedIds).stream()
+                .filter(music -> !Boolean.TRUE.equals(music.getIsDeleted()))
+                .collect(Collectors.toMap(Music::getId, music -> music));
+        return suggestedIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(music -> MusicSummary.builder()
+                        .id(music.getId())
+                        .title(music.getTitle())
+                        .genre(music.getGenre().name())
+                        .durationSeconds(music.getDurationSeconds())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    // Positions past the end go last
+    private static int insertionIndex(Integer position, int size) {
+        return position == null ? size : Math.min(Math.max(position, 1), size + 1) - 1;
+    }
+
+    private static int durationOf(Music music) {
+        return music.getDurationSeconds() != null ? music.getDurationSeconds() : 0;
+    }
+
+    private PlaylistResponse mapToResponse(Playlist playlist) {
         return PlaylistResponse.builder()
                 .id(playlist.getId())
                 .name(playlist.getName())
@@ -162,12 +284,13 @@ public class PlaylistService {
                 .ownerId(playlist.getOwner().getId())
                 .ownerUsername(playlist.getOwner().getUsername())
                 .isSystemGenerated(playlist.getIsSystemGenerated())
-                .songCount((int) songCount)
+                .songCount(playlist.getSongCount())
+                .totalDurationSeconds(playlist.getTotalDurationSeconds())
                 .build();
     }
 
     private PlaylistResponse mapToResponseWithSongs(Playlist playlist) {
-        List<PlaylistMusic> playlistMusics = playlistMusicRepository.findByPlaylistOrderByPositionAsc(playlist);
+        List<PlaylistMusic> playlistMusics = playlistMusicRepository.findWithMusicByPlaylist(playlist);
 
         List<PlaylistSongResponse> songs = playlistMusics.stream()
                 .map(pm -> PlaylistSongResponse.builder()
@@ -188,6 +311,11 @@ public class PlaylistService {
                 .ownerUsername(playlist.getOwner().getUsername())
                 .isSystemGenerated(playlist.getIsSystemGenerated())
                 .songCount(songs.size())
+                .totalDurationSeconds(songs.stream()
+                        .map(PlaylistSongResponse::getDurationSeconds)
+                        .filter(Objects::nonNull)
+                        .mapToInt(Integer::intValue)
+                        .sum())
                 .songs(songs)
                 .build();
     }
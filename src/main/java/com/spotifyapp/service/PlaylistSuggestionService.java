@@ -0,0 +1,98 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.repository.PlaylistMusicRepository;
+import com.spotifyapp.util.TrackNeighbors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * "Songs to add" for playlists, scored against a track co-occurrence table built
+ * from playlist memberships and listening sessions.
+ */
+@Service
+@Slf4j
+public class PlaylistSuggestionService {
+
+    private final PlaylistMusicRepository playlistMusicRepository;
+    private final ListeningHistoryRepository listeningHistoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${recommendation.playlist-suggestions.window:10}")
+    private int window;
+
+    @Value("${recommendation.playlist-suggestions.max-neighbors:50}")
+    private int maxNeighbors;
+
+    @Value("${recommendation.playlist-suggestions.min-cooccurrence:2}")
+    private float minCooccurrence;
+
+    @Value("${recommendation.playlist-suggestions.listen-weight:0.5}")
+    private float listenWeight;
+
+    @Value("${recommendation.playlist-suggestions.listen-window-days:90}")
+    private int listenWindowDays;
+
+    @Value("${recommendation.playlist-suggestions.max-candidates:4096}")
+    private int maxCandidates;
+
+    private volatile TrackNeighbors neighbors = TrackNeighbors.empty();
+
+    public PlaylistSuggestionService(PlaylistMusicRepository playlistMusicRepository,
+                                     ListeningHistoryRepository listeningHistoryRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.playlistMusicRepository = playlistMusicRepository;
+        this.listeningHistoryRepository = listeningHistoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(fixedRateString = "${recommendation.playlist-suggestions.refresh-interval-ms:3600000}",
+            initialDelayString = "${recommendation.playlist-suggestions.initial-delay-ms:90000}")
+    public void refreshNeighbors() {
+        long start = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusDays(listenWindowDays);
+        TrackNeighbors built = readOnlyTransaction.execute(status -> {
+            TrackNeighbors.Builder builder = TrackNeighbors.builder(window, maxNeighbors);
+            try (Stream<Object[]> rows = playlistMusicRepository.streamPlaylistTracks()) {
+                rows.forEach(row -> builder.add((Long) row[0], (Long) row[1]));
+            }
+            // Listening sessions are a weaker signal than a deliberate playlist pick
+            builder.source(listenWeight);
+            try (Stream<Object[]> rows = listeningHistoryRepository.streamListenSequences(since)) {
+                rows.forEach(row -> builder.add((Long) row[0], (Long) row[1]));
+            }
+            return builder.build(minCooccurrence);
+        });
+
+        neighbors = built;
+        log.info("Playlist suggestion table refreshed in {} ms: {} tracks, {} neighbours",
+                System.currentTimeMillis() - start, built.size(), built.edges());
+    }
+
+    /**
+     * Tracks to add after the given ones (in playlist order), best first.
+     */
+    public List<Long> suggest(List<Long> playlistTrackIds, int limit) {
+        long[] seeds = new long[playlistTrackIds.size()];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = playlistTrackIds.get(i);
+        }
+
+        long[] suggested = neighbors.suggest(seeds, limit, maxCandidates);
+        List<Long> ids = new ArrayList<>(suggested.length);
+        for (long id : suggested) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
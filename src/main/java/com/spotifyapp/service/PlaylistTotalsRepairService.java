@@ -0,0 +1,34 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.repository.PlaylistRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reconciles each playlist's song count and total duration with playlist_music. Writes
+ * through the service layer keep them in step; this fixes playlists created before the
+ * columns existed and rows changed outside the application.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlaylistTotalsRepairService {
+
+    private final PlaylistRepository playlistRepository;
+
+    /**
+     * @return the number of playlists whose totals were corrected
+     */
+    @Scheduled(fixedRateString = "${playlist.totals.repair-interval-ms:86400000}",
+            initialDelayString = "${playlist.totals.initial-delay-ms:120000}")
+    @Transactional
+    public int repairTotals() {
+        long start = System.currentTimeMillis();
+        int repaired = playlistRepository.repairTotals();
+        log.info("Playlist totals checked in {} ms, {} playlists repaired", System.currentTimeMillis() - start, repaired);
+        return repaired;
+    }
+}
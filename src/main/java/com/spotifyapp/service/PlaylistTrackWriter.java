@@ -0,0 +1,108 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.Playlist;
+import com.spotifyapp.model.entity.PlaylistMusic;
+import com.spotifyapp.repository.PlaylistMusicRepository;
+import com.spotifyapp.repository.PlaylistRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites a playlist's track list by diffing it against what is stored:
+ * rows that left are deleted in one statement, rows that stayed only get a
+ * new position when it changed, and only new tracks are inserted. The
+ * playlist's song count and total duration are brought up to date as well.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlaylistTrackWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO playlist_music (playlist_id, music_id, position, added_at) VALUES (?, ?, ?, ?)";
+
+    private final PlaylistMusicRepository playlistMusicRepository;
+    private final PlaylistRepository playlistRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Makes {@code tracks} (in order, duplicates ignored) the content of a saved playlist.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int replaceTracks(Playlist playlist, List<Music> tracks) {
+        return replaceTracks(playlist, playlistMusicRepository.findByPlaylistOrderByPositionAsc(playlist), tracks);
+    }
+
+    /**
+     * As {@link #replaceTracks(Playlist, List)}, for callers that already loaded the
+     * playlist's rows in position order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int replaceTracks(Playlist playlist, List<PlaylistMusic> current, List<Music> tracks) {
+        Set<Long> wanted = new HashSet<>();
+        for (Music music : tracks) {
+            wanted.add(music.getId());
+        }
+
+        Map<Long, PlaylistMusic> kept = new HashMap<>();
+        List<PlaylistMusic> removed = new ArrayList<>();
+        for (PlaylistMusic entry : current) {
+            if (wanted.contains(entry.getMusic().getId())) {
+                kept.put(entry.getMusic().getId(), entry);
+            } else {
+                removed.add(entry);
+            }
+        }
+        if (!removed.isEmpty()) {
+            playlistMusicRepository.deleteAllInBatch(removed);
+        }
+
+        // Kept rows are managed; changed positions are flushed as batched updates
+        List<Object[]> inserted = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> placed = new HashSet<>();
+        int moved = 0;
+        int position = 1;
+        for (Music music : tracks) {
+            if (!placed.add(music.getId())) {
+                continue;
+            }
+            PlaylistMusic existing = kept.get(music.getId());
+            if (existing == null) {
+                inserted.add(new Object[]{playlist.getId(), music.getId(), position, now});
+            } else if (existing.getPosition() != position) {
+                existing.setPosition(position);
+                moved++;
+            }
+            position++;
+        }
+        // Hibernate cannot batch inserts into a table with IDENTITY keys, so new rows go in
+        // as one JDBC batch
+        if (!inserted.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserted);
+        }
+        // Recounted rather than adjusted: the durations of the tracks that left are not loaded
+        if (!removed.isEmpty() || !inserted.isEmpty()) {
+            playlistRepository.recountTotals(playlist.getId());
+        }
+
+        log.debug("Playlist {} refreshed: {} removed, {} moved, {} added",
+                playlist.getId(), removed.size(), moved, inserted.size());
+        return removed.size() + moved + inserted.size();
+    }
+}
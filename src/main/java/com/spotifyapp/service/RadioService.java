@@ -0,0 +1,174 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.music.MusicSummary;
+import com.spotifyapp.dto.recommendation.RadioPageResponse;
+import com.spotifyapp.exception.BadRequestException;
+import com.spotifyapp.exception.ResourceNotFoundException;
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.util.BloomFilter;
+import com.spotifyapp.util.RadioCursor;
+import com.spotifyapp.util.RankedTrackList;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Endless station seeded from one track. Every batch is drawn from the in-memory
+ * genre, artist and popularity rankings; the session lives entirely in the cursor.
+ */
+@Service
+@RequiredArgsConstructor
+public class RadioService {
+
+    private static final double GENRE_SHARE = 0.4;
+    private static final double ARTIST_SHARE = 0.4;
+    private static final int SIMILAR_ARTISTS = 10;
+    private static final int ATTEMPTS_PER_TRACK = 8;
+
+    // Played tracks are kept in two filter generations of this capacity. A full filter would
+    // report nearly every candidate as played, so once the current one reaches its design fill
+    // it becomes the earlier generation and the oldest tracks may play again.
+    private static final int EXCLUSION_CAPACITY = 200;
+    private static final double EXCLUSION_FALSE_POSITIVE_RATE = 0.02;
+    private static final double ROTATE_FILL_RATIO = 0.5;
+    private static final int MAX_FILTER_BYTES = 1024;
+
+    private final MusicRepository musicRepository;
+    private final GenreRankingService genreRankingService;
+    private final ArtistRankService artistRankService;
+
+    // Signs cursors so that clients can only return ones this server issued
+    @Value("${recommendation.radio.cursor-secret:${jwt.secret}}")
+    private String cursorSecret;
+
+    @Transactional(readOnly = true)
+    public RadioPageResponse getRadioPage(Long seedMusicId, String cursor, int size) {
+        if (cursor != null && !cursor.isBlank()) {
+            return nextPage(decode(cursor), size);
+        }
+        if (seedMusicId == null) {
+            throw new BadRequestException("Either seedMusicId or cursor is required");
+        }
+
+        Music seed = musicRepository.findByIdAndIsDeletedFalse(seedMusicId)
+                .orElseThrow(() -> new ResourceNotFoundException("Music not found"));
+
+        BloomFilter played = newExclusionFilter();
+        played.put(seed.getId());
+        RadioCursor start = new RadioCursor(seed.getId(), seed.getGenre().ordinal(), seed.getArtist().getId(),
+                0, ThreadLocalRandom.current().nextLong(), played, newExclusionFilter());
+        return nextPage(start, size);
+    }
+
+    private RadioPageResponse nextPage(RadioCursor cursor, int size) {
+        // Same cursor, same batch: retrying a page is idempotent
+        Random random = new Random(cursor.randomSeed() ^ (cursor.page() * 0x9E3779B97F4A7C15L));
+        Genre genre = Genre.values()[cursor.genreOrdinal()];
+        long[] similarArtists = artistRankService.getNeighbors(cursor.artistId(), SIMILAR_ARTISTS);
+        BloomFilter played = cursor.played();
+        BloomFilter earlier = cursor.earlier();
+
+        List<Long> picked = new ArrayList<>(size);
+        int attempts = size * ATTEMPTS_PER_TRACK;
+        while (picked.size() < size && attempts-- > 0) {
+            long candidate = drawCandidate(random, genre, cursor.artistId(), similarArtists);
+            if (candidate > 0 && !earlier.mightContain(candidate) && played.put(candidate)) {
+                picked.add(candidate);
+            }
+        }
+
+        // Little listening data yet: top up from the genre catalog
+        if (picked.size() < size) {
+            for (Music music : musicRepository.findByGenreAndIsDeletedFalse(genre,
+                    PageRequest.of(0, size * ATTEMPTS_PER_TRACK))) {
+                if (picked.size() == size) {
+                    break;
+                }
+                if (!earlier.mightContain(music.getId()) && played.put(music.getId())) {
+                    picked.add(music.getId());
+                }
+            }
+        }
+
+        Map<Long, Music> byId = musicRepository.findAllById(picked).stream()
+                .filter(music -> !Boolean.TRUE.equals(music.getIsDeleted()))
+                .collect(Collectors.toMap(Music::getId, music -> music));
+        List<MusicSummary> tracks = picked.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toSummary)
+                .collect(Collectors.toList());
+
+        RadioCursor next = cursor.next();
+        if (played.fillRatio() > ROTATE_FILL_RATIO) {
+            next = next.rotate(newExclusionFilter());
+        }
+        return RadioPageResponse.builder()
+                .seedMusicId(cursor.seedMusicId())
+                .tracks(tracks)
+                .cursor(picked.isEmpty() ? null : next.encode(cursorKey()))
+                .build();
+    }
+
+    private static BloomFilter newExclusionFilter() {
+        return BloomFilter.create(EXCLUSION_CAPACITY, EXCLUSION_FALSE_POSITIVE_RATE);
+    }
+
+    private long drawCandidate(Random random, Genre genre, long seedArtistId, long[] similarArtists) {
+        double roll = random.nextDouble();
+        RankedTrackList source;
+        if (roll < GENRE_SHARE) {
+            source = genreRankingService.getRanking(genre);
+        } else if (roll < GENRE_SHARE + ARTIST_SHARE) {
+            long artistId = similarArtists.length == 0 || random.nextBoolean()
+                    ? seedArtistId
+                    : similarArtists[random.nextInt(similarArtists.length)];
+            source = genreRankingService.getArtistRanking(artistId);
+        } else {
+            source = genreRankingService.getOverallRanking();
+        }
+        if (source.isEmpty()) {
+            return -1;
+        }
+        return source.idAt(source.sampleRank(0, random));
+    }
+
+    private RadioCursor decode(String token) {
+        RadioCursor cursor;
+        try {
+            cursor = RadioCursor.decode(token, MAX_FILTER_BYTES, cursorKey());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid radio cursor");
+        }
+        if (cursor.genreOrdinal() < 0 || cursor.genreOrdinal() >= Genre.values().length) {
+            throw new BadRequestException("Invalid radio cursor");
+        }
+        return cursor;
+    }
+
+    private byte[] cursorKey() {
+        return cursorSecret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private MusicSummary toSummary(Music music) {
+        return MusicSummary.builder()
+                .id(music.getId())
+                .title(music.getTitle())
+                .genre(music.getGenre().name())
+                .durationSeconds(music.getDurationSeconds())
+                .build();
+    }
+}
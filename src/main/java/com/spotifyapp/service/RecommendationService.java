@@ -1,39 +1,55 @@
 package com.spotifyapp.service;
 
 import com.spotifyapp.dto.artist.ArtistProfileResponse;
+import com.spotifyapp.dto.artist.ArtistSummary;
 import com.spotifyapp.dto.artist.SimilarArtistResponse;
 import com.spotifyapp.dto.music.MusicSummary;
 import com.spotifyapp.dto.playlist.PlaylistResponse;
+import com.spotifyapp.dto.recommendation.ShelfResponse;
 import com.spotifyapp.exception.ResourceNotFoundException;
 import com.spotifyapp.model.entity.Music;
 import com.spotifyapp.model.entity.Playlist;
-import com.spotifyapp.model.entity.PlaylistMusic;
 import com.spotifyapp.model.entity.User;
 import com.spotifyapp.model.enums.Genre;
 import com.spotifyapp.model.enums.UserRole;
 import com.spotifyapp.repository.*;
+import com.spotifyapp.util.BloomFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RecommendationService {
 
+    private static final int MIX_SIZE = 20;
+    private static final int MIX_TOP_TRACKS = 8;
+    private static final int CANDIDATE_OVERSAMPLING = 3;
+
     private final UserRepository userRepository;
     private final MusicRepository musicRepository;
     private final AlbumRepository albumRepository;
     private final ListeningHistoryRepository listeningHistoryRepository;
     private final PlaylistRepository playlistRepository;
-    private final PlaylistMusicRepository playlistMusicRepository;
+    private final PlaylistTrackWriter playlistTrackWriter;
+    private final GenreRankingService genreRankingService;
+    private final TasteProfileService tasteProfileService;
+    private final ArtistProfileCache artistProfileCache;
+    private final HeardTracksService heardTracksService;
+    private final MatrixFactorizationService matrixFactorizationService;
+    private final ArtistRankService artistRankService;
+    private final ColdStartShelfService coldStartShelfService;
 
-    @Transactional(readOnly = true)
     public ArtistProfileResponse getArtistProfile(Long artistId) {
+        return artistProfileCache.get(artistId, this::buildArtistProfile);
+    }
+
+    private ArtistProfileResponse buildArtistProfile(Long artistId) {
         User artist = userRepository.findByIdAndIsDeletedFalse(artistId)
                 .orElseThrow(() -> new ResourceNotFoundException("Artist not found"));
 
@@ -48,12 +64,7 @@ public class RecommendationService {
         List<Music> artistMusic = musicRepository.findByArtistAndIsDeletedFalse(artist);
         List<MusicSummary> topSongs = artistMusic.stream()
                 .limit(10)
-                .map(music -> MusicSummary.builder()
-                        .id(music.getId())
-                        .title(music.getTitle())
-                        .genre(music.getGenre().name())
-                        .durationSeconds(music.getDurationSeconds())
-                        .build())
+                .map(this::toSummary)
                 .collect(Collectors.toList());
 
         // Get similar artists
@@ -75,10 +86,16 @@ public class RecommendationService {
     private List<SimilarArtistResponse> getSimilarArtists(User currentArtist, List<Genre> currentGenres) {
         List<User> allArtists = userRepository.findByRoleAndIsDeletedFalse(UserRole.ARTIST);
 
+        // Genres of all artists in one query rather than one per artist
+        Map<Long, List<Genre>> genresByArtist = new HashMap<>();
+        for (Object[] row : musicRepository.findDistinctArtistGenres(UserRole.ARTIST)) {
+            genresByArtist.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Genre) row[1]);
+        }
+
         Map<User, List<Genre>> artistGenreMap = new HashMap<>();
         for (User artist : allArtists) {
             if (!artist.getId().equals(currentArtist.getId())) {
-                List<Genre> genres = musicRepository.findDistinctGenresByArtist(artist);
+                List<Genre> genres = genresByArtist.getOrDefault(artist.getId(), List.of());
                 if (!genres.isEmpty()) {
                     artistGenreMap.put(artist, genres);
                 }
@@ -101,61 +118,105 @@ public class RecommendationService {
             }
         }
 
-        // Sort by number of shared genres
-        similarArtists.sort((a, b) -> Integer.compare(b.getSharedGenres().size(), a.getSharedGenres().size()));
+        // Sort by number of shared genres, then by co-listen PageRank
+        similarArtists.sort(Comparator
+                .comparingInt((SimilarArtistResponse similar) -> similar.getSharedGenres().size()).reversed()
+                .thenComparing(Comparator.comparingDouble(
+                        (SimilarArtistResponse similar) -> artistRankService.getScore(similar.getId())).reversed()));
 
         return similarArtists.stream().limit(10).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<ArtistSummary> searchArtists(String query, int limit) {
+        // Scores refreshed since the ranks were last persisted reorder the bounded page
+        return userRepository.searchByUsername(UserRole.ARTIST, query, PageRequest.of(0, limit))
+                .stream()
+                .sorted(Comparator.comparingDouble((User artist) -> artistRankService.getScore(artist.getId())).reversed()
+                        .thenComparing(User::getUsername))
+                .map(this::toArtistSummary)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArtistSummary> getTopArtists(int limit) {
+        // Ranks can name users deleted or no longer artists since the last refresh, so ask
+        // for more ids than needed, and for more again while too few of them are left
+        int fetch = limit * 2;
+        List<Long> rankedIds = artistRankService.getTopArtistIds(fetch);
+        if (rankedIds.isEmpty()) {
+            // No listening data ranked yet
+            return userRepository.findByRoleAndIsDeletedFalse(UserRole.ARTIST, PageRequest.of(0, limit))
+                    .map(this::toArtistSummary)
+                    .getContent();
+        }
+
+        List<ArtistSummary> top = rankedArtists(rankedIds, limit);
+        while (top.size() < limit && rankedIds.size() == fetch) {
+            fetch *= 2;
+            rankedIds = artistRankService.getTopArtistIds(fetch);
+            top = rankedArtists(rankedIds, limit);
+        }
+        return top;
+    }
+
+    private List<ArtistSummary> rankedArtists(List<Long> rankedIds, int limit) {
+        Map<Long, User> byId = userRepository.findAllById(rankedIds).stream()
+                .filter(artist -> artist.getRole() == UserRole.ARTIST && !Boolean.TRUE.equals(artist.getIsDeleted()))
+                .collect(Collectors.toMap(User::getId, artist -> artist));
+        return rankedIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .limit(limit)
+                .map(this::toArtistSummary)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public List<PlaylistResponse> generateRecommendedPlaylists(Long userId) {
         User user = userRepository.findByIdAndIsDeletedFalse(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        // Get user's listening history from last 3 months
-        LocalDateTime threeMonthsAgo = LocalDateTime.now().minusMonths(3);
-        List<Object[]> topGenres = listeningHistoryRepository.findTopGenresByUser(user, threeMonthsAgo);
+        // Decayed genre affinities, maintained as listens are recorded
+        List<Genre> topGenres = tasteProfileService.getTopGenres(user, 3);
+        boolean coldStart = topGenres.isEmpty();
+        if (coldStart) {
+            // No history and no sign-up picks yet: start from what is popular
+            topGenres = coldStartShelfService.getPopularGenres(3);
+        }
 
-        // Delete old system-generated playlists for this user
-        List<Playlist> oldPlaylists = playlistRepository.findByOwnerAndIsSystemGeneratedTrueAndIsDeletedFalse(user);
-        for (Playlist oldPlaylist : oldPlaylists) {
-            oldPlaylist.setIsDeleted(true);
-            playlistRepository.save(oldPlaylist);
+        // One stable playlist per (user, genre) slot, refreshed in place
+        Map<Genre, Playlist> slots = new EnumMap<>(Genre.class);
+        for (Playlist existing : playlistRepository.findByOwnerAndIsSystemGeneratedTrue(user)) {
+            if (existing.getGeneratedGenre() != null) {
+                slots.put(existing.getGeneratedGenre(), existing);
+            } else if (!existing.getIsDeleted()) {
+                // Mixes generated before slots existed
+                existing.setIsDeleted(true);
+            }
         }
 
+        BloomFilter heardTracks = heardTracksService.getHeardTracks(user);
+
         List<PlaylistResponse> generatedPlaylists = new ArrayList<>();
 
         // Generate playlist for top 3 genres
-        int count = Math.min(3, topGenres.size());
-        for (int i = 0; i < count; i++) {
-            Object[] genreData = topGenres.get(i);
-            Genre genre = (Genre) genreData[0];
-
-            // Create playlist
-            Playlist playlist = Playlist.builder()
-                    .name(genre.name() + " Mix for You")
-                    .description("Based on your listening history")
-                    .owner(user)
-                    .isSystemGenerated(true)
-                    .build();
-
-            playlist = playlistRepository.save(playlist);
+        for (Genre genre : topGenres) {
+            Playlist playlist = slots.remove(genre);
+            if (playlist == null) {
+                playlist = playlistRepository.save(Playlist.builder()
+                        .name(genre.name() + " Mix for You")
+                        .description(coldStart ? "Popular with listeners right now" : "Based on your listening history")
+                        .owner(user)
+                        .isSystemGenerated(true)
+                        .generatedGenre(genre)
+                        .build());
+            }
+            playlist.setIsDeleted(false);
 
             // Add top songs of this genre
-            List<Music> topSongs = musicRepository.findByGenreAndIsDeletedFalse(
-                    genre,
-                    PageRequest.of(0, 20)
-            );
-
-            int position = 1;
-            for (Music music : topSongs) {
-                PlaylistMusic playlistMusic = PlaylistMusic.builder()
-                        .playlist(playlist)
-                        .music(music)
-                        .position(position++)
-                        .build();
-                playlistMusicRepository.save(playlistMusic);
-            }
+            List<Music> topSongs = buildGenreMix(genre, heardTracks);
+            playlistTrackWriter.replaceTracks(playlist, topSongs);
 
             PlaylistResponse response = PlaylistResponse.builder()
                     .id(playlist.getId())
@@ -165,11 +226,144 @@ public class RecommendationService {
                     .ownerUsername(user.getUsername())
                     .isSystemGenerated(true)
                     .songCount(topSongs.size())
+                    .totalDurationSeconds(playlistRepository.findTotalDurationSecondsById(playlist.getId()))
                     .build();
 
             generatedPlaylists.add(response);
         }
 
+        // Genres that dropped out of the top keep their slot for when they come back
+        for (Playlist stale : slots.values()) {
+            stale.setIsDeleted(true);
+        }
+
         return generatedPlaylists;
     }
+
+    private List<Music> buildGenreMix(Genre genre, BloomFilter heardTracks) {
+        // Popular head plus a weighted sample of the tail, taken from the in-memory ranking.
+        // Oversample so that enough candidates survive the heard-tracks filter.
+        long[] rankedIds = genreRankingService.getRanking(genre)
+                .mix(MIX_SIZE * CANDIDATE_OVERSAMPLING, MIX_TOP_TRACKS, ThreadLocalRandom.current());
+
+        List<Music> mix = new ArrayList<>(MIX_SIZE);
+        List<Long> heard = new ArrayList<>();
+        Set<Long> included = new HashSet<>();
+        for (long musicId : rankedIds) {
+            if (mix.size() == MIX_SIZE) {
+                break;
+            }
+            if (heardTracks.mightContain(musicId)) {
+                heard.add(musicId);
+            } else {
+                mix.add(musicRepository.getReferenceById(musicId));
+                included.add(musicId);
+            }
+        }
+
+        // Genres with little recent listening fall back to the catalog
+        if (mix.size() < MIX_SIZE) {
+            for (Music music : musicRepository.findByGenreAndIsDeletedFalse(genre, PageRequest.of(0, MIX_SIZE))) {
+                if (mix.size() == MIX_SIZE) {
+                    break;
+                }
+                if (!heardTracks.mightContain(music.getId()) && included.add(music.getId())) {
+                    mix.add(music);
+                }
+            }
+        }
+
+        // Still short: a familiar track is better than a short mix
+        for (Long musicId : heard) {
+            if (mix.size() == MIX_SIZE) {
+                break;
+            }
+            if (included.add(musicId)) {
+                mix.add(musicRepository.getReferenceById(musicId));
+            }
+        }
+
+        return mix;
+    }
+
+    // Not read-only: the heard-tracks filter is built and stored on first use
+    @Transactional
+    public List<MusicSummary> getMadeForYou(Long userId, int limit) {
+        User user = userRepository.findByIdAndIsDeletedFalse(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        // Scores come from the nightly factor model; already-heard tracks are dropped
+        long[] scored = matrixFactorizationService.recommend(user.getId(), limit * CANDIDATE_OVERSAMPLING);
+        BloomFilter heardTracks = heardTracksService.getHeardTracks(user);
+        List<Long> candidateIds = new ArrayList<>(limit);
+        for (long musicId : scored) {
+            if (candidateIds.size() == limit) {
+                break;
+            }
+            if (!heardTracks.mightContain(musicId)) {
+                candidateIds.add(musicId);
+            }
+        }
+
+        Map<Long, Music> byId = musicRepository.findAllById(candidateIds).stream()
+                .filter(music -> !Boolean.TRUE.equals(music.getIsDeleted()))
+                .collect(Collectors.toMap(Music::getId, music -> music));
+        return candidateIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toSummary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Home screen shelves: what is popular overall, then the user's genres. Users
+     * without a taste profile get the most popular genres. Served from precomputed
+     * snapshots.
+     */
+    @Transactional
+    public List<ShelfResponse> getShelves(Long userId) {
+        User user = userRepository.findByIdAndIsDeletedFalse(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        List<Genre> genres = tasteProfileService.getTopGenres(user, 3);
+        if (genres.isEmpty()) {
+            genres = coldStartShelfService.getPopularGenres(3);
+        }
+
+        List<ShelfResponse> shelves = new ArrayList<>();
+        shelves.add(ShelfResponse.builder()
+                .title("Popular right now")
+                .tracks(coldStartShelfService.getPopular())
+                .build());
+        for (Genre genre : genres) {
+            List<MusicSummary> tracks = coldStartShelfService.getGenreShelf(genre);
+            if (!tracks.isEmpty()) {
+                shelves.add(ShelfResponse.builder()
+                        .title("Popular in " + genre.name())
+                        .genre(genre.name())
+                        .tracks(tracks)
+                        .build());
+            }
+        }
+        return shelves;
+    }
+
+    private MusicSummary toSummary(Music music) {
+        return MusicSummary.builder()
+                .id(music.getId())
+                .title(music.getTitle())
+                .genre(music.getGenre().name())
+                .durationSeconds(music.getDurationSeconds())
+                .build();
+    }
+
+    private ArtistSummary toArtistSummary(User artist) {
+        return ArtistSummary.builder()
+                .id(artist.getId())
+                .username(artist.getUsername())
+                .firstName(artist.getFirstName())
+                .lastName(artist.getLastName())
+                .rankScore(artistRankService.getScore(artist.getId()))
+                .build();
+    }
 }
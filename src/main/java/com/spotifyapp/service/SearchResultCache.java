@@ -0,0 +1,99 @@
+package com.spotifyapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.spotifyapp.dto.music.MusicResponse;
+import com.spotifyapp.dto.music.SearchCacheStats;
+import com.spotifyapp.event.AlbumChangedEvent;
+import com.spotifyapp.event.ArtistChangedEvent;
+import com.spotifyapp.event.MusicChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Search result pages keyed by the normalized query, page and size. Keys carry the
+ * catalog generation, so any catalog change retires every cached page at once and the
+ * old entries simply age out.
+ */
+@Component
+public class SearchResultCache {
+
+    private final Cache<Key, Page<MusicResponse>> pages;
+    private final AtomicLong generation = new AtomicLong();
+    private final TransactionTemplate readOnlyTransaction;
+
+    public SearchResultCache(PlatformTransactionManager transactionManager,
+                             @Value("${search.cache.max-size:10000}") long maxSize,
+                             @Value("${search.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * The cached page, or the loader's result for the trimmed query. Concurrent misses
+     * for the same key wait on a single load.
+     */
+    public Page<MusicResponse> get(String query, Pageable pageable,
+                                   BiFunction<String, Pageable, Page<MusicResponse>> loader) {
+        String trimmed = query.trim();
+        // Both search paths ignore case, so case variants share an entry
+        Key key = new Key(generation.get(), trimmed.toLowerCase(Locale.ROOT),
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+        return pages.get(key, k -> readOnlyTransaction.execute(status -> loader.apply(trimmed, pageable)));
+    }
+
+    public SearchCacheStats getStats() {
+        CacheStats stats = pages.stats();
+        return SearchCacheStats.builder()
+                .requests(stats.requestCount())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .averageLoadMillis(stats.averageLoadPenalty() / 1_000_000.0)
+                .size(pages.estimatedSize())
+                .generation(generation.get())
+                .build();
+    }
+
+    // Runs after the search index has applied the same event, so a page loaded under
+    // the new generation never comes from the old index
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMusicChanged(MusicChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArtistChanged(ArtistChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlbumChanged(AlbumChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    private record Key(long generation, String query, int page, int size, String sort) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.album.AlbumResponse;
+import com.spotifyapp.dto.artist.ArtistSummary;
+import com.spotifyapp.dto.music.MusicResponse;
+import com.spotifyapp.dto.playlist.PlaylistResponse;
+import com.spotifyapp.dto.search.SearchResponse;
+import com.spotifyapp.dto.search.SearchSection;
+import com.spotifyapp.exception.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * One search across tracks, albums, artists and playlists. The sections are queried
+ * concurrently and share one deadline, so a search takes as long as its slowest section
+ * up to the time budget; a section that misses the deadline or fails comes back empty
+ * and marked incomplete instead of failing the whole search.
+ */
+@Service
+@Slf4j
+public class SearchService {
+
+    private final MusicService musicService;
+    private final AlbumService albumService;
+    private final RecommendationService recommendationService;
+    private final PlaylistService playlistService;
+    private final ExecutorService executor;
+
+    @Value("${search.unified.timeout-ms:300}")
+    private long timeoutMs;
+
+    public SearchService(MusicService musicService,
+                         AlbumService albumService,
+                         RecommendationService recommendationService,
+                         PlaylistService playlistService,
+                         @Value("${search.unified.threads:16}") int threads,
+                         @Value("${search.unified.queue-size:256}") int queueSize) {
+        this.musicService = musicService;
+        this.albumService = albumService;
+        this.recommendationService = recommendationService;
+        this.playlistService = playlistService;
+        AtomicInteger count = new AtomicInteger();
+        // A full queue rejects the section rather than queueing work past its deadline
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "search-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public SearchResponse search(String query, int limit) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        CompletableFuture<List<MusicResponse>> tracks =
+                submit(() -> musicService.searchMusic(trimmed, PageRequest.of(0, limit)).getContent());
+        CompletableFuture<List<AlbumResponse>> albums =
+                submit(() -> albumService.searchAlbums(trimmed, limit));
+        CompletableFuture<List<ArtistSummary>> artists =
+                submit(() -> recommendationService.searchArtists(trimmed, limit));
+        CompletableFuture<List<PlaylistResponse>> playlists =
+                submit(() -> playlistService.searchPlaylists(trimmed, limit));
+
+        SearchResponse response = SearchResponse.builder()
+                .tracks(await("tracks", tracks, deadline))
+                .albums(await("albums", albums, deadline))
+                .artists(await("artists", artists, deadline))
+                .playlists(await("playlists", playlists, deadline))
+                .build();
+        response.setPartial(!response.getTracks().isComplete() || !response.getAlbums().isComplete()
+                || !response.getArtists().isComplete() || !response.getPlaylists().isComplete());
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<List<T>> submit(Supplier<List<T>> section) {
+        try {
+            return CompletableFuture.supplyAsync(section, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> SearchSection<T> await(String name, CompletableFuture<List<T>> section, long deadline) {
+        try {
+            List<T> items = section.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return SearchSection.<T>builder().items(items).complete(true).build();
+        } catch (TimeoutException e) {
+            // The query keeps its worker until it returns; its result is dropped
+            section.cancel(false);
+            log.warn("Search section {} missed its {} ms budget", name, timeoutMs);
+        } catch (ExecutionException e) {
+            log.warn("Search section {} failed: {}", name, e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return SearchSection.<T>builder().items(List.of()).complete(false).build();
+    }
+}
@@ -0,0 +1,212 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.event.FactorModelUpdatedEvent;
+import com.spotifyapp.event.MusicChangedEvent;
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.util.FactorModel;
+import com.spotifyapp.util.HnswIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "More like this" over co-listen embeddings (the item factors of the collaborative
+ * filtering model), served from an in-process HNSW index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SimilarTrackService {
+
+    private static final long LEVEL_SEED = 17L;
+    private static final int CENTROID_TRACKS = 50;
+
+    private final MatrixFactorizationService matrixFactorizationService;
+    private final GenreRankingService genreRankingService;
+    private final MusicRepository musicRepository;
+
+    @Value("${recommendation.similar-tracks.index-path:data/similar-tracks.hnsw}")
+    private String indexPath;
+
+    @Value("${recommendation.similar-tracks.m:16}")
+    private int m;
+
+    @Value("${recommendation.similar-tracks.ef-construction:100}")
+    private int efConstruction;
+
+    @Value("${recommendation.similar-tracks.ef-search:64}")
+    private int efSearch;
+
+    // One rebuild runs and at most one waits; it reads the latest model when it starts, so
+    // further updates in the meantime are dropped
+    private final ExecutorService rebuildExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1), runnable -> {
+                Thread thread = new Thread(runnable, "similar-track-rebuild");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    private volatile HnswIndex index;
+    private volatile boolean dirty;
+
+    @PostConstruct
+    public void loadIndex() {
+        Path path = Path.of(indexPath);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            index = HnswIndex.readFrom(path, LEVEL_SEED);
+            log.info("Loaded similar-track index with {} tracks in {} ms",
+                    index.size(), System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load similar-track index from {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    // Published on the trainer thread; the old index keeps serving until the rebuilt one is swapped in
+    @EventListener
+    public void onFactorModelUpdated(FactorModelUpdatedEvent event) {
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuildIndex();
+            } catch (RuntimeException e) {
+                log.error("Failed to rebuild similar-track index", e);
+            }
+        });
+    }
+
+    public void rebuildIndex() {
+        FactorModel model = matrixFactorizationService.acquireModel();
+        if (model == null) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        HnswIndex rebuilt = new HnswIndex(model.factors(), m, efConstruction, LEVEL_SEED);
+        try {
+            for (int item = 0; item < model.itemCount(); item++) {
+                rebuilt.add(model.itemId(item), model.itemVector(item));
+            }
+        } finally {
+            model.release();
+        }
+        index = rebuilt;
+        dirty = true;
+        log.info("Similar-track index rebuilt in {} ms: {} tracks", System.currentTimeMillis() - start, rebuilt.size());
+        snapshotIfDirty();
+    }
+
+    // New uploads have no listens yet; place them at the centroid of their artist or genre
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMusicChanged(MusicChangedEvent event) {
+        HnswIndex current = index;
+        if (event.getChangeType() != MusicChangedEvent.ChangeType.CREATED || current == null
+                || current.contains(event.getMusicId())) {
+            return;
+        }
+
+        float[] centroid = centroid(current, musicRepository.findIdsByArtistId(event.getArtistId()));
+        if (centroid == null) {
+            Optional<Music> music = musicRepository.findByIdAndIsDeletedFalse(event.getMusicId());
+            if (music.isEmpty()) {
+                return;
+            }
+            long[] genreTracks = genreRankingService.getRanking(music.get().getGenre()).top(CENTROID_TRACKS);
+            List<Long> ids = new ArrayList<>(genreTracks.length);
+            for (long id : genreTracks) {
+                ids.add(id);
+            }
+            centroid = centroid(current, ids);
+        }
+        if (centroid != null && current.add(event.getMusicId(), centroid)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Ids of the tracks closest to the given one, most similar first. Empty when the
+     * track has no embedding yet.
+     */
+    public List<Long> findSimilarIds(Long musicId, int limit) {
+        HnswIndex current = index;
+        if (current == null) {
+            return List.of();
+        }
+        float[] vector = current.vector(musicId);
+        if (vector == null) {
+            return List.of();
+        }
+
+        long[] nearest = current.search(vector, limit + 1, Math.max(efSearch, limit + 1));
+        List<Long> similar = new ArrayList<>(limit);
+        for (long id : nearest) {
+            if (id != musicId && similar.size() < limit) {
+                similar.add(id);
+            }
+        }
+        return similar;
+    }
+
+    @Scheduled(fixedDelayString = "${recommendation.similar-tracks.snapshot-interval-ms:300000}")
+    public synchronized void snapshotIfDirty() {
+        HnswIndex current = index;
+        if (!dirty || current == null) {
+            return;
+        }
+        dirty = false;
+        try {
+            Path target = Path.of(indexPath).toAbsolutePath();
+            Files.createDirectories(target.getParent());
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            current.writeTo(temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.error("Failed to snapshot similar-track index", e);
+        }
+    }
+
+    private float[] centroid(HnswIndex current, List<Long> musicIds) {
+        float[] sum = new float[current.dimensions()];
+        int count = 0;
+        for (Long id : musicIds) {
+            if (count == CENTROID_TRACKS) {
+                break;
+            }
+            float[] vector = current.vector(id);
+            if (vector != null) {
+                for (int i = 0; i < sum.length; i++) {
+                    sum[i] += vector[i];
+                }
+                count++;
+            }
+        }
+        return count == 0 ? null : sum;
+    }
+}
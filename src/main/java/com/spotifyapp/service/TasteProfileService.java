@@ -0,0 +1,159 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.User;
+import com.spotifyapp.model.entity.UserTasteProfile;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.repository.UserTasteProfileRepository;
+import com.spotifyapp.util.TasteVector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TasteProfileService {
+
+    private static final Genre[] GENRES = Genre.values();
+    private static final float SEED_WEIGHT = 0.5f;
+
+    private final UserTasteProfileRepository userTasteProfileRepository;
+    private final ListeningHistoryRepository listeningHistoryRepository;
+
+    @Value("${recommendation.taste-profile.half-life-days:30}")
+    private double halfLifeDays;
+
+    @Value("${recommendation.taste-profile.backfill-months:3}")
+    private int backfillMonths;
+
+    @Transactional
+    public void recordListen(User user, Music music) {
+        LocalDateTime now = LocalDateTime.now();
+        // A first listen builds on the history from before the profile existed. The row is
+        // locked so that concurrent listens apply one after another instead of overwriting
+        UserTasteProfile profile = userTasteProfileRepository.findByIdForUpdate(user.getId())
+                .orElseGet(() -> {
+                    insertProfile(user.getId(), backfillFromHistory(user, now), now);
+                    return userTasteProfileRepository.findByIdForUpdate(user.getId()).orElseThrow();
+                });
+
+        TasteVector vector = decode(profile);
+        vector.decay(decayFactor(profile.getDecayedAt(), now));
+        vector.addGenre(music.getGenre().ordinal(), 1f);
+        vector.addArtist(music.getArtist().getId(), 1f);
+
+        store(profile, vector, now);
+    }
+
+    /**
+     * Starts a profile from genres picked at sign-up. Weights stay below a single
+     * listen so that real listening takes over as soon as it happens.
+     */
+    @Transactional
+    public void seedGenres(Long userId, List<Genre> preferredGenres) {
+        if (preferredGenres.isEmpty() || userTasteProfileRepository.existsById(userId)) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        TasteVector vector = new TasteVector(GENRES.length);
+        List<Genre> distinct = preferredGenres.stream().distinct().toList();
+        for (int i = 0; i < distinct.size(); i++) {
+            // Earlier picks rank higher
+            vector.addGenre(distinct.get(i).ordinal(), SEED_WEIGHT / (i + 1));
+        }
+        store(emptyProfile(userId, now), vector, now);
+    }
+
+    @Transactional
+    public List<Genre> getTopGenres(User user, int limit) {
+        TasteVector vector = userTasteProfileRepository.findById(user.getId())
+                .map(this::decode)
+                .orElseGet(() -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    TasteVector history = backfillFromHistory(user, now);
+                    // No row for users without history, so sign-up genres can still seed one
+                    if (!history.isEmpty()) {
+                        insertProfile(user.getId(), history, now);
+                    }
+                    return history;
+                });
+
+        // Decay scales every weight alike, so the stored order is already current
+        List<Genre> genres = new ArrayList<>();
+        for (int ordinal : vector.topGenres(limit)) {
+            genres.add(GENRES[ordinal]);
+        }
+        return genres;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> getTopArtistIds(Long userId, int limit) {
+        List<Long> artistIds = new ArrayList<>();
+        userTasteProfileRepository.findById(userId).ifPresent(profile -> {
+            for (long artistId : decode(profile).topArtists(limit)) {
+                artistIds.add(artistId);
+            }
+        });
+        return artistIds;
+    }
+
+    // Users who listened before profiles existed get theirs built once from raw history
+    private TasteVector backfillFromHistory(User user, LocalDateTime now) {
+        TasteVector vector = new TasteVector(GENRES.length);
+
+        List<Object[]> signals = listeningHistoryRepository.findListenSignalsByUser(
+                user, now.minusMonths(backfillMonths));
+        for (Object[] signal : signals) {
+            Genre genre = (Genre) signal[0];
+            Long artistId = (Long) signal[1];
+            LocalDateTime listenedAt = (LocalDateTime) signal[2];
+
+            float weight = (float) decayFactor(listenedAt, now);
+            vector.addGenre(genre.ordinal(), weight);
+            vector.addArtist(artistId, weight);
+        }
+        return vector;
+    }
+
+    // A concurrent request may insert first; its row is kept and ours dropped
+    private void insertProfile(Long userId, TasteVector vector, LocalDateTime now) {
+        userTasteProfileRepository.insertIfAbsent(userId, vector.encodeGenres(), vector.encodeArtists(), now);
+    }
+
+    private double decayFactor(LocalDateTime from, LocalDateTime to) {
+        double elapsedDays = Duration.between(from, to).toSeconds() / 86400.0;
+        if (elapsedDays <= 0) {
+            return 1.0;
+        }
+        return Math.pow(0.5, elapsedDays / halfLifeDays);
+    }
+
+    private TasteVector decode(UserTasteProfile profile) {
+        return TasteVector.decode(GENRES.length, profile.getGenreWeights(), profile.getTopArtists());
+    }
+
+    private UserTasteProfile emptyProfile(Long userId, LocalDateTime now) {
+        TasteVector empty = new TasteVector(GENRES.length);
+        return UserTasteProfile.builder()
+                .userId(userId)
+                .genreWeights(empty.encodeGenres())
+                .topArtists(empty.encodeArtists())
+                .decayedAt(now)
+                .build();
+    }
+
+    private void store(UserTasteProfile profile, TasteVector vector, LocalDateTime now) {
+        profile.setGenreWeights(vector.encodeGenres());
+        profile.setTopArtists(vector.encodeArtists());
+        profile.setDecayedAt(now);
+        userTasteProfileRepository.save(profile);
+    }
+}
@@ -0,0 +1,109 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.music.SuggestionResponse;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.util.CompletionIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Search-box completions over track, artist and album names, weighted by recent plays.
+ * The index is rebuilt off the request path and swapped in whole.
+ */
+@Service
+@Slf4j
+public class TypeaheadService {
+
+    private final MusicRepository musicRepository;
+    private final ListeningHistoryRepository listeningHistoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${search.typeahead.window-days:30}")
+    private int windowDays;
+
+    private volatile CompletionIndex index = CompletionIndex.empty();
+
+    public TypeaheadService(MusicRepository musicRepository,
+                            ListeningHistoryRepository listeningHistoryRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.musicRepository = musicRepository;
+        this.listeningHistoryRepository = listeningHistoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(fixedDelayString = "${search.typeahead.refresh-interval-ms:300000}",
+            initialDelayString = "${search.typeahead.initial-delay-ms:5000}")
+    public void rebuildIndex() {
+        long start = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusDays(windowDays);
+        CompletionIndex built = readOnlyTransaction.execute(status -> {
+            Map<Long, Long> plays = new HashMap<>();
+            for (Object[] row : listeningHistoryRepository.findListenCountsByMusicSince(since)) {
+                plays.put((Long) row[1], (Long) row[2]);
+            }
+
+            // Artists and albums weigh as much as all of their tracks together
+            CompletionIndex.Builder builder = CompletionIndex.builder();
+            Map<Long, Named> artists = new LinkedHashMap<>();
+            Map<Long, Named> albums = new LinkedHashMap<>();
+            try (Stream<Object[]> rows = musicRepository.streamCompletionRows()) {
+                rows.forEach(row -> {
+                    Long musicId = (Long) row[0];
+                    String artistName = (String) row[3];
+                    long trackPlays = plays.getOrDefault(musicId, 0L);
+                    builder.add(CompletionIndex.Kind.TRACK, musicId, (String) row[1], artistName, trackPlays);
+                    artists.computeIfAbsent((Long) row[2], id -> new Named(artistName, null)).plays += trackPlays;
+                    if (row[4] != null) {
+                        albums.computeIfAbsent((Long) row[4], id -> new Named((String) row[5], artistName))
+                                .plays += trackPlays;
+                    }
+                });
+            }
+            artists.forEach((id, artist) ->
+                    builder.add(CompletionIndex.Kind.ARTIST, id, artist.text, null, artist.plays));
+            albums.forEach((id, album) ->
+                    builder.add(CompletionIndex.Kind.ALBUM, id, album.text, album.detail, album.plays));
+            return builder.build();
+        });
+
+        index = built;
+        log.info("Typeahead index rebuilt in {} ms: {} names, {} keys",
+                System.currentTimeMillis() - start, built.size(), built.keys());
+    }
+
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        return index.complete(query, limit).stream()
+                .map(completion -> SuggestionResponse.builder()
+                        .type(completion.kind().name())
+                        .id(completion.id())
+                        .text(completion.text())
+                        .detail(completion.detail())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static final class Named {
+        private final String text;
+        private final String detail;
+        private long plays;
+
+        private Named(String text, String detail) {
+            this.text = text;
+            this.detail = detail;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.spotifyapp.service;
 
+import com.spotifyapp.dto.SliceResponse;
 import com.spotifyapp.dto.user.UpdateUserRequest;
 import com.spotifyapp.dto.user.UserResponse;
+import com.spotifyapp.event.ArtistChangedEvent;
 import com.spotifyapp.exception.BadRequestException;
 import com.spotifyapp.exception.ResourceNotFoundException;
 import com.spotifyapp.model.entity.User;
@@ -9,16 +11,28 @@ import com.spotifyapp.model.enums.UserRole;
 import com.spotifyapp.model.enums.UserStatus;
 import com.spotifyapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final Map<String, Sort> SCROLL_SORTS = Map.of(
+            "newest", Sort.by(Sort.Direction.DESC, "createdAt", "id"),
+            "username", Sort.by("username", "id"));
+
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Page<UserResponse> getAllUsers(Pageable pageable) {
@@ -38,6 +52,28 @@ public class UserService {
                 .map(this::mapToResponse);
     }
 
+    /**
+     * One slice of users after the cursor position, optionally filtered by status and role.
+     */
+    @Transactional(readOnly = true)
+    public SliceResponse<UserResponse> scrollUsers(UserStatus status, UserRole role,
+                                                   String cursor, String sort, int size) {
+        Sort order = KeysetPages.sort(sort, SCROLL_SORTS);
+        ScrollPosition position = KeysetPages.position(cursor, order);
+        Limit limit = Limit.of(size);
+        Window<User> window;
+        if (status != null && role != null) {
+            window = userRepository.findByRoleAndStatusAndIsDeletedFalse(role, status, position, order, limit);
+        } else if (status != null) {
+            window = userRepository.findByStatusAndIsDeletedFalse(status, position, order, limit);
+        } else if (role != null) {
+            window = userRepository.findByRoleAndIsDeletedFalse(role, position, order, limit);
+        } else {
+            window = userRepository.findByIsDeletedFalse(position, order, limit);
+        }
+        return KeysetPages.slice(window, this::mapToResponse);
+    }
+
     @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
         User user = userRepository.findByIdAndIsDeletedFalse(id)
@@ -75,6 +111,7 @@ public class UserService {
         }
 
         userRepository.save(user);
+        publishArtistChange(user);
         return mapToResponse(user);
     }
 
@@ -84,6 +121,7 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         user.setIsDeleted(true);
         userRepository.save(user);
+        publishArtistChange(user);
     }
 
     @Transactional
@@ -102,6 +140,12 @@ public class UserService {
         userRepository.save(user);
     }
 
+    private void publishArtistChange(User user) {
+        if (user.getRole() == UserRole.ARTIST) {
+            eventPublisher.publishEvent(new ArtistChangedEvent(user.getId()));
+        }
+    }
+
     private UserResponse mapToResponse(User user) {
         return new UserResponse(
                 user.getId(),
@@ -0,0 +1,265 @@
+package com.spotifyapp.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Undirected artist co-listen graph in CSR form. Edge weights count listeners
+ * shared by two artists; each row is ordered by descending weight.
+ */
+public final class ArtistGraph {
+
+    private final long[] artistIds;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final int[] weights;
+
+    private ArtistGraph(long[] artistIds, int[] offsets, int[] neighbors, int[] weights) {
+        this.artistIds = artistIds;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.weights = weights;
+    }
+
+    public static ArtistGraph empty() {
+        return new ArtistGraph(new long[0], new int[1], new int[0], new int[0]);
+    }
+
+    /**
+     * @param maxArtistsPerListener listeners who played more artists than this only
+     *                              contribute their first ones, which bounds the pair count
+     */
+    public static Builder builder(int maxArtistsPerListener) {
+        return new Builder(maxArtistsPerListener);
+    }
+
+    public int size() {
+        return artistIds.length;
+    }
+
+    public int edges() {
+        return neighbors.length;
+    }
+
+    public long artistId(int index) {
+        return artistIds[index];
+    }
+
+    public int indexOf(long artistId) {
+        return Arrays.binarySearch(artistIds, artistId);
+    }
+
+    public int neighborStart(int index) {
+        return offsets[index];
+    }
+
+    public int neighborEnd(int index) {
+        return offsets[index + 1];
+    }
+
+    public int neighborAt(int position) {
+        return neighbors[position];
+    }
+
+    public int weightAt(int position) {
+        return weights[position];
+    }
+
+    /**
+     * Ids of the artists sharing the most listeners with {@code artistId}, strongest first.
+     */
+    public long[] neighbors(long artistId, int limit) {
+        int index = indexOf(artistId);
+        if (index < 0) {
+            return new long[0];
+        }
+        int count = Math.min(Math.max(limit, 0), offsets[index + 1] - offsets[index]);
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = artistIds[neighbors[offsets[index] + i]];
+        }
+        return result;
+    }
+
+    /**
+     * Accepts (listener, artist) pairs grouped by listener.
+     */
+    public static final class Builder {
+
+        private final int maxArtistsPerListener;
+        private final PairCounter pairs = new PairCounter();
+        private final Map<Long, Integer> indexById = new HashMap<>();
+        private long[] ids = new long[256];
+        private int idCount;
+
+        private long currentListener = Long.MIN_VALUE;
+        private int[] listenerArtists = new int[16];
+        private int listenerArtistCount;
+
+        private Builder(int maxArtistsPerListener) {
+            this.maxArtistsPerListener = maxArtistsPerListener;
+        }
+
+        public Builder add(long listenerId, long artistId) {
+            if (listenerId != currentListener) {
+                flushListener();
+                currentListener = listenerId;
+            }
+            int index = indexById.computeIfAbsent(artistId, this::register);
+            if (listenerArtistCount < maxArtistsPerListener) {
+                if (listenerArtistCount == listenerArtists.length) {
+                    listenerArtists = Arrays.copyOf(listenerArtists, listenerArtistCount * 2);
+                }
+                listenerArtists[listenerArtistCount++] = index;
+            }
+            return this;
+        }
+
+        /**
+         * @param minSharedListeners edges backed by fewer shared listeners are dropped
+         */
+        public ArtistGraph build(int minSharedListeners) {
+            flushListener();
+
+            // Re-index artists in id order so lookups are a binary search
+            long[] sortedIds = Arrays.copyOf(ids, idCount);
+            Arrays.sort(sortedIds);
+            int[] remap = new int[idCount];
+            for (int i = 0; i < idCount; i++) {
+                remap[i] = Arrays.binarySearch(sortedIds, ids[i]);
+            }
+
+            int[] degree = new int[idCount + 1];
+            pairs.forEach((a, b, weight) -> {
+                if (weight >= minSharedListeners) {
+                    degree[remap[a] + 1]++;
+                    degree[remap[b] + 1]++;
+                }
+            });
+            for (int i = 0; i < idCount; i++) {
+                degree[i + 1] += degree[i];
+            }
+            int[] offsets = degree;
+            int[] next = Arrays.copyOf(offsets, idCount);
+            int[] neighbors = new int[offsets[idCount]];
+            int[] weights = new int[offsets[idCount]];
+            pairs.forEach((a, b, weight) -> {
+                if (weight >= minSharedListeners) {
+                    int from = remap[a];
+                    int to = remap[b];
+                    neighbors[next[from]] = to;
+                    weights[next[from]++] = weight;
+                    neighbors[next[to]] = from;
+                    weights[next[to]++] = weight;
+                }
+            });
+
+            for (int i = 0; i < idCount; i++) {
+                sortRowByWeight(neighbors, weights, offsets[i], offsets[i + 1]);
+            }
+            return new ArtistGraph(sortedIds, offsets, neighbors, weights);
+        }
+
+        private int register(long artistId) {
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, idCount * 2);
+            }
+            ids[idCount] = artistId;
+            return idCount++;
+        }
+
+        private void flushListener() {
+            Arrays.sort(listenerArtists, 0, listenerArtistCount);
+            for (int i = 0; i < listenerArtistCount; i++) {
+                if (i > 0 && listenerArtists[i] == listenerArtists[i - 1]) {
+                    continue;
+                }
+                for (int j = i + 1; j < listenerArtistCount; j++) {
+                    if (listenerArtists[j] != listenerArtists[j - 1]) {
+                        pairs.increment(listenerArtists[i], listenerArtists[j]);
+                    }
+                }
+            }
+            listenerArtistCount = 0;
+        }
+
+        // Insertion sort: rows are short and mostly written in arbitrary order once
+        private static void sortRowByWeight(int[] neighbors, int[] weights, int from, int to) {
+            for (int i = from + 1; i < to; i++) {
+                int neighbor = neighbors[i];
+                int weight = weights[i];
+                int j = i - 1;
+                while (j >= from && (weights[j] < weight || (weights[j] == weight && neighbors[j] > neighbor))) {
+                    neighbors[j + 1] = neighbors[j];
+                    weights[j + 1] = weights[j];
+                    j--;
+                }
+                neighbors[j + 1] = neighbor;
+                weights[j + 1] = weight;
+            }
+        }
+    }
+
+    /**
+     * Open-addressing counter keyed by an ordered pair of artist indexes.
+     */
+    private static final class PairCounter {
+
+        private long[] keys = new long[1024];
+        private int[] counts = new int[1024];
+        private int size;
+
+        void increment(int a, int b) {
+            // a < b, so the packed key is never 0 and 0 can mark empty slots
+            long key = ((long) a << 32) | b;
+            if (size * 2 >= keys.length) {
+                resize();
+            }
+            int slot = slot(key, keys.length);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            counts[slot]++;
+        }
+
+        void forEach(PairConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    consumer.accept((int) (keys[i] >>> 32), (int) keys[i], counts[i]);
+                }
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slot(oldKeys[i], keys.length);
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & (keys.length - 1);
+                    }
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        private static int slot(long key, int capacity) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 40) & (capacity - 1);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PairConsumer {
+        void accept(int a, int b, int weight);
+    }
+}
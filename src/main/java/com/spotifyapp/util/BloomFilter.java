@@ -0,0 +1,134 @@
+package com.spotifyapp.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bloom filter over long keys. Index positions come from double hashing a
+ * single 64-bit mix of the key, so membership tests allocate nothing.
+ */
+public final class BloomFilter {
+
+    // Far more than any sensible false-positive rate needs; bounds the work a decoded filter can ask for
+    public static final int MAX_HASHES = 16;
+
+    private final long[] words;
+    private final int numBits;
+    private final int numHashes;
+
+    private BloomFilter(long[] words, int numBits, int numHashes) {
+        this.words = words;
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+    }
+
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int numBits = (int) Math.min(Math.max(bits, 64), Integer.MAX_VALUE - 63);
+        int numHashes = (int) Math.min(Math.max(1, Math.round((double) numBits / n * ln2)), MAX_HASHES);
+        return new BloomFilter(new long[(numBits + 63) >>> 6], numBits, numHashes);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a filter written by {@link #toBytes()}
+     */
+    public static BloomFilter fromBytes(byte[] bytes) {
+        if (bytes.length < 2 * Integer.BYTES) {
+            throw new IllegalArgumentException("Bloom filter is truncated");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int numHashes = buffer.getInt();
+        int numBits = buffer.getInt();
+        if (numHashes < 1 || numHashes > MAX_HASHES) {
+            throw new IllegalArgumentException("Bloom filter hash count out of range");
+        }
+        // Checked before allocating, so a bogus size cannot ask for a huge array
+        if (numBits <= 0 || serializedSize(numBits) != bytes.length) {
+            throw new IllegalArgumentException("Bloom filter size does not match its bits");
+        }
+        long[] words = new long[buffer.remaining() / Long.BYTES];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = buffer.getLong();
+        }
+        return new BloomFilter(words, numBits, numHashes);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES + words.length * Long.BYTES);
+        buffer.putInt(numHashes);
+        buffer.putInt(numBits);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Returns true if the key was not present before (all bits were not yet set).
+     */
+    public boolean put(long key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = bitIndex(h1 + i * h2);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            if ((words[word] & mask) == 0) {
+                words[word] |= mask;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = bitIndex(h1 + i * h2);
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int bitSize() {
+        return numBits;
+    }
+
+    /**
+     * Share of bits set. Around one half the filter holds about its designed capacity;
+     * beyond that the false-positive rate climbs quickly.
+     */
+    public double fillRatio() {
+        long set = 0;
+        for (long word : words) {
+            set += Long.bitCount(word);
+        }
+        return (double) set / numBits;
+    }
+
+    /**
+     * Bytes {@link #toBytes()} writes for a filter of the given bit size.
+     */
+    public static long serializedSize(int numBits) {
+        return 2L * Integer.BYTES + (((long) numBits + 63) >>> 6) * Long.BYTES;
+    }
+
+    private int bitIndex(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % numBits;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,320 @@
+package com.spotifyapp.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable prefix index for typeahead. Every word start of every normalized name is a
+ * key, so "moon r" completes "Blue Moon River". Keys are kept sorted as offsets into one
+ * shared char pool, which makes a prefix a contiguous range found by binary search. A
+ * max segment tree over the key weights then yields the most popular completions of any
+ * range in O(k log n), without a per-prefix list to store or keep current.
+ */
+public final class CompletionIndex {
+
+    public enum Kind {
+        TRACK, ARTIST, ALBUM
+    }
+
+    public record Completion(Kind kind, long id, String text, String detail) {
+    }
+
+    // Keys past this many words of a name are not indexed
+    static final int MAX_WORDS = 8;
+
+    private static final CompletionIndex EMPTY = new Builder().build();
+
+    private final Kind[] kinds;
+    private final long[] ids;
+    private final String[] texts;
+    private final String[] details;
+
+    private final char[] pool;
+    private final int[] keyStart;
+    private final int[] keyEnd;
+    private final int[] keyItem;
+    private final float[] keyWeight;
+    // tree[n + i] = i; inner nodes hold the heaviest key of their children
+    private final int[] tree;
+
+    private CompletionIndex(Kind[] kinds, long[] ids, String[] texts, String[] details,
+                            char[] pool, int[] keyStart, int[] keyEnd, int[] keyItem, float[] keyWeight) {
+        this.kinds = kinds;
+        this.ids = ids;
+        this.texts = texts;
+        this.details = details;
+        this.pool = pool;
+        this.keyStart = keyStart;
+        this.keyEnd = keyEnd;
+        this.keyItem = keyItem;
+        this.keyWeight = keyWeight;
+
+        int n = keyItem.length;
+        this.tree = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            tree[n + i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            tree[i] = heavier(tree[2 * i], tree[2 * i + 1]);
+        }
+    }
+
+    public static CompletionIndex empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int keys() {
+        return keyItem.length;
+    }
+
+    /**
+     * Lowercase, accents stripped, and every run of other characters collapsed to one space.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * The most popular names with a word starting with {@code prefix}, heaviest first.
+     * Each name is returned once however many of its words match.
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0 || keyItem.length == 0) {
+            return List.of();
+        }
+        int from = lowerBound(normalized);
+        int to = upperBound(normalized, from);
+        if (from >= to) {
+            return List.of();
+        }
+
+        // Ranges ordered by the weight of their heaviest key; popping one splits it around that key
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                (a, b) -> Float.compare(keyWeight[b[2]], keyWeight[a[2]]) != 0
+                        ? Float.compare(keyWeight[b[2]], keyWeight[a[2]])
+                        : Integer.compare(a[2], b[2]));
+        ranges.add(new int[]{from, to, heaviest(from, to)});
+        List<Completion> completions = new ArrayList<>(limit);
+        int[] seen = new int[limit];
+        while (completions.size() < limit && !ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            int key = range[2];
+            int item = keyItem[key];
+            if (!contains(seen, completions.size(), item)) {
+                seen[completions.size()] = item;
+                completions.add(new Completion(kinds[item], ids[item], texts[item], details[item]));
+            }
+            if (range[0] < key) {
+                ranges.add(new int[]{range[0], key, heaviest(range[0], key)});
+            }
+            if (key + 1 < range[1]) {
+                ranges.add(new int[]{key + 1, range[1], heaviest(key + 1, range[1])});
+            }
+        }
+        return completions;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Heaviest key in [from, to); ties go to the first key in sort order
+    private int heaviest(int from, int to) {
+        int n = keyItem.length;
+        int best = from;
+        for (int lo = from + n, hi = to + n; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                best = heavier(best, tree[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                best = heavier(best, tree[--hi]);
+            }
+        }
+        return best;
+    }
+
+    private int heavier(int a, int b) {
+        if (keyWeight[a] != keyWeight[b]) {
+            return keyWeight[a] > keyWeight[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    // First key >= prefix
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keyItem.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareKey(mid, prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First key at or after from that does not start with prefix
+    private int upperBound(String prefix, int from) {
+        int low = from;
+        int high = keyItem.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startsWith(mid, prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareKey(int key, String value) {
+        int start = keyStart[key];
+        int length = Math.min(keyEnd[key] - start, value.length());
+        for (int i = 0; i < length; i++) {
+            int diff = pool[start + i] - value.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return (keyEnd[key] - start) - value.length();
+    }
+
+    private boolean startsWith(int key, String prefix) {
+        int start = keyStart[key];
+        if (keyEnd[key] - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (pool[start + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static final class Builder {
+
+        private final List<Kind> kinds = new ArrayList<>();
+        private final List<Long> ids = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private final List<String> details = new ArrayList<>();
+        private final List<Float> weights = new ArrayList<>();
+        private final StringBuilder pool = new StringBuilder();
+        private final List<Integer> itemStart = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @param detail shown under the name, e.g. the artist of a track; may be null
+         * @param weight popularity; heavier names complete first
+         */
+        public Builder add(Kind kind, long id, String text, String detail, float weight) {
+            String normalized = normalize(text);
+            if (normalized.isEmpty()) {
+                return this;
+            }
+            kinds.add(kind);
+            ids.add(id);
+            texts.add(text);
+            details.add(detail);
+            weights.add(weight);
+            itemStart.add(pool.length());
+            // A separator keeps keys from running into the next name
+            pool.append(normalized).append('\n');
+            return this;
+        }
+
+        public CompletionIndex build() {
+            int items = ids.size();
+            char[] chars = pool.toString().toCharArray();
+
+            List<int[]> keys = new ArrayList<>();
+            for (int item = 0; item < items; item++) {
+                int start = itemStart.get(item);
+                int end = start;
+                while (chars[end] != '\n') {
+                    end++;
+                }
+                int words = 0;
+                for (int i = start; i < end && words < MAX_WORDS; i++) {
+                    if (i == start || chars[i - 1] == ' ') {
+                        keys.add(new int[]{i, end, item});
+                        words++;
+                    }
+                }
+            }
+            keys.sort((a, b) -> {
+                int length = Math.min(a[1] - a[0], b[1] - b[0]);
+                for (int i = 0; i < length; i++) {
+                    int diff = chars[a[0] + i] - chars[b[0] + i];
+                    if (diff != 0) {
+                        return diff;
+                    }
+                }
+                return (a[1] - a[0]) - (b[1] - b[0]);
+            });
+
+            int[] keyStart = new int[keys.size()];
+            int[] keyEnd = new int[keys.size()];
+            int[] keyItem = new int[keys.size()];
+            float[] keyWeight = new float[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                int[] key = keys.get(i);
+                keyStart[i] = key[0];
+                keyEnd[i] = key[1];
+                keyItem[i] = key[2];
+                keyWeight[i] = weights.get(key[2]);
+            }
+
+            long[] idArray = new long[items];
+            for (int i = 0; i < items; i++) {
+                idArray[i] = ids.get(i);
+            }
+            return new CompletionIndex(kinds.toArray(new Kind[0]), idArray, texts.toArray(new String[0]),
+                    details.toArray(new String[0]), chars,
+                    keyStart, keyEnd, keyItem, keyWeight);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.spotifyapp.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque, URL-safe cursors for keyset pagination. A cursor holds the sort keys of the
+ * last row of a page, each with its type so that it decodes to the value it was made
+ * from; clients only pass it back.
+ */
+public final class CursorCodec {
+
+    private static final int VERSION = 1;
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Map<String, ?> keys) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(keys.size());
+            for (Map.Entry<String, ?> entry : keys.entrySet()) {
+                out.writeUTF(entry.getKey());
+                Object value = entry.getValue();
+                if (value instanceof Long number) {
+                    out.writeByte('J');
+                    out.writeLong(number);
+                } else if (value instanceof Integer number) {
+                    out.writeByte('I');
+                    out.writeInt(number);
+                } else if (value instanceof String text) {
+                    out.writeByte('S');
+                    out.writeUTF(text);
+                } else if (value instanceof LocalDateTime time) {
+                    out.writeByte('T');
+                    out.writeUTF(time.toString());
+                } else if (value instanceof LocalDate date) {
+                    out.writeByte('D');
+                    out.writeUTF(date.toString());
+                } else {
+                    throw new IllegalArgumentException("Cannot put " + value + " in a cursor");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @throws IllegalArgumentException when the cursor was not made by {@link #encode}
+     */
+    public static Map<String, Object> decode(String cursor) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unknown cursor version");
+            }
+            int count = in.readByte();
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                char type = (char) in.readByte();
+                Object value = switch (type) {
+                    case 'J' -> in.readLong();
+                    case 'I' -> in.readInt();
+                    case 'S' -> in.readUTF();
+                    case 'T' -> LocalDateTime.parse(in.readUTF());
+                    case 'D' -> LocalDate.parse(in.readUTF());
+                    default -> throw new IllegalArgumentException("Unknown cursor value type " + type);
+                };
+                keys.put(name, value);
+            }
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Trailing bytes in cursor");
+            }
+            return keys;
+        } catch (IOException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
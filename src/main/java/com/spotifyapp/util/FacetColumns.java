@@ -0,0 +1,262 @@
+package com.spotifyapp.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Facet values of the documents of a {@link TrigramIndex}, stored by ordinal in one
+ * primitive array per field: genre code as a {@code byte}, duration in seconds as an
+ * {@code int} and release year as a {@code short}. Each field value also has a
+ * {@link BitSet} of its live ordinals, so a filter is a few bitmap unions and one
+ * intersection, and counting the facets of a result is a single pass over its ordinals.
+ * Not thread-safe; the owning index guards it.
+ */
+public final class FacetColumns {
+
+    public static final int UNKNOWN = -1;
+
+    // Exclusive upper bounds of the duration buckets in seconds; the last bucket is open-ended
+    private static final int[] DURATION_BOUNDS = {120, 180, 240, 300, 420};
+    public static final int DURATION_BUCKETS = DURATION_BOUNDS.length + 1;
+
+    private byte[] genres;
+    private int[] durations;
+    private short[] years;
+
+    private BitSet[] genreSets = new BitSet[0];
+    private final BitSet[] durationSets = new BitSet[DURATION_BUCKETS];
+    private final Map<Integer, BitSet> yearSets = new LinkedHashMap<>();
+    private int minYear = Integer.MAX_VALUE;
+    private int maxYear = Integer.MIN_VALUE;
+
+    public FacetColumns(int capacity) {
+        int size = Math.max(capacity, 16);
+        genres = new byte[size];
+        durations = new int[size];
+        years = new short[size];
+        for (int i = 0; i < DURATION_BUCKETS; i++) {
+            durationSets[i] = new BitSet();
+        }
+    }
+
+    /**
+     * The facet values of one track; {@link #UNKNOWN} where a value is missing.
+     *
+     * @param genre a code below 128, e.g. an enum ordinal
+     */
+    public record Values(int genre, int durationSeconds, int year) {
+
+        public static final Values NONE = new Values(UNKNOWN, UNKNOWN, UNKNOWN);
+
+        public Values {
+            if (genre > Byte.MAX_VALUE || year > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Facet value out of range");
+            }
+        }
+    }
+
+    /**
+     * Accepted values per field. A field with no values accepts everything; otherwise a
+     * track must have one of the values of every such field.
+     */
+    public record Filter(Set<Integer> genres, Set<Integer> durationBuckets, Set<Integer> years) {
+
+        public static final Filter NONE = new Filter(Set.of(), Set.of(), Set.of());
+
+        public boolean isEmpty() {
+            return genres.isEmpty() && durationBuckets.isEmpty() && years.isEmpty();
+        }
+    }
+
+    /**
+     * Match counts per genre code, per duration bucket and per release year (newest
+     * first); values without matches are left out.
+     */
+    public record Facets(Map<Integer, Integer> genres, Map<Integer, Integer> durationBuckets,
+                         Map<Integer, Integer> years) {
+    }
+
+    public void set(int ordinal, Values values) {
+        if (ordinal >= genres.length) {
+            int capacity = Math.max(ordinal + 1, genres.length * 2);
+            genres = Arrays.copyOf(genres, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            years = Arrays.copyOf(years, capacity);
+        }
+        genres[ordinal] = (byte) values.genre();
+        durations[ordinal] = values.durationSeconds();
+        years[ordinal] = (short) values.year();
+
+        if (values.genre() >= 0) {
+            genreSet(values.genre()).set(ordinal);
+        }
+        if (values.durationSeconds() >= 0) {
+            durationSets[durationBucket(values.durationSeconds())].set(ordinal);
+        }
+        if (values.year() >= 0) {
+            yearSets.computeIfAbsent(values.year(), y -> new BitSet()).set(ordinal);
+            minYear = Math.min(minYear, values.year());
+            maxYear = Math.max(maxYear, values.year());
+        }
+    }
+
+    /**
+     * Drops a replaced or removed ordinal from the bitmaps; its column values stay until
+     * the index is compacted.
+     */
+    public void clear(int ordinal) {
+        if (genres[ordinal] >= 0) {
+            genreSets[genres[ordinal]].clear(ordinal);
+        }
+        if (durations[ordinal] >= 0) {
+            durationSets[durationBucket(durations[ordinal])].clear(ordinal);
+        }
+        if (years[ordinal] >= 0) {
+            yearSets.get((int) years[ordinal]).clear(ordinal);
+        }
+    }
+
+    public Values get(int ordinal) {
+        return new Values(genres[ordinal], durations[ordinal], years[ordinal]);
+    }
+
+    /**
+     * Ordinals accepted by the filter, or null when it accepts everything.
+     */
+    public BitSet select(Filter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+        BitSet selected = null;
+        if (!filter.genres().isEmpty()) {
+            selected = union(filter.genres(), code -> code >= 0 && code < genreSets.length ? genreSets[code] : null);
+        }
+        if (!filter.durationBuckets().isEmpty()) {
+            selected = intersect(selected, union(filter.durationBuckets(),
+                    bucket -> bucket >= 0 && bucket < DURATION_BUCKETS ? durationSets[bucket] : null));
+        }
+        if (!filter.years().isEmpty()) {
+            selected = intersect(selected, union(filter.years(), yearSets::get));
+        }
+        return selected;
+    }
+
+    public Counter counter() {
+        return new Counter();
+    }
+
+    /**
+     * Duration bucket of a length in seconds.
+     */
+    public static int durationBucket(int seconds) {
+        int bucket = 0;
+        while (bucket < DURATION_BOUNDS.length && seconds >= DURATION_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Bucket label in minutes, e.g. "3-4" or "7+".
+     */
+    public static String durationLabel(int bucket) {
+        int from = bucket == 0 ? 0 : DURATION_BOUNDS[bucket - 1] / 60;
+        return bucket == DURATION_BOUNDS.length ? from + "+" : from + "-" + DURATION_BOUNDS[bucket] / 60;
+    }
+
+    /**
+     * The bucket with the given label, or {@link #UNKNOWN}.
+     */
+    public static int durationBucket(String label) {
+        for (int bucket = 0; bucket < DURATION_BUCKETS; bucket++) {
+            if (durationLabel(bucket).equals(label)) {
+                return bucket;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private BitSet genreSet(int code) {
+        if (code >= genreSets.length) {
+            int from = genreSets.length;
+            genreSets = Arrays.copyOf(genreSets, code + 1);
+            for (int i = from; i <= code; i++) {
+                genreSets[i] = new BitSet();
+            }
+        }
+        return genreSets[code];
+    }
+
+    private static BitSet union(Set<Integer> values, IntFunction<BitSet> sets) {
+        BitSet union = new BitSet();
+        for (int value : values) {
+            BitSet set = sets.apply(value);
+            if (set != null) {
+                union.or(set);
+            }
+        }
+        return union;
+    }
+
+    private static BitSet intersect(BitSet selected, BitSet other) {
+        if (selected == null) {
+            return other;
+        }
+        selected.and(other);
+        return selected;
+    }
+
+    /**
+     * Counts the facets of the ordinals added to it.
+     */
+    public final class Counter {
+
+        private final int[] genreCounts = new int[genreSets.length];
+        private final int[] durationCounts = new int[DURATION_BUCKETS];
+        private final int[] yearCounts = new int[maxYear >= minYear ? maxYear - minYear + 1 : 0];
+
+        private Counter() {
+        }
+
+        public void add(int ordinal) {
+            int genre = genres[ordinal];
+            if (genre >= 0) {
+                genreCounts[genre]++;
+            }
+            int duration = durations[ordinal];
+            if (duration >= 0) {
+                durationCounts[durationBucket(duration)]++;
+            }
+            int year = years[ordinal];
+            if (year >= 0) {
+                yearCounts[year - minYear]++;
+            }
+        }
+
+        public Facets facets() {
+            Map<Integer, Integer> byGenre = new LinkedHashMap<>();
+            for (int code = 0; code < genreCounts.length; code++) {
+                if (genreCounts[code] > 0) {
+                    byGenre.put(code, genreCounts[code]);
+                }
+            }
+            Map<Integer, Integer> byDuration = new LinkedHashMap<>();
+            for (int bucket = 0; bucket < DURATION_BUCKETS; bucket++) {
+                if (durationCounts[bucket] > 0) {
+                    byDuration.put(bucket, durationCounts[bucket]);
+                }
+            }
+            Map<Integer, Integer> byYear = new LinkedHashMap<>();
+            for (int i = yearCounts.length - 1; i >= 0; i--) {
+                if (yearCounts[i] > 0) {
+                    byYear.put(minYear + i, yearCounts[i]);
+                }
+            }
+            return new Facets(byGenre, byDuration, byYear);
+        }
+    }
+}
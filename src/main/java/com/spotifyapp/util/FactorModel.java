@@ -0,0 +1,261 @@
+package com.spotifyapp.util;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only user/item factor model backed by a memory-mapped file.
+ *
+ * <p>Layout (little endian): header {@code magic, version, factors, users, items},
+ * sorted user ids, sorted item ids, user factors row-major, then item factors in
+ * blocks of {@link #BLOCK} items stored factor-major so that scoring a block is a
+ * sequence of contiguous multiply-adds the JIT can vectorize.
+ *
+ * <p>The mapping is reference counted: whoever opens a model holds one reference,
+ * readers take another with {@link #retain()}, and the last {@link #release()} unmaps
+ * the file instead of leaving it to the garbage collector.
+ */
+public final class FactorModel {
+
+    public static final int BLOCK = 256;
+
+    private static final int MAGIC = 0x53504D46;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+
+    private final int factors;
+    private final int userCount;
+    private final int itemCount;
+    private final LongBuffer userIds;
+    private final LongBuffer itemIds;
+    private final FloatBuffer userFactors;
+    private final FloatBuffer itemBlocks;
+    private final MappedByteBuffer mapping;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private FactorModel(MappedByteBuffer buffer) {
+        this.mapping = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a factor model file");
+        }
+        this.factors = buffer.getInt(8);
+        this.userCount = buffer.getInt(12);
+        this.itemCount = buffer.getInt(16);
+
+        int offset = HEADER_BYTES;
+        this.userIds = slice(buffer, offset, userCount * Long.BYTES).asLongBuffer();
+        offset += userCount * Long.BYTES;
+        this.itemIds = slice(buffer, offset, itemCount * Long.BYTES).asLongBuffer();
+        offset += itemCount * Long.BYTES;
+        this.userFactors = slice(buffer, offset, userCount * factors * Float.BYTES).asFloatBuffer();
+        offset += userCount * factors * Float.BYTES;
+        this.itemBlocks = slice(buffer, offset, blockCount(itemCount) * BLOCK * factors * Float.BYTES).asFloatBuffer();
+    }
+
+    public static FactorModel open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new FactorModel(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes a model. Ids must be sorted ascending and factor rows must follow the id order.
+     */
+    public static void write(Path path, long[] userIds, long[] itemIds, int factors,
+                             float[] userFactors, float[] itemFactors) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(factors).putInt(userIds.length).putInt(itemIds.length);
+            for (long id : userIds) {
+                buffer = ensure(channel, buffer, Long.BYTES).putLong(id);
+            }
+            for (long id : itemIds) {
+                buffer = ensure(channel, buffer, Long.BYTES).putLong(id);
+            }
+            for (float value : userFactors) {
+                buffer = ensure(channel, buffer, Float.BYTES).putFloat(value);
+            }
+
+            int blocks = blockCount(itemIds.length);
+            for (int block = 0; block < blocks; block++) {
+                for (int f = 0; f < factors; f++) {
+                    for (int j = 0; j < BLOCK; j++) {
+                        int item = block * BLOCK + j;
+                        float value = item < itemIds.length ? itemFactors[item * factors + f] : 0f;
+                        buffer = ensure(channel, buffer, Float.BYTES).putFloat(value);
+                    }
+                }
+            }
+
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Takes a reference for reading. False once the last reference has been released,
+     * in which case the model must not be used.
+     */
+    public boolean retain() {
+        int current;
+        do {
+            current = references.get();
+            if (current == 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            unmap(mapping);
+        }
+    }
+
+    public int factors() {
+        return factors;
+    }
+
+    public int userCount() {
+        return userCount;
+    }
+
+    public int itemCount() {
+        return itemCount;
+    }
+
+    public long itemId(int itemIndex) {
+        return itemIds.get(itemIndex);
+    }
+
+    public int userIndex(long userId) {
+        return binarySearch(userIds, userCount, userId);
+    }
+
+    public int itemIndex(long itemId) {
+        return binarySearch(itemIds, itemCount, itemId);
+    }
+
+    public float[] itemVector(int itemIndex) {
+        float[] vector = new float[factors];
+        int base = (itemIndex / BLOCK) * BLOCK * factors + itemIndex % BLOCK;
+        for (int f = 0; f < factors; f++) {
+            vector[f] = itemBlocks.get(base + f * BLOCK);
+        }
+        return vector;
+    }
+
+    /**
+     * Item ids with the highest predicted preference for the user, best first.
+     * Unknown users get an empty result.
+     */
+    public long[] recommend(long userId, int n) {
+        int user = userIndex(userId);
+        if (user < 0 || n <= 0) {
+            return new long[0];
+        }
+
+        float[] userVector = new float[factors];
+        userFactors.get(user * factors, userVector);
+
+        int[] best = scoreAll(userVector, n);
+        long[] result = new long[best.length];
+        for (int i = 0; i < best.length; i++) {
+            result[i] = itemIds.get(best[i]);
+        }
+        return result;
+    }
+
+    private int[] scoreAll(float[] userVector, int n) {
+        TopK topK = new TopK(n);
+        float[] block = new float[BLOCK * factors];
+        float[] scores = new float[BLOCK];
+
+        int blocks = blockCount(itemCount);
+        for (int b = 0; b < blocks; b++) {
+            itemBlocks.get(b * BLOCK * factors, block);
+            Arrays.fill(scores, 0f);
+            for (int f = 0; f < factors; f++) {
+                float weight = userVector[f];
+                int offset = f * BLOCK;
+                for (int j = 0; j < BLOCK; j++) {
+                    scores[j] += weight * block[offset + j];
+                }
+            }
+
+            int base = b * BLOCK;
+            int limit = Math.min(BLOCK, itemCount - base);
+            for (int j = 0; j < limit; j++) {
+                topK.offer(scores[j], base + j);
+            }
+        }
+        return topK.drainDescending();
+    }
+
+    // A replaced model file keeps its disk space until unmapped, and a GC may be far off
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not available on this JVM; the mapping goes when the buffer is collected
+        }
+    }
+
+    private static int blockCount(int items) {
+        return (items + BLOCK - 1) / BLOCK;
+    }
+
+    private static ByteBuffer slice(MappedByteBuffer buffer, int offset, int length) {
+        return buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteBuffer ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    private static int binarySearch(LongBuffer ids, int size, long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = ids.get(mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,453 @@
+package com.spotifyapp.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical navigable small world graph (Malkov and Yashunin 2016) for approximate
+ * cosine nearest neighbours over long-labelled vectors. Vectors are normalized on
+ * insert so distance is {@code 1 - dot}. Searches run concurrently; inserts are
+ * serialized behind a write lock.
+ */
+public final class HnswIndex {
+
+    private static final int MAGIC = 0x484E5357;
+    private static final int VERSION = 1;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> indexById = new HashMap<>();
+    private final ThreadLocal<VisitedMarks> visited = ThreadLocal.withInitial(VisitedMarks::new);
+
+    private long[] ids;
+    private float[] vectors;
+    // links[node][layer] = {count, neighbour...}
+    private int[][][] links;
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimensions, int m, int efConstruction, long seed) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = new Random(seed);
+        this.ids = new long[64];
+        this.vectors = new float[64 * dimensions];
+        this.links = new int[64][][];
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return indexById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The stored (normalized) vector, or null if the id is not indexed.
+     */
+    public float[] vector(long id) {
+        lock.readLock().lock();
+        try {
+            Integer node = indexById.get(id);
+            return node == null ? null : Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts a vector. Returns false if the id is already indexed or the vector is all zeros.
+     */
+    public boolean add(long id, float[] vector) {
+        float[] query = normalize(vector);
+        if (query == null) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (indexById.containsKey(id)) {
+                return false;
+            }
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+            int node = append(id, query, level);
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return true;
+            }
+
+            int current = greedyDescent(query, entryPoint, maxLevel, level);
+            for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+                List<Candidate> nearest = searchLayer(query, current, efConstruction, layer);
+                int capacity = layer == 0 ? maxM0 : m;
+                int[] selected = selectNeighbors(nearest, m);
+                int[] own = links[node][layer];
+                for (int neighbor : selected) {
+                    own[++own[0]] = neighbor;
+                    connect(neighbor, node, layer, capacity);
+                }
+                current = nearest.get(0).node;
+            }
+
+            if (level > maxLevel) {
+                entryPoint = node;
+                maxLevel = level;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the approximately {@code k} most similar vectors, most similar first.
+     *
+     * @param ef size of the dynamic candidate list; larger is slower but more accurate
+     */
+    public long[] search(float[] vector, int k, int ef) {
+        float[] query = normalize(vector);
+        if (query == null || k <= 0) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return new long[0];
+            }
+            int current = greedyDescent(query, entryPoint, maxLevel, 0);
+            List<Candidate> nearest = searchLayer(query, current, Math.max(ef, k), 0);
+            long[] result = new long[Math.min(k, nearest.size())];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = ids[nearest.get(i).node];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void writeTo(Path path) throws IOException {
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(dimensions);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeInt(size);
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            for (int node = 0; node < size; node++) {
+                out.writeLong(ids[node]);
+            }
+            for (int i = 0; i < size * dimensions; i++) {
+                out.writeFloat(vectors[i]);
+            }
+            for (int node = 0; node < size; node++) {
+                out.writeInt(links[node].length);
+                for (int[] layer : links[node]) {
+                    out.writeInt(layer[0]);
+                    for (int i = 1; i <= layer[0]; i++) {
+                        out.writeInt(layer[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads a snapshot written by {@link #writeTo}. Vectors and ids are bulk-copied
+     * out of a memory mapping, which keeps reloads of large indexes fast.
+     */
+    public static HnswIndex readFrom(Path path, long seed) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IllegalArgumentException("Not an HNSW snapshot");
+            }
+            int dimensions = buffer.getInt();
+            int m = buffer.getInt();
+            int efConstruction = buffer.getInt();
+            int size = buffer.getInt();
+
+            HnswIndex index = new HnswIndex(dimensions, m, efConstruction, seed);
+            index.entryPoint = buffer.getInt();
+            index.maxLevel = buffer.getInt();
+            index.size = size;
+            index.ids = new long[Math.max(size, 64)];
+            index.vectors = new float[Math.max(size, 64) * dimensions];
+            index.links = new int[Math.max(size, 64)][][];
+
+            buffer.asLongBuffer().get(index.ids, 0, size);
+            buffer.position(buffer.position() + size * Long.BYTES);
+            buffer.asFloatBuffer().get(index.vectors, 0, size * dimensions);
+            buffer.position(buffer.position() + size * dimensions * Float.BYTES);
+
+            for (int node = 0; node < size; node++) {
+                int layers = buffer.getInt();
+                index.links[node] = new int[layers][];
+                for (int layer = 0; layer < layers; layer++) {
+                    int count = buffer.getInt();
+                    int[] neighbors = new int[(layer == 0 ? index.maxM0 : m) + 1];
+                    neighbors[0] = count;
+                    buffer.asIntBuffer().get(neighbors, 1, count);
+                    buffer.position(buffer.position() + count * Integer.BYTES);
+                    index.links[node][layer] = neighbors;
+                }
+                index.indexById.put(index.ids[node], node);
+            }
+            return index;
+        }
+    }
+
+    private int append(long id, float[] vector, int level) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            vectors = Arrays.copyOf(vectors, capacity * dimensions);
+            links = Arrays.copyOf(links, capacity);
+        }
+        int node = size++;
+        ids[node] = id;
+        System.arraycopy(vector, 0, vectors, node * dimensions, dimensions);
+        links[node] = new int[level + 1][];
+        for (int layer = 0; layer <= level; layer++) {
+            links[node][layer] = new int[(layer == 0 ? maxM0 : m) + 1];
+        }
+        indexById.put(id, node);
+        return node;
+    }
+
+    // Walks down from the top layer to targetLevel + 1, always moving to a closer neighbour
+    private int greedyDescent(float[] query, int start, int fromLevel, int targetLevel) {
+        int current = start;
+        float currentDistance = distance(query, current);
+        for (int layer = fromLevel; layer > targetLevel; layer--) {
+            boolean improved = true;
+            while (improved) {
+                improved = false;
+                int[] neighbors = links[current][layer];
+                for (int i = 1; i <= neighbors[0]; i++) {
+                    float d = distance(query, neighbors[i]);
+                    if (d < currentDistance) {
+                        currentDistance = d;
+                        current = neighbors[i];
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    // Best-first search of one layer; result is sorted by ascending distance
+    private List<Candidate> searchLayer(float[] query, int entry, int ef, int layer) {
+        VisitedMarks marks = visited.get();
+        marks.reset(size);
+
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Comparator.comparingDouble(c -> c.distance));
+        PriorityQueue<Candidate> results = new PriorityQueue<>(Comparator.comparingDouble((Candidate c) -> c.distance).reversed());
+        Candidate first = new Candidate(entry, distance(query, entry));
+        candidates.add(first);
+        results.add(first);
+        marks.mark(entry);
+
+        while (!candidates.isEmpty()) {
+            Candidate closest = candidates.poll();
+            if (closest.distance > results.peek().distance && results.size() >= ef) {
+                break;
+            }
+            if (layer >= links[closest.node].length) {
+                continue;
+            }
+            int[] neighbors = links[closest.node][layer];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                int neighbor = neighbors[i];
+                if (!marks.mark(neighbor)) {
+                    continue;
+                }
+                float d = distance(query, neighbor);
+                if (results.size() < ef || d < results.peek().distance) {
+                    Candidate candidate = new Candidate(neighbor, d);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingDouble(c -> c.distance));
+        return sorted;
+    }
+
+    // Neighbour selection heuristic: skip candidates closer to an already selected neighbour
+    // than to the query, which keeps links spread across clusters
+    private int[] selectNeighbors(List<Candidate> sortedCandidates, int limit) {
+        int[] selected = new int[Math.min(limit, sortedCandidates.size())];
+        int count = 0;
+        List<Candidate> skipped = new ArrayList<>();
+        for (Candidate candidate : sortedCandidates) {
+            if (count == selected.length) {
+                break;
+            }
+            boolean diverse = true;
+            for (int i = 0; i < count; i++) {
+                if (distanceBetween(candidate.node, selected[i]) < candidate.distance) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate.node;
+            } else {
+                skipped.add(candidate);
+            }
+        }
+        for (int i = 0; count < selected.length && i < skipped.size(); i++) {
+            selected[count++] = skipped.get(i).node;
+        }
+        return selected;
+    }
+
+    private void connect(int node, int newNeighbor, int layer, int capacity) {
+        int[] neighbors = links[node][layer];
+        if (neighbors[0] < capacity) {
+            neighbors[++neighbors[0]] = newNeighbor;
+            return;
+        }
+
+        // Full: keep the best mix of the existing links and the new one
+        List<Candidate> candidates = new ArrayList<>(capacity + 1);
+        for (int i = 1; i <= neighbors[0]; i++) {
+            candidates.add(new Candidate(neighbors[i], distanceBetween(node, neighbors[i])));
+        }
+        candidates.add(new Candidate(newNeighbor, distanceBetween(node, newNeighbor)));
+        candidates.sort(Comparator.comparingDouble(c -> c.distance));
+        int[] selected = selectNeighbors(candidates, capacity);
+        neighbors[0] = selected.length;
+        System.arraycopy(selected, 0, neighbors, 1, selected.length);
+    }
+
+    private float distance(float[] query, int node) {
+        int base = node * dimensions;
+        float dot = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[i] * vectors[base + i];
+        }
+        return 1f - dot;
+    }
+
+    private float distanceBetween(int a, int b) {
+        int baseA = a * dimensions;
+        int baseB = b * dimensions;
+        float dot = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            dot += vectors[baseA + i] * vectors[baseB + i];
+        }
+        return 1f - dot;
+    }
+
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        float[] normalized = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    private static final class Candidate {
+        final int node;
+        final float distance;
+
+        Candidate(int node, float distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+
+    // Epoch-stamped visited set, reused across searches on the same thread
+    private static final class VisitedMarks {
+        private int[] stamps = new int[0];
+        private int epoch;
+
+        void reset(int size) {
+            if (stamps.length < size) {
+                stamps = new int[Math.max(size, stamps.length * 2)];
+                epoch = 0;
+            }
+            epoch++;
+            if (epoch == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                epoch = 1;
+            }
+        }
+
+        // Returns true the first time a node is marked in this search
+        boolean mark(int node) {
+            if (stamps[node] == epoch) {
+                return false;
+            }
+            stamps[node] = epoch;
+            return true;
+        }
+    }
+}
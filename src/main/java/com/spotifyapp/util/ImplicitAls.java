@@ -0,0 +1,196 @@
+package com.spotifyapp.util;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Alternating least squares for implicit feedback (Hu, Koren, Volinsky 2008).
+ * Factors are stored row-major in flat float arrays; each half-step solves one
+ * k x k system per row in parallel on a dedicated fork-join pool.
+ */
+public final class ImplicitAls {
+
+    private final int factors;
+    private final double regularization;
+    private final double alpha;
+    private final int iterations;
+    private final int threads;
+
+    public ImplicitAls(int factors, double regularization, double alpha, int iterations, int threads) {
+        this.factors = factors;
+        this.regularization = regularization;
+        this.alpha = alpha;
+        this.iterations = iterations;
+        this.threads = threads;
+    }
+
+    public Factors train(SparseMatrix userItems, long seed) {
+        SparseMatrix itemUsers = userItems.transpose();
+        Random random = new Random(seed);
+        float[] userFactors = randomFactors(userItems.rows(), random);
+        float[] itemFactors = randomFactors(userItems.columns(), random);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (int i = 0; i < iterations; i++) {
+                solveAll(pool, userItems, itemFactors, userFactors);
+                solveAll(pool, itemUsers, userFactors, itemFactors);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new Factors(factors, userFactors, itemFactors);
+    }
+
+    private float[] randomFactors(int rows, Random random) {
+        float[] result = new float[rows * factors];
+        float scale = (float) (0.1 / Math.sqrt(factors));
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (float) random.nextGaussian() * scale;
+        }
+        return result;
+    }
+
+    private void solveAll(ForkJoinPool pool, SparseMatrix ratings, float[] fixed, float[] target) {
+        double[] gram = gram(pool, fixed, ratings.columns());
+        ThreadLocal<double[][]> scratch = ThreadLocal.withInitial(
+                () -> new double[][]{new double[factors * factors], new double[factors]});
+        run(pool, () -> {
+            IntStream.range(0, ratings.rows()).parallel()
+                    .forEach(row -> solveRow(row, ratings, fixed, target, gram, scratch.get()));
+            return null;
+        });
+    }
+
+    // Lower triangle of Y^T Y
+    private double[] gram(ForkJoinPool pool, float[] matrix, int rows) {
+        int k = factors;
+        int chunks = Math.max(1, Math.min(rows, threads * 4));
+        return run(pool, () -> IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    double[] partial = new double[k * k];
+                    int from = (int) ((long) rows * chunk / chunks);
+                    int to = (int) ((long) rows * (chunk + 1) / chunks);
+                    for (int r = from; r < to; r++) {
+                        int base = r * k;
+                        for (int i = 0; i < k; i++) {
+                            double yi = matrix[base + i];
+                            for (int j = 0; j <= i; j++) {
+                                partial[i * k + j] += yi * matrix[base + j];
+                            }
+                        }
+                    }
+                    return partial;
+                })
+                .reduce(new double[k * k], (left, right) -> {
+                    double[] sum = new double[k * k];
+                    for (int i = 0; i < sum.length; i++) {
+                        sum[i] = left[i] + right[i];
+                    }
+                    return sum;
+                }));
+    }
+
+    // Solves (Y^T C Y + lambda I) x = Y^T C p for one row, using Y^T C Y = Y^T Y + Y^T (C - I) Y
+    private void solveRow(int row, SparseMatrix ratings, float[] fixed, float[] target,
+                          double[] gram, double[][] scratch) {
+        int k = factors;
+        double[] a = scratch[0];
+        double[] b = scratch[1];
+        System.arraycopy(gram, 0, a, 0, k * k);
+        Arrays.fill(b, 0);
+        for (int i = 0; i < k; i++) {
+            a[i * k + i] += regularization;
+        }
+
+        for (int p = ratings.rowStart(row); p < ratings.rowEnd(row); p++) {
+            int base = ratings.columnAt(p) * k;
+            double confidence = 1 + alpha * ratings.valueAt(p);
+            for (int i = 0; i < k; i++) {
+                double yi = fixed[base + i];
+                b[i] += confidence * yi;
+                double scaled = (confidence - 1) * yi;
+                for (int j = 0; j <= i; j++) {
+                    a[i * k + j] += scaled * fixed[base + j];
+                }
+            }
+        }
+
+        choleskySolve(a, b, k);
+        int out = row * k;
+        for (int i = 0; i < k; i++) {
+            target[out + i] = (float) b[i];
+        }
+    }
+
+    // In-place: a becomes its lower Cholesky factor, b becomes the solution
+    private static void choleskySolve(double[] a, double[] b, int k) {
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = a[i * k + j];
+                for (int m = 0; m < j; m++) {
+                    sum -= a[i * k + m] * a[j * k + m];
+                }
+                if (i == j) {
+                    a[i * k + i] = Math.sqrt(Math.max(sum, 1e-12));
+                } else {
+                    a[i * k + j] = sum / a[j * k + j];
+                }
+            }
+        }
+        for (int i = 0; i < k; i++) {
+            double sum = b[i];
+            for (int m = 0; m < i; m++) {
+                sum -= a[i * k + m] * b[m];
+            }
+            b[i] = sum / a[i * k + i];
+        }
+        for (int i = k - 1; i >= 0; i--) {
+            double sum = b[i];
+            for (int m = i + 1; m < k; m++) {
+                sum -= a[m * k + i] * b[m];
+            }
+            b[i] = sum / a[i * k + i];
+        }
+    }
+
+    private static <T> T run(ForkJoinPool pool, Callable<T> task) {
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("ALS training interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("ALS training failed", e.getCause());
+        }
+    }
+
+    public static final class Factors {
+
+        private final int factors;
+        private final float[] userFactors;
+        private final float[] itemFactors;
+
+        private Factors(int factors, float[] userFactors, float[] itemFactors) {
+            this.factors = factors;
+            this.userFactors = userFactors;
+            this.itemFactors = itemFactors;
+        }
+
+        public int factors() {
+            return factors;
+        }
+
+        public float[] userFactors() {
+            return userFactors;
+        }
+
+        public float[] itemFactors() {
+            return itemFactors;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.spotifyapp.util;
+
+import java.util.Arrays;
+
+/**
+ * User x item matrix keyed by database ids. Row and column indexes follow
+ * ascending id order, so an id's index is a binary search away.
+ */
+public final class InteractionMatrix {
+
+    private final long[] userIds;
+    private final long[] itemIds;
+    private final SparseMatrix matrix;
+
+    private InteractionMatrix(long[] userIds, long[] itemIds, SparseMatrix matrix) {
+        this.userIds = userIds;
+        this.itemIds = itemIds;
+        this.matrix = matrix;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long[] userIds() {
+        return userIds;
+    }
+
+    public long[] itemIds() {
+        return itemIds;
+    }
+
+    public SparseMatrix matrix() {
+        return matrix;
+    }
+
+    public static final class Builder {
+
+        private long[] users = new long[1024];
+        private long[] items = new long[1024];
+        private float[] values = new float[1024];
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder add(long userId, long itemId, float value) {
+            if (size == users.length) {
+                int capacity = size * 2;
+                users = Arrays.copyOf(users, capacity);
+                items = Arrays.copyOf(items, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            users[size] = userId;
+            items[size] = itemId;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        public InteractionMatrix build() {
+            long[] userIds = distinctSorted(users, size);
+            long[] itemIds = distinctSorted(items, size);
+
+            int[] rows = new int[size];
+            int[] columns = new int[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = Arrays.binarySearch(userIds, users[i]);
+                columns[i] = Arrays.binarySearch(itemIds, items[i]);
+            }
+
+            SparseMatrix matrix = SparseMatrix.fromTriples(userIds.length, itemIds.length, rows, columns, values, size);
+            return new InteractionMatrix(userIds, itemIds, matrix);
+        }
+
+        private static long[] distinctSorted(long[] source, int length) {
+            long[] sorted = Arrays.copyOf(source, length);
+            Arrays.sort(sorted);
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[unique++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, unique);
+        }
+    }
+}
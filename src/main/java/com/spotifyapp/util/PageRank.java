@@ -0,0 +1,92 @@
+package com.spotifyapp.util;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Weighted PageRank over an {@link ArtistGraph}. Each node spreads its score over its
+ * neighbours in proportion to edge weight; nodes without edges spread it uniformly.
+ * Iterations pull from neighbours, so nodes are updated in parallel without contention.
+ */
+public final class PageRank {
+
+    private PageRank() {
+    }
+
+    /**
+     * @return one score per graph index, summing to 1
+     */
+    public static double[] compute(ArtistGraph graph, double damping, int maxIterations,
+                                   double tolerance, int threads) {
+        int n = graph.size();
+        if (n == 0) {
+            return new double[0];
+        }
+
+        long[] outWeight = new long[n];
+        for (int node = 0; node < n; node++) {
+            for (int p = graph.neighborStart(node); p < graph.neighborEnd(node); p++) {
+                outWeight[node] += graph.weightAt(p);
+            }
+        }
+
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] share = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (int iteration = 0; iteration < maxIterations; iteration++) {
+                double[] current = rank;
+                double[] updated = next;
+
+                double dangling = run(pool, () -> IntStream.range(0, n).parallel()
+                        .mapToDouble(node -> {
+                            if (outWeight[node] == 0) {
+                                share[node] = 0;
+                                return current[node];
+                            }
+                            share[node] = current[node] / outWeight[node];
+                            return 0;
+                        })
+                        .sum());
+
+                double base = (1 - damping) / n + damping * dangling / n;
+                double delta = run(pool, () -> IntStream.range(0, n).parallel()
+                        .mapToDouble(node -> {
+                            double incoming = 0;
+                            for (int p = graph.neighborStart(node); p < graph.neighborEnd(node); p++) {
+                                incoming += share[graph.neighborAt(p)] * graph.weightAt(p);
+                            }
+                            updated[node] = base + damping * incoming;
+                            return Math.abs(updated[node] - current[node]);
+                        })
+                        .sum());
+
+                rank = updated;
+                next = current;
+                if (delta < tolerance) {
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return rank;
+    }
+
+    private static <T> T run(ForkJoinPool pool, Callable<T> task) {
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("PageRank interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("PageRank failed", e.getCause());
+        }
+    }
+}
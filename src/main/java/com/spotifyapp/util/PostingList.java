@@ -0,0 +1,202 @@
+package com.spotifyapp.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable sorted set of non-negative ints, stored as varint-encoded gaps in blocks
+ * of {@link #BLOCK}. The first value of every block is kept uncompressed in a skip
+ * array, so a cursor can gallop over whole blocks and only decode the one that may
+ * hold its target.
+ */
+public final class PostingList {
+
+    public static final int BLOCK = 128;
+    public static final int NO_MORE = Integer.MAX_VALUE;
+
+    private static final PostingList EMPTY = new PostingList(0, new int[0], new int[0], new byte[0]);
+
+    private final int size;
+    private final int[] blockFirst;
+    private final int[] blockOffset;
+    private final byte[] data;
+
+    private PostingList(int size, int[] blockFirst, int[] blockOffset, byte[] data) {
+        this.size = size;
+        this.blockFirst = blockFirst;
+        this.blockOffset = blockOffset;
+        this.data = data;
+    }
+
+    public static PostingList empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param values strictly increasing values; only the first {@code length} are used
+     */
+    public static PostingList of(int[] values, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        int blocks = (length + BLOCK - 1) / BLOCK;
+        int[] blockFirst = new int[blocks];
+        int[] blockOffset = new int[blocks];
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length);
+        for (int i = 0; i < length; i++) {
+            if (i % BLOCK == 0) {
+                blockFirst[i / BLOCK] = values[i];
+                blockOffset[i / BLOCK] = out.size();
+            } else {
+                writeVarint(out, values[i] - values[i - 1]);
+            }
+        }
+        return new PostingList(length, blockFirst, blockOffset, out.toByteArray());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes held by this list, for sizing the index.
+     */
+    public long sizeInBytes() {
+        return data.length + (long) blockFirst.length * 2 * Integer.BYTES;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public int[] toArray() {
+        int[] values = new int[size];
+        Cursor cursor = cursor();
+        for (int i = 0; i < size; i++) {
+            values[i] = cursor.next();
+        }
+        return values;
+    }
+
+    /**
+     * Values present in every list, ascending. The shortest list drives the walk and
+     * the others are advanced to its candidates.
+     */
+    public static int[] intersect(List<PostingList> lists) {
+        if (lists.isEmpty()) {
+            return new int[0];
+        }
+        Cursor[] cursors = lists.stream()
+                .sorted(Comparator.comparingInt(PostingList::size))
+                .map(PostingList::cursor)
+                .toArray(Cursor[]::new);
+
+        int[] result = new int[lists.stream().mapToInt(PostingList::size).min().orElse(0)];
+        int count = 0;
+        Cursor lead = cursors[0];
+        int candidate = lead.next();
+        outer:
+        while (candidate != NO_MORE) {
+            for (int k = 1; k < cursors.length; k++) {
+                int value = cursors[k].advance(candidate);
+                if (value != candidate) {
+                    if (value == NO_MORE) {
+                        break outer;
+                    }
+                    candidate = lead.advance(value);
+                    continue outer;
+                }
+            }
+            result[count++] = candidate;
+            candidate = lead.next();
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Forward-only iterator. Starts before the first value.
+     */
+    public final class Cursor {
+
+        private int index = -1;
+        private int offset;
+        private int value = -1;
+
+        public int value() {
+            return value;
+        }
+
+        public int next() {
+            index++;
+            if (index >= size) {
+                index = size;
+                return value = NO_MORE;
+            }
+            if (index % BLOCK == 0) {
+                int block = index / BLOCK;
+                offset = blockOffset[block];
+                return value = blockFirst[block];
+            }
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value += gap;
+        }
+
+        /**
+         * Moves to the first value {@code >= target} and returns it.
+         */
+        public int advance(int target) {
+            if (value >= target) {
+                return value;
+            }
+            int blocks = blockFirst.length;
+            int current = index < 0 ? -1 : index / BLOCK;
+            if (current + 1 < blocks && blockFirst[current + 1] <= target) {
+                // Gallop over the skip array, then binary search the last block starting <= target
+                int low = current + 1;
+                int step = 1;
+                int high = low + step;
+                while (high < blocks && blockFirst[high] <= target) {
+                    low = high;
+                    step <<= 1;
+                    high = low + step;
+                }
+                high = Math.min(high, blocks) - 1;
+                while (low < high) {
+                    int mid = (low + high + 1) >>> 1;
+                    if (blockFirst[mid] <= target) {
+                        low = mid;
+                    } else {
+                        high = mid - 1;
+                    }
+                }
+                index = low * BLOCK;
+                offset = blockOffset[low];
+                value = blockFirst[low];
+                if (value == target) {
+                    return value;
+                }
+            }
+            while (value < target) {
+                next();
+            }
+            return value;
+        }
+    }
+}
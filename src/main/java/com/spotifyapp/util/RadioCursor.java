@@ -0,0 +1,174 @@
+package com.spotifyapp.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Self-contained radio session state: the seed, the next page number, the random
+ * seed for the station and two fixed-size Bloom filters of tracks already played,
+ * the one being filled and the generation before it.
+ * Serialized as URL-safe Base64 so the server keeps nothing between pages, with a
+ * truncated HMAC-SHA256 so that clients cannot hand back a filter they made up.
+ */
+public final class RadioCursor {
+
+    private static final byte VERSION = 2;
+    private static final int HEADER_BYTES = 1 + Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int MAC_BYTES = 16;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final long seedMusicId;
+    private final int genreOrdinal;
+    private final long artistId;
+    private final int page;
+    private final long randomSeed;
+    private final BloomFilter played;
+    private final BloomFilter earlier;
+
+    public RadioCursor(long seedMusicId, int genreOrdinal, long artistId, int page, long randomSeed,
+                       BloomFilter played, BloomFilter earlier) {
+        this.seedMusicId = seedMusicId;
+        this.genreOrdinal = genreOrdinal;
+        this.artistId = artistId;
+        this.page = page;
+        this.randomSeed = randomSeed;
+        this.played = played;
+        this.earlier = earlier;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is malformed, was not signed with {@code key}
+     *                                  or its filters together are larger than {@code maxFilterBytes}
+     */
+    public static RadioCursor decode(String token, int maxFilterBytes, byte[] key) {
+        byte[] signed;
+        try {
+            signed = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor is not valid Base64", e);
+        }
+        if (signed.length < HEADER_BYTES + MAC_BYTES || signed.length - HEADER_BYTES - MAC_BYTES > maxFilterBytes) {
+            throw new IllegalArgumentException("Cursor has an unexpected length");
+        }
+        byte[] bytes = Arrays.copyOf(signed, signed.length - MAC_BYTES);
+        byte[] mac = Arrays.copyOfRange(signed, bytes.length, signed.length);
+        if (!MessageDigest.isEqual(mac, mac(key, bytes))) {
+            throw new IllegalArgumentException("Cursor signature does not match");
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (buffer.get() != VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor version");
+            }
+            long seedMusicId = buffer.getLong();
+            int genreOrdinal = buffer.getInt();
+            long artistId = buffer.getLong();
+            int page = buffer.getInt();
+            long randomSeed = buffer.getLong();
+
+            BloomFilter played = readFilter(buffer);
+            BloomFilter earlier = readFilter(buffer);
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Cursor has trailing bytes");
+            }
+            return new RadioCursor(seedMusicId, genreOrdinal, artistId, page, randomSeed, played, earlier);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Cursor is truncated", e);
+        }
+    }
+
+    public String encode(byte[] key) {
+        byte[] filter = played.toBytes();
+        byte[] earlierFilter = earlier.toBytes();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + filter.length + earlierFilter.length + MAC_BYTES);
+        buffer.put(VERSION)
+                .putLong(seedMusicId)
+                .putInt(genreOrdinal)
+                .putLong(artistId)
+                .putInt(page)
+                .putLong(randomSeed)
+                .put(filter)
+                .put(earlierFilter);
+        byte[] bytes = buffer.array();
+        buffer.put(mac(key, Arrays.copyOf(bytes, bytes.length - MAC_BYTES)));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public long seedMusicId() {
+        return seedMusicId;
+    }
+
+    public int genreOrdinal() {
+        return genreOrdinal;
+    }
+
+    public long artistId() {
+        return artistId;
+    }
+
+    public int page() {
+        return page;
+    }
+
+    public long randomSeed() {
+        return randomSeed;
+    }
+
+    /**
+     * The filter new tracks go into.
+     */
+    public BloomFilter played() {
+        return played;
+    }
+
+    /**
+     * The previous generation, still checked so that rotating does not replay recent tracks.
+     */
+    public BloomFilter earlier() {
+        return earlier;
+    }
+
+    public RadioCursor next() {
+        return new RadioCursor(seedMusicId, genreOrdinal, artistId, page + 1, randomSeed, played, earlier);
+    }
+
+    /**
+     * Starts a new generation: {@code fresh} takes new tracks, the current filter becomes
+     * the earlier one and the earlier one is dropped.
+     */
+    public RadioCursor rotate(BloomFilter fresh) {
+        return new RadioCursor(seedMusicId, genreOrdinal, artistId, page, randomSeed, fresh, played);
+    }
+
+    // Each filter's header gives its size, so the two can be split without a length prefix
+    private static BloomFilter readFilter(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.getInt();
+        int numBits = buffer.getInt();
+        long size = BloomFilter.serializedSize(Math.max(numBits, 0));
+        if (numBits <= 0 || size > buffer.limit() - start) {
+            throw new IllegalArgumentException("Cursor filter is corrupt");
+        }
+        byte[] filter = new byte[(int) size];
+        buffer.position(start);
+        buffer.get(filter);
+        return BloomFilter.fromBytes(filter);
+    }
+
+    private static byte[] mac(byte[] key, byte[] bytes) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, MAC_ALGORITHM));
+            return Arrays.copyOf(mac.doFinal(bytes), MAC_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign radio cursors", e);
+        }
+    }
+}
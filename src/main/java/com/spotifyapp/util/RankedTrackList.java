@@ -0,0 +1,127 @@
+package com.spotifyapp.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Immutable list of music ids ordered by popularity (most listened first).
+ * Keeps a prefix sum of sampling weights so that popularity-weighted draws
+ * are a binary search instead of a scan.
+ */
+public final class RankedTrackList {
+
+    private static final RankedTrackList EMPTY = new RankedTrackList(new long[0], new double[0]);
+
+    private final long[] musicIds;
+    private final double[] cumulativeWeights;
+
+    private RankedTrackList(long[] musicIds, double[] cumulativeWeights) {
+        this.musicIds = musicIds;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    public static RankedTrackList empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return musicIds.length;
+    }
+
+    public boolean isEmpty() {
+        return musicIds.length == 0;
+    }
+
+    public long idAt(int rank) {
+        return musicIds[rank];
+    }
+
+    public long[] top(int n) {
+        return Arrays.copyOf(musicIds, Math.min(n, musicIds.length));
+    }
+
+    /**
+     * Draws one rank with probability proportional to its weight,
+     * restricted to ranks in [fromRank, size).
+     */
+    public int sampleRank(int fromRank, Random random) {
+        double base = fromRank == 0 ? 0 : cumulativeWeights[fromRank - 1];
+        double total = cumulativeWeights[musicIds.length - 1];
+        double target = base + random.nextDouble() * (total - base);
+        int index = Arrays.binarySearch(cumulativeWeights, fromRank, musicIds.length, target);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, musicIds.length - 1);
+    }
+
+    /**
+     * Builds a mix of {@code size} distinct ids: the {@code topCount} most popular
+     * tracks followed by a popularity-weighted sample of the remaining ones.
+     */
+    public long[] mix(int size, int topCount, Random random) {
+        int total = Math.min(size, musicIds.length);
+        int head = Math.min(topCount, total);
+        long[] result = Arrays.copyOf(musicIds, total);
+        if (head == total) {
+            return result;
+        }
+
+        boolean[] taken = new boolean[musicIds.length - head];
+        int filled = head;
+        int attempts = (total - head) * 8;
+        while (filled < total && attempts-- > 0) {
+            int rank = sampleRank(head, random);
+            if (!taken[rank - head]) {
+                taken[rank - head] = true;
+                result[filled++] = musicIds[rank];
+            }
+        }
+
+        // Heavily skewed weights can starve the sampler; fill the rest in rank order
+        for (int rank = head; filled < total && rank < musicIds.length; rank++) {
+            if (!taken[rank - head]) {
+                taken[rank - head] = true;
+                result[filled++] = musicIds[rank];
+            }
+        }
+        return result;
+    }
+
+    public static final class Builder {
+
+        private long[] musicIds = new long[16];
+        private double[] weights = new double[16];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Appends a track; callers must add tracks in descending popularity order.
+         */
+        public Builder add(long musicId, long listenCount) {
+            if (size == musicIds.length) {
+                musicIds = Arrays.copyOf(musicIds, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            // Square root damping keeps a handful of hits from monopolising the sample
+            double weight = Math.sqrt(Math.max(listenCount, 1));
+            musicIds[size] = musicId;
+            weights[size] = size == 0 ? weight : weights[size - 1] + weight;
+            size++;
+            return this;
+        }
+
+        public RankedTrackList build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new RankedTrackList(Arrays.copyOf(musicIds, size), Arrays.copyOf(weights, size));
+        }
+    }
+}
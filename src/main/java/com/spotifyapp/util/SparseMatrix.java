@@ -0,0 +1,113 @@
+package com.spotifyapp.util;
+
+/**
+ * Compressed sparse row matrix of float values.
+ */
+public final class SparseMatrix {
+
+    private final int rows;
+    private final int columns;
+    private final int[] rowPointers;
+    private final int[] columnIndexes;
+    private final float[] values;
+
+    private SparseMatrix(int rows, int columns, int[] rowPointers, int[] columnIndexes, float[] values) {
+        this.rows = rows;
+        this.columns = columns;
+        this.rowPointers = rowPointers;
+        this.columnIndexes = columnIndexes;
+        this.values = values;
+    }
+
+    /**
+     * Builds a matrix from the first {@code count} (row, column, value) triples.
+     * Duplicate coordinates are kept as separate entries.
+     */
+    public static SparseMatrix fromTriples(int rows, int columns, int[] rowOf, int[] columnOf, float[] valueOf, int count) {
+        int[] pointers = new int[rows + 1];
+        for (int i = 0; i < count; i++) {
+            pointers[rowOf[i] + 1]++;
+        }
+        for (int r = 0; r < rows; r++) {
+            pointers[r + 1] += pointers[r];
+        }
+
+        int[] next = new int[rows];
+        System.arraycopy(pointers, 0, next, 0, rows);
+        int[] indexes = new int[count];
+        float[] data = new float[count];
+        for (int i = 0; i < count; i++) {
+            int slot = next[rowOf[i]]++;
+            indexes[slot] = columnOf[i];
+            data[slot] = valueOf[i];
+        }
+        return new SparseMatrix(rows, columns, pointers, indexes, data);
+    }
+
+    public SparseMatrix transpose() {
+        int count = columnIndexes.length;
+        int[] rowOf = new int[count];
+        for (int r = 0; r < rows; r++) {
+            for (int p = rowPointers[r]; p < rowPointers[r + 1]; p++) {
+                rowOf[p] = r;
+            }
+        }
+        return fromTriples(columns, rows, columnIndexes, rowOf, values, count);
+    }
+
+    /**
+     * Copy of this matrix without the entries flagged in {@code dropped}.
+     */
+    public SparseMatrix without(boolean[] dropped) {
+        int kept = 0;
+        for (boolean drop : dropped) {
+            if (!drop) {
+                kept++;
+            }
+        }
+
+        int[] pointers = new int[rows + 1];
+        int[] indexes = new int[kept];
+        float[] data = new float[kept];
+        int out = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int p = rowPointers[r]; p < rowPointers[r + 1]; p++) {
+                if (!dropped[p]) {
+                    indexes[out] = columnIndexes[p];
+                    data[out] = values[p];
+                    out++;
+                }
+            }
+            pointers[r + 1] = out;
+        }
+        return new SparseMatrix(rows, columns, pointers, indexes, data);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public int entries() {
+        return columnIndexes.length;
+    }
+
+    public int rowStart(int row) {
+        return rowPointers[row];
+    }
+
+    public int rowEnd(int row) {
+        return rowPointers[row + 1];
+    }
+
+    public int columnAt(int entry) {
+        return columnIndexes[entry];
+    }
+
+    public float valueAt(int entry) {
+        return values[entry];
+    }
+}
@@ -0,0 +1,294 @@
+package com.spotifyapp.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Word dictionary for spelling correction with a symmetric delete index (SymSpell).
+ * Every term is indexed under each string obtained by deleting up to
+ * {@link #MAX_DISTANCE} characters from its first {@link #PREFIX_LENGTH} characters; a
+ * misspelling generates its own deletes and looks them up, so candidates come from a
+ * handful of hash lookups instead of a scan. Candidates are then verified with the
+ * real edit distance.
+ *
+ * <p>Deletes are stored as 32-bit hashes packed with the term id into one sorted
+ * {@code long[]}; terms registered later go to a small delta map. Terms are reference
+ * counted so that the dictionary follows catalog changes, and at most {@code maxTerms}
+ * terms are ever registered, which bounds memory. Not thread-safe; the owning index
+ * guards it.
+ */
+public final class SpellingDictionary {
+
+    public static final int MAX_DISTANCE = 2;
+    static final int PREFIX_LENGTH = 7;
+    // Shorter words are too ambiguous to correct or to correct to
+    public static final int MIN_TERM_LENGTH = 4;
+
+    private final int maxTerms;
+    private final Map<String, Integer> termIds;
+    private final List<String> terms;
+    private int[] counts;
+    private int liveTerms;
+
+    private final long[] base;
+    private final Map<Integer, List<Integer>> delta = new HashMap<>();
+
+    private SpellingDictionary(int maxTerms, Map<String, Integer> termIds, List<String> terms,
+                               int[] counts, long[] base) {
+        this.maxTerms = maxTerms;
+        this.termIds = termIds;
+        this.terms = terms;
+        this.counts = counts;
+        this.base = base;
+        for (int i = 0; i < terms.size(); i++) {
+            if (counts[i] > 0) {
+                liveTerms++;
+            }
+        }
+    }
+
+    public static Builder builder(int maxTerms) {
+        return new Builder(maxTerms);
+    }
+
+    public int maxTerms() {
+        return maxTerms;
+    }
+
+    /**
+     * Terms currently in use.
+     */
+    public int size() {
+        return liveTerms;
+    }
+
+    public boolean contains(String term) {
+        Integer id = termIds.get(term);
+        return id != null && counts[id] > 0;
+    }
+
+    public void add(String term) {
+        if (term.length() < MIN_TERM_LENGTH) {
+            return;
+        }
+        Integer id = termIds.get(term);
+        if (id == null) {
+            if (terms.size() >= maxTerms) {
+                return;
+            }
+            int newId = terms.size();
+            terms.add(term);
+            termIds.put(term, newId);
+            if (newId == counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(16, newId * 2));
+            }
+            for (int hash : deleteHashes(term)) {
+                delta.computeIfAbsent(hash, h -> new ArrayList<>(2)).add(newId);
+            }
+            id = newId;
+        }
+        if (counts[id]++ == 0) {
+            liveTerms++;
+        }
+    }
+
+    public void remove(String term) {
+        Integer id = termIds.get(term);
+        // Unused terms keep their deletes until the dictionary is rebuilt
+        if (id != null && counts[id] > 0 && --counts[id] == 0) {
+            liveTerms--;
+        }
+    }
+
+    /**
+     * Terms within {@code maxDistance} edits of {@code word} (adjacent transpositions
+     * count as one edit), closest first and then most used. Empty when the word is
+     * itself a term.
+     */
+    public List<String> corrections(String word, int maxDistance, int limit) {
+        int distance = Math.min(maxDistance, MAX_DISTANCE);
+        if (limit <= 0 || distance <= 0 || contains(word)) {
+            return List.of();
+        }
+
+        List<int[]> found = new ArrayList<>();
+        Set<Integer> checked = new HashSet<>();
+        for (int hash : deleteHashes(word)) {
+            int from = lowerBound(((long) hash) << 32);
+            for (int i = from; i < base.length && (int) (base[i] >> 32) == hash; i++) {
+                verify((int) base[i], word, distance, checked, found);
+            }
+            List<Integer> added = delta.get(hash);
+            if (added != null) {
+                for (int id : added) {
+                    verify(id, word, distance, checked, found);
+                }
+            }
+        }
+
+        found.sort((a, b) -> a[1] != b[1] ? Integer.compare(a[1], b[1]) : Integer.compare(counts[b[0]], counts[a[0]]));
+        List<String> result = new ArrayList<>(Math.min(limit, found.size()));
+        for (int i = 0; i < found.size() && i < limit; i++) {
+            result.add(terms.get(found.get(i)[0]));
+        }
+        return result;
+    }
+
+    private void verify(int id, String word, int maxDistance, Set<Integer> checked, List<int[]> found) {
+        if (counts[id] == 0 || !checked.add(id)) {
+            return;
+        }
+        String term = terms.get(id);
+        if (Math.abs(term.length() - word.length()) > maxDistance) {
+            return;
+        }
+        int distance = distance(word, term, maxDistance);
+        if (distance <= maxDistance) {
+            found.add(new int[]{id, distance});
+        }
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = base.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (base[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Optimal string alignment distance, or {@code maxDistance + 1} once it is certain
+     * to exceed {@code maxDistance}.
+     */
+    static int distance(String a, String b, int maxDistance) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > maxDistance) {
+            return maxDistance + 1;
+        }
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        int previousRowMin = 0;
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            // A transposition reaches back two rows, so both must be past the bound
+            if (rowMin > maxDistance && previousRowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+            previousRowMin = rowMin;
+            int[] swap = previous2;
+            previous2 = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[m], maxDistance + 1);
+    }
+
+    /**
+     * Hashes of the prefix and of every string made by deleting up to
+     * {@link #MAX_DISTANCE} of its characters.
+     */
+    static int[] deleteHashes(String word) {
+        String prefix = word.length() > PREFIX_LENGTH ? word.substring(0, PREFIX_LENGTH) : word;
+        Set<String> deletes = new HashSet<>();
+        deletes.add(prefix);
+        List<String> frontier = List.of(prefix);
+        for (int d = 0; d < MAX_DISTANCE; d++) {
+            List<String> next = new ArrayList<>();
+            for (String text : frontier) {
+                for (int i = 0; i < text.length(); i++) {
+                    String deleted = text.substring(0, i) + text.substring(i + 1);
+                    if (deletes.add(deleted)) {
+                        next.add(deleted);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        int[] hashes = new int[deletes.size()];
+        int count = 0;
+        for (String delete : deletes) {
+            hashes[count++] = hash(delete);
+        }
+        return hashes;
+    }
+
+    private static int hash(String text) {
+        int h = text.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public static final class Builder {
+
+        private final int maxTerms;
+        private final Map<String, Integer> counts = new HashMap<>();
+
+        private Builder(int maxTerms) {
+            this.maxTerms = maxTerms;
+        }
+
+        public Builder add(String term) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                counts.merge(term, 1, Integer::sum);
+            }
+            return this;
+        }
+
+        /**
+         * Keeps the {@code maxTerms} most used terms.
+         */
+        public SpellingDictionary build() {
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+            if (entries.size() > maxTerms) {
+                entries.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+                entries = entries.subList(0, maxTerms);
+            }
+
+            Map<String, Integer> termIds = new HashMap<>(entries.size() * 2);
+            List<String> terms = new ArrayList<>(entries.size());
+            int[] termCounts = new int[Math.max(16, entries.size())];
+            long[] packed = new long[16];
+            int size = 0;
+            for (Map.Entry<String, Integer> entry : entries) {
+                int id = terms.size();
+                terms.add(entry.getKey());
+                termIds.put(entry.getKey(), id);
+                termCounts[id] = entry.getValue();
+                for (int hash : deleteHashes(entry.getKey())) {
+                    if (size == packed.length) {
+                        packed = Arrays.copyOf(packed, size * 2);
+                    }
+                    packed[size++] = ((long) hash << 32) | id;
+                }
+            }
+            long[] base = Arrays.copyOf(packed, size);
+            Arrays.sort(base);
+            return new SpellingDictionary(maxTerms, termIds, terms, termCounts, base);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.spotifyapp.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Decayed genre and artist affinities of a single listener.
+ * Genre weights are indexed by genre ordinal; artists are kept as a small
+ * bounded set where the weakest entry is evicted when a new artist arrives.
+ */
+public final class TasteVector {
+
+    public static final int MAX_ARTISTS = 32;
+
+    private final float[] genreWeights;
+    private final long[] artistIds = new long[MAX_ARTISTS];
+    private final float[] artistWeights = new float[MAX_ARTISTS];
+    private int artistCount;
+
+    public TasteVector(int genreCount) {
+        this.genreWeights = new float[genreCount];
+    }
+
+    public static TasteVector decode(int genreCount, byte[] genreBytes, byte[] artistBytes) {
+        TasteVector vector = new TasteVector(genreCount);
+        if (genreBytes != null) {
+            ByteBuffer genres = ByteBuffer.wrap(genreBytes);
+            for (int i = 0; i < genreCount && genres.remaining() >= Float.BYTES; i++) {
+                vector.genreWeights[i] = genres.getFloat();
+            }
+        }
+        if (artistBytes != null) {
+            ByteBuffer artists = ByteBuffer.wrap(artistBytes);
+            while (vector.artistCount < MAX_ARTISTS && artists.remaining() >= Long.BYTES + Float.BYTES) {
+                vector.artistIds[vector.artistCount] = artists.getLong();
+                vector.artistWeights[vector.artistCount] = artists.getFloat();
+                vector.artistCount++;
+            }
+        }
+        return vector;
+    }
+
+    public byte[] encodeGenres() {
+        ByteBuffer buffer = ByteBuffer.allocate(genreWeights.length * Float.BYTES);
+        for (float weight : genreWeights) {
+            buffer.putFloat(weight);
+        }
+        return buffer.array();
+    }
+
+    public byte[] encodeArtists() {
+        ByteBuffer buffer = ByteBuffer.allocate(artistCount * (Long.BYTES + Float.BYTES));
+        for (int i = 0; i < artistCount; i++) {
+            buffer.putLong(artistIds[i]);
+            buffer.putFloat(artistWeights[i]);
+        }
+        return buffer.array();
+    }
+
+    public void decay(double factor) {
+        if (factor >= 1.0) {
+            return;
+        }
+        for (int i = 0; i < genreWeights.length; i++) {
+            genreWeights[i] *= (float) factor;
+        }
+        for (int i = 0; i < artistCount; i++) {
+            artistWeights[i] *= (float) factor;
+        }
+    }
+
+    public void addGenre(int genreOrdinal, float weight) {
+        genreWeights[genreOrdinal] += weight;
+    }
+
+    public void addArtist(long artistId, float weight) {
+        int weakest = 0;
+        for (int i = 0; i < artistCount; i++) {
+            if (artistIds[i] == artistId) {
+                artistWeights[i] += weight;
+                return;
+            }
+            if (artistWeights[i] < artistWeights[weakest]) {
+                weakest = i;
+            }
+        }
+
+        int slot = artistCount < MAX_ARTISTS ? artistCount++ : weakest;
+        artistIds[slot] = artistId;
+        artistWeights[slot] = weight;
+    }
+
+    public float genreWeight(int genreOrdinal) {
+        return genreWeights[genreOrdinal];
+    }
+
+    public boolean isEmpty() {
+        for (float weight : genreWeights) {
+            if (weight > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Genre ordinals with a positive weight, strongest first.
+     */
+    public int[] topGenres(int limit) {
+        return topIndexes(genreWeights, genreWeights.length, limit);
+    }
+
+    /**
+     * Artist ids, strongest first.
+     */
+    public long[] topArtists(int limit) {
+        int[] order = topIndexes(artistWeights, artistCount, limit);
+        long[] ids = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ids[i] = artistIds[order[i]];
+        }
+        return ids;
+    }
+
+    private static int[] topIndexes(float[] weights, int length, int limit) {
+        Integer[] order = new Integer[length];
+        int positive = 0;
+        for (int i = 0; i < length; i++) {
+            if (weights[i] > 0) {
+                order[positive++] = i;
+            }
+        }
+        Integer[] candidates = Arrays.copyOf(order, positive);
+        Arrays.sort(candidates, (a, b) -> Float.compare(weights[b], weights[a]));
+
+        int size = Math.min(limit, positive);
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = candidates[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package com.spotifyapp.util;
+
+/**
+ * Bounded min-heap keeping the {@code k} highest scoring int ids.
+ */
+public final class TopK {
+
+    private final float[] scores;
+    private final int[] ids;
+    private int size;
+
+    public TopK(int k) {
+        this.scores = new float[Math.max(k, 0)];
+        this.ids = new int[Math.max(k, 0)];
+    }
+
+    public void offer(float score, int id) {
+        if (size < scores.length) {
+            scores[size] = score;
+            ids[size] = id;
+            siftUp(size++);
+        } else if (size > 0 && score > scores[0]) {
+            scores[0] = score;
+            ids[0] = id;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ids ordered from the highest to the lowest score. Empties the heap.
+     */
+    public int[] drainDescending() {
+        int[] result = new int[size];
+        while (size > 0) {
+            result[size - 1] = ids[0];
+            size--;
+            scores[0] = scores[size];
+            ids[0] = ids[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= scores[index]) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[index] <= scores[smallest]) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+}
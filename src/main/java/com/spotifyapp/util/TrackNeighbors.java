@@ -0,0 +1,359 @@
+package com.spotifyapp.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact track-to-track co-occurrence table in CSR form. Two tracks co-occur when
+ * they sit within a few positions of each other in a playlist or a listening session.
+ * Weights are cosine-normalized so that popular tracks do not neighbour everything,
+ * and each row keeps only its strongest neighbours, ordered by descending weight.
+ */
+public final class TrackNeighbors {
+
+    private final long[] trackIds;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final float[] weights;
+
+    private TrackNeighbors(long[] trackIds, int[] offsets, int[] neighbors, float[] weights) {
+        this.trackIds = trackIds;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.weights = weights;
+    }
+
+    public static TrackNeighbors empty() {
+        return new TrackNeighbors(new long[0], new int[1], new int[0], new float[0]);
+    }
+
+    /**
+     * @param window       a track is paired with at most this many tracks before it in its group
+     * @param maxNeighbors neighbours kept per track after pruning
+     */
+    public static Builder builder(int window, int maxNeighbors) {
+        return new Builder(window, maxNeighbors);
+    }
+
+    public int size() {
+        return trackIds.length;
+    }
+
+    public int edges() {
+        return neighbors.length;
+    }
+
+    public int indexOf(long trackId) {
+        return Arrays.binarySearch(trackIds, trackId);
+    }
+
+    /**
+     * Ids of the tracks co-occurring most with {@code trackId}, strongest first.
+     */
+    public long[] neighbors(long trackId, int limit) {
+        int index = indexOf(trackId);
+        if (index < 0) {
+            return new long[0];
+        }
+        int count = Math.min(Math.max(limit, 0), offsets[index + 1] - offsets[index]);
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = trackIds[neighbors[offsets[index] + i]];
+        }
+        return result;
+    }
+
+    /**
+     * Tracks with the highest summed co-occurrence weight over all seeds, strongest first.
+     * Seeds themselves are never suggested. Seeds are visited from the last one backwards,
+     * so when more than {@code maxCandidates} distinct tracks are reachable the ones near
+     * the end of the playlist win the candidate slots.
+     */
+    public long[] suggest(long[] seedIds, int limit, int maxCandidates) {
+        if (limit <= 0 || maxCandidates <= 0) {
+            return new long[0];
+        }
+
+        int[] seeds = new int[seedIds.length];
+        int seedCount = 0;
+        for (long seedId : seedIds) {
+            int index = indexOf(seedId);
+            if (index >= 0) {
+                seeds[seedCount++] = index;
+            }
+        }
+
+        // Seeds take a slot each but are never scored or offered
+        CandidateScores scores = new CandidateScores(seedCount + maxCandidates);
+        for (int s = 0; s < seedCount; s++) {
+            scores.exclude(seeds[s]);
+        }
+        for (int s = seedCount - 1; s >= 0; s--) {
+            int seed = seeds[s];
+            for (int p = offsets[seed]; p < offsets[seed + 1]; p++) {
+                scores.add(neighbors[p], weights[p]);
+            }
+        }
+
+        TopK topK = new TopK(limit);
+        scores.forEach(topK::offer);
+        int[] best = topK.drainDescending();
+        long[] result = new long[best.length];
+        for (int i = 0; i < best.length; i++) {
+            result[i] = trackIds[best[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Accepts (group, track) rows grouped by group and in group order, e.g. playlist
+     * positions or listening time.
+     */
+    public static final class Builder {
+
+        private final int maxNeighbors;
+        private final PairWeights pairs = new PairWeights();
+        private final Map<Long, Integer> indexById = new HashMap<>();
+        private long[] ids = new long[256];
+        private float[] occurrences = new float[256];
+        private int idCount;
+        private float weight = 1f;
+
+        private long currentGroup;
+        private boolean inGroup;
+        private final int[] recent;
+        private int recentCount;
+        private int recentNext;
+
+        private Builder(int window, int maxNeighbors) {
+            this.recent = new int[Math.max(window, 1)];
+            this.maxNeighbors = maxNeighbors;
+        }
+
+        /**
+         * Sets the weight of the co-occurrences in the groups added from now on.
+         */
+        public Builder source(float weight) {
+            inGroup = false;
+            this.weight = weight;
+            return this;
+        }
+
+        public Builder add(long groupId, long trackId) {
+            if (!inGroup || groupId != currentGroup) {
+                currentGroup = groupId;
+                inGroup = true;
+                recentCount = 0;
+                recentNext = 0;
+            }
+            int index = indexById.computeIfAbsent(trackId, this::register);
+            for (int i = 0; i < recentCount; i++) {
+                if (recent[i] == index) {
+                    // Replays within the window add nothing new
+                    return this;
+                }
+            }
+
+            occurrences[index] += weight;
+            for (int i = 0; i < recentCount; i++) {
+                pairs.add(Math.min(index, recent[i]), Math.max(index, recent[i]), weight);
+            }
+            recent[recentNext] = index;
+            recentNext = (recentNext + 1) % recent.length;
+            recentCount = Math.min(recentCount + 1, recent.length);
+            return this;
+        }
+
+        /**
+         * @param minCooccurrence pairs with less raw co-occurrence weight are dropped
+         */
+        public TrackNeighbors build(float minCooccurrence) {
+            // Re-index tracks in id order so lookups are a binary search
+            long[] sortedIds = Arrays.copyOf(ids, idCount);
+            Arrays.sort(sortedIds);
+            int[] remap = new int[idCount];
+            for (int i = 0; i < idCount; i++) {
+                remap[i] = Arrays.binarySearch(sortedIds, ids[i]);
+            }
+
+            int[] offsets = new int[idCount + 1];
+            pairs.forEach((a, b, raw) -> {
+                if (raw >= minCooccurrence) {
+                    offsets[remap[a] + 1]++;
+                    offsets[remap[b] + 1]++;
+                }
+            });
+            for (int i = 0; i < idCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] next = Arrays.copyOf(offsets, idCount);
+            int[] allNeighbors = new int[offsets[idCount]];
+            float[] allWeights = new float[offsets[idCount]];
+            pairs.forEach((a, b, raw) -> {
+                if (raw >= minCooccurrence) {
+                    float normalized = (float) (raw / Math.sqrt((double) occurrences[a] * occurrences[b]));
+                    int from = remap[a];
+                    int to = remap[b];
+                    allNeighbors[next[from]] = to;
+                    allWeights[next[from]++] = normalized;
+                    allNeighbors[next[to]] = from;
+                    allWeights[next[to]++] = normalized;
+                }
+            });
+
+            // Keep the strongest neighbours of each row
+            int[] prunedOffsets = new int[idCount + 1];
+            int[] prunedNeighbors = new int[(int) Math.min(allNeighbors.length, (long) idCount * maxNeighbors)];
+            float[] prunedWeights = new float[prunedNeighbors.length];
+            int written = 0;
+            for (int i = 0; i < idCount; i++) {
+                TopK topK = new TopK(maxNeighbors);
+                for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+                    topK.offer(allWeights[p], p);
+                }
+                for (int p : topK.drainDescending()) {
+                    prunedNeighbors[written] = allNeighbors[p];
+                    prunedWeights[written++] = allWeights[p];
+                }
+                prunedOffsets[i + 1] = written;
+            }
+            return new TrackNeighbors(sortedIds, prunedOffsets,
+                    Arrays.copyOf(prunedNeighbors, written), Arrays.copyOf(prunedWeights, written));
+        }
+
+        private int register(long trackId) {
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, idCount * 2);
+                occurrences = Arrays.copyOf(occurrences, idCount * 2);
+            }
+            ids[idCount] = trackId;
+            return idCount++;
+        }
+    }
+
+    /**
+     * Open-addressing map from an ordered pair of track indexes to a summed weight.
+     */
+    private static final class PairWeights {
+
+        private long[] keys = new long[1024];
+        private float[] values = new float[1024];
+        private int size;
+
+        void add(int a, int b, float weight) {
+            // a < b, so the packed key is never 0 and 0 can mark empty slots
+            long key = ((long) a << 32) | b;
+            if (size * 2 >= keys.length) {
+                resize();
+            }
+            int slot = slot(key, keys.length);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] += weight;
+        }
+
+        void forEach(PairConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    consumer.accept((int) (keys[i] >>> 32), (int) keys[i], values[i]);
+                }
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            float[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new float[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slot(oldKeys[i], keys.length);
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & (keys.length - 1);
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int slot(long key, int capacity) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 40) & (capacity - 1);
+        }
+    }
+
+    /**
+     * Fixed-capacity score accumulator; tracks beyond the cap are ignored.
+     */
+    private static final class CandidateScores {
+
+        private final int maxSize;
+        private final int[] keys;
+        private final float[] values;
+        private int size;
+
+        CandidateScores(int maxSize) {
+            this.maxSize = maxSize;
+            int capacity = Integer.highestOneBit(Math.max(maxSize, 1) * 2 - 1) << 1;
+            this.keys = new int[capacity];
+            this.values = new float[capacity];
+        }
+
+        void exclude(int index) {
+            int slot = find(index + 1);
+            if (keys[slot] == 0) {
+                keys[slot] = index + 1;
+                size++;
+            }
+            values[slot] = Float.NaN;
+        }
+
+        void add(int index, float weight) {
+            // Stored shifted by one so that 0 marks empty slots
+            int key = index + 1;
+            int slot = find(key);
+            if (keys[slot] == 0) {
+                if (size == maxSize) {
+                    return;
+                }
+                keys[slot] = key;
+                size++;
+            }
+            // NaN marks excluded tracks and stays NaN
+            values[slot] += weight;
+        }
+
+        void forEach(ScoreConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0 && !Float.isNaN(values[i])) {
+                    consumer.accept(values[i], keys[i] - 1);
+                }
+            }
+        }
+
+        private int find(int key) {
+            int slot = (key * 0x9E3779B9 >>> 8) & (keys.length - 1);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            return slot;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PairConsumer {
+        void accept(int a, int b, float weight);
+    }
+
+    @FunctionalInterface
+    private interface ScoreConsumer {
+        void accept(float score, int index);
+    }
+}
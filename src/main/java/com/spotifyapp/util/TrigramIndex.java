@@ -0,0 +1,571 @@
+package com.spotifyapp.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Case-insensitive substring search over track titles and artist names.
+ *
+ * <p>Documents get dense ordinals. The base segment maps every trigram to a compressed
+ * {@link PostingList} of ordinals. Later changes go to a small uncompressed delta
+ * segment, and replaced or removed ordinals are tombstoned; {@link #compact()} folds
+ * both into a fresh base. Trigram candidates are verified against the stored text, so
+ * results match {@code LIKE '%query%'} exactly.
+ *
+ * <p>Query words that are not catalog words are also looked up in a
+ * {@link SpellingDictionary} of title and artist-name words, and tracks matching a
+ * corrected query are returned after all exact matches.
+ *
+ * <p>Genre, duration and release year are kept in {@link FacetColumns} under the same
+ * ordinals, so a search can be filtered on them and count them as it verifies matches.
+ */
+public final class TrigramIndex {
+
+    public static final int GRAM = 3;
+
+    // Rank tiers, best first
+    private static final int TITLE_EXACT = 0;
+    private static final int TITLE_PREFIX = 1;
+    private static final int TITLE_WORD = 2;
+    private static final int TITLE_CONTAINS = 3;
+    private static final int ARTIST = 4;
+    private static final int TIERS = 5;
+
+    public static final int DEFAULT_MAX_SPELLING_TERMS = 100_000;
+    static final int MAX_CORRECTIONS = 3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final long[] baseKeys;
+    private final PostingList[] basePostings;
+    private final Map<Long, IntList> delta = new HashMap<>();
+    private int deltaDocs;
+
+    private long[] musicIds;
+    private long[] artistIds;
+    private String[] titles;
+    private String[] artistNames;
+    private int docCount;
+    private final BitSet deleted = new BitSet();
+    private final Map<Long, Integer> ordinalById;
+    private final SpellingDictionary dictionary;
+    private final FacetColumns facets;
+
+    private TrigramIndex(long[] baseKeys, PostingList[] basePostings, long[] musicIds, long[] artistIds,
+                         String[] titles, String[] artistNames, int docCount, Map<Long, Integer> ordinalById,
+                         SpellingDictionary dictionary, FacetColumns facets) {
+        this.baseKeys = baseKeys;
+        this.basePostings = basePostings;
+        this.musicIds = musicIds;
+        this.artistIds = artistIds;
+        this.titles = titles;
+        this.artistNames = artistNames;
+        this.docCount = docCount;
+        this.ordinalById = ordinalById;
+        this.dictionary = dictionary;
+        this.facets = facets;
+    }
+
+    public static TrigramIndex empty() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Whether the index can answer the query; shorter queries have no trigram.
+     */
+    public static boolean isSearchable(String query) {
+        return query != null && normalize(query).length() >= GRAM;
+    }
+
+    public void put(long musicId, long artistId, String title, String artistName) {
+        put(musicId, artistId, title, artistName, FacetColumns.Values.NONE);
+    }
+
+    /**
+     * Adds a track, replacing any earlier version of it.
+     */
+    public void put(long musicId, long artistId, String title, String artistName, FacetColumns.Values values) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = ordinalById.get(musicId);
+            if (previous != null) {
+                deleted.set(previous);
+                facets.clear(previous);
+                forEachWord(titles[previous], artistNames[previous], dictionary::remove);
+            }
+            int ordinal = append(musicId, artistId, title, artistName);
+            facets.set(ordinal, values);
+            forEachWord(titles[ordinal], artistNames[ordinal], dictionary::add);
+            for (long key : trigrams(titles[ordinal], artistNames[ordinal])) {
+                delta.computeIfAbsent(key, k -> new IntList()).add(ordinal);
+            }
+            deltaDocs++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long musicId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.remove(musicId);
+            if (ordinal == null) {
+                return false;
+            }
+            deleted.set(ordinal);
+            facets.clear(ordinal);
+            forEachWord(titles[ordinal], artistNames[ordinal], dictionary::remove);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Live tracks.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes made since the base segment was built: added versions plus tombstones.
+     */
+    public int pendingChanges() {
+        lock.readLock().lock();
+        try {
+            return deltaDocs + deleted.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A new index holding the live tracks in a single base segment. Writers must not
+     * modify this index while it is being compacted.
+     */
+    public TrigramIndex compact() {
+        lock.readLock().lock();
+        try {
+            Builder builder = builder().maxSpellingTerms(dictionary.maxTerms());
+            for (int ordinal = 0; ordinal < docCount; ordinal++) {
+                if (!deleted.get(ordinal)) {
+                    builder.addNormalized(musicIds[ordinal], artistIds[ordinal], titles[ordinal], artistNames[ordinal],
+                            facets.get(ordinal));
+                }
+            }
+            return builder.build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Hits search(String query, int offset, int limit) {
+        return search(query, FacetColumns.Filter.NONE, offset, limit);
+    }
+
+    /**
+     * Tracks whose title or artist name contains the query and that pass the filter,
+     * ranked: exact title, title prefix, title word, anywhere in the title, then artist
+     * name; shorter titles first within a tier. Tracks that only match a
+     * spelling-corrected query follow, ranked the same way within each correction. The
+     * facets count every match, not just the returned page.
+     */
+    public Hits search(String query, FacetColumns.Filter filter, int offset, int limit) {
+        String needle = normalize(query);
+        if (needle.length() < GRAM) {
+            throw new IllegalArgumentException("Query must have at least " + GRAM + " characters");
+        }
+        int from = Math.max(offset, 0);
+        int window = (int) Math.min((long) from + Math.max(limit, 0), Integer.MAX_VALUE);
+
+        lock.readLock().lock();
+        try {
+            // Keep only the best offset + limit rank keys; every match still counts towards the total
+            long[] heap = new long[Math.min(window, ordinalById.size())];
+            int heapSize = 0;
+            int matches = 0;
+            List<String> corrected = correctedNeedles(needle);
+            int[] candidates = candidates(trigrams(needle, ""));
+            for (String correction : corrected) {
+                candidates = union(candidates, candidates(trigrams(correction, "")));
+            }
+            BitSet accepted = facets.select(filter);
+            FacetColumns.Counter counter = facets.counter();
+            for (int ordinal : candidates) {
+                // Filter bitmaps only hold live ordinals
+                if (accepted != null ? !accepted.get(ordinal) : deleted.get(ordinal)) {
+                    continue;
+                }
+                int tier = tier(titles[ordinal], artistNames[ordinal], needle);
+                for (int c = 0; tier < 0 && c < corrected.size(); c++) {
+                    int correctedTier = tier(titles[ordinal], artistNames[ordinal], corrected.get(c));
+                    if (correctedTier >= 0) {
+                        tier = TIERS * (c + 1) + correctedTier;
+                    }
+                }
+                if (tier < 0) {
+                    continue;
+                }
+                matches++;
+                counter.add(ordinal);
+                long length = Math.min(titles[ordinal].length(), 0xFFFF);
+                long rank = ((long) tier << 48) | (length << 32) | ordinal;
+                if (heapSize < heap.length) {
+                    heap[heapSize] = rank;
+                    siftUp(heap, heapSize++);
+                } else if (heapSize > 0 && rank < heap[0]) {
+                    heap[0] = rank;
+                    siftDown(heap, heapSize);
+                }
+            }
+            Arrays.sort(heap, 0, heapSize);
+
+            int to = Math.min(window, heapSize);
+            long[] page = new long[Math.max(to - from, 0)];
+            for (int i = from; i < to; i++) {
+                page[i - from] = musicIds[(int) heap[i]];
+            }
+            return new Hits(matches, page, counter.facets());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Max-heap on rank keys: the root is the worst key kept so far
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= heap[index]) {
+                return;
+            }
+            long swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int largest = left + 1 < size && heap[left + 1] > heap[left] ? left + 1 : left;
+            if (heap[index] >= heap[largest]) {
+                return;
+            }
+            long swap = heap[index];
+            heap[index] = heap[largest];
+            heap[largest] = swap;
+            index = largest;
+        }
+    }
+
+    /**
+     * Up to {@link #MAX_CORRECTIONS} versions of the needle with its unknown words
+     * replaced by dictionary words, best first; empty when every word is known.
+     */
+    private List<String> correctedNeedles(String needle) {
+        List<int[]> spans = new ArrayList<>();
+        List<List<String>> options = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= needle.length(); i++) {
+            boolean inWord = i < needle.length() && Character.isLetterOrDigit(needle.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                String word = needle.substring(start, i);
+                if (word.length() >= SpellingDictionary.MIN_TERM_LENGTH && !dictionary.contains(word)) {
+                    int maxDistance = word.length() <= 5 ? 1 : SpellingDictionary.MAX_DISTANCE;
+                    List<String> corrections = dictionary.corrections(word, maxDistance, MAX_CORRECTIONS);
+                    if (!corrections.isEmpty()) {
+                        spans.add(new int[]{start, i});
+                        options.add(corrections);
+                    }
+                }
+                start = -1;
+            }
+        }
+        if (spans.isEmpty()) {
+            return List.of();
+        }
+
+        // The n-th version takes the n-th correction of every word that has one
+        List<String> needles = new ArrayList<>(MAX_CORRECTIONS);
+        for (int n = 0; n < MAX_CORRECTIONS; n++) {
+            StringBuilder corrected = new StringBuilder(needle.length() + 4);
+            int at = 0;
+            boolean varied = n == 0;
+            for (int w = 0; w < spans.size(); w++) {
+                List<String> choices = options.get(w);
+                varied |= n < choices.size();
+                corrected.append(needle, at, spans.get(w)[0]).append(choices.get(Math.min(n, choices.size() - 1)));
+                at = spans.get(w)[1];
+            }
+            if (!varied) {
+                break;
+            }
+            needles.add(corrected.append(needle, at, needle.length()).toString());
+        }
+        return needles;
+    }
+
+    private static void forEachWord(String title, String artistName, Consumer<String> consumer) {
+        for (String text : new String[]{title, artistName}) {
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (inWord && start < 0) {
+                    start = i;
+                } else if (!inWord && start >= 0) {
+                    consumer.accept(text.substring(start, i));
+                    start = -1;
+                }
+            }
+        }
+    }
+
+    private static int[] union(int[] left, int[] right) {
+        int[] result = new int[left.length + right.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length || j < right.length) {
+            if (j == right.length || (i < left.length && left[i] < right[j])) {
+                result[count++] = left[i++];
+            } else if (i == left.length || right[j] < left[i]) {
+                result[count++] = right[j++];
+            } else {
+                result[count++] = left[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private int[] candidates(long[] keys) {
+        List<PostingList> base = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            int slot = Arrays.binarySearch(baseKeys, key);
+            if (slot < 0) {
+                base.clear();
+                break;
+            }
+            base.add(basePostings[slot]);
+        }
+        int[] fromBase = base.isEmpty() ? new int[0] : PostingList.intersect(base);
+
+        int[] fromDelta = null;
+        for (long key : keys) {
+            IntList list = delta.get(key);
+            if (list == null) {
+                fromDelta = new int[0];
+                break;
+            }
+            fromDelta = fromDelta == null ? list.toArray() : intersectSorted(fromDelta, list);
+        }
+
+        // Delta ordinals are all above the base ones
+        int[] all = Arrays.copyOf(fromBase, fromBase.length + fromDelta.length);
+        System.arraycopy(fromDelta, 0, all, fromBase.length, fromDelta.length);
+        return all;
+    }
+
+    private int append(long musicId, long artistId, String title, String artistName) {
+        if (docCount == musicIds.length) {
+            int capacity = Math.max(16, docCount * 2);
+            musicIds = Arrays.copyOf(musicIds, capacity);
+            artistIds = Arrays.copyOf(artistIds, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            artistNames = Arrays.copyOf(artistNames, capacity);
+        }
+        int ordinal = docCount++;
+        musicIds[ordinal] = musicId;
+        artistIds[ordinal] = artistId;
+        titles[ordinal] = normalize(title);
+        artistNames[ordinal] = normalize(artistName);
+        ordinalById.put(musicId, ordinal);
+        return ordinal;
+    }
+
+    private static int tier(String title, String artistName, String needle) {
+        int at = title.indexOf(needle);
+        if (at == 0) {
+            return title.length() == needle.length() ? TITLE_EXACT : TITLE_PREFIX;
+        }
+        if (at > 0) {
+            // Any later occurrence at a word start also counts as a word match
+            for (int i = at; i >= 0; i = title.indexOf(needle, i + 1)) {
+                if (!Character.isLetterOrDigit(title.charAt(i - 1))) {
+                    return TITLE_WORD;
+                }
+            }
+            return TITLE_CONTAINS;
+        }
+        return artistName.contains(needle) ? ARTIST : -1;
+    }
+
+    private static int[] intersectSorted(int[] left, IntList right) {
+        int[] result = new int[Math.min(left.length, right.size)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.size) {
+            if (left[i] < right.values[j]) {
+                i++;
+            } else if (left[i] > right.values[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigram keys of both (already normalized) strings, three UTF-16 units per key.
+     */
+    static long[] trigrams(String first, String second) {
+        long[] keys = new long[Math.max(first.length() - 2, 0) + Math.max(second.length() - 2, 0)];
+        int count = 0;
+        for (String text : new String[]{first, second}) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                keys[count++] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    /**
+     * One page of music ids plus the total number of matches and their facets, which are
+     * null when they were not counted.
+     */
+    public record Hits(int total, long[] musicIds, FacetColumns.Facets facets) {
+
+        public Hits(int total, long[] musicIds) {
+            this(total, musicIds, null);
+        }
+    }
+
+    public static final class Builder {
+
+        // Later duplicates win, like put()
+        private final Map<Long, Document> documents = new LinkedHashMap<>();
+        private int maxSpellingTerms = DEFAULT_MAX_SPELLING_TERMS;
+
+        private Builder() {
+        }
+
+        /**
+         * Caps the words kept for spelling correction, and so its memory.
+         */
+        public Builder maxSpellingTerms(int maxSpellingTerms) {
+            this.maxSpellingTerms = maxSpellingTerms;
+            return this;
+        }
+
+        public Builder add(long musicId, long artistId, String title, String artistName) {
+            return add(musicId, artistId, title, artistName, FacetColumns.Values.NONE);
+        }
+
+        public Builder add(long musicId, long artistId, String title, String artistName,
+                           FacetColumns.Values values) {
+            return addNormalized(musicId, artistId, normalize(title), normalize(artistName), values);
+        }
+
+        private Builder addNormalized(long musicId, long artistId, String title, String artistName,
+                                      FacetColumns.Values values) {
+            documents.put(musicId, new Document(musicId, artistId, title, artistName, values));
+            return this;
+        }
+
+        public TrigramIndex build() {
+            int docs = documents.size();
+            long[] musicIds = new long[docs];
+            long[] artistIds = new long[docs];
+            String[] titles = new String[docs];
+            String[] artistNames = new String[docs];
+            Map<Long, Integer> ordinalById = new HashMap<>(docs * 2);
+            Map<Long, IntList> postings = new HashMap<>();
+            SpellingDictionary.Builder words = SpellingDictionary.builder(maxSpellingTerms);
+            FacetColumns facets = new FacetColumns(docs);
+            int ordinal = 0;
+            for (Document document : documents.values()) {
+                musicIds[ordinal] = document.musicId();
+                artistIds[ordinal] = document.artistId();
+                titles[ordinal] = document.title();
+                artistNames[ordinal] = document.artistName();
+                ordinalById.put(document.musicId(), ordinal);
+                facets.set(ordinal, document.values());
+                for (long key : trigrams(document.title(), document.artistName())) {
+                    postings.computeIfAbsent(key, k -> new IntList()).add(ordinal);
+                }
+                forEachWord(document.title(), document.artistName(), words::add);
+                ordinal++;
+            }
+
+            long[] keys = postings.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            PostingList[] lists = new PostingList[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                IntList list = postings.get(keys[i]);
+                lists[i] = PostingList.of(list.values, list.size);
+            }
+            return new TrigramIndex(keys, lists, musicIds, artistIds, titles, artistNames, docs, ordinalById,
+                    words.build(), facets);
+        }
+
+        private record Document(long musicId, long artistId, String title, String artistName,
+                                FacetColumns.Values values) {
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+-- Database-side search (search.mode: database). Safe to run on every startup.
+-- Statements are separated by ';;' because the trigger functions contain ';'.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;;
+
+ALTER TABLE music ADD COLUMN IF NOT EXISTS search_vector tsvector;;
+ALTER TABLE music ADD COLUMN IF NOT EXISTS search_artist varchar(50);;
+
+-- Title, artist name and album title, weighted in that order
+CREATE OR REPLACE FUNCTION music_search_document() RETURNS trigger AS $$
+DECLARE
+    artist_name text;
+    album_title text;
+BEGIN
+    SELECT lower(u.username) INTO artist_name FROM users u WHERE u.id = NEW.artist_id;
+    SELECT a.title INTO album_title FROM albums a WHERE a.id = NEW.album_id;
+    NEW.search_artist := artist_name;
+    NEW.search_vector :=
+            setweight(to_tsvector('simple', coalesce(NEW.title, '')), 'A') ||
+            setweight(to_tsvector('simple', coalesce(artist_name, '')), 'B') ||
+            setweight(to_tsvector('simple', coalesce(album_title, '')), 'C');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;;
+
+DROP TRIGGER IF EXISTS music_search_document ON music;;
+CREATE TRIGGER music_search_document
+    BEFORE INSERT OR UPDATE OF title, artist_id, album_id, search_vector ON music
+    FOR EACH ROW EXECUTE FUNCTION music_search_document();;
+
+-- Renames touch the referencing tracks so that their documents are rebuilt
+CREATE OR REPLACE FUNCTION music_search_refresh_artist() RETURNS trigger AS $$
+BEGIN
+    UPDATE music SET search_vector = NULL WHERE artist_id = NEW.id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;;
+
+DROP TRIGGER IF EXISTS music_search_refresh_artist ON users;;
+CREATE TRIGGER music_search_refresh_artist
+    AFTER UPDATE OF username ON users
+    FOR EACH ROW WHEN (OLD.username IS DISTINCT FROM NEW.username)
+    EXECUTE FUNCTION music_search_refresh_artist();;
+
+CREATE OR REPLACE FUNCTION music_search_refresh_album() RETURNS trigger AS $$
+BEGIN
+    UPDATE music SET search_vector = NULL WHERE album_id = NEW.id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;;
+
+DROP TRIGGER IF EXISTS music_search_refresh_album ON albums;;
+CREATE TRIGGER music_search_refresh_album
+    AFTER UPDATE OF title ON albums
+    FOR EACH ROW WHEN (OLD.title IS DISTINCT FROM NEW.title)
+    EXECUTE FUNCTION music_search_refresh_album();;
+
+-- Backfill tracks written before the trigger existed
+UPDATE music SET search_vector = NULL WHERE search_vector IS NULL;;
+
+CREATE INDEX IF NOT EXISTS idx_music_search_vector
+    ON music USING gin (search_vector) WHERE is_deleted = false;;
+CREATE INDEX IF NOT EXISTS idx_music_title_trgm
+    ON music USING gin (lower(title) gin_trgm_ops) WHERE is_deleted = false;;
+CREATE INDEX IF NOT EXISTS idx_music_artist_trgm
+    ON music USING gin (search_artist gin_trgm_ops) WHERE is_deleted = false;;
+
+-- Plays over the last 30 days, refreshed on a schedule
+CREATE MATERIALIZED VIEW IF NOT EXISTS music_popularity AS
+    SELECT lh.music_id, count(*) AS plays
+    FROM listening_history lh
+    WHERE lh.listened_at > now() - interval '30 days'
+    GROUP BY lh.music_id;;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_music_popularity_music ON music_popularity (music_id);;
@@ -0,0 +1,116 @@
+package com.spotifyapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.spotifyapp.dto.artist.ArtistProfileResponse;
+import com.spotifyapp.dto.artist.SimilarArtistResponse;
+import com.spotifyapp.event.MusicChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArtistProfileCacheTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ArtistProfileCache artistProfileCache;
+    private AtomicInteger loads;
+    private Function<Long, ArtistProfileResponse> loader;
+
+    @BeforeEach
+    void setUp() {
+        artistProfileCache = new ArtistProfileCache(transactionManager, 100, 60);
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            return ArtistProfileResponse.builder()
+                    .id(id)
+                    .similarArtists(List.of(SimilarArtistResponse.builder().id(id + 1).build()))
+                    .build();
+        };
+    }
+
+    @Test
+    void testGet_CachesProfile() {
+        artistProfileCache.get(1L, loader);
+        ArtistProfileResponse profile = artistProfileCache.get(1L, loader);
+
+        assertEquals(1L, profile.getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testMusicChange_InvalidatesArtist() {
+        artistProfileCache.get(1L, loader);
+
+        artistProfileCache.onMusicChanged(new MusicChangedEvent(10L, 1L, MusicChangedEvent.ChangeType.UPDATED));
+        artistProfileCache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testSimilarArtistChange_InvalidatesDependentProfiles() {
+        artistProfileCache.get(1L, loader);
+        artistProfileCache.get(5L, loader);
+
+        artistProfileCache.invalidateArtist(2L);
+        artistProfileCache.get(1L, loader);
+        artistProfileCache.get(5L, loader);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testInvalidate_ForgetsDependents() {
+        artistProfileCache.get(1L, loader);
+
+        artistProfileCache.invalidateArtist(1L);
+
+        assertTrue(dependents().isEmpty());
+    }
+
+    @Test
+    void testEviction_ForgetsDependents() {
+        ArtistProfileCache small = new ArtistProfileCache(transactionManager, 1, 60);
+        small.get(1L, loader);
+        small.get(5L, loader);
+
+        Cache<Long, ArtistProfileResponse> profiles = profiles(small);
+        profiles.cleanUp();
+
+        // Only the profile still cached is listed under its similar artist
+        Set<Long> cached = profiles.asMap().keySet();
+        assertEquals(1, cached.size());
+        Map<Long, Set<Long>> dependents = dependents(small);
+        assertEquals(1, dependents.size());
+        assertEquals(cached, dependents.values().iterator().next());
+    }
+
+    private Map<Long, Set<Long>> dependents() {
+        return dependents(artistProfileCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Long, Set<Long>> dependents(ArtistProfileCache cache) {
+        return (Map<Long, Set<Long>>) ReflectionTestUtils.getField(cache, "dependents");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Long, ArtistProfileResponse> profiles(ArtistProfileCache cache) {
+        return (Cache<Long, ArtistProfileResponse>) ReflectionTestUtils.getField(cache, "profiles");
+    }
+}
@@ -0,0 +1,88 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.entity.ArtistRank;
+import com.spotifyapp.model.entity.ListeningHistory;
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.User;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.model.enums.UserRole;
+import com.spotifyapp.model.enums.UserStatus;
+import com.spotifyapp.repository.ArtistRankRepository;
+import com.spotifyapp.support.QueryCountTest;
+import com.spotifyapp.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QueryCountTest
+@Import(ArtistRankService.class)
+class ArtistRankQueryCountTest {
+
+    private static final int ARTISTS = 20;
+
+    @Autowired
+    private ArtistRankService artistRankService;
+
+    @Autowired
+    private ArtistRankRepository artistRankRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void setUp() {
+        User[] listeners = new User[3];
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = entityManager.persist(user("listener" + i, UserRole.LISTENER));
+        }
+        for (int i = 0; i < ARTISTS; i++) {
+            User artist = entityManager.persist(user("artist" + i, UserRole.ARTIST));
+            Music music = entityManager.persist(Music.builder()
+                    .title("Track " + i)
+                    .artist(artist)
+                    .genre(Genre.ROCK)
+                    .durationSeconds(200)
+                    .fileUrl("http://example.com/" + i + ".mp3")
+                    .build());
+            for (User listener : listeners) {
+                entityManager.persist(ListeningHistory.builder().user(listener).music(music).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testRefreshRanks_InsertsWithoutPerRowSelects() throws Exception {
+        // Listener-artist pairs, the delete and one batched insert; no SELECT per ranked artist
+        statementCounter.assertAtMost(3, "refreshRanks", () -> {
+            artistRankService.refreshRanks();
+            entityManager.flush();
+            return null;
+        });
+
+        entityManager.clear();
+        List<ArtistRank> ranks = artistRankRepository.findAll();
+        assertEquals(ARTISTS, ranks.size());
+        assertEquals(1.0, ranks.stream().mapToDouble(ArtistRank::getScore).sum(), 1e-6);
+    }
+
+    private static User user(String username, UserRole role) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .role(role)
+                .status(UserStatus.ACTIVE)
+                .build();
+    }
+}
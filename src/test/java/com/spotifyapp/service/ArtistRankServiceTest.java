@@ -0,0 +1,80 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.entity.ArtistRank;
+import com.spotifyapp.repository.ArtistRankRepository;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArtistRankServiceTest {
+
+    @Mock
+    private ListeningHistoryRepository listeningHistoryRepository;
+
+    @Mock
+    private ArtistRankRepository artistRankRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ArtistRankService artistRankService;
+
+    @BeforeEach
+    void setUp() {
+        artistRankService = new ArtistRankService(listeningHistoryRepository, artistRankRepository, transactionManager);
+        ReflectionTestUtils.setField(artistRankService, "windowDays", 90);
+        ReflectionTestUtils.setField(artistRankService, "maxArtistsPerListener", 200);
+        ReflectionTestUtils.setField(artistRankService, "minSharedListeners", 1);
+        ReflectionTestUtils.setField(artistRankService, "damping", 0.85);
+        ReflectionTestUtils.setField(artistRankService, "maxIterations", 50);
+        ReflectionTestUtils.setField(artistRankService, "tolerance", 1e-9);
+        ReflectionTestUtils.setField(artistRankService, "threads", 1);
+    }
+
+    @Test
+    void testLoadRanks_ServesPersistedScores() {
+        when(artistRankRepository.findAll()).thenReturn(List.of(
+                ArtistRank.builder().artistId(1L).score(0.2).build(),
+                ArtistRank.builder().artistId(2L).score(0.8).build()));
+
+        artistRankService.loadRanks();
+
+        assertEquals(0.8, artistRankService.getScore(2L));
+        assertEquals(0.0, artistRankService.getScore(3L));
+        assertEquals(List.of(2L, 1L), artistRankService.getTopArtistIds(5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRefreshRanks_RanksHubAndPersists() {
+        // Every listener plays artist 10 plus one other artist
+        when(listeningHistoryRepository.streamListenerArtistPairs(any())).thenReturn(Stream.of(
+                new Object[]{1L, 10L}, new Object[]{1L, 20L},
+                new Object[]{2L, 10L}, new Object[]{2L, 30L},
+                new Object[]{3L, 10L}, new Object[]{3L, 40L}));
+
+        artistRankService.refreshRanks();
+
+        assertEquals(10L, artistRankService.getTopArtistIds(1).get(0));
+        assertArrayEquals(new long[]{20L, 30L, 40L}, artistRankService.getNeighbors(10L, 5));
+
+        ArgumentCaptor<List<ArtistRank>> saved = ArgumentCaptor.forClass(List.class);
+        verify(artistRankRepository).deleteAllInBatch();
+        verify(artistRankRepository).saveAll(saved.capture());
+        assertEquals(4, saved.getValue().size());
+    }
+}
@@ -4,6 +4,7 @@ import com.spotifyapp.dto.auth.LoginRequest;
 import com.spotifyapp.dto.auth.RegisterRequest;
 import com.spotifyapp.exception.BadRequestException;
 import com.spotifyapp.model.entity.User;
+import com.spotifyapp.model.enums.Genre;
 import com.spotifyapp.model.enums.UserRole;
 import com.spotifyapp.model.enums.UserStatus;
 import com.spotifyapp.repository.UserRepository;
@@ -18,6 +19,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,6 +45,9 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private TasteProfileService tasteProfileService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -85,6 +90,18 @@ class AuthServiceTest {
         verify(emailService, times(1)).sendVerificationEmail(anyString(), anyString(), anyString());
     }
 
+    @Test
+    void testRegisterUser_SeedsPreferredGenres() {
+        registerRequest.setPreferredGenres(List.of(Genre.ROCK, Genre.JAZZ));
+        when(userRepository.existsByEmailAndIsDeletedFalse(anyString())).thenReturn(false);
+        when(userRepository.existsByUsernameAndIsDeletedFalse(anyString())).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+
+        authService.register(registerRequest);
+
+        verify(tasteProfileService).seedGenres(any(), eq(List.of(Genre.ROCK, Genre.JAZZ)));
+    }
+
     @Test
     void testRegisterUser_DuplicateEmail() {
         when(userRepository.existsByEmailAndIsDeletedFalse(anyString())).thenReturn(true);
@@ -0,0 +1,196 @@
+package com.spotifyapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.repository.projection.MusicExportRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogExportServiceTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 6, 1, 8, 30);
+
+    @Mock
+    private MusicRepository musicRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CatalogExportService catalogExportService;
+
+    @BeforeEach
+    void setUp() {
+        catalogExportService = new CatalogExportService(musicRepository, objectMapper);
+        ReflectionTestUtils.setField(catalogExportService, "flushRows", 2);
+    }
+
+    @Test
+    void testExportMusic_WritesOneJsonObjectPerLine() throws Exception {
+        when(musicRepository.streamExportRows()).thenReturn(Stream.of(
+                row(1L, "First", 10L, "Album", LocalDate.of(2020, 1, 2)),
+                row(2L, "Single", null, null, null),
+                row(3L, "Third", 10L, "Album", LocalDate.of(2020, 1, 2))));
+        FlushCountingStream out = new FlushCountingStream();
+
+        long written = catalogExportService.exportMusic(null, out);
+
+        assertEquals(3, written);
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertTrue(text.endsWith("\n"));
+        List<String> lines = text.lines().toList();
+        assertEquals(3, lines.size());
+
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("ROCK", first.get("genre").asText());
+        assertEquals("artist", first.get("artistName").asText());
+        assertEquals("Album", first.get("albumTitle").asText());
+        assertEquals("2020-01-02", first.get("releaseDate").asText());
+        assertEquals(UPDATED.toString(), first.get("updatedAt").asText());
+
+        JsonNode single = objectMapper.readTree(lines.get(1));
+        assertTrue(single.get("albumId").isNull());
+        assertTrue(single.get("albumTitle").isNull());
+
+        // Flushed after every second row and at the end; the response stream stays open
+        assertEquals(2, out.linesAtFlush.get(0));
+        assertEquals(3, out.linesAtFlush.get(out.linesAtFlush.size() - 1));
+        assertFalse(out.closed);
+    }
+
+    @Test
+    void testExportMusic_UpdatedSinceUsesIncrementalQuery() throws Exception {
+        LocalDateTime since = UPDATED.minusDays(1);
+        when(musicRepository.streamExportRowsUpdatedSince(since)).thenReturn(Stream.empty());
+
+        long written = catalogExportService.exportMusic(since, new ByteArrayOutputStream());
+
+        assertEquals(0, written);
+        verify(musicRepository, never()).streamExportRows();
+    }
+
+    @Test
+    void testExportMusic_DeletedTrackWritesTombstone() throws Exception {
+        LocalDateTime since = UPDATED.minusDays(1);
+        when(musicRepository.streamExportRowsUpdatedSince(since)).thenReturn(Stream.of(
+                row(1L, "Kept", null, null, null),
+                row(2L, true, "Gone", null, null, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = catalogExportService.exportMusic(since, out);
+
+        assertEquals(2, written);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertFalse(objectMapper.readTree(lines.get(0)).has("deleted"));
+        JsonNode tombstone = objectMapper.readTree(lines.get(1));
+        assertEquals(2L, tombstone.get("id").asLong());
+        assertTrue(tombstone.get("deleted").asBoolean());
+        assertEquals(2, tombstone.size());
+    }
+
+    private static MusicExportRow row(Long id, String title, Long albumId, String albumTitle, LocalDate releaseDate) {
+        return row(id, false, title, albumId, albumTitle, releaseDate);
+    }
+
+    private static MusicExportRow row(Long id, boolean deleted, String title, Long albumId, String albumTitle,
+                                      LocalDate releaseDate) {
+        return new MusicExportRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Boolean getDeleted() {
+                return deleted;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public Genre getGenre() {
+                return Genre.ROCK;
+            }
+
+            @Override
+            public Integer getDurationSeconds() {
+                return 200;
+            }
+
+            @Override
+            public String getFileUrl() {
+                return "http://example.com/" + id + ".mp3";
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return UPDATED.minusDays(30);
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return UPDATED;
+            }
+
+            @Override
+            public Long getArtistId() {
+                return 7L;
+            }
+
+            @Override
+            public String getArtistName() {
+                return "artist";
+            }
+
+            @Override
+            public Long getAlbumId() {
+                return albumId;
+            }
+
+            @Override
+            public String getAlbumTitle() {
+                return albumTitle;
+            }
+
+            @Override
+            public LocalDate getReleaseDate() {
+                return releaseDate;
+            }
+        };
+    }
+
+    private static class FlushCountingStream extends ByteArrayOutputStream {
+
+        final List<Integer> linesAtFlush = new ArrayList<>();
+        boolean closed;
+
+        @Override
+        public void flush() {
+            linesAtFlush.add((int) toString(StandardCharsets.UTF_8).lines().count());
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.music.MusicSummary;
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.util.RankedTrackList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ColdStartShelfServiceTest {
+
+    @Mock
+    private GenreRankingService genreRankingService;
+
+    @Mock
+    private MusicRepository musicRepository;
+
+    @InjectMocks
+    private ColdStartShelfService coldStartShelfService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coldStartShelfService, "shelfSize", 2);
+    }
+
+    @Test
+    void testShelves_EmptyBeforeRefresh() {
+        assertTrue(coldStartShelfService.getPopular().isEmpty());
+        assertTrue(coldStartShelfService.getGenreShelf(Genre.ROCK).isEmpty());
+        assertTrue(coldStartShelfService.getPopularGenres(3).isEmpty());
+    }
+
+    @Test
+    void testRefreshShelves_RankedThenCatalog() {
+        Music rockHit = Music.builder().id(1L).title("rock hit").genre(Genre.ROCK).build();
+        Music popHit = Music.builder().id(2L).title("pop hit").genre(Genre.POP).build();
+        Music rockCatalog = Music.builder().id(3L).title("rock catalog").genre(Genre.ROCK).build();
+
+        when(genreRankingService.getOverallRanking()).thenReturn(RankedTrackList.builder()
+                .add(1L, 30).add(2L, 20).build());
+        when(genreRankingService.getRanking(any())).thenReturn(RankedTrackList.empty());
+        when(genreRankingService.getRanking(Genre.ROCK)).thenReturn(RankedTrackList.builder()
+                .add(1L, 30).build());
+        // Track 4 has been deleted since it was ranked
+        when(genreRankingService.getRanking(Genre.POP)).thenReturn(RankedTrackList.builder()
+                .add(2L, 20).add(4L, 5).build());
+        when(musicRepository.findAllById(any())).thenReturn(List.of(rockHit, popHit));
+        when(musicRepository.findByGenreAndIsDeletedFalse(any(), any())).thenReturn(Collections.emptyList());
+        when(musicRepository.findByGenreAndIsDeletedFalse(eq(Genre.ROCK), any())).thenReturn(List.of(rockHit, rockCatalog));
+
+        coldStartShelfService.refreshShelves();
+
+        assertEquals(List.of(1L, 2L), ids(coldStartShelfService.getPopular()));
+        assertEquals(List.of(1L, 3L), ids(coldStartShelfService.getGenreShelf(Genre.ROCK)));
+        assertEquals(List.of(2L), ids(coldStartShelfService.getGenreShelf(Genre.POP)));
+        assertTrue(coldStartShelfService.getGenreShelf(Genre.JAZZ).isEmpty());
+        assertEquals(List.of(Genre.POP, Genre.ROCK), coldStartShelfService.getPopularGenres(3));
+        verify(musicRepository, never()).findByIsDeletedFalse(any());
+    }
+
+    private List<Long> ids(List<MusicSummary> shelf) {
+        return shelf.stream().map(MusicSummary::getId).toList();
+    }
+}
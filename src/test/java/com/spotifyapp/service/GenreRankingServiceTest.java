@@ -0,0 +1,44 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.util.RankedTrackList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GenreRankingServiceTest {
+
+    @Mock
+    private ListeningHistoryRepository listeningHistoryRepository;
+
+    @InjectMocks
+    private GenreRankingService genreRankingService;
+
+    @Test
+    void testRefreshRankings_GroupsByGenre() {
+        when(listeningHistoryRepository.findListenCountsByMusicSince(any())).thenReturn(List.of(
+                new Object[]{Genre.ROCK, 1L, 30L, 7L},
+                new Object[]{Genre.POP, 2L, 20L, 8L},
+                new Object[]{Genre.ROCK, 3L, 10L, 8L}
+        ));
+
+        genreRankingService.refreshRankings();
+
+        RankedTrackList rock = genreRankingService.getRanking(Genre.ROCK);
+        assertArrayEquals(new long[]{1L, 3L}, rock.top(10));
+        assertEquals(1, genreRankingService.getRanking(Genre.POP).size());
+        assertTrue(genreRankingService.getRanking(Genre.JAZZ).isEmpty());
+        assertArrayEquals(new long[]{2L, 3L}, genreRankingService.getArtistRanking(8L).top(10));
+        assertArrayEquals(new long[]{1L, 2L, 3L}, genreRankingService.getOverallRanking().top(10));
+    }
+}
@@ -0,0 +1,136 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.entity.HeardTracksFilter;
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.User;
+import com.spotifyapp.model.enums.UserRole;
+import com.spotifyapp.repository.HeardTracksFilterRepository;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.util.BloomFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HeardTracksServiceTest {
+
+    @Mock
+    private HeardTracksFilterRepository heardTracksFilterRepository;
+
+    @Mock
+    private ListeningHistoryRepository listeningHistoryRepository;
+
+    @InjectMocks
+    private HeardTracksService heardTracksService;
+
+    private User listener;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(heardTracksService, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(heardTracksService, "minCapacity", 256);
+
+        listener = User.builder().id(2L).username("listener").role(UserRole.LISTENER).build();
+    }
+
+    @Test
+    void testGetHeardTracks_BuildsLazilyFromHistory() {
+        HeardTracksFilter[] inserted = new HeardTracksFilter[1];
+        when(heardTracksFilterRepository.findById(2L)).thenAnswer(invocation -> Optional.ofNullable(inserted[0]));
+        when(listeningHistoryRepository.findDistinctMusicIdsByUser(listener)).thenReturn(List.of(1L, 2L, 3L));
+        when(heardTracksFilterRepository.insertIfAbsent(eq(2L), any(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            inserted[0] = HeardTracksFilter.builder()
+                    .userId(2L)
+                    .bits(invocation.getArgument(1))
+                    .capacity(invocation.getArgument(2))
+                    .insertions(invocation.getArgument(3))
+                    .build();
+            return 1;
+        });
+
+        BloomFilter filter = heardTracksService.getHeardTracks(listener);
+
+        assertTrue(filter.mightContain(1L));
+        assertTrue(filter.mightContain(3L));
+        assertEquals(256, inserted[0].getCapacity());
+        assertEquals(3, inserted[0].getInsertions());
+        verify(heardTracksFilterRepository, never()).save(any());
+    }
+
+    @Test
+    void testGetHeardTracks_ConcurrentBuildServesStoredFilter() {
+        // Another request stored its filter between our lookup and our insert
+        BloomFilter theirs = BloomFilter.create(256, 0.01);
+        theirs.put(7L);
+        HeardTracksFilter winner = HeardTracksFilter.builder()
+                .userId(2L)
+                .bits(theirs.toBytes())
+                .capacity(256)
+                .insertions(1)
+                .build();
+        when(heardTracksFilterRepository.findById(2L))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(listeningHistoryRepository.findDistinctMusicIdsByUser(listener)).thenReturn(List.of(1L));
+        when(heardTracksFilterRepository.insertIfAbsent(eq(2L), any(), anyInt(), anyInt())).thenReturn(0);
+
+        BloomFilter filter = heardTracksService.getHeardTracks(listener);
+
+        assertTrue(filter.mightContain(7L));
+    }
+
+    @Test
+    void testRecordListen_UpdatesExistingFilter() {
+        HeardTracksFilter stored = HeardTracksFilter.builder()
+                .userId(2L)
+                .bits(BloomFilter.create(256, 0.01).toBytes())
+                .capacity(256)
+                .insertions(0)
+                .build();
+        when(heardTracksFilterRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(stored));
+
+        heardTracksService.recordListen(listener, Music.builder().id(9L).build());
+
+        assertTrue(BloomFilter.fromBytes(stored.getBits()).mightContain(9L));
+        assertEquals(1, stored.getInsertions());
+        verify(heardTracksFilterRepository).save(stored);
+    }
+
+    @Test
+    void testRecordListen_DropsFilterPastCapacity() {
+        HeardTracksFilter stored = HeardTracksFilter.builder()
+                .userId(2L)
+                .bits(BloomFilter.create(256, 0.01).toBytes())
+                .capacity(256)
+                .insertions(256)
+                .build();
+        when(heardTracksFilterRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(stored));
+
+        heardTracksService.recordListen(listener, Music.builder().id(9L).build());
+
+        verify(heardTracksFilterRepository).delete(stored);
+        verify(heardTracksFilterRepository, never()).save(any());
+    }
+
+    @Test
+    void testRecordListen_NoFilterYet() {
+        when(heardTracksFilterRepository.findByIdForUpdate(2L)).thenReturn(Optional.empty());
+
+        heardTracksService.recordListen(listener, Music.builder().id(9L).build());
+
+        verify(heardTracksFilterRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,221 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.controller.AlbumController;
+import com.spotifyapp.controller.MusicController;
+import com.spotifyapp.dto.album.AlbumResponse;
+import com.spotifyapp.dto.music.MusicResponse;
+import com.spotifyapp.model.entity.Album;
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.User;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.model.enums.UserRole;
+import com.spotifyapp.model.enums.UserStatus;
+import com.spotifyapp.support.QueryCountTest;
+import com.spotifyapp.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the music and album listing and search paths against N+1 loads: each page must
+ * cost a fixed number of statements however many artists and albums it shows.
+ */
+@QueryCountTest
+@Import({MusicService.class, AlbumService.class})
+class ListingQueryCountTest {
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private AlbumService albumService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @MockitoBean
+    private TasteProfileService tasteProfileService;
+
+    @MockitoBean
+    private HeardTracksService heardTracksService;
+
+    @MockitoBean
+    private SimilarTrackService similarTrackService;
+
+    @MockitoBean
+    private MusicSearchService musicSearchService;
+
+    @MockitoBean
+    private SearchResultCache searchResultCache;
+
+    @MockitoBean
+    private TypeaheadService typeaheadService;
+
+    private MockMvc mockMvc;
+    private final List<User> artists = new ArrayList<>();
+    private final List<Album> albums = new ArrayList<>();
+    private final List<Music> tracks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Every track has its own artist and album, so a lazy load per row would show
+        for (int i = 0; i < 12; i++) {
+            User artist = entityManager.persist(User.builder()
+                    .username("artist" + i)
+                    .email("artist" + i + "@example.com")
+                    .password("secret")
+                    .role(UserRole.ARTIST)
+                    .status(UserStatus.ACTIVE)
+                    .build());
+            Album album = entityManager.persist(Album.builder()
+                    .title("Album " + i)
+                    .artist(artist)
+                    .releaseDate(LocalDate.of(2020, 1, 1).plusDays(i))
+                    .build());
+            tracks.add(entityManager.persist(Music.builder()
+                    .title("Track " + i)
+                    .artist(artist)
+                    .album(i % 3 == 0 ? null : album)
+                    .genre(Genre.ROCK)
+                    .durationSeconds(180 + i)
+                    .fileUrl("http://example.com/" + i + ".mp3")
+                    .build()));
+            artists.add(artist);
+            albums.add(album);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        when(searchResultCache.get(anyString(), any(), any())).thenAnswer(invocation -> {
+            BiFunction<String, Pageable, Page<MusicResponse>> loader = invocation.getArgument(2);
+            return loader.apply(invocation.getArgument(0), invocation.getArgument(1));
+        });
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new MusicController(musicService, typeaheadService), new AlbumController(albumService)).build();
+    }
+
+    @Test
+    void testGetAllMusic_RowsAndCount() throws Exception {
+        Page<MusicResponse> page = statementCounter.assertAtMost(2, "getAllMusic",
+                () -> musicService.getAllMusic(PageRequest.of(0, 10)));
+
+        assertEquals(10, page.getContent().size());
+        assertEquals(12, page.getTotalElements());
+        assertTrue(page.getContent().stream().allMatch(music -> music.getArtistName().startsWith("artist")));
+    }
+
+    @Test
+    void testSearchMusic_DatabaseFallbackRowsAndCount() throws Exception {
+        Page<MusicResponse> page = statementCounter.assertAtMost(2, "searchMusic",
+                () -> musicService.searchMusic("track", PageRequest.of(0, 5)));
+
+        assertEquals(5, page.getContent().size());
+        assertEquals(12, page.getTotalElements());
+    }
+
+    @Test
+    void testScrollMusic_SingleStatement() throws Exception {
+        statementCounter.assertAtMost(1, "scrollMusic", () -> musicService.scrollMusic(null, "newest", 10))
+                .getContent()
+                .forEach(music -> assertNotNull(music.getArtistName()));
+    }
+
+    @Test
+    void testGetSimilarMusic_FetchesArtistsAndAlbums() throws Exception {
+        List<Long> similarIds = tracks.subList(1, 9).stream().map(Music::getId).toList();
+        when(similarTrackService.findSimilarIds(tracks.get(0).getId(), 8)).thenReturn(similarIds);
+
+        List<MusicResponse> similar = statementCounter.assertAtMost(2, "getSimilarMusic",
+                () -> musicService.getSimilarMusic(tracks.get(0).getId(), 8));
+
+        assertEquals(similarIds, similar.stream().map(MusicResponse::getId).toList());
+    }
+
+    @Test
+    void testGetMusicByIds_SingleStatement() throws Exception {
+        List<Long> ids = new ArrayList<>(tracks.stream().map(Music::getId).toList());
+        Collections.reverse(ids);
+
+        List<MusicResponse> found = statementCounter.assertAtMost(1, "getMusicByIds",
+                () -> musicService.getMusicByIds(ids));
+
+        assertEquals(ids, found.stream().map(MusicResponse::getId).toList());
+    }
+
+    @Test
+    void testGetMusicByIds_RepeatedIdsCountOnce() throws Exception {
+        // A long queue: more entries than the limit, but only a dozen distinct tracks
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            tracks.forEach(track -> ids.add(track.getId()));
+        }
+
+        List<MusicResponse> found = statementCounter.assertAtMost(1, "getMusicByIds",
+                () -> musicService.getMusicByIds(ids));
+
+        assertEquals(ids, found.stream().map(MusicResponse::getId).toList());
+    }
+
+    @Test
+    void testGetAllAlbums_RowsAndCount() throws Exception {
+        Page<AlbumResponse> page = statementCounter.assertAtMost(2, "getAllAlbums",
+                () -> albumService.getAllAlbums(PageRequest.of(0, 10)));
+
+        assertEquals(10, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(album -> album.getArtistName().startsWith("artist")));
+    }
+
+    @Test
+    void testGetAlbumsByArtist_ArtistAndRows() throws Exception {
+        // The artist lookup, then one page that is short enough to need no count
+        Page<AlbumResponse> page = statementCounter.assertAtMost(2, "getAlbumsByArtist",
+                () -> albumService.getAlbumsByArtist(artists.get(4).getId(), PageRequest.of(0, 20)));
+
+        assertEquals(List.of("Album 4"), page.getContent().stream().map(AlbumResponse::getTitle).toList());
+    }
+
+    @Test
+    void testGetAlbumById_AlbumArtistAndSongs() throws Exception {
+        AlbumResponse album = statementCounter.assertAtMost(3, "getAlbumById",
+                () -> albumService.getAlbumById(albums.get(4).getId()));
+
+        assertEquals(1, album.getSongs().size());
+    }
+
+    @Test
+    void testEndpoints_StayWithinBudget() throws Exception {
+        statementCounter.assertAtMost(2, "GET /api/music",
+                () -> mockMvc.perform(get("/api/music").param("size", "10")).andExpect(status().isOk()));
+        statementCounter.assertAtMost(1, "GET /api/music/scroll",
+                () -> mockMvc.perform(get("/api/music/scroll").param("size", "10")).andExpect(status().isOk()));
+        statementCounter.assertAtMost(1, "GET /api/music/batch",
+                () -> mockMvc.perform(get("/api/music/batch").param("ids", tracks.get(2).getId() + "," + tracks.get(1).getId()))
+                        .andExpect(status().isOk()));
+        statementCounter.assertAtMost(2, "GET /api/albums",
+                () -> mockMvc.perform(get("/api/albums").param("size", "10")).andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,137 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.recommendation.ModelReport;
+import com.spotifyapp.event.FactorModelUpdatedEvent;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.util.FactorModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MatrixFactorizationServiceTest {
+
+    @Mock
+    private ListeningHistoryRepository listeningHistoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path tempDir;
+
+    private MatrixFactorizationService matrixFactorizationService;
+
+    @BeforeEach
+    void setUp() {
+        matrixFactorizationService = new MatrixFactorizationService(listeningHistoryRepository, transactionManager,
+                eventPublisher);
+        ReflectionTestUtils.setField(matrixFactorizationService, "modelPath", tempDir.resolve("model.bin").toString());
+        ReflectionTestUtils.setField(matrixFactorizationService, "factors", 4);
+        ReflectionTestUtils.setField(matrixFactorizationService, "iterations", 8);
+        ReflectionTestUtils.setField(matrixFactorizationService, "regularization", 0.1);
+        ReflectionTestUtils.setField(matrixFactorizationService, "alpha", 10.0);
+        ReflectionTestUtils.setField(matrixFactorizationService, "threads", 1);
+        ReflectionTestUtils.setField(matrixFactorizationService, "evaluationUsers", 100);
+        ReflectionTestUtils.setField(matrixFactorizationService, "evaluationTopN", 2);
+    }
+
+    @Test
+    void testRecommend_NoModelYet() {
+        matrixFactorizationService.loadModel();
+
+        assertEquals(0, matrixFactorizationService.recommend(1L, 10).length);
+    }
+
+    @Test
+    void testTrainModel_PublishesModel() {
+        when(listeningHistoryRepository.streamPlayCounts()).thenAnswer(invocation -> playCounts().stream());
+
+        assertTrue(matrixFactorizationService.trainModel());
+
+        assertTrue(Files.exists(tempDir.resolve("model.bin")));
+        long[] recommended = matrixFactorizationService.recommend(1L, 3);
+        assertEquals(3, recommended.length);
+        verify(eventPublisher).publishEvent(any(FactorModelUpdatedEvent.class));
+    }
+
+    @Test
+    void testTrainModel_RetrainReplacesModel() {
+        when(listeningHistoryRepository.streamPlayCounts()).thenAnswer(invocation -> playCounts().stream());
+        matrixFactorizationService.trainModel();
+        FactorModel first = matrixFactorizationService.acquireModel();
+        first.release();
+
+        assertTrue(matrixFactorizationService.trainModel());
+
+        // The replaced model was released and can no longer be read
+        assertFalse(first.retain());
+        assertEquals(3, matrixFactorizationService.recommend(1L, 3).length);
+    }
+
+    @Test
+    void testTrainModel_SkipsWhileAnotherRunIsInProgress() {
+        AtomicBoolean training = (AtomicBoolean) ReflectionTestUtils.getField(matrixFactorizationService, "training");
+        training.set(true);
+
+        assertFalse(matrixFactorizationService.trainModel());
+
+        verifyNoInteractions(listeningHistoryRepository);
+        assertFalse(Files.exists(tempDir.resolve("model.bin")));
+    }
+
+    @Test
+    void testTrainModel_NoHistory() {
+        when(listeningHistoryRepository.streamPlayCounts()).thenReturn(Stream.empty());
+
+        matrixFactorizationService.trainModel();
+
+        assertFalse(Files.exists(tempDir.resolve("model.bin")));
+    }
+
+    @Test
+    void testEvaluateModel_ReportsHoldOut() {
+        when(listeningHistoryRepository.streamPlayCounts()).thenAnswer(invocation -> playCounts().stream());
+
+        ModelReport report = matrixFactorizationService.evaluateModel();
+
+        assertEquals(8, report.getUsers());
+        assertEquals(6, report.getItems());
+        assertEquals(8, report.getEvaluatedUsers());
+        assertTrue(report.getHitRate() >= 0.0 && report.getHitRate() <= 1.0);
+        // Evaluation never replaces the served model
+        assertFalse(Files.exists(tempDir.resolve("model.bin")));
+    }
+
+    private static List<Object[]> playCounts() {
+        // Two listener clusters with disjoint catalogs
+        List<Object[]> rows = new ArrayList<>();
+        for (long user = 1; user <= 8; user++) {
+            long first = user <= 4 ? 101 : 104;
+            for (long music = first; music < first + 3; music++) {
+                rows.add(new Object[]{user, music, user + music % 3});
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,186 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.event.AlbumChangedEvent;
+import com.spotifyapp.event.ArtistChangedEvent;
+import com.spotifyapp.event.MusicChangedEvent;
+import com.spotifyapp.exception.BadRequestException;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.repository.projection.MusicSearchRow;
+import com.spotifyapp.util.FacetColumns;
+import com.spotifyapp.util.TrigramIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MusicSearchServiceTest {
+
+    @Mock
+    private MusicRepository musicRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MusicSearchService musicSearchService;
+
+    @BeforeEach
+    void setUp() {
+        musicSearchService = new MusicSearchService(musicRepository, transactionManager);
+        ReflectionTestUtils.setField(musicSearchService, "compactionThreshold", 100);
+        ReflectionTestUtils.setField(musicSearchService, "maxSpellingTerms", 1000);
+    }
+
+    @Test
+    void testSearch_EmptyUntilBuiltOrTooShort() {
+        assertTrue(musicSearchService.search("moon", 0, 10).isEmpty());
+
+        when(musicRepository.streamSearchRows()).thenReturn(Stream.empty());
+        musicSearchService.buildIndex();
+
+        assertTrue(musicSearchService.search("mo", 0, 10).isEmpty());
+        assertTrue(musicSearchService.search("moon", 0, 10).isPresent());
+    }
+
+    @Test
+    void testEvents_KeepIndexCurrent() {
+        when(musicRepository.streamSearchRows()).thenReturn(Stream.of(
+                row(1L, 10L, "Blue Moon", "frank"),
+                row(2L, 10L, "Moonlight", "frank")));
+        musicSearchService.buildIndex();
+
+        when(musicRepository.findSearchRowById(3L)).thenReturn(Optional.of(row(3L, 11L, "Moon River", "andy")));
+        musicSearchService.onMusicChanged(new MusicChangedEvent(3L, 11L, MusicChangedEvent.ChangeType.CREATED));
+        musicSearchService.onMusicChanged(new MusicChangedEvent(1L, 10L, MusicChangedEvent.ChangeType.DELETED));
+
+        assertArrayEquals(new long[]{2L, 3L}, hits("moon").musicIds());
+
+        when(musicRepository.findSearchRowsByArtistId(10L)).thenReturn(List.of(row(2L, 10L, "Moonlight", "sinatra")));
+        musicSearchService.onArtistChanged(new ArtistChangedEvent(10L));
+
+        assertArrayEquals(new long[]{2L}, hits("sinatra").musicIds());
+        assertEquals(0, hits("frank").total());
+
+        musicSearchService.compactIfNeeded();
+
+        assertArrayEquals(new long[]{2L, 3L}, hits("moon").musicIds());
+    }
+
+    @Test
+    void testDatabaseMode_RunsRankedQuery() {
+        ReflectionTestUtils.setField(musicSearchService, "mode", "database");
+        ReflectionTestUtils.setField(musicSearchService, "popularityWeight", 0.1);
+        musicSearchService.buildIndex();
+
+        List<Object[]> rows = List.of(new Object[]{7L, 12L}, new Object[]{3L, 12L});
+        when(musicRepository.searchMusicRanked("100%_Love", "%100\\%\\_love%", 0.1, 0, 2)).thenReturn(rows);
+
+        TrigramIndex.Hits result = musicSearchService.search(" 100%_Love ", 0, 2).orElseThrow();
+
+        assertEquals(12, result.total());
+        assertArrayEquals(new long[]{7L, 3L}, result.musicIds());
+        verify(musicRepository, never()).streamSearchRows();
+    }
+
+    @Test
+    void testDatabaseMode_CountsWhenPagePastEnd() {
+        ReflectionTestUtils.setField(musicSearchService, "mode", "database");
+        when(musicRepository.searchMusicRanked("moon", "%moon%", 0.0, 40, 20)).thenReturn(List.of());
+        when(musicRepository.countSearchMusicRanked("moon", "%moon%")).thenReturn(25L);
+
+        TrigramIndex.Hits result = musicSearchService.search("moon", 40, 20).orElseThrow();
+
+        assertEquals(25, result.total());
+        assertEquals(0, result.musicIds().length);
+    }
+
+    @Test
+    void testFacetedSearch_FollowsAlbumChanges() {
+        when(musicRepository.streamSearchRows()).thenReturn(Stream.of(
+                row(1L, 10L, "Blue Moon", "frank", Genre.JAZZ, LocalDate.of(1961, 5, 1)),
+                row(2L, 10L, "Moonlight", "frank", Genre.POP, null)));
+        musicSearchService.buildIndex();
+
+        FacetColumns.Filter of1961 = new FacetColumns.Filter(Set.of(), Set.of(), Set.of(1961));
+        TrigramIndex.Hits hits = musicSearchService.search("moon", of1961, 0, 10).orElseThrow();
+        assertArrayEquals(new long[]{1L}, hits.musicIds());
+        assertEquals(Map.of(Genre.JAZZ.ordinal(), 1), hits.facets().genres());
+
+        when(musicRepository.findSearchRowsByAlbumId(5L)).thenReturn(List.of(
+                row(1L, 10L, "Blue Moon", "frank", Genre.JAZZ, null),
+                row(2L, 10L, "Moonlight", "frank", Genre.POP, LocalDate.of(1961, 1, 1))));
+        musicSearchService.onAlbumChanged(new AlbumChangedEvent(5L, 10L));
+
+        assertArrayEquals(new long[]{2L}, musicSearchService.search("moon", of1961, 0, 10).orElseThrow().musicIds());
+    }
+
+    @Test
+    void testDatabaseMode_RejectsFacetedSearch() {
+        ReflectionTestUtils.setField(musicSearchService, "mode", "database");
+
+        assertThrows(BadRequestException.class,
+                () -> musicSearchService.search("moon", FacetColumns.Filter.NONE, 0, 10));
+    }
+
+    private TrigramIndex.Hits hits(String query) {
+        return musicSearchService.search(query, 0, 10).orElseThrow();
+    }
+
+    private static MusicSearchRow row(Long id, Long artistId, String title, String artistName) {
+        return row(id, artistId, title, artistName, Genre.ROCK, null);
+    }
+
+    private static MusicSearchRow row(Long id, Long artistId, String title, String artistName,
+                                      Genre genre, LocalDate releaseDate) {
+        return new MusicSearchRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getArtistId() {
+                return artistId;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getArtistName() {
+                return artistName;
+            }
+
+            @Override
+            public Genre getGenre() {
+                return genre;
+            }
+
+            @Override
+            public Integer getDurationSeconds() {
+                return 200;
+            }
+
+            @Override
+            public LocalDate getReleaseDate() {
+                return releaseDate;
+            }
+        };
+    }
+}
@@ -1,7 +1,10 @@
 package com.spotifyapp.service;
 
+import com.spotifyapp.dto.SliceResponse;
+import com.spotifyapp.dto.music.FacetedSearchResponse;
 import com.spotifyapp.dto.music.MusicRequest;
 import com.spotifyapp.dto.music.MusicResponse;
+import com.spotifyapp.exception.BadRequestException;
 import com.spotifyapp.exception.UnauthorizedException;
 import com.spotifyapp.model.entity.Music;
 import com.spotifyapp.model.entity.User;
@@ -10,23 +13,42 @@ import com.spotifyapp.model.enums.UserRole;
 import com.spotifyapp.repository.AlbumRepository;
 import com.spotifyapp.repository.ListeningHistoryRepository;
 import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.repository.PlaylistRepository;
 import com.spotifyapp.repository.UserRepository;
+import com.spotifyapp.repository.projection.MusicListRow;
+import com.spotifyapp.util.CursorCodec;
+import com.spotifyapp.util.FacetColumns;
+import com.spotifyapp.util.TrigramIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +66,27 @@ class MusicServiceTest {
     @Mock
     private ListeningHistoryRepository listeningHistoryRepository;
 
+    @Mock
+    private PlaylistRepository playlistRepository;
+
+    @Mock
+    private TasteProfileService tasteProfileService;
+
+    @Mock
+    private HeardTracksService heardTracksService;
+
+    @Mock
+    private SimilarTrackService similarTrackService;
+
+    @Mock
+    private MusicSearchService musicSearchService;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private MusicService musicService;
 
@@ -81,6 +124,11 @@ class MusicServiceTest {
         musicRequest.setGenre(Genre.POP);
         musicRequest.setDurationSeconds(200);
         musicRequest.setFileUrl("http://example.com/new.mp3");
+
+        lenient().when(searchResultCache.get(anyString(), any(), any())).thenAnswer(invocation -> {
+            BiFunction<String, Pageable, Page<MusicResponse>> loader = invocation.getArgument(2);
+            return loader.apply(invocation.getArgument(0), invocation.getArgument(1));
+        });
     }
 
     @Test
@@ -104,13 +152,53 @@ class MusicServiceTest {
 
     @Test
     void testSearchMusic_ByTitle() {
-        Page<Music> musicPage = new PageImpl<>(Arrays.asList(music));
-        when(musicRepository.searchMusic(anyString(), any())).thenReturn(musicPage);
+        Page<MusicListRow> rowPage = new PageImpl<>(Arrays.asList(listRow(music)));
+        when(musicRepository.searchMusic(anyString(), any())).thenReturn(rowPage);
 
         Page<MusicResponse> results = musicService.searchMusic("Test", PageRequest.of(0, 20));
 
         assertNotNull(results);
         assertEquals(1, results.getTotalElements());
+        assertEquals("artist", results.getContent().get(0).getArtistName());
+    }
+
+    @Test
+    void testSearchMusic_ServedFromIndex() {
+        when(musicSearchService.search("Test", 20, 20))
+                .thenReturn(Optional.of(new TrigramIndex.Hits(42, new long[]{1L})));
+        when(musicRepository.findAllWithArtistByIdIn(List.of(1L))).thenReturn(List.of(music));
+
+        Page<MusicResponse> results = musicService.searchMusic("Test", PageRequest.of(1, 20));
+
+        assertEquals(42, results.getTotalElements());
+        assertEquals(1, results.getContent().size());
+        verify(musicRepository, never()).searchMusic(anyString(), any());
+    }
+
+    @Test
+    void testSearchMusicFaceted_MapsFilterAndFacets() {
+        FacetColumns.Filter filter = new FacetColumns.Filter(Set.of(Genre.ROCK.ordinal()), Set.of(2), Set.of());
+        FacetColumns.Facets facets = new FacetColumns.Facets(
+                Map.of(Genre.ROCK.ordinal(), 3), Map.of(2, 3), Map.of(2024, 2));
+        when(musicSearchService.search("Test", filter, 0, 20))
+                .thenReturn(Optional.of(new TrigramIndex.Hits(3, new long[]{1L}, facets)));
+        when(musicRepository.findAllWithArtistByIdIn(List.of(1L))).thenReturn(List.of(music));
+
+        FacetedSearchResponse response = musicService.searchMusicFaceted(
+                "Test", List.of(Genre.ROCK), List.of("3-4"), List.of(), PageRequest.of(0, 20));
+
+        assertEquals(3, response.getTotalElements());
+        assertEquals(1, response.getContent().size());
+        assertEquals(Map.of("ROCK", 3), response.getGenres());
+        assertEquals(Map.of("3-4", 3), response.getDurations());
+        assertEquals(Map.of(2024, 2), response.getReleaseYears());
+    }
+
+    @Test
+    void testSearchMusicFaceted_RejectsUnknownDuration() {
+        assertThrows(BadRequestException.class, () -> musicService.searchMusicFaceted(
+                "Test", List.of(), List.of("3-5"), List.of(), PageRequest.of(0, 20)));
+        verifyNoInteractions(musicSearchService);
     }
 
     @Test
@@ -123,6 +211,8 @@ class MusicServiceTest {
 
         assertNotNull(response);
         verify(listeningHistoryRepository, times(1)).save(any());
+        verify(tasteProfileService, times(1)).recordListen(listener, music);
+        verify(heardTracksService, times(1)).recordListen(listener, music);
     }
 
     @Test
@@ -133,6 +223,27 @@ class MusicServiceTest {
                 musicService.updateMusic(1L, musicRequest, 999L));
     }
 
+    @Test
+    void testUpdateMusic_DurationChange_RecountsPlaylists() {
+        when(musicRepository.findByIdAndIsDeletedFalse(1L)).thenReturn(Optional.of(music));
+        when(musicRepository.save(music)).thenReturn(music);
+
+        musicService.updateMusic(1L, musicRequest, 1L);
+
+        verify(playlistRepository).recountTotalsForMusic(1L);
+    }
+
+    @Test
+    void testUpdateMusic_SameDuration_LeavesPlaylistsAlone() {
+        musicRequest.setDurationSeconds(240);
+        when(musicRepository.findByIdAndIsDeletedFalse(1L)).thenReturn(Optional.of(music));
+        when(musicRepository.save(music)).thenReturn(music);
+
+        musicService.updateMusic(1L, musicRequest, 1L);
+
+        verify(playlistRepository, never()).recountTotalsForMusic(anyLong());
+    }
+
     @Test
     void testDeleteMusic_Success() {
         when(musicRepository.findByIdAndIsDeletedFalse(anyLong())).thenReturn(Optional.of(music));
@@ -142,4 +253,133 @@ class MusicServiceTest {
 
         verify(musicRepository, times(1)).save(any(Music.class));
     }
+
+    @Test
+    void testGetSimilarMusic_KeepsSimilarityOrder() {
+        Music close = Music.builder().id(2L).title("Close").artist(artist).genre(Genre.ROCK).isDeleted(false).build();
+        Music far = Music.builder().id(3L).title("Far").artist(artist).genre(Genre.ROCK).isDeleted(false).build();
+        when(musicRepository.findByIdAndIsDeletedFalse(1L)).thenReturn(Optional.of(music));
+        when(similarTrackService.findSimilarIds(1L, 2)).thenReturn(List.of(2L, 3L));
+        when(musicRepository.findAllWithArtistByIdIn(List.of(2L, 3L))).thenReturn(List.of(far, close));
+
+        List<MusicResponse> similar = musicService.getSimilarMusic(1L, 2);
+
+        assertEquals(List.of("Close", "Far"), similar.stream().map(MusicResponse::getTitle).toList());
+    }
+
+    @Test
+    void testGetMusicByIds_KeepsRequestOrderWithoutRecordingListens() {
+        Music second = Music.builder().id(2L).title("Second").artist(artist).genre(Genre.ROCK).isDeleted(false).build();
+        Music deleted = Music.builder().id(3L).title("Deleted").artist(artist).genre(Genre.ROCK).isDeleted(true).build();
+        when(musicRepository.findAllWithArtistByIdIn(Set.of(1L, 2L, 3L, 4L))).thenReturn(List.of(deleted, music, second));
+
+        List<MusicResponse> tracks = musicService.getMusicByIds(List.of(2L, 4L, 1L, 3L, 2L));
+
+        assertEquals(List.of(2L, 1L, 2L), tracks.stream().map(MusicResponse::getId).toList());
+        verifyNoInteractions(listeningHistoryRepository, tasteProfileService, heardTracksService);
+    }
+
+    @Test
+    void testGetMusicByIds_RejectsTooManyIds() {
+        List<Long> ids = LongStream.rangeClosed(1, 301).boxed().toList();
+
+        assertThrows(BadRequestException.class, () -> musicService.getMusicByIds(ids));
+        verifyNoInteractions(musicRepository);
+    }
+
+    @Test
+    void testGetMusicByIds_RepeatedIdsCountOnce() {
+        List<Long> ids = LongStream.rangeClosed(1, 400).map(i -> i % 2 + 1).boxed().toList();
+        when(musicRepository.findAllWithArtistByIdIn(Set.of(1L, 2L))).thenReturn(List.of(music));
+
+        List<MusicResponse> tracks = musicService.getMusicByIds(ids);
+
+        assertEquals(200, tracks.size());
+    }
+
+    @Test
+    void testScrollMusic_ResumesFromCursorKeys() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 10, 0);
+        Music next = Music.builder().id(2L).title("Next").artist(artist).genre(Genre.ROCK).isDeleted(false).build();
+        String cursor = CursorCodec.encode(Map.of("createdAt", createdAt, "id", 5L));
+        Window<Music> window = Window.from(List.of(music, next),
+                i -> ScrollPosition.forward(Map.of("createdAt", createdAt.minusDays(i + 1), "id", (long) i + 1)), true);
+        when(musicRepository.findByIsDeletedFalse(any(ScrollPosition.class), any(Sort.class), eq(Limit.of(2))))
+                .thenReturn(window);
+
+        SliceResponse<MusicResponse> slice = musicService.scrollMusic(cursor, "newest", 2);
+
+        assertEquals(List.of("Test Song", "Next"), slice.getContent().stream().map(MusicResponse::getTitle).toList());
+        assertTrue(slice.isHasNext());
+        assertEquals(Map.of("createdAt", createdAt.minusDays(2), "id", 2L), CursorCodec.decode(slice.getNextCursor()));
+        verify(musicRepository).findByIsDeletedFalse(
+                eq(ScrollPosition.forward(Map.of("createdAt", createdAt, "id", 5L))),
+                eq(Sort.by(Sort.Direction.DESC, "createdAt", "id")), eq(Limit.of(2)));
+    }
+
+    @Test
+    void testScrollMusic_FirstAndLastSlice() {
+        when(musicRepository.findByIsDeletedFalse(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(music), i -> ScrollPosition.forward(Map.of("title", "Test Song", "id", 1L)), false));
+
+        SliceResponse<MusicResponse> slice = musicService.scrollMusic(null, "title", 20);
+
+        assertFalse(slice.isHasNext());
+        assertNull(slice.getNextCursor());
+        verify(musicRepository).findByIsDeletedFalse(any(KeysetScrollPosition.class), eq(Sort.by("title", "id")), eq(Limit.of(20)));
+    }
+
+    @Test
+    void testScrollMusic_RejectsBadCursorAndSort() {
+        String titleCursor = CursorCodec.encode(Map.of("title", "Test Song", "id", 1L));
+
+        assertThrows(BadRequestException.class, () -> musicService.scrollMusic(null, "popular", 20));
+        assertThrows(BadRequestException.class, () -> musicService.scrollMusic("garbage!", "newest", 20));
+        assertThrows(BadRequestException.class, () -> musicService.scrollMusic(titleCursor, "newest", 20));
+        verifyNoInteractions(musicRepository);
+    }
+
+    private static MusicListRow listRow(Music music) {
+        return new MusicListRow() {
+            @Override
+            public Long getId() {
+                return music.getId();
+            }
+
+            @Override
+            public String getTitle() {
+                return music.getTitle();
+            }
+
+            @Override
+            public Long getArtistId() {
+                return music.getArtist().getId();
+            }
+
+            @Override
+            public String getArtistName() {
+                return music.getArtist().getUsername();
+            }
+
+            @Override
+            public Genre getGenre() {
+                return music.getGenre();
+            }
+
+            @Override
+            public String getAlbumTitle() {
+                return music.getAlbum() != null ? music.getAlbum().getTitle() : null;
+            }
+
+            @Override
+            public Integer getDurationSeconds() {
+                return music.getDurationSeconds();
+            }
+
+            @Override
+            public String getFileUrl() {
+                return music.getFileUrl();
+            }
+        };
+    }
 }
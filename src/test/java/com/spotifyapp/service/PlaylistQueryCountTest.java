@@ -0,0 +1,158 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.controller.PlaylistController;
+import com.spotifyapp.dto.playlist.PlaylistResponse;
+import com.spotifyapp.dto.playlist.PlaylistSongsBatchRequest;
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.Playlist;
+import com.spotifyapp.model.entity.PlaylistMusic;
+import com.spotifyapp.model.entity.User;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.model.enums.UserRole;
+import com.spotifyapp.model.enums.UserStatus;
+import com.spotifyapp.support.QueryCountTest;
+import com.spotifyapp.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@QueryCountTest
+@Import({PlaylistService.class, PlaylistTrackWriter.class})
+class PlaylistQueryCountTest {
+
+    private static final int SONGS = 500;
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @MockitoBean
+    private PlaylistSuggestionService playlistSuggestionService;
+
+    private MockMvc mockMvc;
+    private User owner;
+    private Playlist big;
+    private Playlist empty;
+    private final List<Music> tracks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner", UserRole.LISTENER));
+        big = entityManager.persist(Playlist.builder()
+                .name("Big mix")
+                .owner(owner)
+                .songCount(SONGS)
+                .totalDurationSeconds(SONGS * 200)
+                .build());
+        User[] artists = new User[25];
+        for (int i = 0; i < artists.length; i++) {
+            artists[i] = entityManager.persist(user("artist" + i, UserRole.ARTIST));
+        }
+        for (int i = 0; i < SONGS; i++) {
+            Music music = entityManager.persist(Music.builder()
+                    .title("Track " + i)
+                    .artist(artists[i % artists.length])
+                    .genre(Genre.values()[i % Genre.values().length])
+                    .durationSeconds(200)
+                    .fileUrl("http://example.com/" + i + ".mp3")
+                    .build());
+            entityManager.persist(PlaylistMusic.builder().playlist(big).music(music).position(i).build());
+            tracks.add(music);
+        }
+        for (int i = 0; i < 5; i++) {
+            empty = entityManager.persist(Playlist.builder().name("Small mix " + i).owner(owner).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new PlaylistController(playlistService)).build();
+    }
+
+    @Test
+    void testGetPlaylistById_FiveHundredSongsInTwoStatements() throws Exception {
+        PlaylistResponse playlist = statementCounter.assertAtMost(2, "getPlaylistById",
+                () -> playlistService.getPlaylistById(big.getId()));
+
+        assertEquals(SONGS, playlist.getSongs().size());
+        assertEquals("owner", playlist.getOwnerUsername());
+        assertEquals("artist1", playlist.getSongs().get(1).getArtistName());
+    }
+
+    @Test
+    void testGetMyPlaylists_NoCountQueries() throws Exception {
+        // Owner and page; the page is short enough to need no total, and song counts are columns
+        Page<PlaylistResponse> page = statementCounter.assertAtMost(2, "getMyPlaylists",
+                () -> playlistService.getMyPlaylists(owner.getId(), PageRequest.of(0, 10, Sort.by("id"))));
+
+        assertEquals(6, page.getContent().size());
+        assertEquals(List.of(SONGS, 0, 0, 0, 0, 0), page.getContent().stream().map(PlaylistResponse::getSongCount).toList());
+        assertEquals(SONGS * 200, page.getContent().get(0).getTotalDurationSeconds());
+    }
+
+    @Test
+    void testSearchPlaylists_SingleStatement() throws Exception {
+        List<PlaylistResponse> found = statementCounter.assertAtMost(1, "searchPlaylists",
+                () -> playlistService.searchPlaylists("mix", 10));
+
+        assertEquals(6, found.size());
+    }
+
+    @Test
+    void testUpdateSongs_ThreeHundredAddsInOneBatch() throws Exception {
+        PlaylistSongsBatchRequest request = new PlaylistSongsBatchRequest();
+        request.setOperations(tracks.subList(0, 300).stream().map(music -> {
+            PlaylistSongsBatchRequest.Operation operation = new PlaylistSongsBatchRequest.Operation();
+            operation.setType(PlaylistSongsBatchRequest.OperationType.ADD);
+            operation.setMusicId(music.getId());
+            return operation;
+        }).toList());
+
+        // Playlist, added tracks, current rows, the insert batch and the recount
+        statementCounter.assertAtMost(5, "updateSongs", () -> {
+            playlistService.updateSongs(empty.getId(), request, owner.getId());
+            return null;
+        });
+
+        entityManager.clear();
+        assertEquals(300, entityManager.find(Playlist.class, empty.getId()).getSongCount());
+        PlaylistResponse playlist = playlistService.getPlaylistById(empty.getId());
+        assertEquals(tracks.get(299).getId(), playlist.getSongs().get(299).getId());
+        assertEquals(300, playlist.getSongs().get(299).getPosition());
+    }
+
+    @Test
+    void testGetPlaylistEndpoint_StaysWithinBudget() throws Exception {
+        statementCounter.assertAtMost(2, "GET /api/playlists/{id}",
+                () -> mockMvc.perform(get("/api/playlists/{id}", big.getId())).andExpect(status().isOk()));
+    }
+
+    private static User user(String username, UserRole role) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .role(role)
+                .status(UserStatus.ACTIVE)
+                .build();
+    }
+}
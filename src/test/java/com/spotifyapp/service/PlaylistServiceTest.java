@@ -1,8 +1,12 @@
 package com.spotifyapp.service;
 
+import com.spotifyapp.dto.music.MusicSummary;
 import com.spotifyapp.dto.playlist.PlaylistRequest;
 import com.spotifyapp.dto.playlist.PlaylistResponse;
+import com.spotifyapp.dto.playlist.PlaylistSongsBatchRequest;
+import com.spotifyapp.dto.playlist.PlaylistSongsBatchRequest.OperationType;
 import com.spotifyapp.exception.BadRequestException;
+import com.spotifyapp.exception.ResourceNotFoundException;
 import com.spotifyapp.exception.UnauthorizedException;
 import com.spotifyapp.model.entity.Music;
 import com.spotifyapp.model.entity.Playlist;
@@ -17,15 +21,22 @@ import com.spotifyapp.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +54,12 @@ class PlaylistServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PlaylistSuggestionService playlistSuggestionService;
+
+    @Mock
+    private PlaylistTrackWriter playlistTrackWriter;
+
     @InjectMocks
     private PlaylistService playlistService;
 
@@ -83,7 +100,6 @@ class PlaylistServiceTest {
     void testCreatePlaylist_Success() {
         when(userRepository.findByIdAndIsDeletedFalse(anyLong())).thenReturn(Optional.of(user));
         when(playlistRepository.save(any(Playlist.class))).thenReturn(playlist);
-        when(playlistMusicRepository.countByPlaylist(any())).thenReturn(0L);
 
         PlaylistResponse response = playlistService.createPlaylist(playlistRequest, 1L);
 
@@ -102,6 +118,35 @@ class PlaylistServiceTest {
         playlistService.addSongToPlaylist(1L, 1L, 1L);
 
         verify(playlistMusicRepository, times(1)).save(any(PlaylistMusic.class));
+        verify(playlistRepository).adjustTotals(1L, 1, 0);
+    }
+
+    @Test
+    void testRemoveSongFromPlaylist_AdjustsTotalsOnlyWhenRemoved() {
+        music.setDurationSeconds(210);
+        when(playlistRepository.findByIdAndIsDeletedFalse(anyLong())).thenReturn(Optional.of(playlist));
+        when(musicRepository.findByIdAndIsDeletedFalse(anyLong())).thenReturn(Optional.of(music));
+        when(playlistMusicRepository.deleteByPlaylistAndMusic(playlist, music)).thenReturn(1, 0);
+
+        playlistService.removeSongFromPlaylist(1L, 1L, 1L);
+        playlistService.removeSongFromPlaylist(1L, 1L, 1L);
+
+        verify(playlistRepository, times(1)).adjustTotals(1L, -1, -210);
+    }
+
+    @Test
+    void testGetMyPlaylists_ReadsStoredTotals() {
+        playlist.setSongCount(12);
+        playlist.setTotalDurationSeconds(2400);
+        when(userRepository.findByIdAndIsDeletedFalse(1L)).thenReturn(Optional.of(user));
+        when(playlistRepository.findByOwnerAndIsDeletedFalse(user, PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(playlist)));
+
+        Page<PlaylistResponse> page = playlistService.getMyPlaylists(1L, PageRequest.of(0, 20));
+
+        assertEquals(12, page.getContent().get(0).getSongCount());
+        assertEquals(2400, page.getContent().get(0).getTotalDurationSeconds());
+        verifyNoInteractions(playlistMusicRepository);
     }
 
     @Test
@@ -114,6 +159,64 @@ class PlaylistServiceTest {
                 playlistService.addSongToPlaylist(1L, 1L, 1L));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdateSongs_AppliesOperationsInOrder() {
+        List<PlaylistMusic> current = List.of(entry(1L, 1), entry(2L, 2), entry(3L, 3));
+        Music added = Music.builder().id(4L).title("Added").genre(Genre.POP).isDeleted(false).build();
+        when(playlistRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(playlist));
+        when(musicRepository.findAllById(Set.of(4L))).thenReturn(List.of(added));
+        when(playlistMusicRepository.findByPlaylistOrderByPositionAsc(playlist)).thenReturn(current);
+
+        playlistService.updateSongs(1L, batch(
+                operation(OperationType.ADD, 4L, 1),
+                operation(OperationType.MOVE, 3L, 2),
+                operation(OperationType.REMOVE, 2L, null),
+                operation(OperationType.REMOVE, 99L, null)), 1L);
+
+        ArgumentCaptor<List<Music>> tracks = ArgumentCaptor.forClass(List.class);
+        verify(playlistTrackWriter).replaceTracks(eq(playlist), eq(current), tracks.capture());
+        assertEquals(List.of(4L, 3L, 1L), tracks.getValue().stream().map(Music::getId).toList());
+        assertSame(added, tracks.getValue().get(0));
+    }
+
+    @Test
+    void testUpdateSongs_UnknownMusicRejectsWholeBatch() {
+        when(playlistRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(playlist));
+        when(musicRepository.findAllById(Set.of(4L, 5L))).thenReturn(List.of(music(4L)));
+
+        ResourceNotFoundException error = assertThrows(ResourceNotFoundException.class, () -> playlistService.updateSongs(
+                1L, batch(operation(OperationType.ADD, 4L, null), operation(OperationType.ADD, 5L, null)), 1L));
+
+        assertTrue(error.getMessage().contains("5"));
+        verifyNoInteractions(playlistTrackWriter);
+    }
+
+    @Test
+    void testUpdateSongs_RejectsDuplicateAddAndUnknownMove() {
+        when(playlistRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(playlist));
+        when(musicRepository.findAllById(Set.of(1L))).thenReturn(List.of(music));
+        when(playlistMusicRepository.findByPlaylistOrderByPositionAsc(playlist)).thenReturn(List.of(entry(1L, 1)));
+
+        assertThrows(BadRequestException.class, () ->
+                playlistService.updateSongs(1L, batch(operation(OperationType.ADD, 1L, null)), 1L));
+        assertThrows(BadRequestException.class, () ->
+                playlistService.updateSongs(1L, batch(operation(OperationType.MOVE, 2L, 1)), 1L));
+        assertThrows(BadRequestException.class, () ->
+                playlistService.updateSongs(1L, batch(operation(OperationType.MOVE, 1L, null)), 1L));
+        verifyNoInteractions(playlistTrackWriter);
+    }
+
+    @Test
+    void testUpdateSongs_SystemGenerated() {
+        playlist.setIsSystemGenerated(true);
+        when(playlistRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(playlist));
+
+        assertThrows(UnauthorizedException.class, () ->
+                playlistService.updateSongs(1L, batch(operation(OperationType.ADD, 1L, null)), 1L));
+        verifyNoInteractions(musicRepository, playlistTrackWriter);
+    }
+
     @Test
     void testUpdatePlaylist_Unauthorized() {
         when(playlistRepository.findByIdAndIsDeletedFalse(anyLong())).thenReturn(Optional.of(playlist));
@@ -141,4 +244,51 @@ class PlaylistServiceTest {
         verify(playlistRepository, times(1)).save(any(Playlist.class));
         assertTrue(playlist.getIsDeleted());
     }
+
+    @Test
+    void testGetSuggestions_KeepsSuggestionOrder() {
+        Music second = Music.builder().id(2L).title("Second").genre(Genre.ROCK).isDeleted(false).build();
+        Music first = Music.builder().id(3L).title("First").genre(Genre.POP).isDeleted(false).build();
+
+        when(playlistRepository.findByIdAndIsDeletedFalse(1L)).thenReturn(Optional.of(playlist));
+        when(playlistMusicRepository.findMusicIdsByPlaylist(playlist)).thenReturn(List.of(1L));
+        when(playlistSuggestionService.suggest(List.of(1L), 10)).thenReturn(List.of(3L, 2L));
+        when(musicRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(second, first));
+
+        List<MusicSummary> suggestions = playlistService.getSuggestions(1L, 1L, 10);
+
+        assertEquals(2, suggestions.size());
+        assertEquals("First", suggestions.get(0).getTitle());
+        assertEquals("Second", suggestions.get(1).getTitle());
+    }
+
+    @Test
+    void testGetSuggestions_NotOwner() {
+        when(playlistRepository.findByIdAndIsDeletedFalse(1L)).thenReturn(Optional.of(playlist));
+
+        assertThrows(UnauthorizedException.class, () -> playlistService.getSuggestions(1L, 2L, 10));
+        verifyNoInteractions(playlistSuggestionService);
+    }
+
+    private PlaylistMusic entry(Long musicId, int position) {
+        return PlaylistMusic.builder().playlist(playlist).music(music(musicId)).position(position).build();
+    }
+
+    private static Music music(Long id) {
+        return Music.builder().id(id).title("Song " + id).genre(Genre.ROCK).isDeleted(false).build();
+    }
+
+    private static PlaylistSongsBatchRequest batch(PlaylistSongsBatchRequest.Operation... operations) {
+        PlaylistSongsBatchRequest request = new PlaylistSongsBatchRequest();
+        request.setOperations(List.of(operations));
+        return request;
+    }
+
+    private static PlaylistSongsBatchRequest.Operation operation(OperationType type, Long musicId, Integer position) {
+        PlaylistSongsBatchRequest.Operation operation = new PlaylistSongsBatchRequest.Operation();
+        operation.setType(type);
+        operation.setMusicId(musicId);
+        operation.setPosition(position);
+        return operation;
+    }
 }
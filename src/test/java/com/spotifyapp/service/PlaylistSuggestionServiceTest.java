@@ -0,0 +1,65 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.repository.PlaylistMusicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PlaylistSuggestionServiceTest {
+
+    @Mock
+    private PlaylistMusicRepository playlistMusicRepository;
+
+    @Mock
+    private ListeningHistoryRepository listeningHistoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PlaylistSuggestionService playlistSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        playlistSuggestionService = new PlaylistSuggestionService(
+                playlistMusicRepository, listeningHistoryRepository, transactionManager);
+        ReflectionTestUtils.setField(playlistSuggestionService, "window", 10);
+        ReflectionTestUtils.setField(playlistSuggestionService, "maxNeighbors", 50);
+        ReflectionTestUtils.setField(playlistSuggestionService, "minCooccurrence", 0.5f);
+        ReflectionTestUtils.setField(playlistSuggestionService, "listenWeight", 0.5f);
+        ReflectionTestUtils.setField(playlistSuggestionService, "listenWindowDays", 90);
+        ReflectionTestUtils.setField(playlistSuggestionService, "maxCandidates", 100);
+    }
+
+    @Test
+    void testSuggest_EmptyBeforeRefresh() {
+        assertTrue(playlistSuggestionService.suggest(List.of(1L, 2L), 5).isEmpty());
+    }
+
+    @Test
+    void testRefreshNeighbors_CombinesPlaylistsAndListens() {
+        when(playlistMusicRepository.streamPlaylistTracks()).thenReturn(Stream.of(
+                new Object[]{1L, 10L}, new Object[]{1L, 11L}, new Object[]{1L, 12L},
+                new Object[]{2L, 10L}, new Object[]{2L, 12L}));
+        // User 1 shares an id with playlist 1 but is a separate group
+        when(listeningHistoryRepository.streamListenSequences(any())).thenReturn(Stream.of(
+                new Object[]{1L, 11L}, new Object[]{1L, 13L}));
+
+        playlistSuggestionService.refreshNeighbors();
+
+        assertEquals(List.of(12L, 11L), playlistSuggestionService.suggest(List.of(10L), 5));
+        assertEquals(List.of(13L), playlistSuggestionService.suggest(List.of(10L, 11L, 12L), 5));
+    }
+}
@@ -0,0 +1,124 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.Playlist;
+import com.spotifyapp.model.entity.PlaylistMusic;
+import com.spotifyapp.model.entity.User;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.model.enums.UserRole;
+import com.spotifyapp.model.enums.UserStatus;
+import com.spotifyapp.support.QueryCountTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the playlist total updates against H2, since they are native SQL that the
+ * Mockito tests never execute.
+ */
+@QueryCountTest
+@Import({PlaylistService.class, PlaylistTrackWriter.class, PlaylistTotalsRepairService.class})
+class PlaylistTotalsRepairServiceTest {
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private PlaylistTrackWriter playlistTrackWriter;
+
+    @Autowired
+    private PlaylistTotalsRepairService playlistTotalsRepairService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private PlaylistSuggestionService playlistSuggestionService;
+
+    private User owner;
+    private Playlist playlist;
+    private Music shortTrack;
+    private Music mediumTrack;
+    private Music longTrack;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(User.builder()
+                .username("owner")
+                .email("owner@example.com")
+                .password("secret")
+                .role(UserRole.ARTIST)
+                .status(UserStatus.ACTIVE)
+                .build());
+        playlist = entityManager.persist(Playlist.builder().name("Mine").owner(owner).build());
+        shortTrack = entityManager.persist(track("Short", 100));
+        mediumTrack = entityManager.persist(track("Medium", 200));
+        longTrack = entityManager.persist(track("Long", 300));
+        entityManager.flush();
+    }
+
+    @Test
+    void testAddAndRemove_AdjustTotals() {
+        playlistService.addSongToPlaylist(playlist.getId(), shortTrack.getId(), owner.getId());
+        playlistService.addSongToPlaylist(playlist.getId(), mediumTrack.getId(), owner.getId());
+        playlistService.removeSongFromPlaylist(playlist.getId(), shortTrack.getId(), owner.getId());
+        playlistService.removeSongFromPlaylist(playlist.getId(), shortTrack.getId(), owner.getId());
+
+        Playlist stored = reload(playlist);
+        assertEquals(1, stored.getSongCount());
+        assertEquals(200, stored.getTotalDurationSeconds());
+    }
+
+    @Test
+    void testReplaceTracks_RecountsTotals() {
+        playlistTrackWriter.replaceTracks(playlist, List.of(shortTrack, mediumTrack, longTrack));
+        assertEquals(600, reload(playlist).getTotalDurationSeconds());
+
+        playlistTrackWriter.replaceTracks(reload(playlist), List.of(longTrack));
+
+        Playlist stored = reload(playlist);
+        assertEquals(1, stored.getSongCount());
+        assertEquals(300, stored.getTotalDurationSeconds());
+    }
+
+    @Test
+    void testRepairTotals_FixesOnlyDriftedPlaylists() {
+        // Rows written behind the service's back, as before the columns existed
+        entityManager.persist(PlaylistMusic.builder().playlist(playlist).music(mediumTrack).position(1).build());
+        entityManager.persist(PlaylistMusic.builder().playlist(playlist).music(longTrack).position(2).build());
+        Playlist empty = entityManager.persist(Playlist.builder().name("Empty").owner(owner).build());
+        entityManager.flush();
+
+        assertEquals(1, playlistTotalsRepairService.repairTotals());
+
+        Playlist stored = reload(playlist);
+        assertEquals(2, stored.getSongCount());
+        assertEquals(500, stored.getTotalDurationSeconds());
+        assertEquals(0, reload(empty).getSongCount());
+        assertEquals(0, playlistTotalsRepairService.repairTotals());
+    }
+
+    // The totals are written in SQL, so the managed entity is stale until reloaded
+    private Playlist reload(Playlist playlist) {
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager.find(Playlist.class, playlist.getId());
+    }
+
+    private Music track(String title, int durationSeconds) {
+        return Music.builder()
+                .title(title)
+                .artist(owner)
+                .genre(Genre.ROCK)
+                .durationSeconds(durationSeconds)
+                .fileUrl("http://example.com/" + title + ".mp3")
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.Playlist;
+import com.spotifyapp.model.entity.PlaylistMusic;
+import com.spotifyapp.repository.PlaylistMusicRepository;
+import com.spotifyapp.repository.PlaylistRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlaylistTrackWriterTest {
+
+    @Mock
+    private PlaylistMusicRepository playlistMusicRepository;
+
+    @Mock
+    private PlaylistRepository playlistRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private PlaylistTrackWriter playlistTrackWriter;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReplaceTracks_AppliesOnlyTheDiff() {
+        Playlist playlist = Playlist.builder().id(1L).build();
+        Music a = music(1L);
+        Music b = music(2L);
+        Music c = music(3L);
+        Music d = music(4L);
+        PlaylistMusic rowA = entry(playlist, a, 1);
+        PlaylistMusic rowB = entry(playlist, b, 2);
+        PlaylistMusic rowC = entry(playlist, c, 3);
+        when(playlistMusicRepository.findByPlaylistOrderByPositionAsc(playlist)).thenReturn(List.of(rowA, rowB, rowC));
+
+        // b leaves, c moves up, d is new, a stays put
+        int written = playlistTrackWriter.replaceTracks(playlist, List.of(a, c, d));
+
+        verify(playlistMusicRepository).deleteAllInBatch(List.of(rowB));
+        ArgumentCaptor<List<Object[]>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), inserted.capture());
+        assertEquals(1, inserted.getValue().size());
+        assertArrayEquals(new Object[]{1L, 4L, 3}, Arrays.copyOf(inserted.getValue().get(0), 3));
+        assertEquals(1, rowA.getPosition());
+        assertEquals(2, rowC.getPosition());
+        assertEquals(3, written);
+        verify(playlistRepository).recountTotals(1L);
+    }
+
+    @Test
+    void testReplaceTracks_UnchangedListWritesNothing() {
+        Playlist playlist = Playlist.builder().id(1L).build();
+        Music a = music(1L);
+        Music b = music(2L);
+        when(playlistMusicRepository.findByPlaylistOrderByPositionAsc(playlist))
+                .thenReturn(List.of(entry(playlist, a, 1), entry(playlist, b, 2)));
+
+        assertEquals(0, playlistTrackWriter.replaceTracks(playlist, List.of(a, b, a)));
+
+        verify(playlistMusicRepository, never()).deleteAllInBatch(any());
+        verifyNoInteractions(jdbcTemplate);
+        verify(playlistRepository, never()).recountTotals(any());
+    }
+
+    private static Music music(Long id) {
+        return Music.builder().id(id).build();
+    }
+
+    private static PlaylistMusic entry(Playlist playlist, Music music, int position) {
+        return PlaylistMusic.builder().playlist(playlist).music(music).position(position).build();
+    }
+}
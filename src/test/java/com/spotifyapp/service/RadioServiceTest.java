@@ -0,0 +1,167 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.recommendation.RadioPageResponse;
+import com.spotifyapp.exception.BadRequestException;
+import com.spotifyapp.exception.ResourceNotFoundException;
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.User;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.model.enums.UserRole;
+import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.util.RankedTrackList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RadioServiceTest {
+
+    @Mock
+    private MusicRepository musicRepository;
+
+    @Mock
+    private GenreRankingService genreRankingService;
+
+    @Mock
+    private ArtistRankService artistRankService;
+
+    @InjectMocks
+    private RadioService radioService;
+
+    private User artist;
+    private Music seed;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(radioService, "cursorSecret", "radio-secret");
+        artist = User.builder().id(1L).username("artist").role(UserRole.ARTIST).build();
+        seed = music(100L);
+
+        RankedTrackList.Builder catalog = RankedTrackList.builder();
+        for (long id = 100; id < 140; id++) {
+            catalog.add(id, 140 - id);
+        }
+        RankedTrackList ranking = catalog.build();
+        lenient().when(genreRankingService.getRanking(any())).thenReturn(ranking);
+        lenient().when(genreRankingService.getArtistRanking(anyLong())).thenReturn(ranking);
+        lenient().when(genreRankingService.getOverallRanking()).thenReturn(ranking);
+        lenient().when(artistRankService.getNeighbors(anyLong(), anyInt())).thenReturn(new long[0]);
+        lenient().when(musicRepository.findByGenreAndIsDeletedFalse(any(), any())).thenReturn(List.of());
+        lenient().when(musicRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Music> found = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                found.add(music(id));
+            }
+            return found;
+        });
+    }
+
+    @Test
+    void testGetRadioPage_NeverRepeatsWithinSession() {
+        when(musicRepository.findByIdAndIsDeletedFalse(100L)).thenReturn(Optional.of(seed));
+
+        Set<Long> played = new HashSet<>();
+        RadioPageResponse page = radioService.getRadioPage(100L, null, 10);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(10, page.getTracks().size());
+            page.getTracks().forEach(track -> assertTrue(played.add(track.getId()), "repeated " + track.getId()));
+            assertNotNull(page.getCursor());
+            page = radioService.getRadioPage(null, page.getCursor(), 10);
+        }
+        assertFalse(played.contains(100L));
+    }
+
+    @Test
+    void testGetRadioPage_KeepsPlayingPastFilterCapacity() {
+        RankedTrackList.Builder catalog = RankedTrackList.builder();
+        for (long id = 100; id < 1100; id++) {
+            catalog.add(id, 1);
+        }
+        RankedTrackList ranking = catalog.build();
+        when(genreRankingService.getRanking(any())).thenReturn(ranking);
+        when(genreRankingService.getArtistRanking(anyLong())).thenReturn(ranking);
+        when(genreRankingService.getOverallRanking()).thenReturn(ranking);
+        when(musicRepository.findByIdAndIsDeletedFalse(100L)).thenReturn(Optional.of(seed));
+
+        // Five times the filter capacity
+        List<Long> history = new ArrayList<>();
+        RadioPageResponse page = radioService.getRadioPage(100L, null, 10);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(10, page.getTracks().size(), "page " + i);
+            assertNotNull(page.getCursor());
+            page.getTracks().forEach(track -> history.add(track.getId()));
+            page = radioService.getRadioPage(null, page.getCursor(), 10);
+        }
+
+        // Recent tracks stay excluded across rotations
+        for (int start = 0; start + 150 <= history.size(); start += 50) {
+            List<Long> window = history.subList(start, start + 150);
+            assertEquals(window.size(), new HashSet<>(window).size(), "repeat within tracks " + start + "+150");
+        }
+    }
+
+    @Test
+    void testGetRadioPage_SameCursorSameBatch() {
+        when(musicRepository.findByIdAndIsDeletedFalse(100L)).thenReturn(Optional.of(seed));
+        String cursor = radioService.getRadioPage(100L, null, 5).getCursor();
+
+        RadioPageResponse first = radioService.getRadioPage(null, cursor, 5);
+        RadioPageResponse retry = radioService.getRadioPage(null, cursor, 5);
+
+        assertEquals(first.getTracks(), retry.getTracks());
+        assertEquals(first.getCursor(), retry.getCursor());
+    }
+
+    @Test
+    void testGetRadioPage_MissingSeed() {
+        assertThrows(BadRequestException.class, () -> radioService.getRadioPage(null, null, 10));
+    }
+
+    @Test
+    void testGetRadioPage_InvalidCursor() {
+        assertThrows(BadRequestException.class, () -> radioService.getRadioPage(null, "not-a-cursor", 10));
+    }
+
+    @Test
+    void testGetRadioPage_RejectsCursorSignedWithAnotherKey() {
+        when(musicRepository.findByIdAndIsDeletedFalse(100L)).thenReturn(Optional.of(seed));
+        String cursor = radioService.getRadioPage(100L, null, 5).getCursor();
+        ReflectionTestUtils.setField(radioService, "cursorSecret", "rotated-secret");
+
+        assertThrows(BadRequestException.class, () -> radioService.getRadioPage(null, cursor, 5));
+    }
+
+    @Test
+    void testGetRadioPage_SeedNotFound() {
+        when(musicRepository.findByIdAndIsDeletedFalse(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> radioService.getRadioPage(999L, null, 10));
+    }
+
+    private Music music(Long id) {
+        return Music.builder()
+                .id(id)
+                .title("Track " + id)
+                .artist(artist)
+                .genre(Genre.ROCK)
+                .durationSeconds(200)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.controller.RecommendationController;
+import com.spotifyapp.dto.artist.ArtistProfileResponse;
+import com.spotifyapp.dto.artist.ArtistSummary;
+import com.spotifyapp.model.entity.ArtistRank;
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.User;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.model.enums.UserRole;
+import com.spotifyapp.model.enums.UserStatus;
+import com.spotifyapp.support.QueryCountTest;
+import com.spotifyapp.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@QueryCountTest
+@Import(RecommendationService.class)
+class RecommendationQueryCountTest {
+
+    private static final int ARTISTS = 30;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @MockitoBean
+    private PlaylistTrackWriter playlistTrackWriter;
+
+    @MockitoBean
+    private GenreRankingService genreRankingService;
+
+    @MockitoBean
+    private TasteProfileService tasteProfileService;
+
+    @MockitoBean
+    private ArtistProfileCache artistProfileCache;
+
+    @MockitoBean
+    private HeardTracksService heardTracksService;
+
+    @MockitoBean
+    private MatrixFactorizationService matrixFactorizationService;
+
+    @MockitoBean
+    private ArtistRankService artistRankService;
+
+    @MockitoBean
+    private ColdStartShelfService coldStartShelfService;
+
+    @MockitoBean
+    private RadioService radioService;
+
+    private MockMvc mockMvc;
+    private final List<User> artists = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Even artists play rock, odd ones pop, and every fifth also jazz
+        for (int i = 0; i < ARTISTS; i++) {
+            User artist = entityManager.persist(User.builder()
+                    .username("artist" + i)
+                    .email("artist" + i + "@example.com")
+                    .password("secret")
+                    .role(UserRole.ARTIST)
+                    .status(UserStatus.ACTIVE)
+                    .build());
+            entityManager.persist(track(artist, i % 2 == 0 ? Genre.ROCK : Genre.POP, "A"));
+            entityManager.persist(track(artist, i % 5 == 0 ? Genre.JAZZ : Genre.ROCK, "B"));
+            artists.add(artist);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        when(artistProfileCache.get(anyLong(), any())).thenAnswer(invocation -> {
+            Function<Long, ArtistProfileResponse> loader = invocation.getArgument(1);
+            return loader.apply(invocation.getArgument(0));
+        });
+        when(artistRankService.getTopArtistIds(anyInt())).thenReturn(List.of());
+        mockMvc = MockMvcBuilders.standaloneSetup(new RecommendationController(recommendationService, radioService)).build();
+    }
+
+    @Test
+    void testGetArtistProfile_IndependentOfArtistCount() throws Exception {
+        // Artist, genres, tracks, all artists, their genres, album count and song count
+        ArtistProfileResponse profile = statementCounter.assertAtMost(7, "getArtistProfile",
+                () -> recommendationService.getArtistProfile(artists.get(0).getId()));
+
+        assertEquals(2L, profile.getSongCount());
+        assertEquals(10, profile.getSimilarArtists().size());
+        assertEquals(2, profile.getSimilarArtists().get(0).getSharedGenres().size());
+    }
+
+    @Test
+    void testSearchArtists_SingleStatement() throws Exception {
+        List<ArtistSummary> found = statementCounter.assertAtMost(1, "searchArtists",
+                () -> recommendationService.searchArtists("artist1", 20));
+
+        assertEquals(11, found.size());
+    }
+
+    @Test
+    void testSearchArtists_LimitKeepsBestRanked() throws Exception {
+        entityManager.persist(ArtistRank.builder().artistId(artists.get(19).getId()).score(0.9).build());
+        entityManager.flush();
+        when(artistRankService.getScore(artists.get(19).getId())).thenReturn(0.9);
+
+        List<ArtistSummary> found = statementCounter.assertAtMost(1, "searchArtists",
+                () -> recommendationService.searchArtists("artist1", 3));
+
+        assertEquals(List.of("artist19", "artist1", "artist10"),
+                found.stream().map(ArtistSummary::getUsername).toList());
+    }
+
+    @Test
+    void testGetTopArtists_UnrankedFallsBackToOnePage() throws Exception {
+        List<ArtistSummary> top = statementCounter.assertAtMost(2, "getTopArtists",
+                () -> recommendationService.getTopArtists(10));
+
+        assertEquals(10, top.size());
+    }
+
+    @Test
+    void testGetArtistProfileEndpoint_StaysWithinBudget() throws Exception {
+        statementCounter.assertAtMost(7, "GET /api/recommendations/artists/{artistId}",
+                () -> mockMvc.perform(get("/api/recommendations/artists/{artistId}", artists.get(3).getId()))
+                        .andExpect(status().isOk()));
+    }
+
+    private static Music track(User artist, Genre genre, String suffix) {
+        return Music.builder()
+                .title(artist.getUsername() + " " + suffix)
+                .artist(artist)
+                .genre(genre)
+                .durationSeconds(200)
+                .fileUrl("http://example.com/" + artist.getUsername() + suffix + ".mp3")
+                .build();
+    }
+}
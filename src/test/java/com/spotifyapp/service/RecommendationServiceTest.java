@@ -1,12 +1,17 @@
 package com.spotifyapp.service;
 
 import com.spotifyapp.dto.artist.ArtistProfileResponse;
+import com.spotifyapp.dto.artist.ArtistSummary;
+import com.spotifyapp.dto.music.MusicSummary;
+import com.spotifyapp.dto.recommendation.ShelfResponse;
 import com.spotifyapp.exception.ResourceNotFoundException;
 import com.spotifyapp.model.entity.Playlist;
 import com.spotifyapp.model.entity.User;
 import com.spotifyapp.model.enums.Genre;
 import com.spotifyapp.model.enums.UserRole;
 import com.spotifyapp.repository.*;
+import com.spotifyapp.util.BloomFilter;
+import com.spotifyapp.util.RankedTrackList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,9 +23,11 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -45,6 +52,30 @@ class RecommendationServiceTest {
     @Mock
     private PlaylistMusicRepository playlistMusicRepository;
 
+    @Mock
+    private PlaylistTrackWriter playlistTrackWriter;
+
+    @Mock
+    private GenreRankingService genreRankingService;
+
+    @Mock
+    private TasteProfileService tasteProfileService;
+
+    @Mock
+    private ArtistProfileCache artistProfileCache;
+
+    @Mock
+    private HeardTracksService heardTracksService;
+
+    @Mock
+    private MatrixFactorizationService matrixFactorizationService;
+
+    @Mock
+    private ArtistRankService artistRankService;
+
+    @Mock
+    private ColdStartShelfService coldStartShelfService;
+
     @InjectMocks
     private RecommendationService recommendationService;
 
@@ -57,6 +88,12 @@ class RecommendationServiceTest {
                 .username("artist")
                 .role(UserRole.ARTIST)
                 .build();
+
+        // The cache loads through the service on every call
+        lenient().when(artistProfileCache.get(anyLong(), any())).thenAnswer(invocation -> {
+            Function<Long, ArtistProfileResponse> loader = invocation.getArgument(1);
+            return loader.apply(invocation.getArgument(0));
+        });
     }
 
     @Test
@@ -98,8 +135,6 @@ class RecommendationServiceTest {
                 .role(UserRole.LISTENER)
                 .build();
 
-        List<Object[]> topGenres = List.<Object[]>of(new Object[]{Genre.ROCK, 100L});
-
         Playlist savedPlaylist = Playlist.builder()
                 .id(10L)
                 .name("Recommended - ROCK")
@@ -107,11 +142,13 @@ class RecommendationServiceTest {
                 .build();
 
         when(userRepository.findByIdAndIsDeletedFalse(anyLong())).thenReturn(Optional.of(user));
-        when(listeningHistoryRepository.findTopGenresByUser(any(), any()))
-                .thenReturn(topGenres);
-        when(playlistRepository.findByOwnerAndIsSystemGeneratedTrueAndIsDeletedFalse(any()))
+        when(tasteProfileService.getTopGenres(any(), anyInt()))
+                .thenReturn(List.of(Genre.ROCK));
+        when(playlistRepository.findByOwnerAndIsSystemGeneratedTrue(any()))
                 .thenReturn(Collections.emptyList());
         when(playlistRepository.save(any())).thenReturn(savedPlaylist);
+        when(heardTracksService.getHeardTracks(any())).thenReturn(BloomFilter.create(10, 0.01));
+        when(genreRankingService.getRanking(any())).thenReturn(RankedTrackList.empty());
         when(musicRepository.findByGenreAndIsDeletedFalse(any(), any()))
                 .thenReturn(Collections.emptyList());
 
@@ -121,6 +158,126 @@ class RecommendationServiceTest {
         verify(playlistRepository, atLeastOnce()).save(any());
     }
 
+    @Test
+    void testGetArtistProfile_SimilarArtistsOrderedByRank() {
+        User quiet = User.builder().id(2L).username("quiet").role(UserRole.ARTIST).build();
+        User popular = User.builder().id(3L).username("popular").role(UserRole.ARTIST).build();
+
+        when(userRepository.findByIdAndIsDeletedFalse(anyLong())).thenReturn(Optional.of(artist));
+        when(musicRepository.findDistinctGenresByArtist(any())).thenReturn(List.of(Genre.ROCK));
+        when(musicRepository.findByArtistAndIsDeletedFalse(any())).thenReturn(Collections.emptyList());
+        when(userRepository.findByRoleAndIsDeletedFalse(UserRole.ARTIST)).thenReturn(List.of(artist, quiet, popular));
+        when(musicRepository.findDistinctArtistGenres(UserRole.ARTIST))
+                .thenReturn(List.of(new Object[]{2L, Genre.ROCK}, new Object[]{3L, Genre.ROCK}));
+        when(artistRankService.getScore(2L)).thenReturn(0.1);
+        when(artistRankService.getScore(3L)).thenReturn(0.6);
 
+        ArtistProfileResponse response = recommendationService.getArtistProfile(1L);
 
-}
\ No newline at end of file
+        assertEquals(List.of(3L, 2L), response.getSimilarArtists().stream().map(similar -> similar.getId()).toList());
+    }
+
+    @Test
+    void testGetTopArtists_KeepsRankOrder() {
+        User second = User.builder().id(2L).username("second").role(UserRole.ARTIST).isDeleted(false).build();
+        User first = User.builder().id(3L).username("first").role(UserRole.ARTIST).isDeleted(false).build();
+
+        when(artistRankService.getTopArtistIds(4)).thenReturn(List.of(3L, 2L));
+        when(userRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(second, first));
+
+        List<ArtistSummary> top = recommendationService.getTopArtists(2);
+
+        assertEquals(2, top.size());
+        assertEquals("first", top.get(0).getUsername());
+        assertEquals("second", top.get(1).getUsername());
+    }
+
+    @Test
+    void testGetTopArtists_SkipsDeletedAndNonArtistsWithoutComingUpShort() {
+        User deleted = User.builder().id(4L).username("deleted").role(UserRole.ARTIST).isDeleted(true).build();
+        User listener = User.builder().id(5L).username("listener").role(UserRole.LISTENER).isDeleted(false).build();
+        User first = User.builder().id(3L).username("first").role(UserRole.ARTIST).isDeleted(false).build();
+        User second = User.builder().id(2L).username("second").role(UserRole.ARTIST).isDeleted(false).build();
+
+        when(artistRankService.getTopArtistIds(4)).thenReturn(List.of(4L, 3L, 5L, 6L));
+        when(userRepository.findAllById(List.of(4L, 3L, 5L, 6L))).thenReturn(List.of(deleted, first, listener));
+        when(artistRankService.getTopArtistIds(8)).thenReturn(List.of(4L, 3L, 5L, 6L, 2L));
+        when(userRepository.findAllById(List.of(4L, 3L, 5L, 6L, 2L)))
+                .thenReturn(List.of(deleted, first, listener, second));
+
+        List<ArtistSummary> top = recommendationService.getTopArtists(2);
+
+        assertEquals(List.of("first", "second"), top.stream().map(ArtistSummary::getUsername).toList());
+    }
+
+    @Test
+    void testGenerateRecommendedPlaylists_ReusesGenreSlots() {
+        User user = User.builder().id(1L).username("user").role(UserRole.LISTENER).build();
+        Playlist rockSlot = Playlist.builder().id(10L).name("ROCK Mix for You").owner(user)
+                .isSystemGenerated(true).generatedGenre(Genre.ROCK).isDeleted(true).build();
+        Playlist jazzSlot = Playlist.builder().id(11L).name("JAZZ Mix for You").owner(user)
+                .isSystemGenerated(true).generatedGenre(Genre.JAZZ).build();
+        Playlist legacy = Playlist.builder().id(12L).name("Old mix").owner(user)
+                .isSystemGenerated(true).build();
+
+        when(userRepository.findByIdAndIsDeletedFalse(anyLong())).thenReturn(Optional.of(user));
+        when(tasteProfileService.getTopGenres(any(), anyInt())).thenReturn(List.of(Genre.ROCK));
+        when(playlistRepository.findByOwnerAndIsSystemGeneratedTrue(any()))
+                .thenReturn(List.of(rockSlot, jazzSlot, legacy));
+        when(heardTracksService.getHeardTracks(any())).thenReturn(BloomFilter.create(10, 0.01));
+        when(genreRankingService.getRanking(any())).thenReturn(RankedTrackList.empty());
+        when(musicRepository.findByGenreAndIsDeletedFalse(any(), any())).thenReturn(Collections.emptyList());
+        when(playlistRepository.findTotalDurationSecondsById(10L)).thenReturn(480);
+
+        var playlists = recommendationService.generateRecommendedPlaylists(1L);
+
+        assertEquals(1, playlists.size());
+        assertEquals(10L, playlists.get(0).getId());
+        assertEquals(480, playlists.get(0).getTotalDurationSeconds());
+        assertFalse(rockSlot.getIsDeleted());
+        assertTrue(jazzSlot.getIsDeleted());
+        assertTrue(legacy.getIsDeleted());
+        verify(playlistRepository, never()).save(any());
+        verify(playlistTrackWriter).replaceTracks(eq(rockSlot), any());
+    }
+
+    @Test
+    void testGenerateRecommendedPlaylists_ColdStartUsesPopularGenres() {
+        User user = User.builder().id(1L).username("new").role(UserRole.LISTENER).build();
+        Playlist savedPlaylist = Playlist.builder().id(10L).name("POP Mix for You").isSystemGenerated(true).build();
+
+        when(userRepository.findByIdAndIsDeletedFalse(anyLong())).thenReturn(Optional.of(user));
+        when(tasteProfileService.getTopGenres(any(), anyInt())).thenReturn(Collections.emptyList());
+        when(coldStartShelfService.getPopularGenres(3)).thenReturn(List.of(Genre.POP));
+        when(playlistRepository.findByOwnerAndIsSystemGeneratedTrue(any())).thenReturn(Collections.emptyList());
+        when(playlistRepository.save(any())).thenReturn(savedPlaylist);
+        when(heardTracksService.getHeardTracks(any())).thenReturn(BloomFilter.create(10, 0.01));
+        when(genreRankingService.getRanking(any())).thenReturn(RankedTrackList.empty());
+        when(musicRepository.findByGenreAndIsDeletedFalse(any(), any())).thenReturn(Collections.emptyList());
+
+        var playlists = recommendationService.generateRecommendedPlaylists(1L);
+
+        assertEquals(1, playlists.size());
+        verify(playlistRepository).save(argThat(playlist -> playlist.getGeneratedGenre() == Genre.POP));
+    }
+
+    @Test
+    void testGetShelves_NewUserGetsPopularGenres() {
+        User user = User.builder().id(1L).username("new").role(UserRole.LISTENER).build();
+        MusicSummary hit = MusicSummary.builder().id(5L).title("hit").genre("POP").build();
+
+        when(userRepository.findByIdAndIsDeletedFalse(1L)).thenReturn(Optional.of(user));
+        when(tasteProfileService.getTopGenres(any(), anyInt())).thenReturn(Collections.emptyList());
+        when(coldStartShelfService.getPopularGenres(3)).thenReturn(List.of(Genre.POP, Genre.JAZZ));
+        when(coldStartShelfService.getPopular()).thenReturn(List.of(hit));
+        when(coldStartShelfService.getGenreShelf(Genre.POP)).thenReturn(List.of(hit));
+        when(coldStartShelfService.getGenreShelf(Genre.JAZZ)).thenReturn(Collections.emptyList());
+
+        List<ShelfResponse> shelves = recommendationService.getShelves(1L);
+
+        assertEquals(2, shelves.size());
+        assertNull(shelves.get(0).getGenre());
+        assertEquals("POP", shelves.get(1).getGenre());
+        verifyNoInteractions(musicRepository);
+    }
+}
@@ -0,0 +1,88 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.music.MusicResponse;
+import com.spotifyapp.dto.music.SearchCacheStats;
+import com.spotifyapp.event.ArtistChangedEvent;
+import com.spotifyapp.event.MusicChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchResultCacheTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SearchResultCache searchResultCache;
+    private List<String> loadedQueries;
+    private BiFunction<String, Pageable, Page<MusicResponse>> loader;
+
+    @BeforeEach
+    void setUp() {
+        searchResultCache = new SearchResultCache(transactionManager, 100, 30);
+        loadedQueries = new ArrayList<>();
+        loader = (query, pageable) -> {
+            loadedQueries.add(query);
+            return new PageImpl<>(List.of(MusicResponse.builder().title(query).build()), pageable, 1);
+        };
+    }
+
+    @Test
+    void testGet_SharesEntryAcrossCaseAndSurroundingSpaces() {
+        searchResultCache.get("Moon", PageRequest.of(0, 20), loader);
+        Page<MusicResponse> page = searchResultCache.get("  mOON ", PageRequest.of(0, 20), loader);
+
+        assertEquals("Moon", page.getContent().get(0).getTitle());
+        assertEquals(List.of("Moon"), loadedQueries);
+    }
+
+    @Test
+    void testGet_KeysByPageAndSize() {
+        searchResultCache.get("moon", PageRequest.of(0, 20), loader);
+        searchResultCache.get("moon", PageRequest.of(1, 20), loader);
+        searchResultCache.get("moon", PageRequest.of(0, 10), loader);
+
+        assertEquals(3, loadedQueries.size());
+    }
+
+    @Test
+    void testCatalogChange_RetiresCachedPages() {
+        searchResultCache.get("moon", PageRequest.of(0, 20), loader);
+        searchResultCache.onMusicChanged(new MusicChangedEvent(1L, 2L, MusicChangedEvent.ChangeType.UPDATED));
+        searchResultCache.get("moon", PageRequest.of(0, 20), loader);
+        searchResultCache.onArtistChanged(new ArtistChangedEvent(2L));
+        searchResultCache.get("moon", PageRequest.of(0, 20), loader);
+
+        assertEquals(3, loadedQueries.size());
+        assertEquals(2, searchResultCache.getStats().getGeneration());
+    }
+
+    @Test
+    void testGetStats_ReportsHitRate() {
+        searchResultCache.get("moon", PageRequest.of(0, 20), loader);
+        searchResultCache.get("moon", PageRequest.of(0, 20), loader);
+        searchResultCache.get("moon", PageRequest.of(0, 20), loader);
+        searchResultCache.get("sun", PageRequest.of(0, 20), loader);
+
+        SearchCacheStats stats = searchResultCache.getStats();
+
+        assertEquals(4, stats.getRequests());
+        assertEquals(2, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate(), 1e-9);
+    }
+}
@@ -0,0 +1,115 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.album.AlbumResponse;
+import com.spotifyapp.dto.artist.ArtistSummary;
+import com.spotifyapp.dto.music.MusicResponse;
+import com.spotifyapp.dto.playlist.PlaylistResponse;
+import com.spotifyapp.dto.search.SearchResponse;
+import com.spotifyapp.exception.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private MusicService musicService;
+
+    @Mock
+    private AlbumService albumService;
+
+    @Mock
+    private RecommendationService recommendationService;
+
+    @Mock
+    private PlaylistService playlistService;
+
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new SearchService(musicService, albumService, recommendationService, playlistService, 4, 16);
+        ReflectionTestUtils.setField(searchService, "timeoutMs", 200L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchService.shutdown();
+    }
+
+    @Test
+    void testSearch_CollectsEverySection() {
+        stubSections();
+
+        SearchResponse response = searchService.search(" love ", 5);
+
+        assertFalse(response.isPartial());
+        assertEquals(1, response.getTracks().getItems().size());
+        assertEquals(1, response.getAlbums().getItems().size());
+        assertEquals(1, response.getArtists().getItems().size());
+        assertEquals(1, response.getPlaylists().getItems().size());
+        verify(albumService).searchAlbums("love", 5);
+    }
+
+    @Test
+    void testSearch_SlowSectionComesBackIncomplete() {
+        stubSections();
+        when(albumService.searchAlbums("love", 5)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return List.of(AlbumResponse.builder().id(1L).build());
+        });
+
+        long start = System.nanoTime();
+        SearchResponse response = searchService.search("love", 5);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(response.isPartial());
+        assertFalse(response.getAlbums().isComplete());
+        assertTrue(response.getAlbums().getItems().isEmpty());
+        assertTrue(response.getTracks().isComplete());
+        assertEquals(1, response.getPlaylists().getItems().size());
+        // Bounded by the budget, not by the slow section
+        assertTrue(elapsedMs < 1500, "took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void testSearch_FailedSectionComesBackIncomplete() {
+        stubSections();
+        when(recommendationService.searchArtists("love", 5)).thenThrow(new IllegalStateException("down"));
+
+        SearchResponse response = searchService.search("love", 5);
+
+        assertTrue(response.isPartial());
+        assertFalse(response.getArtists().isComplete());
+        assertTrue(response.getTracks().isComplete());
+    }
+
+    @Test
+    void testSearch_RejectsBlankQuery() {
+        assertThrows(BadRequestException.class, () -> searchService.search("  ", 5));
+        verifyNoInteractions(musicService, albumService, recommendationService, playlistService);
+    }
+
+    private void stubSections() {
+        lenient().when(musicService.searchMusic("love", PageRequest.of(0, 5)))
+                .thenReturn(new PageImpl<>(List.of(MusicResponse.builder().id(1L).title("Love").build())));
+        lenient().when(albumService.searchAlbums("love", 5))
+                .thenReturn(List.of(AlbumResponse.builder().id(2L).title("Lovers").build()));
+        lenient().when(recommendationService.searchArtists("love", 5))
+                .thenReturn(List.of(ArtistSummary.builder().id(3L).username("lovebird").build()));
+        lenient().when(playlistService.searchPlaylists("love", 5))
+                .thenReturn(List.of(PlaylistResponse.builder().id(4L).name("Love songs").build()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.event.FactorModelUpdatedEvent;
+import com.spotifyapp.event.MusicChangedEvent;
+import com.spotifyapp.repository.MusicRepository;
+import com.spotifyapp.util.FactorModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SimilarTrackServiceTest {
+
+    @Mock
+    private MatrixFactorizationService matrixFactorizationService;
+
+    @Mock
+    private GenreRankingService genreRankingService;
+
+    @Mock
+    private MusicRepository musicRepository;
+
+    @InjectMocks
+    private SimilarTrackService similarTrackService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(similarTrackService, "indexPath", tempDir.resolve("index.hnsw").toString());
+        ReflectionTestUtils.setField(similarTrackService, "m", 8);
+        ReflectionTestUtils.setField(similarTrackService, "efConstruction", 50);
+        ReflectionTestUtils.setField(similarTrackService, "efSearch", 32);
+
+        // Tracks 1-3 point one way, 4-5 the other
+        Path modelFile = tempDir.resolve("model.bin");
+        FactorModel.write(modelFile, new long[]{100L}, new long[]{1L, 2L, 3L, 4L, 5L}, 2,
+                new float[]{1f, 0f},
+                new float[]{1f, 0.1f, 0.9f, 0.2f, 1f, 0f, 0f, 1f, 0.1f, 1f});
+        // A fresh model per call, since the service releases what it acquires
+        when(matrixFactorizationService.acquireModel()).thenAnswer(invocation -> FactorModel.open(modelFile));
+    }
+
+    @Test
+    void testRebuildIndex_FindsClosestTracksAndSnapshots() {
+        similarTrackService.rebuildIndex();
+
+        assertEquals(List.of(3L, 2L), similarTrackService.findSimilarIds(1L, 2));
+        assertEquals(List.of(5L), similarTrackService.findSimilarIds(4L, 1));
+        assertTrue(Files.exists(tempDir.resolve("index.hnsw")));
+    }
+
+    @Test
+    void testLoadIndex_ServesSnapshot() {
+        similarTrackService.rebuildIndex();
+        SimilarTrackService restarted = new SimilarTrackService(matrixFactorizationService, genreRankingService, musicRepository);
+        ReflectionTestUtils.setField(restarted, "indexPath", tempDir.resolve("index.hnsw").toString());
+        ReflectionTestUtils.setField(restarted, "efSearch", 32);
+
+        restarted.loadIndex();
+
+        assertEquals(List.of(5L), restarted.findSimilarIds(4L, 1));
+    }
+
+    @Test
+    void testOnMusicChanged_PlacesNewTrackAtArtistCentroid() {
+        similarTrackService.rebuildIndex();
+        when(musicRepository.findIdsByArtistId(9L)).thenReturn(List.of(4L, 5L, 6L));
+
+        similarTrackService.onMusicChanged(new MusicChangedEvent(6L, 9L, MusicChangedEvent.ChangeType.CREATED));
+
+        List<Long> similar = similarTrackService.findSimilarIds(6L, 2);
+        assertTrue(similar.containsAll(List.of(4L, 5L)));
+    }
+
+    @Test
+    void testOnFactorModelUpdated_RebuildsOffTheCallerThread() throws Exception {
+        similarTrackService.rebuildIndex();
+
+        // The next model adds track 6 next to 4 and 5; its training thread must not wait for the index
+        Path nextModel = tempDir.resolve("next.bin");
+        FactorModel.write(nextModel, new long[]{100L}, new long[]{1L, 2L, 3L, 4L, 5L, 6L}, 2,
+                new float[]{1f, 0f},
+                new float[]{1f, 0.1f, 0.9f, 0.2f, 1f, 0f, 0f, 1f, 0.1f, 1f, 0.05f, 1f});
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return FactorModel.open(nextModel);
+        }).when(matrixFactorizationService).acquireModel();
+
+        similarTrackService.onFactorModelUpdated(new FactorModelUpdatedEvent(6));
+
+        // The previous index keeps serving while the rebuild waits
+        assertTrue(similarTrackService.findSimilarIds(6L, 1).isEmpty());
+        assertEquals(List.of(5L), similarTrackService.findSimilarIds(4L, 1));
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (similarTrackService.findSimilarIds(6L, 1).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(List.of(4L, 5L).contains(similarTrackService.findSimilarIds(6L, 1).get(0)));
+        similarTrackService.shutdown();
+    }
+
+    @Test
+    void testFindSimilarIds_UnknownTrack() {
+        similarTrackService.rebuildIndex();
+
+        assertTrue(similarTrackService.findSimilarIds(99L, 5).isEmpty());
+    }
+}
@@ -0,0 +1,185 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.model.entity.Music;
+import com.spotifyapp.model.entity.User;
+import com.spotifyapp.model.entity.UserTasteProfile;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.model.enums.UserRole;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.repository.UserTasteProfileRepository;
+import com.spotifyapp.util.TasteVector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TasteProfileServiceTest {
+
+    @Mock
+    private UserTasteProfileRepository userTasteProfileRepository;
+
+    @Mock
+    private ListeningHistoryRepository listeningHistoryRepository;
+
+    @InjectMocks
+    private TasteProfileService tasteProfileService;
+
+    private User listener;
+    private User artist;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tasteProfileService, "halfLifeDays", 30.0);
+        ReflectionTestUtils.setField(tasteProfileService, "backfillMonths", 3);
+
+        listener = User.builder().id(2L).username("listener").role(UserRole.LISTENER).build();
+        artist = User.builder().id(1L).username("artist").role(UserRole.ARTIST).build();
+    }
+
+    @Test
+    void testRecordListen_DecaysOldWeights() {
+        TasteVector stored = new TasteVector(Genre.values().length);
+        stored.addGenre(Genre.JAZZ.ordinal(), 2f);
+        UserTasteProfile profile = UserTasteProfile.builder()
+                .userId(2L)
+                .genreWeights(stored.encodeGenres())
+                .topArtists(stored.encodeArtists())
+                .decayedAt(LocalDateTime.now().minusDays(30))
+                .build();
+        Music music = Music.builder().id(5L).artist(artist).genre(Genre.ROCK).build();
+        when(userTasteProfileRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(profile));
+
+        tasteProfileService.recordListen(listener, music);
+
+        ArgumentCaptor<UserTasteProfile> captor = ArgumentCaptor.forClass(UserTasteProfile.class);
+        verify(userTasteProfileRepository).save(captor.capture());
+        TasteVector updated = TasteVector.decode(Genre.values().length,
+                captor.getValue().getGenreWeights(), captor.getValue().getTopArtists());
+        assertEquals(1.0f, updated.genreWeight(Genre.JAZZ.ordinal()), 0.01f);
+        assertEquals(1.0f, updated.genreWeight(Genre.ROCK.ordinal()), 0.001f);
+        assertArrayEquals(new long[]{1L}, updated.topArtists(5));
+    }
+
+    @Test
+    void testRecordListen_FirstListenBuildsOnHistory() {
+        LocalDateTime now = LocalDateTime.now();
+        UserTasteProfile[] inserted = new UserTasteProfile[1];
+        when(userTasteProfileRepository.findByIdForUpdate(2L)).thenAnswer(invocation -> Optional.ofNullable(inserted[0]));
+        when(listeningHistoryRepository.findListenSignalsByUser(any(), any())).thenReturn(List.of(
+                new Object[]{Genre.POP, 1L, now},
+                new Object[]{Genre.POP, 1L, now}
+        ));
+        when(userTasteProfileRepository.insertIfAbsent(eq(2L), any(), any(), any())).thenAnswer(invocation -> {
+            inserted[0] = UserTasteProfile.builder()
+                    .userId(2L)
+                    .genreWeights(invocation.getArgument(1))
+                    .topArtists(invocation.getArgument(2))
+                    .decayedAt(invocation.getArgument(3))
+                    .build();
+            return 1;
+        });
+        Music music = Music.builder().id(5L).artist(artist).genre(Genre.ROCK).build();
+
+        tasteProfileService.recordListen(listener, music);
+
+        ArgumentCaptor<UserTasteProfile> captor = ArgumentCaptor.forClass(UserTasteProfile.class);
+        verify(userTasteProfileRepository).save(captor.capture());
+        TasteVector updated = TasteVector.decode(Genre.values().length,
+                captor.getValue().getGenreWeights(), captor.getValue().getTopArtists());
+        assertEquals(2.0f, updated.genreWeight(Genre.POP.ordinal()), 0.01f);
+        assertEquals(1.0f, updated.genreWeight(Genre.ROCK.ordinal()), 0.01f);
+        assertArrayEquals(new int[]{Genre.POP.ordinal(), Genre.ROCK.ordinal()}, updated.topGenres(5));
+    }
+
+    @Test
+    void testRecordListen_ConcurrentFirstListenKeepsWinningRow() {
+        // The other request inserted the profile between our lookup and our insert
+        TasteVector stored = new TasteVector(Genre.values().length);
+        stored.addGenre(Genre.JAZZ.ordinal(), 1f);
+        UserTasteProfile winner = UserTasteProfile.builder()
+                .userId(2L)
+                .genreWeights(stored.encodeGenres())
+                .topArtists(stored.encodeArtists())
+                .decayedAt(LocalDateTime.now())
+                .build();
+        when(userTasteProfileRepository.findByIdForUpdate(2L))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(listeningHistoryRepository.findListenSignalsByUser(any(), any())).thenReturn(Collections.emptyList());
+        when(userTasteProfileRepository.insertIfAbsent(eq(2L), any(), any(), any())).thenReturn(0);
+        Music music = Music.builder().id(5L).artist(artist).genre(Genre.ROCK).build();
+
+        tasteProfileService.recordListen(listener, music);
+
+        verify(userTasteProfileRepository).save(winner);
+        TasteVector updated = TasteVector.decode(Genre.values().length,
+                winner.getGenreWeights(), winner.getTopArtists());
+        assertEquals(1.0f, updated.genreWeight(Genre.JAZZ.ordinal()), 0.01f);
+        assertEquals(1.0f, updated.genreWeight(Genre.ROCK.ordinal()), 0.01f);
+    }
+
+    @Test
+    void testGetTopGenres_BackfillsFromHistory() {
+        LocalDateTime now = LocalDateTime.now();
+        when(userTasteProfileRepository.findById(2L)).thenReturn(Optional.empty());
+        when(listeningHistoryRepository.findListenSignalsByUser(any(), any())).thenReturn(List.of(
+                new Object[]{Genre.POP, 1L, now},
+                new Object[]{Genre.POP, 1L, now},
+                new Object[]{Genre.ROCK, 1L, now}
+        ));
+
+        List<Genre> genres = tasteProfileService.getTopGenres(listener, 3);
+
+        assertEquals(List.of(Genre.POP, Genre.ROCK), genres);
+        verify(userTasteProfileRepository, times(1)).insertIfAbsent(eq(2L), any(), any(), any());
+    }
+
+    @Test
+    void testGetTopGenres_NoHistory() {
+        when(userTasteProfileRepository.findById(2L)).thenReturn(Optional.empty());
+        when(listeningHistoryRepository.findListenSignalsByUser(any(), any())).thenReturn(Collections.emptyList());
+
+        assertTrue(tasteProfileService.getTopGenres(listener, 3).isEmpty());
+        verify(userTasteProfileRepository, never()).save(any());
+        verify(userTasteProfileRepository, never()).insertIfAbsent(any(), any(), any(), any());
+    }
+
+    @Test
+    void testSeedGenres_KeepsPickOrder() {
+        when(userTasteProfileRepository.existsById(2L)).thenReturn(false);
+
+        tasteProfileService.seedGenres(2L, List.of(Genre.JAZZ, Genre.ROCK, Genre.JAZZ));
+
+        ArgumentCaptor<UserTasteProfile> captor = ArgumentCaptor.forClass(UserTasteProfile.class);
+        verify(userTasteProfileRepository).save(captor.capture());
+        TasteVector seeded = TasteVector.decode(Genre.values().length,
+                captor.getValue().getGenreWeights(), captor.getValue().getTopArtists());
+        assertArrayEquals(new int[]{Genre.JAZZ.ordinal(), Genre.ROCK.ordinal()}, seeded.topGenres(5));
+        // A single real listen outweighs any seeded genre
+        assertTrue(seeded.genreWeight(Genre.JAZZ.ordinal()) < 1f);
+    }
+
+    @Test
+    void testSeedGenres_ExistingProfileUntouched() {
+        when(userTasteProfileRepository.existsById(2L)).thenReturn(true);
+
+        tasteProfileService.seedGenres(2L, List.of(Genre.POP));
+
+        verify(userTasteProfileRepository, never()).save(any());
+    }
+}
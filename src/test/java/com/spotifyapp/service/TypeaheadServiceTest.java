@@ -0,0 +1,72 @@
+package com.spotifyapp.service;
+
+import com.spotifyapp.dto.music.SuggestionResponse;
+import com.spotifyapp.model.enums.Genre;
+import com.spotifyapp.repository.ListeningHistoryRepository;
+import com.spotifyapp.repository.MusicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TypeaheadServiceTest {
+
+    @Mock
+    private MusicRepository musicRepository;
+
+    @Mock
+    private ListeningHistoryRepository listeningHistoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TypeaheadService typeaheadService;
+
+    @BeforeEach
+    void setUp() {
+        typeaheadService = new TypeaheadService(musicRepository, listeningHistoryRepository, transactionManager);
+        ReflectionTestUtils.setField(typeaheadService, "windowDays", 30);
+    }
+
+    @Test
+    void testSuggest_EmptyBeforeRebuild() {
+        assertTrue(typeaheadService.suggest("moon", 5).isEmpty());
+    }
+
+    @Test
+    void testRebuildIndex_WeighsNamesByPlays() {
+        when(listeningHistoryRepository.findListenCountsByMusicSince(any())).thenReturn(List.of(
+                new Object[]{Genre.POP, 1L, 3L, 10L},
+                new Object[]{Genre.POP, 2L, 9L, 11L},
+                new Object[]{Genre.POP, 3L, 4L, 10L}));
+        when(musicRepository.streamCompletionRows()).thenReturn(Stream.of(
+                new Object[]{1L, "Moon River", 10L, "moonie", 100L, "Moon Tales"},
+                new Object[]{2L, "Moonlight", 11L, "sky", null, null},
+                new Object[]{3L, "Blue Moon", 10L, "moonie", null, null}));
+
+        typeaheadService.rebuildIndex();
+
+        List<SuggestionResponse> suggestions = typeaheadService.suggest("moo", 10);
+
+        // The artist carries 3 + 4 plays, the album only those of Moon River
+        assertEquals(List.of("TRACK", "ARTIST", "TRACK", "TRACK", "ALBUM"),
+                suggestions.stream().map(SuggestionResponse::getType).collect(Collectors.toList()));
+        assertEquals(List.of(2L, 10L, 3L, 1L, 100L),
+                suggestions.stream().map(SuggestionResponse::getId).collect(Collectors.toList()));
+        assertEquals("moonie", suggestions.get(1).getText());
+        assertEquals("moonie", suggestions.get(4).getDetail());
+        assertEquals("Moon River", typeaheadService.suggest("moon r", 10).get(0).getText());
+    }
+}
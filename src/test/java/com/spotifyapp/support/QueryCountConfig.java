@@ -0,0 +1,19 @@
+package com.spotifyapp.support;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+@TestConfiguration(proxyBeanMethods = false)
+public class QueryCountConfig {
+
+    // Static so that the post-processor is registered before the DataSource is created
+    @Bean
+    static StatementCountingPostProcessor statementCountingPostProcessor(StatementCounter statementCounter) {
+        return new StatementCountingPostProcessor(statementCounter);
+    }
+
+    @Bean
+    static StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+}
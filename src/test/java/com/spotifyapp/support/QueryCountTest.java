@@ -0,0 +1,25 @@
+package com.spotifyapp.support;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JPA slice test on an embedded H2 database with a {@link StatementCounter} bean for
+ * statement budgets. Services under test are added with {@code @Import}, and their other
+ * collaborators with {@code @MockitoBean}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(QueryCountConfig.class)
+public @interface QueryCountTest {
+}
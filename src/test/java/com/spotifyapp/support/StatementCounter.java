@@ -0,0 +1,57 @@
+package com.spotifyapp.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Records the SQL statements that go through the proxied {@code DataSource} and checks
+ * calls against a statement budget, e.g.
+ * {@code counter.assertAtMost(2, "getPlaylistById", () -> playlistService.getPlaylistById(id))}.
+ */
+public class StatementCounter {
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * A call under test; checked exceptions are allowed so that MockMvc calls fit too.
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T run() throws Exception;
+    }
+
+    void record(String sql) {
+        statements.add(sql);
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    public int count() {
+        return statements.size();
+    }
+
+    public List<String> statements() {
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    /**
+     * Runs the call and fails, listing the statements, if it issued more than {@code budget}.
+     */
+    public <T> T assertAtMost(int budget, String operation, Call<T> call) throws Exception {
+        reset();
+        T result = call.run();
+        List<String> issued = statements();
+        if (issued.size() > budget) {
+            fail(operation + " issued " + issued.size() + " statements, budget is " + budget + ":\n  "
+                    + String.join("\n  ", issued));
+        }
+        return result;
+    }
+}
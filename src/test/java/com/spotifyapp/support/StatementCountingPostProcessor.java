@@ -0,0 +1,85 @@
+package com.spotifyapp.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Wraps every {@link DataSource} bean in a JDK proxy that reports each prepared or
+ * executed statement to the {@link StatementCounter}. A prepared statement counts once
+ * however many batch rows it carries.
+ */
+public class StatementCountingPostProcessor implements BeanPostProcessor {
+
+    private final StatementCounter counter;
+
+    public StatementCountingPostProcessor(StatementCounter counter) {
+        this.counter = counter;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof Counting)) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? connection(connection) : result;
+            });
+        }
+        return bean;
+    }
+
+    private Connection connection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            String name = method.getName();
+            if (name.equals("prepareStatement") || name.equals("prepareCall")) {
+                counter.record((String) args[0]);
+            }
+            Object result = invoke(target, method, args);
+            return name.equals("createStatement") ? statement((Statement) result) : result;
+        });
+    }
+
+    // Plain statements carry their SQL at execution time
+    private Statement statement(Statement statement) {
+        return proxy(Statement.class, statement, (target, method, args) -> {
+            if (method.getName().startsWith("execute") && args != null && args.length > 0 && args[0] instanceof String sql) {
+                counter.record(sql);
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    // Marks our own proxies so that a DataSource is never wrapped twice
+    private interface Counting {
+    }
+
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                return method.invoke(target, args);
+            }
+            return handler.handle(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(Counting.class.getClassLoader(), new Class<?>[]{type, Counting.class},
+                invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
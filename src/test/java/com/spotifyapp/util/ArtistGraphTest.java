@@ -0,0 +1,46 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArtistGraphTest {
+
+    @Test
+    void testBuild_WeightsCountSharedListeners() {
+        ArtistGraph graph = ArtistGraph.builder(100)
+                .add(1L, 10L).add(1L, 20L).add(1L, 30L)
+                .add(2L, 10L).add(2L, 20L)
+                .add(3L, 40L)
+                .build(1);
+
+        assertEquals(4, graph.size());
+        assertArrayEquals(new long[]{20L, 30L}, graph.neighbors(10L, 5));
+        assertArrayEquals(new long[]{10L}, graph.neighbors(20L, 1));
+        assertEquals(0, graph.neighbors(40L, 5).length);
+        assertEquals(0, graph.neighbors(99L, 5).length);
+
+        int index = graph.indexOf(10L);
+        assertEquals(2, graph.weightAt(graph.neighborStart(index)));
+    }
+
+    @Test
+    void testBuild_DropsWeakEdges() {
+        ArtistGraph graph = ArtistGraph.builder(100)
+                .add(1L, 10L).add(1L, 20L).add(1L, 30L)
+                .add(2L, 10L).add(2L, 20L)
+                .build(2);
+
+        assertArrayEquals(new long[]{20L}, graph.neighbors(10L, 5));
+        assertEquals(0, graph.neighbors(30L, 5).length);
+    }
+
+    @Test
+    void testBuild_CapsArtistsPerListener() {
+        ArtistGraph graph = ArtistGraph.builder(2)
+                .add(1L, 10L).add(1L, 20L).add(1L, 30L)
+                .build(1);
+
+        assertEquals(2, graph.edges());
+    }
+}
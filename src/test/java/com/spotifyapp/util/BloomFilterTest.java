@@ -0,0 +1,81 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void testMightContain_NoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+        for (long id = 1; id <= 1000; id++) {
+            filter.put(id);
+        }
+
+        for (long id = 1; id <= 1000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    void testMightContain_FalsePositiveRateNearTarget() {
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+        for (long id = 1; id <= 1000; id++) {
+            filter.put(id);
+        }
+
+        int falsePositives = 0;
+        for (long id = 100_000; id < 110_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testSerialization_RoundTrip() {
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+        filter.put(42L);
+
+        BloomFilter restored = BloomFilter.fromBytes(filter.toBytes());
+
+        assertTrue(restored.mightContain(42L));
+        assertEquals(filter.bitSize(), restored.bitSize());
+    }
+
+    @Test
+    void testPut_ReportsNewKeys() {
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+
+        assertTrue(filter.put(7L));
+        assertFalse(filter.put(7L));
+    }
+
+    @Test
+    void testFromBytes_RejectsCorruptHeader() {
+        byte[] bytes = BloomFilter.create(100, 0.01).toBytes();
+
+        byte[] tooManyHashes = bytes.clone();
+        ByteBuffer.wrap(tooManyHashes).putInt(0, Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.fromBytes(tooManyHashes));
+
+        byte[] wrongSize = bytes.clone();
+        ByteBuffer.wrap(wrongSize).putInt(Integer.BYTES, 1 << 20);
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.fromBytes(wrongSize));
+
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.fromBytes(new byte[4]));
+    }
+
+    @Test
+    void testCreate_CapsHashCount() {
+        BloomFilter filter = BloomFilter.create(10, 1e-12);
+
+        BloomFilter restored = BloomFilter.fromBytes(filter.toBytes());
+
+        assertEquals(filter.bitSize(), restored.bitSize());
+    }
+}
@@ -0,0 +1,110 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletionIndexTest {
+
+    private static List<Long> ids(List<CompletionIndex.Completion> completions) {
+        return completions.stream().map(CompletionIndex.Completion::id).collect(Collectors.toList());
+    }
+
+    @Test
+    void testComplete_MatchesWordStartsByWeight() {
+        CompletionIndex index = CompletionIndex.builder()
+                .add(CompletionIndex.Kind.TRACK, 1, "Blue Moon River", "frank", 5)
+                .add(CompletionIndex.Kind.TRACK, 2, "Moonlight", "frank", 10)
+                .add(CompletionIndex.Kind.ARTIST, 3, "Moonbeam", null, 1)
+                .add(CompletionIndex.Kind.TRACK, 4, "Honeymoon", "andy", 100)
+                .build();
+
+        assertEquals(List.of(2L, 1L, 3L), ids(index.complete("moon", 10)));
+        assertEquals(List.of(1L), ids(index.complete("Moon  R", 10)));
+        assertEquals(List.of(2L, 1L), ids(index.complete("moon", 2)));
+        assertTrue(index.complete("oon", 10).isEmpty());
+    }
+
+    @Test
+    void testComplete_IgnoresCaseAndAccentsAndReturnsEachNameOnce() {
+        CompletionIndex index = CompletionIndex.builder()
+                .add(CompletionIndex.Kind.ALBUM, 7, "Café del Mar", "various", 3)
+                .add(CompletionIndex.Kind.TRACK, 8, "Love, Love, Love", "band", 1)
+                .build();
+
+        CompletionIndex.Completion cafe = index.complete("CAFE", 5).get(0);
+        assertEquals(CompletionIndex.Kind.ALBUM, cafe.kind());
+        assertEquals("Café del Mar", cafe.text());
+        assertEquals("various", cafe.detail());
+        assertEquals(List.of(8L), ids(index.complete("love", 5)));
+    }
+
+    @Test
+    void testComplete_EmptyInputs() {
+        CompletionIndex index = CompletionIndex.builder()
+                .add(CompletionIndex.Kind.TRACK, 1, "Song", null, 1)
+                .add(CompletionIndex.Kind.TRACK, 2, "!!!", null, 1)
+                .build();
+
+        assertEquals(1, index.size());
+        assertTrue(index.complete("", 5).isEmpty());
+        assertTrue(index.complete("  ", 5).isEmpty());
+        assertTrue(index.complete("song", 0).isEmpty());
+        assertTrue(CompletionIndex.empty().complete("song", 5).isEmpty());
+    }
+
+    @Test
+    void testComplete_MatchesBruteForce() {
+        Random random = new Random(3);
+        String[] words = {"love", "lost", "night", "nightfall", "river", "rain", "blue", "blues"};
+        String[] names = new String[2000];
+        float[] weights = new float[names.length];
+        CompletionIndex.Builder builder = CompletionIndex.builder();
+        for (int i = 0; i < names.length; i++) {
+            names[i] = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            weights[i] = random.nextInt(1000);
+            builder.add(CompletionIndex.Kind.TRACK, i, names[i], null, weights[i]);
+        }
+        CompletionIndex index = builder.build();
+
+        for (String prefix : List.of("l", "lo", "night", "nightf", "blue", "blues", "r")) {
+            List<CompletionIndex.Completion> completions = index.complete(prefix, 25);
+            Set<Long> seen = new HashSet<>();
+            float previous = Float.MAX_VALUE;
+            float lowest = Float.MAX_VALUE;
+            for (CompletionIndex.Completion completion : completions) {
+                int i = (int) completion.id();
+                assertTrue(seen.add(completion.id()));
+                assertTrue(matches(names[i], prefix));
+                assertTrue(weights[i] <= previous);
+                previous = weights[i];
+                lowest = Math.min(lowest, weights[i]);
+            }
+            long expected = 0;
+            for (int i = 0; i < names.length; i++) {
+                if (matches(names[i], prefix)) {
+                    expected++;
+                    if (!seen.contains((long) i)) {
+                        assertTrue(weights[i] <= lowest, prefix);
+                    }
+                }
+            }
+            assertEquals(Math.min(expected, 25), completions.size());
+        }
+    }
+
+    private static boolean matches(String name, String prefix) {
+        for (String word : name.split(" ")) {
+            if (word.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return name.startsWith(prefix);
+    }
+}
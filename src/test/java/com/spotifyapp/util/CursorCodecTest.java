@@ -0,0 +1,52 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void testRoundTrip_KeepsValueTypes() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000));
+        keys.put("releaseDate", LocalDate.of(1999, 12, 31));
+        keys.put("title", "Ünïcode / title?&=");
+        keys.put("durationSeconds", 215);
+        keys.put("id", 42L);
+
+        Map<String, Object> decoded = CursorCodec.decode(CursorCodec.encode(keys));
+
+        assertEquals(keys, decoded);
+        assertEquals(Long.class, decoded.get("id").getClass());
+        assertEquals(Integer.class, decoded.get("durationSeconds").getClass());
+    }
+
+    @Test
+    void testEncode_IsUrlSafe() {
+        String cursor = CursorCodec.encode(Map.of("title", "a+b/c?d=e&f", "id", Long.MAX_VALUE));
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    void testEncode_RejectsUnsupportedValue() {
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.encode(Map.of("score", 1.5)));
+    }
+
+    @Test
+    void testDecode_RejectsMalformedCursor() {
+        String valid = CursorCodec.encode(Map.of("id", 7L));
+
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(valid.substring(0, valid.length() - 3)));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(valid + "AAAA"));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("AgA"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetColumnsTest {
+
+    private FacetColumns sample() {
+        FacetColumns columns = new FacetColumns(2);
+        columns.set(0, new FacetColumns.Values(0, 90, 1999));
+        columns.set(1, new FacetColumns.Values(2, 200, 2024));
+        columns.set(2, new FacetColumns.Values(2, 500, 1999));
+        columns.set(3, FacetColumns.Values.NONE);
+        return columns;
+    }
+
+    @Test
+    void testSelect_UnionWithinFieldIntersectionAcross() {
+        FacetColumns columns = sample();
+
+        assertNull(columns.select(FacetColumns.Filter.NONE));
+        assertEquals(bits(0, 1, 2), columns.select(new FacetColumns.Filter(Set.of(0, 2), Set.of(), Set.of())));
+        assertEquals(bits(2), columns.select(new FacetColumns.Filter(Set.of(2), Set.of(), Set.of(1999))));
+        assertEquals(bits(), columns.select(new FacetColumns.Filter(Set.of(7), Set.of(), Set.of())));
+
+        columns.clear(2);
+        assertEquals(bits(1), columns.select(new FacetColumns.Filter(Set.of(2), Set.of(), Set.of())));
+    }
+
+    @Test
+    void testCounter_SkipsUnknownValues() {
+        FacetColumns columns = sample();
+        FacetColumns.Counter counter = columns.counter();
+        for (int ordinal = 0; ordinal < 4; ordinal++) {
+            counter.add(ordinal);
+        }
+
+        FacetColumns.Facets facets = counter.facets();
+        assertEquals(Map.of(0, 1, 2, 2), facets.genres());
+        assertEquals(Map.of(0, 1, 2, 1, 5, 1), facets.durationBuckets());
+        assertEquals(List.of(2024, 1999), List.copyOf(facets.years().keySet()));
+        assertEquals(Map.of(2024, 1, 1999, 2), facets.years());
+    }
+
+    @Test
+    void testDurationBuckets_RoundTripLabels() {
+        assertEquals(0, FacetColumns.durationBucket(119));
+        assertEquals(1, FacetColumns.durationBucket(120));
+        assertEquals(FacetColumns.DURATION_BUCKETS - 1, FacetColumns.durationBucket(3600));
+        assertEquals("3-4", FacetColumns.durationLabel(2));
+        assertEquals("7+", FacetColumns.durationLabel(5));
+        for (int bucket = 0; bucket < FacetColumns.DURATION_BUCKETS; bucket++) {
+            assertEquals(bucket, FacetColumns.durationBucket(FacetColumns.durationLabel(bucket)));
+        }
+        assertEquals(FacetColumns.UNKNOWN, FacetColumns.durationBucket("3-5"));
+    }
+
+    private static BitSet bits(int... ordinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal : ordinals) {
+            bits.set(ordinal);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,83 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FactorModelTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecommend_MatchesBruteForceScoring() throws IOException {
+        int factors = 8;
+        int items = 600; // spans several blocks, the last one partial
+        Random random = new Random(1);
+        long[] userIds = {10L, 20L};
+        long[] itemIds = new long[items];
+        float[] itemFactors = new float[items * factors];
+        for (int i = 0; i < items; i++) {
+            itemIds[i] = 100L + i;
+        }
+        for (int i = 0; i < itemFactors.length; i++) {
+            itemFactors[i] = random.nextFloat() - 0.5f;
+        }
+        float[] userFactors = new float[2 * factors];
+        for (int i = 0; i < userFactors.length; i++) {
+            userFactors[i] = random.nextFloat() - 0.5f;
+        }
+
+        Path file = tempDir.resolve("model.bin");
+        FactorModel.write(file, userIds, itemIds, factors, userFactors, itemFactors);
+        FactorModel model = FactorModel.open(file);
+
+        int best = 0;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < items; i++) {
+            float score = 0f;
+            for (int f = 0; f < factors; f++) {
+                score += userFactors[factors + f] * itemFactors[i * factors + f];
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+
+        long[] recommended = model.recommend(20L, 5);
+        assertEquals(5, recommended.length);
+        assertEquals(itemIds[best], recommended[0]);
+        assertEquals(items, model.itemCount());
+        assertArrayEquals(new float[]{itemFactors[599 * factors], itemFactors[599 * factors + 1]},
+                Arrays.copyOf(model.itemVector(599), 2));
+    }
+
+    @Test
+    void testRecommend_UnknownUser() throws IOException {
+        Path file = tempDir.resolve("model.bin");
+        FactorModel.write(file, new long[]{1L}, new long[]{5L}, 2, new float[]{1f, 0f}, new float[]{1f, 1f});
+
+        assertEquals(0, FactorModel.open(file).recommend(2L, 10).length);
+    }
+
+    @Test
+    void testRelease_LastReferenceClosesModel() throws IOException {
+        Path file = tempDir.resolve("model.bin");
+        FactorModel.write(file, new long[]{1L}, new long[]{2L}, 1, new float[]{1f}, new float[]{1f});
+        FactorModel model = FactorModel.open(file);
+
+        assertTrue(model.retain());
+        model.release();
+        assertArrayEquals(new long[]{2L}, model.recommend(1L, 1));
+
+        model.release();
+        assertFalse(model.retain());
+    }
+}
@@ -0,0 +1,111 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSearch_FindsNearestByCosine() {
+        HnswIndex index = randomIndex(2000, 16, new Random(3));
+        float[] query = index.vector(42L);
+
+        long[] nearest = index.search(query, 5, 64);
+
+        assertEquals(5, nearest.length);
+        assertEquals(42L, nearest[0]);
+    }
+
+    @Test
+    void testSearch_RecallAgainstBruteForce() {
+        Random random = new Random(5);
+        int n = 3000;
+        int d = 16;
+        float[][] vectors = new float[n][d];
+        HnswIndex index = new HnswIndex(d, 16, 100, 1L);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < d; j++) {
+                vectors[i][j] = (float) random.nextGaussian();
+            }
+            index.add(i, vectors[i]);
+        }
+
+        int hits = 0;
+        for (int q = 0; q < 50; q++) {
+            float[] query = vectors[random.nextInt(n)].clone();
+            long exact = bruteForceNearest(vectors, query);
+            query[0] += 0.01f;
+            long[] approximate = index.search(query, 1, 64);
+            if (approximate[0] == exact) {
+                hits++;
+            }
+        }
+        assertTrue(hits >= 48, "recall@1 hits: " + hits);
+    }
+
+    @Test
+    void testAdd_RejectsDuplicatesAndZeroVectors() {
+        HnswIndex index = new HnswIndex(2, 8, 50, 1L);
+
+        assertTrue(index.add(1L, new float[]{1f, 0f}));
+        assertFalse(index.add(1L, new float[]{0f, 1f}));
+        assertFalse(index.add(2L, new float[]{0f, 0f}));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testSnapshot_RoundTripAndIncrementalInsert() throws IOException {
+        HnswIndex index = randomIndex(500, 8, new Random(9));
+        Path file = tempDir.resolve("index.hnsw");
+        index.writeTo(file);
+
+        HnswIndex reloaded = HnswIndex.readFrom(file, 1L);
+
+        assertEquals(500, reloaded.size());
+        float[] query = index.vector(7L);
+        assertArrayEquals(index.search(query, 10, 64), reloaded.search(query, 10, 64));
+
+        assertTrue(reloaded.add(1000L, query));
+        assertTrue(reloaded.contains(1000L));
+    }
+
+    private static HnswIndex randomIndex(int n, int d, Random random) {
+        HnswIndex index = new HnswIndex(d, 16, 100, 1L);
+        for (long id = 0; id < n; id++) {
+            float[] vector = new float[d];
+            for (int j = 0; j < d; j++) {
+                vector[j] = (float) random.nextGaussian();
+            }
+            index.add(id, vector);
+        }
+        return index;
+    }
+
+    private static long bruteForceNearest(float[][] vectors, float[] query) {
+        long best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < vectors.length; i++) {
+            double dot = 0;
+            double norm = 0;
+            for (int j = 0; j < query.length; j++) {
+                dot += vectors[i][j] * query[j];
+                norm += vectors[i][j] * vectors[i][j];
+            }
+            double score = dot / Math.sqrt(norm);
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+}
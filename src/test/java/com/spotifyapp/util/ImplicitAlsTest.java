@@ -0,0 +1,44 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImplicitAlsTest {
+
+    @Test
+    void testTrain_PrefersItemsFromSameCluster() {
+        // Users 0-3 listen to items 0-2, users 4-7 to items 3-5; user 0 never played item 2
+        int[] rows = new int[23];
+        int[] columns = new int[23];
+        float[] values = new float[23];
+        int count = 0;
+        for (int user = 0; user < 8; user++) {
+            int first = user < 4 ? 0 : 3;
+            for (int item = first; item < first + 3; item++) {
+                if (user == 0 && item == 2) {
+                    continue;
+                }
+                rows[count] = user;
+                columns[count] = item;
+                values[count++] = 1f;
+            }
+        }
+        SparseMatrix matrix = SparseMatrix.fromTriples(8, 6, rows, columns, values, count);
+
+        ImplicitAls.Factors factors = new ImplicitAls(4, 0.1, 10, 10, 2).train(matrix, 3L);
+
+        float sameCluster = dot(factors, 0, 2);
+        float otherCluster = dot(factors, 0, 4);
+        assertTrue(sameCluster > otherCluster, sameCluster + " <= " + otherCluster);
+    }
+
+    private static float dot(ImplicitAls.Factors factors, int user, int item) {
+        int k = factors.factors();
+        float score = 0f;
+        for (int f = 0; f < k; f++) {
+            score += factors.userFactors()[user * k + f] * factors.itemFactors()[item * k + f];
+        }
+        return score;
+    }
+}
@@ -0,0 +1,35 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageRankTest {
+
+    @Test
+    void testCompute_HubRanksHighest() {
+        ArtistGraph.Builder builder = ArtistGraph.builder(100);
+        for (long listener = 1; listener <= 5; listener++) {
+            builder.add(listener, 10L).add(listener, 20L + listener);
+        }
+        builder.add(6L, 99L);
+        ArtistGraph graph = builder.build(1);
+
+        double[] scores = PageRank.compute(graph, 0.85, 100, 1e-9, 2);
+
+        double sum = 0;
+        int hub = graph.indexOf(10L);
+        for (int i = 0; i < scores.length; i++) {
+            sum += scores[i];
+            if (i != hub) {
+                assertTrue(scores[hub] > scores[i]);
+            }
+        }
+        assertEquals(1.0, sum, 1e-6);
+    }
+
+    @Test
+    void testCompute_EmptyGraph() {
+        assertEquals(0, PageRank.compute(ArtistGraph.empty(), 0.85, 10, 1e-6, 1).length);
+    }
+}
@@ -0,0 +1,49 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostingListTest {
+
+    @Test
+    void testRoundTrip_AcrossBlocks() {
+        int[] values = IntStream.range(0, 1000).map(i -> i * 7 + (i % 3)).toArray();
+
+        PostingList list = PostingList.of(values, values.length);
+
+        assertEquals(1000, list.size());
+        assertArrayEquals(values, list.toArray());
+        assertTrue(list.sizeInBytes() < values.length * Integer.BYTES);
+    }
+
+    @Test
+    void testAdvance_SkipsBlocks() {
+        int[] values = IntStream.range(0, 1000).map(i -> i * 10).toArray();
+        PostingList.Cursor cursor = PostingList.of(values, values.length).cursor();
+
+        assertEquals(0, cursor.advance(0));
+        assertEquals(5000, cursor.advance(4991));
+        assertEquals(5000, cursor.advance(5000));
+        assertEquals(5010, cursor.next());
+        assertEquals(9990, cursor.advance(9990));
+        assertEquals(PostingList.NO_MORE, cursor.advance(9991));
+    }
+
+    @Test
+    void testIntersect() {
+        PostingList evens = of(IntStream.range(0, 600).map(i -> i * 2).toArray());
+        PostingList threes = of(IntStream.range(0, 400).map(i -> i * 3).toArray());
+        PostingList few = of(new int[]{6, 7, 600, 1194, 5000});
+
+        assertArrayEquals(new int[]{6, 600, 1194}, PostingList.intersect(List.of(evens, threes, few)));
+        assertEquals(0, PostingList.intersect(List.of(evens, PostingList.empty())).length);
+    }
+
+    private static PostingList of(int[] values) {
+        return PostingList.of(values, values.length);
+    }
+}
@@ -0,0 +1,67 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadioCursorTest {
+
+    private static final byte[] KEY = "radio-secret".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testEncodeDecode_RoundTrip() {
+        BloomFilter played = BloomFilter.create(200, 0.02);
+        played.put(5L);
+
+        String token = new RadioCursor(5L, 3, 9L, 0, 123L, played, BloomFilter.create(200, 0.02)).encode(KEY);
+        RadioCursor decoded = RadioCursor.decode(token, 1024, KEY).next();
+
+        assertEquals(5L, decoded.seedMusicId());
+        assertEquals(3, decoded.genreOrdinal());
+        assertEquals(9L, decoded.artistId());
+        assertEquals(1, decoded.page());
+        assertEquals(123L, decoded.randomSeed());
+        assertTrue(decoded.played().mightContain(5L));
+        assertFalse(decoded.earlier().mightContain(5L));
+    }
+
+    @Test
+    void testRotate_KeepsCurrentFilterAsEarlier() {
+        BloomFilter played = BloomFilter.create(200, 0.02);
+        played.put(5L);
+        RadioCursor rotated = new RadioCursor(5L, 3, 9L, 0, 123L, played, BloomFilter.create(200, 0.02))
+                .rotate(BloomFilter.create(200, 0.02));
+
+        RadioCursor decoded = RadioCursor.decode(rotated.encode(KEY), 1024, KEY);
+
+        assertFalse(decoded.played().mightContain(5L));
+        assertTrue(decoded.earlier().mightContain(5L));
+    }
+
+    @Test
+    void testDecode_RejectsMalformedTokens() {
+        String token = new RadioCursor(5L, 3, 9L, 0, 123L, BloomFilter.create(200, 0.02), BloomFilter.create(200, 0.02)).encode(KEY);
+
+        assertThrows(IllegalArgumentException.class, () -> RadioCursor.decode("!!!", 1024, KEY));
+        assertThrows(IllegalArgumentException.class, () -> RadioCursor.decode("abc", 1024, KEY));
+        assertThrows(IllegalArgumentException.class, () -> RadioCursor.decode(token.substring(0, token.length() - 8), 1024, KEY));
+        assertThrows(IllegalArgumentException.class, () -> RadioCursor.decode(token, 16, KEY));
+    }
+
+    @Test
+    void testDecode_RejectsTamperedTokens() {
+        String token = new RadioCursor(5L, 3, 9L, 0, 123L, BloomFilter.create(200, 0.02), BloomFilter.create(200, 0.02)).encode(KEY);
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        // Ask for an endless number of hashes per lookup
+        ByteBuffer.wrap(bytes).putInt(1 + 8 + 4 + 8 + 4 + 8, Integer.MAX_VALUE);
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        assertThrows(IllegalArgumentException.class, () -> RadioCursor.decode(tampered, 1024, KEY));
+        assertThrows(IllegalArgumentException.class,
+                () -> RadioCursor.decode(token, 1024, "other".getBytes(StandardCharsets.UTF_8)));
+    }
+}
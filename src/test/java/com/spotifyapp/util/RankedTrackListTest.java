@@ -0,0 +1,53 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedTrackListTest {
+
+    private RankedTrackList ranking(int size) {
+        RankedTrackList.Builder builder = RankedTrackList.builder();
+        for (int i = 0; i < size; i++) {
+            builder.add(i + 1, size - i);
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testTop_ReturnsMostPopularFirst() {
+        RankedTrackList ranking = ranking(50);
+
+        assertArrayEquals(new long[]{1, 2, 3}, ranking.top(3));
+        assertEquals(50, ranking.top(100).length);
+    }
+
+    @Test
+    void testMix_StartsWithHeadAndHasNoDuplicates() {
+        RankedTrackList ranking = ranking(100);
+
+        long[] mix = ranking.mix(20, 5, new Random(42));
+
+        assertEquals(20, mix.length);
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5}, Arrays.copyOf(mix, 5));
+        assertEquals(20, Arrays.stream(mix).distinct().count());
+    }
+
+    @Test
+    void testMix_SmallRankingReturnsEverything() {
+        RankedTrackList ranking = ranking(3);
+
+        long[] mix = ranking.mix(20, 5, new Random(1));
+
+        assertEquals(3, mix.length);
+    }
+
+    @Test
+    void testEmpty() {
+        assertTrue(RankedTrackList.builder().build().isEmpty());
+        assertEquals(0, RankedTrackList.empty().mix(20, 5, new Random()).length);
+    }
+}
@@ -0,0 +1,67 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpellingDictionaryTest {
+
+    @Test
+    void testCorrections_ClosestThenMostUsed() {
+        SpellingDictionary dictionary = SpellingDictionary.builder(100)
+                .add("beatles").add("beatles").add("beats").add("beast").add("metallica")
+                .build();
+
+        assertEquals(List.of("beatles", "beats"), dictionary.corrections("beatls", 2, 5));
+        assertEquals(List.of("beats"), dictionary.corrections("baets", 1, 5));
+        assertEquals(List.of("beats", "beast"), dictionary.corrections("baets", 2, 5));
+        assertEquals(List.of("metallica"), dictionary.corrections("meatlica", 2, 5));
+        assertEquals(List.of("metallica"), dictionary.corrections("metalicca", 2, 5));
+        assertTrue(dictionary.corrections("metal", 2, 5).isEmpty());
+        assertTrue(dictionary.corrections("beats", 2, 5).isEmpty());
+    }
+
+    @Test
+    void testAddAndRemove_CountReferences() {
+        SpellingDictionary dictionary = SpellingDictionary.builder(100).add("river").build();
+
+        dictionary.add("sunset");
+        dictionary.add("sunset");
+        dictionary.remove("sunset");
+        assertEquals(List.of("sunset"), dictionary.corrections("sunsett", 1, 5));
+
+        dictionary.remove("sunset");
+        dictionary.remove("river");
+        assertEquals(0, dictionary.size());
+        assertTrue(dictionary.corrections("sunsett", 1, 5).isEmpty());
+
+        dictionary.add("river");
+        assertEquals(List.of("river"), dictionary.corrections("rivr", 1, 5));
+    }
+
+    @Test
+    void testMaxTerms_KeepsMostUsed() {
+        SpellingDictionary dictionary = SpellingDictionary.builder(2)
+                .add("alpha").add("alpha").add("bravo").add("bravo").add("charlie")
+                .add("abc")
+                .build();
+
+        assertEquals(2, dictionary.size());
+        assertFalse(dictionary.contains("charlie"));
+        assertFalse(dictionary.contains("abc"));
+
+        dictionary.add("delta");
+        assertFalse(dictionary.contains("delta"));
+    }
+
+    @Test
+    void testDistance_CountsTranspositionsAsOneEdit() {
+        assertEquals(0, SpellingDictionary.distance("moon", "moon", 2));
+        assertEquals(1, SpellingDictionary.distance("moon", "mono", 2));
+        assertEquals(2, SpellingDictionary.distance("moon", "mn", 2));
+        assertEquals(3, SpellingDictionary.distance("moon", "sunset", 2));
+        assertEquals(1, SpellingDictionary.distance("frank", "farnk", 2));
+    }
+}
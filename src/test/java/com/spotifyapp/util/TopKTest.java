@@ -0,0 +1,37 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    @Test
+    void testDrainDescending_KeepsHighestScores() {
+        TopK topK = new TopK(3);
+        float[] scores = {0.5f, 2.0f, -1.0f, 3.0f, 1.0f, 2.5f};
+        for (int id = 0; id < scores.length; id++) {
+            topK.offer(scores[id], id);
+        }
+
+        assertArrayEquals(new int[]{3, 5, 1}, topK.drainDescending());
+        assertEquals(0, topK.size());
+    }
+
+    @Test
+    void testDrainDescending_FewerOffersThanK() {
+        TopK topK = new TopK(10);
+        topK.offer(1.0f, 7);
+        topK.offer(2.0f, 8);
+
+        assertArrayEquals(new int[]{8, 7}, topK.drainDescending());
+    }
+
+    @Test
+    void testOffer_ZeroCapacity() {
+        TopK topK = new TopK(0);
+        topK.offer(1.0f, 1);
+
+        assertEquals(0, topK.drainDescending().length);
+    }
+}
@@ -0,0 +1,74 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackNeighborsTest {
+
+    @Test
+    void testBuild_PairsTracksWithinWindow() {
+        TrackNeighbors neighbors = TrackNeighbors.builder(1, 10)
+                .add(1L, 10L).add(1L, 11L).add(1L, 12L)
+                .build(1f);
+
+        assertEquals(3, neighbors.size());
+        assertArrayEquals(new long[]{11L}, neighbors.neighbors(10L, 5));
+        assertEquals(2, neighbors.neighbors(11L, 5).length);
+        assertEquals(0, neighbors.neighbors(99L, 5).length);
+    }
+
+    @Test
+    void testBuild_NormalizesAndDropsWeakPairs() {
+        TrackNeighbors neighbors = TrackNeighbors.builder(2, 10)
+                .add(1L, 10L).add(1L, 11L).add(1L, 12L)
+                .add(2L, 10L).add(2L, 11L)
+                .source(0.5f)
+                .add(1L, 10L).add(1L, 10L).add(1L, 11L)
+                .build(2f);
+
+        // 10-11 co-occur 2.5 times; every other pair only once
+        assertArrayEquals(new long[]{11L}, neighbors.neighbors(10L, 5));
+        assertEquals(0, neighbors.neighbors(12L, 5).length);
+    }
+
+    @Test
+    void testBuild_KeepsStrongestNeighbors() {
+        TrackNeighbors neighbors = TrackNeighbors.builder(5, 1)
+                .add(1L, 10L).add(1L, 11L).add(1L, 12L)
+                .add(2L, 10L).add(2L, 12L)
+                .build(1f);
+
+        assertArrayEquals(new long[]{12L}, neighbors.neighbors(10L, 5));
+        assertEquals(3, neighbors.edges());
+    }
+
+    @Test
+    void testSuggest_MergesSeedsAndExcludesThem() {
+        TrackNeighbors neighbors = TrackNeighbors.builder(2, 10)
+                .add(1L, 10L).add(1L, 11L).add(1L, 12L).add(1L, 13L)
+                .add(2L, 10L).add(2L, 11L).add(2L, 14L)
+                .build(1f);
+
+        long[] suggested = neighbors.suggest(new long[]{10L, 11L, 99L}, 5, 100);
+
+        assertEquals(3, suggested.length);
+        assertEquals(13L, suggested[2]);
+        for (long id : suggested) {
+            assertNotEquals(10L, id);
+            assertNotEquals(11L, id);
+        }
+    }
+
+    @Test
+    void testSuggest_BoundsCandidates() {
+        TrackNeighbors neighbors = TrackNeighbors.builder(2, 10)
+                .add(1L, 10L).add(1L, 11L).add(1L, 12L).add(1L, 13L)
+                .add(2L, 10L).add(2L, 11L).add(2L, 14L)
+                .build(1f);
+
+        assertEquals(1, neighbors.suggest(new long[]{10L, 11L}, 5, 1).length);
+        assertEquals(0, neighbors.suggest(new long[]{10L}, 0, 100).length);
+        assertEquals(0, TrackNeighbors.empty().suggest(new long[]{10L}, 5, 100).length);
+    }
+}
@@ -0,0 +1,127 @@
+package com.spotifyapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex sample() {
+        return TrigramIndex.builder()
+                .add(1L, 10L, "Blue Moon", "Frank")
+                .add(2L, 10L, "Moonlight", "Frank")
+                .add(3L, 10L, "Moon", "Frank")
+                .add(4L, 11L, "Honeymoon", "Ella")
+                .add(5L, 12L, "Other", "Moonband")
+                .add(6L, 11L, "Full Moon Party", "Ella")
+                .build();
+    }
+
+    @Test
+    void testSearch_RanksTitleMatchesFirst() {
+        TrigramIndex.Hits hits = sample().search("MOON", 0, 10);
+
+        assertEquals(6, hits.total());
+        assertArrayEquals(new long[]{3L, 2L, 1L, 6L, 4L, 5L}, hits.musicIds());
+    }
+
+    @Test
+    void testSearch_Pages() {
+        TrigramIndex index = sample();
+
+        assertArrayEquals(new long[]{1L, 6L}, index.search("moon", 2, 2).musicIds());
+        assertEquals(6, index.search("moon", 2, 2).total());
+        assertEquals(0, index.search("moon", 10, 2).musicIds().length);
+    }
+
+    @Test
+    void testSearch_VerifiesSubstring() {
+        TrigramIndex index = sample();
+        index.put(8L, 14L, "The Hen", "Farm");
+
+        // Both trigrams of "then" are indexed for track 8, but not as one substring
+        assertEquals(0, index.search("then", 0, 10).total());
+        assertArrayEquals(new long[]{4L, 6L}, index.search("ella", 0, 10).musicIds());
+        assertFalse(TrigramIndex.isSearchable("mo"));
+        assertThrows(IllegalArgumentException.class, () -> index.search(" mo ", 0, 10));
+    }
+
+    @Test
+    void testSearch_CorrectsMisspellingsAfterExactMatches() {
+        TrigramIndex index = sample();
+
+        // "frnak" is one transposition from the artist name
+        assertArrayEquals(new long[]{3L, 1L, 2L}, index.search("frnak", 0, 10).musicIds());
+        // "moonl" matches Moonlight exactly; tracks matching the correction "moon" follow
+        TrigramIndex.Hits hits = index.search("moonl", 0, 10);
+        assertEquals(6, hits.total());
+        assertArrayEquals(new long[]{2L, 3L, 1L, 6L, 4L, 5L}, hits.musicIds());
+        assertEquals(0, index.search("xyzzy", 0, 10).total());
+    }
+
+    @Test
+    void testSearch_SpellingFollowsCatalogChanges() {
+        TrigramIndex index = sample();
+
+        index.put(7L, 13L, "Enter Sandman", "Metallica");
+        assertArrayEquals(new long[]{7L}, index.search("metalica", 0, 10).musicIds());
+        assertArrayEquals(new long[]{7L}, index.compact().search("metalica", 0, 10).musicIds());
+
+        index.remove(7L);
+        assertEquals(0, index.search("metalica", 0, 10).total());
+        assertEquals(0, index.search("sandmen", 0, 10).total());
+    }
+
+    @Test
+    void testPutAndRemove_VisibleBeforeAndAfterCompaction() {
+        TrigramIndex index = sample();
+
+        index.put(7L, 13L, "Moon River", "Andy");
+        index.put(3L, 10L, "Sun", "Frank");
+        index.remove(5L);
+
+        assertEquals(4, index.pendingChanges());
+        assertArrayEquals(new long[]{2L, 7L, 1L, 6L, 4L}, index.search("moon", 0, 10).musicIds());
+        assertArrayEquals(new long[]{3L}, index.search("sun", 0, 10).musicIds());
+
+        TrigramIndex compacted = index.compact();
+
+        assertEquals(6, compacted.size());
+        assertEquals(0, compacted.pendingChanges());
+        assertArrayEquals(new long[]{2L, 7L, 1L, 6L, 4L}, compacted.search("moon", 0, 10).musicIds());
+    }
+
+    @Test
+    void testSearch_FiltersAndCountsFacets() {
+        TrigramIndex index = TrigramIndex.builder()
+                .add(1L, 10L, "Blue Moon", "Frank", new FacetColumns.Values(0, 200, 1961))
+                .add(2L, 10L, "Moonlight", "Frank", new FacetColumns.Values(1, 150, 1961))
+                .add(3L, 11L, "Moon River", "Andy", new FacetColumns.Values(1, 250, 1962))
+                .add(4L, 12L, "Moonrise", "Ella", FacetColumns.Values.NONE)
+                .build();
+
+        TrigramIndex.Hits all = index.search("moon", 0, 1);
+        assertEquals(4, all.total());
+        assertEquals(Map.of(0, 1, 1, 2), all.facets().genres());
+        assertEquals(Map.of(1, 1, 2, 1, 3, 1), all.facets().durationBuckets());
+        assertEquals(List.of(1962, 1961), List.copyOf(all.facets().years().keySet()));
+
+        FacetColumns.Filter pop = new FacetColumns.Filter(Set.of(1), Set.of(), Set.of());
+        assertArrayEquals(new long[]{2L, 3L}, index.search("moon", pop, 0, 10).musicIds());
+        FacetColumns.Filter pop1962 = new FacetColumns.Filter(Set.of(1), Set.of(), Set.of(1962));
+        TrigramIndex.Hits filtered = index.search("moon", pop1962, 0, 10);
+        assertArrayEquals(new long[]{3L}, filtered.musicIds());
+        assertEquals(Map.of(1, 1), filtered.facets().genres());
+
+        index.put(3L, 11L, "Moon River", "Andy", new FacetColumns.Values(0, 250, 1962));
+        index.remove(2L);
+        assertEquals(0, index.search("moon", pop, 0, 10).total());
+
+        FacetColumns.Filter rock = new FacetColumns.Filter(Set.of(0), Set.of(), Set.of());
+        assertArrayEquals(new long[]{3L, 1L}, index.compact().search("moon", rock, 0, 10).musicIds());
+    }
+}